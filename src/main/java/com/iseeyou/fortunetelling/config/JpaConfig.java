@@ -0,0 +1,11 @@
+package com.iseeyou.fortunetelling.config;
+
+import com.iseeyou.fortunetelling.repository.paging.GraphPagingJpaRepository;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.jpa.repository.config.EnableJpaRepositories;
+
+@Configuration
+@EnableJpaRepositories(basePackages = "com.iseeyou.fortunetelling.repository",
+        repositoryBaseClass = GraphPagingJpaRepository.class)
+public class JpaConfig {
+}
@@ -15,6 +15,13 @@ public class SocketIOConfig {
     @Value("${socketio.host}")
     private String socketIOHost;
 
+    // Media goes through REST upload, socket frames only carry JSON events
+    @Value("${socketio.max-frame-payload-length:65536}")
+    private int maxFramePayloadLength;
+
+    @Value("${socketio.max-http-content-length:65536}")
+    private int maxHttpContentLength;
+
     @Bean
     public SocketIOServer socketIOServer() {
         com.corundumstudio.socketio.Configuration config =
@@ -22,7 +29,8 @@ public class SocketIOConfig {
         config.setPort(socketIOPort);
         config.setHostname(socketIOHost);
         config.setOrigin("*");
-        config.setMaxHttpContentLength(1024 * 1024 * 100); // 100MB max file
+        config.setMaxFramePayloadLength(maxFramePayloadLength);
+        config.setMaxHttpContentLength(maxHttpContentLength);
 
         SocketIOServer server = new SocketIOServer(config);
         return server;
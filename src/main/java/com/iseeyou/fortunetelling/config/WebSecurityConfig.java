@@ -5,6 +5,7 @@ import com.iseeyou.fortunetelling.security.JwtAuthenticationEntryPoint;
 import com.iseeyou.fortunetelling.security.JwtAuthenticationFilter;
 import com.iseeyou.fortunetelling.service.user.UserService;
 import com.iseeyou.fortunetelling.util.Constants;
+import jakarta.servlet.DispatcherType;
 import lombok.RequiredArgsConstructor;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
@@ -109,6 +110,8 @@ public class WebSecurityConfig {
                                 "debug/**"
                         ).permitAll()
                         .requestMatchers("/admin/**").hasAuthority(Constants.RoleEnum.ADMIN.name())
+                        // Re-dispatch that completes an SSE stream; the original request was already authorized
+                        .dispatcherTypeMatchers(DispatcherType.ASYNC).permitAll()
                         .anyRequest().authenticated()
                 )
                 .logout(
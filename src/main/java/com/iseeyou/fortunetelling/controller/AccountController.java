@@ -6,7 +6,6 @@ import com.iseeyou.fortunetelling.dto.response.PageResponse;
 import com.iseeyou.fortunetelling.dto.response.account.AccountStatsResponse;
 import com.iseeyou.fortunetelling.entity.user.User;
 import com.iseeyou.fortunetelling.mapper.UserMapper;
-import com.iseeyou.fortunetelling.util.Constants;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.media.Content;
@@ -70,10 +69,7 @@ public class AccountController extends AbstractBaseController {
     )
     public ResponseEntity<SingleResponse<UserResponse>> me() {
         User currentUser = userService.getUser();
-        // Nếu là seer, lấy thêm thống kê booking
-        if (currentUser.getRole() == Constants.RoleEnum.SEER) {
-            currentUser = userService.getUserWithSeerStats(currentUser.getId());
-        }
+        // Seer stats come with the mapping, one seer_stats read
         UserResponse userResponse = userMapper.mapTo(currentUser, UserResponse.class);
         return responseFactory.successSingle(userResponse, "Successful operation");
     }
@@ -292,10 +288,6 @@ public class AccountController extends AbstractBaseController {
             @PathVariable UUID id
     ) {
         User user = userService.findById(id);
-        // Kiểm tra xem người dùng có phải là seer không và lấy thống kê nếu có
-        if (user.getRole() == Constants.RoleEnum.SEER) {
-            user = userService.getUserWithSeerStats(user.getId());
-        }
         UserResponse<?> userResponse = userMapper.mapTo(user, UserResponse.class);
         return responseFactory.successSingle(userResponse, "User retrieved successfully");
     }
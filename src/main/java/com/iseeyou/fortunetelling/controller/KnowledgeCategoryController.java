@@ -1,5 +1,6 @@
 package com.iseeyou.fortunetelling.controller;
 
+import com.fasterxml.jackson.core.type.TypeReference;
 import com.iseeyou.fortunetelling.controller.base.AbstractBaseController;
 import com.iseeyou.fortunetelling.dto.request.knowledgecategory.KnowledgeCategoryCreateRequest;
 import com.iseeyou.fortunetelling.dto.request.knowledgecategory.KnowledgeCategoryUpdateRequest;
@@ -9,6 +10,7 @@ import com.iseeyou.fortunetelling.dto.response.error.ErrorResponse;
 import com.iseeyou.fortunetelling.dto.response.knowledgecategory.KnowledgeCategoryResponse;
 import com.iseeyou.fortunetelling.entity.knowledge.KnowledgeCategory;
 import com.iseeyou.fortunetelling.mapper.SimpleMapper;
+import com.iseeyou.fortunetelling.service.cache.CatalogCacheService;
 import com.iseeyou.fortunetelling.service.knowledgecategory.KnowledgeCategoryService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
@@ -20,13 +22,13 @@ import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
 
+import java.util.List;
 import java.util.UUID;
 
 import static com.iseeyou.fortunetelling.util.Constants.SECURITY_SCHEME_NAME;
@@ -37,8 +39,11 @@ import static com.iseeyou.fortunetelling.util.Constants.SECURITY_SCHEME_NAME;
 @Tag(name = "005. Knowledge Categories", description = "Knowledge Categories API")
 @Slf4j
 public class KnowledgeCategoryController extends AbstractBaseController {
+    private static final List<String> CATEGORY_TAGS = List.of(CatalogCacheService.TAG_CATEGORIES);
+
     private final KnowledgeCategoryService knowledgeCategoryService;
     private final SimpleMapper simpleMapper;
+    private final CatalogCacheService catalogCacheService;
 
     @GetMapping
     @Operation(
@@ -74,9 +79,14 @@ public class KnowledgeCategoryController extends AbstractBaseController {
             @RequestParam(defaultValue = "createdAt") String sortBy
     ) {
         Pageable pageable = createPageable(page, limit, sortType, sortBy);
-        Page<KnowledgeCategory> categories = knowledgeCategoryService.findAll(pageable);
-        Page<KnowledgeCategoryResponse> response = simpleMapper.mapToPage(categories, KnowledgeCategoryResponse.class);
-        return responseFactory.successPage(response, "Knowledge categories retrieved successfully");
+        return catalogCacheService.serve("knowledge-categories:list",
+                CatalogCacheService.params("page", page, "limit", limit, "sortType", sortType, "sortBy", sortBy),
+                CATEGORY_TAGS,
+                new TypeReference<PageResponse<KnowledgeCategoryResponse>>() {},
+                () -> responseFactory.successPage(
+                        simpleMapper.mapToPage(knowledgeCategoryService.findAll(pageable), KnowledgeCategoryResponse.class),
+                        "Knowledge categories retrieved successfully").getBody(),
+                null);
     }
 
     @GetMapping("/{id}")
@@ -114,9 +124,14 @@ public class KnowledgeCategoryController extends AbstractBaseController {
             @Parameter(description = "Knowledge Category ID", required = true)
             @PathVariable UUID id
     ) {
-        KnowledgeCategory category = knowledgeCategoryService.findById(id);
-        KnowledgeCategoryResponse response = simpleMapper.mapTo(category, KnowledgeCategoryResponse.class);
-        return responseFactory.successSingle(response, "Knowledge category retrieved successfully");
+        return catalogCacheService.serve("knowledge-categories:detail",
+                CatalogCacheService.params("id", id),
+                CATEGORY_TAGS,
+                new TypeReference<SingleResponse<KnowledgeCategoryResponse>>() {},
+                () -> responseFactory.successSingle(
+                        simpleMapper.mapTo(knowledgeCategoryService.findById(id), KnowledgeCategoryResponse.class),
+                        "Knowledge category retrieved successfully").getBody(),
+                null);
     }
 
     @PatchMapping("/{id}")
@@ -206,9 +221,14 @@ public class KnowledgeCategoryController extends AbstractBaseController {
             @Parameter(description = "Knowledge Category name", required = true)
             @RequestParam String name
     ) {
-        KnowledgeCategory category = knowledgeCategoryService.findByName(name);
-        KnowledgeCategoryResponse response = simpleMapper.mapTo(category, KnowledgeCategoryResponse.class);
-        return responseFactory.successSingle(response, "Knowledge category retrieved successfully");
+        return catalogCacheService.serve("knowledge-categories:by-name",
+                CatalogCacheService.params("name", name),
+                CATEGORY_TAGS,
+                new TypeReference<SingleResponse<KnowledgeCategoryResponse>>() {},
+                () -> responseFactory.successSingle(
+                        simpleMapper.mapTo(knowledgeCategoryService.findByName(name), KnowledgeCategoryResponse.class),
+                        "Knowledge category retrieved successfully").getBody(),
+                null);
     }
 
     @PostMapping
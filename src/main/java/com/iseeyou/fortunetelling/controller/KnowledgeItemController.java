@@ -1,5 +1,6 @@
 package com.iseeyou.fortunetelling.controller;
 
+import com.fasterxml.jackson.core.type.TypeReference;
 import com.iseeyou.fortunetelling.controller.base.AbstractBaseController;
 import com.iseeyou.fortunetelling.dto.request.knowledgeitem.KnowledgeItemCreateRequest;
 import com.iseeyou.fortunetelling.dto.request.knowledgeitem.KnowledgeItemUpdateRequest;
@@ -9,6 +10,7 @@ import com.iseeyou.fortunetelling.dto.response.error.ErrorResponse;
 import com.iseeyou.fortunetelling.dto.response.knowledgeitem.KnowledgeItemResponse;
 import com.iseeyou.fortunetelling.entity.knowledge.KnowledgeItem;
 import com.iseeyou.fortunetelling.mapper.KnowledgeItemMapper;
+import com.iseeyou.fortunetelling.service.cache.CatalogCacheService;
 import com.iseeyou.fortunetelling.service.fileupload.CloudinaryService;
 import com.iseeyou.fortunetelling.service.knowledgeitem.KnowledgeItemService;
 import com.iseeyou.fortunetelling.util.Constants;
@@ -22,7 +24,6 @@ import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
@@ -40,9 +41,13 @@ import static com.iseeyou.fortunetelling.util.Constants.SECURITY_SCHEME_NAME;
 @Tag(name = "006. Knowledge Item", description = "Knowledge Item API")
 @Slf4j
 public class KnowledgeItemController extends AbstractBaseController {
+    private static final List<String> KNOWLEDGE_TAGS = List.of(
+            CatalogCacheService.TAG_KNOWLEDGE, CatalogCacheService.TAG_CATEGORIES);
+
     private final KnowledgeItemService knowledgeItemService;
     private final KnowledgeItemMapper knowledgeItemMapper;
     private final CloudinaryService cloudinaryService;
+    private final CatalogCacheService catalogCacheService;
 
     @GetMapping
     @Operation(
@@ -78,9 +83,14 @@ public class KnowledgeItemController extends AbstractBaseController {
             @RequestParam(defaultValue = "createdAt") String sortBy
     ) {
         Pageable pageable = createPageable(page, limit, sortType, sortBy);
-        Page<KnowledgeItem> knowledgeItems = knowledgeItemService.findAll(pageable);
-        Page<KnowledgeItemResponse> response = knowledgeItemMapper.mapToPage(knowledgeItems, KnowledgeItemResponse.class);
-        return responseFactory.successPage(response, "Knowledge items retrieved successfully");
+        return catalogCacheService.serve("knowledge-items:list",
+                CatalogCacheService.params("page", page, "limit", limit, "sortType", sortType, "sortBy", sortBy),
+                KNOWLEDGE_TAGS,
+                new TypeReference<PageResponse<KnowledgeItemResponse>>() {},
+                () -> responseFactory.successPage(
+                        knowledgeItemMapper.mapToPage(knowledgeItemService.findAll(pageable), KnowledgeItemResponse.class),
+                        "Knowledge items retrieved successfully").getBody(),
+                null);
     }
 
     @GetMapping("/{id}")
@@ -118,9 +128,14 @@ public class KnowledgeItemController extends AbstractBaseController {
             @Parameter(description = "Knowledge Item ID", required = true)
             @PathVariable UUID id
     ) {
-        KnowledgeItem knowledgeItem = knowledgeItemService.findById(id);
-        KnowledgeItemResponse response = knowledgeItemMapper.mapTo(knowledgeItem, KnowledgeItemResponse.class);
-        return responseFactory.successSingle(response, "Knowledge item retrieved successfully");
+        return catalogCacheService.serve("knowledge-items:detail",
+                CatalogCacheService.params("id", id),
+                KNOWLEDGE_TAGS,
+                new TypeReference<SingleResponse<KnowledgeItemResponse>>() {},
+                () -> responseFactory.successSingle(
+                        knowledgeItemMapper.mapTo(knowledgeItemService.findById(id), KnowledgeItemResponse.class),
+                        "Knowledge item retrieved successfully").getBody(),
+                null);
     }
 
     @PostMapping("/{id}/view")
@@ -341,9 +356,14 @@ public class KnowledgeItemController extends AbstractBaseController {
             @RequestParam(defaultValue = "createdAt") String sortBy
     ) {
         Pageable pageable = createPageable(page, limit, sortType, sortBy);
-        Page<KnowledgeItem> knowledgeItems = knowledgeItemService.findAllByStatus(status, pageable);
-        Page<KnowledgeItemResponse> response = knowledgeItemMapper.mapToPage(knowledgeItems, KnowledgeItemResponse.class);
-        return responseFactory.successPage(response, "Knowledge items retrieved successfully");
+        return catalogCacheService.serve("knowledge-items:by-status",
+                CatalogCacheService.params("status", status, "page", page, "limit", limit, "sortType", sortType, "sortBy", sortBy),
+                KNOWLEDGE_TAGS,
+                new TypeReference<PageResponse<KnowledgeItemResponse>>() {},
+                () -> responseFactory.successPage(
+                        knowledgeItemMapper.mapToPage(knowledgeItemService.findAllByStatus(status, pageable), KnowledgeItemResponse.class),
+                        "Knowledge items retrieved successfully").getBody(),
+                null);
     }
 
     @GetMapping("/by-category/{categoryId}")
@@ -382,9 +402,14 @@ public class KnowledgeItemController extends AbstractBaseController {
             @RequestParam(defaultValue = "createdAt") String sortBy
     ) {
         Pageable pageable = createPageable(page, limit, sortType, sortBy);
-        Page<KnowledgeItem> knowledgeItems = knowledgeItemService.findAllByKnowledgeCategoryId(categoryId, pageable);
-        Page<KnowledgeItemResponse> response = knowledgeItemMapper.mapToPage(knowledgeItems, KnowledgeItemResponse.class);
-        return responseFactory.successPage(response, "Knowledge items retrieved successfully");
+        return catalogCacheService.serve("knowledge-items:by-category",
+                CatalogCacheService.params("categoryId", categoryId, "page", page, "limit", limit, "sortType", sortType, "sortBy", sortBy),
+                KNOWLEDGE_TAGS,
+                new TypeReference<PageResponse<KnowledgeItemResponse>>() {},
+                () -> responseFactory.successPage(
+                        knowledgeItemMapper.mapToPage(knowledgeItemService.findAllByKnowledgeCategoryId(categoryId, pageable), KnowledgeItemResponse.class),
+                        "Knowledge items retrieved successfully").getBody(),
+                null);
     }
 
     @GetMapping("/search")
@@ -430,8 +455,14 @@ public class KnowledgeItemController extends AbstractBaseController {
             @RequestParam(defaultValue = "createdAt") String sortBy
     ) {
         Pageable pageable = createPageable(page, limit, sortType, sortBy);
-        Page<KnowledgeItem> knowledgeItems = knowledgeItemService.search(title, categoryIds, status, pageable);
-        Page<KnowledgeItemResponse> response = knowledgeItemMapper.mapToPage(knowledgeItems, KnowledgeItemResponse.class);
-        return responseFactory.successPage(response, "Knowledge items searched successfully");
+        return catalogCacheService.serve("knowledge-items:search",
+                CatalogCacheService.params("title", title, "categoryIds", categoryIds, "status", status,
+                        "page", page, "limit", limit, "sortType", sortType, "sortBy", sortBy),
+                KNOWLEDGE_TAGS,
+                new TypeReference<PageResponse<KnowledgeItemResponse>>() {},
+                () -> responseFactory.successPage(
+                        knowledgeItemMapper.mapToPage(knowledgeItemService.search(title, categoryIds, status, pageable), KnowledgeItemResponse.class),
+                        "Knowledge items searched successfully").getBody(),
+                null);
     }
 }
\ No newline at end of file
@@ -0,0 +1,94 @@
+package com.iseeyou.fortunetelling.controller;
+
+import com.iseeyou.fortunetelling.controller.base.AbstractBaseController;
+import com.iseeyou.fortunetelling.dto.request.message.MediaUploadInitRequest;
+import com.iseeyou.fortunetelling.dto.response.MediaUploadResponse;
+import com.iseeyou.fortunetelling.dto.response.SingleResponse;
+import com.iseeyou.fortunetelling.service.fileupload.MediaUploadService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.security.SecurityRequirement;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.io.IOException;
+import java.util.UUID;
+
+import static com.iseeyou.fortunetelling.util.Constants.SECURITY_SCHEME_NAME;
+
+@RestController
+@RequiredArgsConstructor
+@RequestMapping("/media-uploads")
+@Tag(name = "005. Message", description = "Message API")
+@Slf4j
+public class MediaUploadController extends AbstractBaseController {
+
+    private final MediaUploadService mediaUploadService;
+
+    @PostMapping
+    @Operation(
+            summary = "Initiate a resumable chunked media upload",
+            description = "Returns the upload id, chunk size and number of chunks to send",
+            security = @SecurityRequirement(name = SECURITY_SCHEME_NAME),
+            responses = {
+                    @ApiResponse(responseCode = "200", description = "Upload initiated"),
+                    @ApiResponse(responseCode = "400", description = "Unsupported content type or file too large"),
+                    @ApiResponse(responseCode = "404", description = "Conversation not found")
+            }
+    )
+    public ResponseEntity<SingleResponse<MediaUploadResponse>> initiateUpload(
+            @RequestBody @Valid MediaUploadInitRequest request
+    ) {
+        MediaUploadResponse response = mediaUploadService.initiateUpload(request);
+        return responseFactory.successSingle(response, "Upload initiated");
+    }
+
+    @PutMapping(value = "/{uploadId}/chunks/{chunkIndex}", consumes = MediaType.APPLICATION_OCTET_STREAM_VALUE)
+    @Operation(
+            summary = "Upload one chunk (raw bytes)",
+            description = "Header X-Chunk-Checksum must be the SHA-256 (hex) of the chunk. " +
+                    "Re-sending an already received chunk is allowed.",
+            security = @SecurityRequirement(name = SECURITY_SCHEME_NAME)
+    )
+    public ResponseEntity<SingleResponse<MediaUploadResponse>> uploadChunk(
+            @PathVariable UUID uploadId,
+            @PathVariable int chunkIndex,
+            @RequestHeader("X-Chunk-Checksum") String checksum,
+            HttpServletRequest request
+    ) throws IOException {
+        MediaUploadResponse response = mediaUploadService.uploadChunk(uploadId, chunkIndex, request.getInputStream(), checksum);
+        return responseFactory.successSingle(response, "Chunk received");
+    }
+
+    @GetMapping("/{uploadId}")
+    @Operation(
+            summary = "Get upload status and received chunks (used to resume)",
+            security = @SecurityRequirement(name = SECURITY_SCHEME_NAME)
+    )
+    public ResponseEntity<SingleResponse<MediaUploadResponse>> getUpload(
+            @PathVariable UUID uploadId
+    ) {
+        MediaUploadResponse response = mediaUploadService.getUpload(uploadId);
+        return responseFactory.successSingle(response, "Upload retrieved");
+    }
+
+    @PostMapping("/{uploadId}/complete")
+    @Operation(
+            summary = "Complete the upload",
+            description = "Assembles the chunks and stores the file in the background. " +
+                    "Poll the upload until status is COMPLETED, then send a message with mediaUploadId.",
+            security = @SecurityRequirement(name = SECURITY_SCHEME_NAME)
+    )
+    public ResponseEntity<SingleResponse<MediaUploadResponse>> completeUpload(
+            @PathVariable UUID uploadId
+    ) {
+        MediaUploadResponse response = mediaUploadService.completeUpload(uploadId);
+        return responseFactory.successSingle(response, "Upload is being processed");
+    }
+}
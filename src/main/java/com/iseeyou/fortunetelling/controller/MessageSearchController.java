@@ -0,0 +1,53 @@
+package com.iseeyou.fortunetelling.controller;
+
+import com.iseeyou.fortunetelling.controller.base.AbstractBaseController;
+import com.iseeyou.fortunetelling.dto.response.MessageSearchResponse;
+import com.iseeyou.fortunetelling.dto.response.SingleResponse;
+import com.iseeyou.fortunetelling.service.message.MessageSearchService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.security.SecurityRequirement;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.UUID;
+
+import static com.iseeyou.fortunetelling.util.Constants.SECURITY_SCHEME_NAME;
+
+@RestController
+@RequiredArgsConstructor
+@RequestMapping("/messages")
+@Tag(name = "005. Message", description = "Message API")
+@Slf4j
+public class MessageSearchController extends AbstractBaseController {
+
+    private final MessageSearchService messageSearchService;
+
+    @GetMapping("/search")
+    @Operation(
+            summary = "Full-text search in the current user's messages",
+            description = "Accent-insensitive, best match first. Pass nextCursor of the previous page as cursor " +
+                    "to load more. Messages of archived conversations are not searched.",
+            security = @SecurityRequirement(name = SECURITY_SCHEME_NAME),
+            responses = {
+                    @ApiResponse(responseCode = "200", description = "Search results"),
+                    @ApiResponse(responseCode = "400", description = "Empty query or invalid cursor")
+            }
+    )
+    public ResponseEntity<SingleResponse<MessageSearchResponse>> searchMessages(
+            @Parameter(description = "Search text") @RequestParam String q,
+            @Parameter(description = "Only search this conversation") @RequestParam(required = false) UUID conversationId,
+            @Parameter(description = "nextCursor from the previous page") @RequestParam(required = false) String cursor,
+            @Parameter(description = "Page size (max 50)") @RequestParam(required = false) Integer limit
+    ) {
+        MessageSearchResponse response = messageSearchService.searchMessages(q, conversationId, cursor, limit);
+        return responseFactory.successSingle(response, "Messages found");
+    }
+}
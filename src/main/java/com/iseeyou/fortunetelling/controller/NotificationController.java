@@ -1,14 +1,19 @@
 package com.iseeyou.fortunetelling.controller;
 
 import com.iseeyou.fortunetelling.controller.base.AbstractBaseController;
+import com.iseeyou.fortunetelling.dto.request.notification.NotificationBroadcastRequest;
+import com.iseeyou.fortunetelling.dto.request.notification.NotificationBulkCreateRequest;
 import com.iseeyou.fortunetelling.dto.request.notification.NotificationCreateRequest;
 import com.iseeyou.fortunetelling.dto.request.notification.NotificationMarkReadRequest;
 import com.iseeyou.fortunetelling.dto.response.PageResponse;
 import com.iseeyou.fortunetelling.dto.response.SingleResponse;
 import com.iseeyou.fortunetelling.dto.response.error.ErrorResponse;
+import com.iseeyou.fortunetelling.dto.response.notification.NotificationBroadcastResponse;
+import com.iseeyou.fortunetelling.dto.response.notification.NotificationFanoutJobResponse;
 import com.iseeyou.fortunetelling.dto.response.notification.NotificationResponse;
 import com.iseeyou.fortunetelling.entity.Notification;
 import com.iseeyou.fortunetelling.mapper.NotificationMapper;
+import com.iseeyou.fortunetelling.service.notification.NotificationFanoutService;
 import com.iseeyou.fortunetelling.service.notification.NotificationService;
 import com.iseeyou.fortunetelling.util.Constants;
 import io.swagger.v3.oas.annotations.Operation;
@@ -26,6 +31,7 @@ import org.springframework.data.domain.Pageable;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
 import java.util.Map;
 import java.util.UUID;
@@ -40,6 +46,7 @@ import static com.iseeyou.fortunetelling.util.Constants.SECURITY_SCHEME_NAME;
 public class NotificationController extends AbstractBaseController {
 
     private final NotificationService notificationService;
+    private final NotificationFanoutService notificationFanoutService;
     private final NotificationMapper notificationMapper;
 
     @GetMapping
@@ -170,6 +177,35 @@ public class NotificationController extends AbstractBaseController {
         return responseFactory.successSingle(count, "Unread count retrieved successfully");
     }
 
+    @GetMapping(value = "/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    @Operation(
+            summary = "Stream my notifications and unread count (Server-Sent Events)",
+            description = "Events: new-notification, unread-count, notification-replay. " +
+                    "On reconnect, notifications missed after Last-Event-ID are replayed first.",
+            security = @SecurityRequirement(name = SECURITY_SCHEME_NAME),
+            responses = {
+                    @ApiResponse(
+                            responseCode = "200",
+                            description = "Event stream opened",
+                            content = @Content(mediaType = MediaType.TEXT_EVENT_STREAM_VALUE)
+                    ),
+                    @ApiResponse(
+                            responseCode = "401",
+                            description = "Unauthorized",
+                            content = @Content(
+                                    mediaType = MediaType.APPLICATION_JSON_VALUE,
+                                    schema = @Schema(implementation = ErrorResponse.class)
+                            )
+                    )
+            }
+    )
+    public SseEmitter streamMyNotifications(
+            @Parameter(description = "Id of the last event received, sent by EventSource when reconnecting")
+            @RequestHeader(value = "Last-Event-ID", required = false) String lastEventId
+    ) {
+        return notificationService.openNotificationStream(lastEventId);
+    }
+
     @PatchMapping("/{id}/mark-read")
     @Operation(
             summary = "Mark notification as read",
@@ -444,4 +480,101 @@ public class NotificationController extends AbstractBaseController {
         NotificationResponse response = notificationMapper.mapTo(notification, NotificationResponse.class);
         return responseFactory.successSingle(response, "Notification created successfully");
     }
+
+    @PostMapping("/admin/bulk")
+    @Operation(
+            summary = "[ADMIN] Send the same notification to many users",
+            description = "Queues a fan-out job: rows are inserted in batches in the background and online recipients " +
+                    "get a push. Poll the job for the delivered count",
+            security = @SecurityRequirement(name = SECURITY_SCHEME_NAME),
+            responses = {
+                    @ApiResponse(
+                            responseCode = "200",
+                            description = "Fan-out queued",
+                            content = @Content(
+                                    mediaType = MediaType.APPLICATION_JSON_VALUE,
+                                    schema = @Schema(implementation = SingleResponse.class)
+                            )
+                    ),
+                    @ApiResponse(
+                            responseCode = "400",
+                            description = "Bad request or too many recipients",
+                            content = @Content(
+                                    mediaType = MediaType.APPLICATION_JSON_VALUE,
+                                    schema = @Schema(implementation = ErrorResponse.class)
+                            )
+                    )
+            }
+    )
+    public ResponseEntity<SingleResponse<NotificationFanoutJobResponse>> createBulkNotification(
+            @Parameter(description = "Notification data and recipients", required = true)
+            @RequestBody @Valid NotificationBulkCreateRequest request
+    ) {
+        NotificationFanoutJobResponse job = notificationFanoutService.queueFanOut(request);
+        return responseFactory.successSingle(job, "Notification fan-out queued");
+    }
+
+    @GetMapping("/admin/bulk/{jobId}")
+    @Operation(
+            summary = "[ADMIN] Progress of a bulk notification or broadcast push",
+            description = "Status, processed recipients and delivered count of a fan-out job",
+            security = @SecurityRequirement(name = SECURITY_SCHEME_NAME),
+            responses = {
+                    @ApiResponse(
+                            responseCode = "200",
+                            description = "Successful operation",
+                            content = @Content(
+                                    mediaType = MediaType.APPLICATION_JSON_VALUE,
+                                    schema = @Schema(implementation = SingleResponse.class)
+                            )
+                    ),
+                    @ApiResponse(
+                            responseCode = "404",
+                            description = "Job not found",
+                            content = @Content(
+                                    mediaType = MediaType.APPLICATION_JSON_VALUE,
+                                    schema = @Schema(implementation = ErrorResponse.class)
+                            )
+                    )
+            }
+    )
+    public ResponseEntity<SingleResponse<NotificationFanoutJobResponse>> getBulkNotificationJob(
+            @Parameter(description = "Fan-out job ID", required = true)
+            @PathVariable UUID jobId
+    ) {
+        NotificationFanoutJobResponse job = notificationFanoutService.getFanOutJob(jobId);
+        return responseFactory.successSingle(job, "Notification fan-out job retrieved successfully");
+    }
+
+    @PostMapping("/admin/broadcast")
+    @Operation(
+            summary = "[ADMIN] Broadcast a notification to all users, all customers or all seers",
+            description = "Stored once; each user receives their copy on their next notification read",
+            security = @SecurityRequirement(name = SECURITY_SCHEME_NAME),
+            responses = {
+                    @ApiResponse(
+                            responseCode = "200",
+                            description = "Broadcast created",
+                            content = @Content(
+                                    mediaType = MediaType.APPLICATION_JSON_VALUE,
+                                    schema = @Schema(implementation = SingleResponse.class)
+                            )
+                    ),
+                    @ApiResponse(
+                            responseCode = "400",
+                            description = "Bad request",
+                            content = @Content(
+                                    mediaType = MediaType.APPLICATION_JSON_VALUE,
+                                    schema = @Schema(implementation = ErrorResponse.class)
+                            )
+                    )
+            }
+    )
+    public ResponseEntity<SingleResponse<NotificationBroadcastResponse>> broadcastNotification(
+            @Parameter(description = "Broadcast data", required = true)
+            @RequestBody @Valid NotificationBroadcastRequest request
+    ) {
+        NotificationBroadcastResponse response = notificationFanoutService.broadcast(request);
+        return responseFactory.successSingle(response, "Broadcast created successfully");
+    }
 }
@@ -1,12 +1,16 @@
 package com.iseeyou.fortunetelling.controller;
 
+import com.fasterxml.jackson.core.type.TypeReference;
 import com.iseeyou.fortunetelling.controller.base.AbstractBaseController;
 import com.iseeyou.fortunetelling.dto.response.PageResponse;
 import com.iseeyou.fortunetelling.dto.response.SingleResponse;
 import com.iseeyou.fortunetelling.dto.response.error.ErrorResponse;
 import com.iseeyou.fortunetelling.dto.response.servicepackage.ServicePackageResponse;
 import com.iseeyou.fortunetelling.dto.response.ServicePackageDetailResponse;
+import com.iseeyou.fortunetelling.dto.response.user.TrendingSeerResponse;
+import com.iseeyou.fortunetelling.service.cache.CatalogCacheService;
 import com.iseeyou.fortunetelling.service.servicepackage.ServicePackageService;
+import com.iseeyou.fortunetelling.service.trending.TrendingService;
 import com.iseeyou.fortunetelling.util.Constants;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
@@ -16,12 +20,14 @@ import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.util.List;
+import java.util.UUID;
+
 @RestController
 @RequiredArgsConstructor
 @RequestMapping("/public")
@@ -29,7 +35,12 @@ import org.springframework.web.bind.annotation.*;
 @Slf4j
 public class PublicController extends AbstractBaseController {
 
+    private static final List<String> PACKAGE_LIST_TAGS = List.of(
+            CatalogCacheService.TAG_PACKAGES, CatalogCacheService.TAG_SEERS, CatalogCacheService.TAG_CATEGORIES);
+
     private final ServicePackageService servicePackageService;
+    private final CatalogCacheService catalogCacheService;
+    private final TrendingService trendingService;
 
     // ============ SERVICE PACKAGES PUBLIC ENDPOINTS ============
     
@@ -55,7 +66,7 @@ public class PublicController extends AbstractBaseController {
             @RequestParam(defaultValue = "15") int limit,
             @Parameter(description = "Sort direction (asc/desc)")
             @RequestParam(defaultValue = "desc") String sortType,
-            @Parameter(description = "Sort field (createdAt, price, packageTitle)")
+            @Parameter(description = "Sort field (createdAt, price, packageTitle, avgRating)")
             @RequestParam(defaultValue = "createdAt") String sortBy,
             @Parameter(description = "Search by package name")
             @RequestParam(required = false) String name,
@@ -72,9 +83,16 @@ public class PublicController extends AbstractBaseController {
     ) {
         log.info("Public API: Get all service packages - page: {}, limit: {}", page, limit);
         Pageable pageable = createPageable(page, limit, sortType, sortBy);
-        Page<ServicePackageResponse> response = servicePackageService.getAllPackagesWithInteractions(
-                pageable, name, categoryIds, minPrice, maxPrice, minDuration, maxDuration);
-        return responseFactory.successPage(response, "Service packages retrieved successfully");
+        return catalogCacheService.serve("packages:list",
+                CatalogCacheService.params("page", page, "limit", limit, "sortType", sortType, "sortBy", sortBy,
+                        "name", name, "categoryIds", categoryIds, "minPrice", minPrice, "maxPrice", maxPrice,
+                        "minDuration", minDuration, "maxDuration", maxDuration),
+                PACKAGE_LIST_TAGS,
+                new TypeReference<PageResponse<ServicePackageResponse>>() {},
+                () -> responseFactory.successPage(servicePackageService.getAllPackagesWithInteractions(
+                        pageable, name, categoryIds, minPrice, maxPrice, minDuration, maxDuration),
+                        "Service packages retrieved successfully").getBody(),
+                body -> servicePackageService.applyMyInteractions(body.getData()));
     }
 
     @GetMapping("/service-packages/detail")
@@ -105,8 +123,16 @@ public class PublicController extends AbstractBaseController {
             @RequestParam String id
     ) {
         log.info("Public API: Get service package detail - id: {}", id);
-        ServicePackageDetailResponse response = servicePackageService.findDetailById(id);
-        return responseFactory.successSingle(response, "Service package detail retrieved successfully");
+        UUID packageId = UUID.fromString(id);
+        servicePackageService.recordDetailView(packageId);
+        return catalogCacheService.serve("packages:detail",
+                CatalogCacheService.params("id", packageId),
+                List.of(CatalogCacheService.packageTag(packageId), CatalogCacheService.TAG_CATEGORIES),
+                new TypeReference<SingleResponse<ServicePackageDetailResponse>>() {},
+                () -> responseFactory.successSingle(servicePackageService.findDetailById(id),
+                        "Service package detail retrieved successfully").getBody(),
+                body -> servicePackageService.applyMyInteraction(body.getData()),
+                body -> servicePackageService.detailCacheTags(body.getData()));
     }
 
     @GetMapping("/service-packages/by-category/{category}")
@@ -141,7 +167,7 @@ public class PublicController extends AbstractBaseController {
             @RequestParam(defaultValue = "15") int limit,
             @Parameter(description = "Sort direction (asc/desc)")
             @RequestParam(defaultValue = "desc") String sortType,
-            @Parameter(description = "Sort field (createdAt, price, packageTitle)")
+            @Parameter(description = "Sort field (createdAt, price, packageTitle, avgRating)")
             @RequestParam(defaultValue = "createdAt") String sortBy,
             @Parameter(description = "Minimum price filter")
             @RequestParam(required = false) Double minPrice,
@@ -152,11 +178,69 @@ public class PublicController extends AbstractBaseController {
         Constants.ServiceCategoryEnum categoryEnum = Constants.ServiceCategoryEnum.get(category);
         Pageable pageable = createPageable(page, limit, sortType, sortBy);
 
-        Page<ServicePackageResponse> response = servicePackageService.getPackagesByCategoryWithInteractions(categoryEnum, pageable, minPrice, maxPrice);
-
-        return responseFactory.successPage(response,
-                String.format("Service packages in category %s retrieved successfully", categoryEnum.getValue()));
+        return catalogCacheService.serve("packages:by-category",
+                CatalogCacheService.params("category", categoryEnum, "page", page, "limit", limit, "sortType", sortType,
+                        "sortBy", sortBy, "minPrice", minPrice, "maxPrice", maxPrice),
+                PACKAGE_LIST_TAGS,
+                new TypeReference<PageResponse<ServicePackageResponse>>() {},
+                () -> responseFactory.successPage(
+                        servicePackageService.getPackagesByCategoryWithInteractions(categoryEnum, pageable, minPrice, maxPrice),
+                        String.format("Service packages in category %s retrieved successfully", categoryEnum.getValue())).getBody(),
+                body -> servicePackageService.applyMyInteractions(body.getData()));
     }
 
+    // ============ TRENDING PUBLIC ENDPOINTS ============
+
+    // Not cached: the ranking moves with every event and a read is one ZREVRANGE plus one batch fetch
+    @GetMapping("/service-packages/trending")
+    @Operation(
+            summary = "Get trending service packages (Public)",
+            description = "Packages ranked by recent views, likes, bookings and reviews; older activity counts less. No authentication required.",
+            responses = {
+                    @ApiResponse(
+                            responseCode = "200",
+                            description = "Successful operation",
+                            content = @Content(
+                                    mediaType = MediaType.APPLICATION_JSON_VALUE,
+                                    schema = @Schema(implementation = SingleResponse.class)
+                            )
+                    )
+            }
+    )
+    public ResponseEntity<SingleResponse<List<ServicePackageResponse>>> getTrendingServicePackages(
+            @Parameter(description = "Knowledge category ID, all categories when omitted")
+            @RequestParam(required = false) UUID categoryId,
+            @Parameter(description = "Number of packages (max 50)")
+            @RequestParam(defaultValue = "10") int limit
+    ) {
+        log.info("Public API: Get trending service packages - categoryId: {}, limit: {}", categoryId, limit);
+        return responseFactory.successSingle(servicePackageService.getTrendingPackages(categoryId, limit),
+                "Trending service packages retrieved successfully");
+    }
 
+    @GetMapping("/seers/trending")
+    @Operation(
+            summary = "Get trending seers (Public)",
+            description = "Seers ranked by recent activity on their packages; older activity counts less. No authentication required.",
+            responses = {
+                    @ApiResponse(
+                            responseCode = "200",
+                            description = "Successful operation",
+                            content = @Content(
+                                    mediaType = MediaType.APPLICATION_JSON_VALUE,
+                                    schema = @Schema(implementation = SingleResponse.class)
+                            )
+                    )
+            }
+    )
+    public ResponseEntity<SingleResponse<List<TrendingSeerResponse>>> getTrendingSeers(
+            @Parameter(description = "Knowledge category ID, all categories when omitted")
+            @RequestParam(required = false) UUID categoryId,
+            @Parameter(description = "Number of seers (max 50)")
+            @RequestParam(defaultValue = "10") int limit
+    ) {
+        log.info("Public API: Get trending seers - categoryId: {}, limit: {}", categoryId, limit);
+        return responseFactory.successSingle(trendingService.getTrendingSeers(categoryId, limit),
+                "Trending seers retrieved successfully");
+    }
 }
@@ -1,5 +1,6 @@
 package com.iseeyou.fortunetelling.controller;
 
+import com.fasterxml.jackson.core.type.TypeReference;
 import com.iseeyou.fortunetelling.controller.base.AbstractBaseController;
 import com.iseeyou.fortunetelling.dto.request.servicepackage.PackageInteractionRequest;
 import com.iseeyou.fortunetelling.dto.request.servicepackage.ServicePackageConfirmRequest;
@@ -7,10 +8,14 @@ import com.iseeyou.fortunetelling.dto.request.servicepackage.ServicePackageUpser
 import com.iseeyou.fortunetelling.dto.response.PageResponse;
 import com.iseeyou.fortunetelling.dto.response.SingleResponse;
 import com.iseeyou.fortunetelling.dto.response.error.ErrorResponse;
+import com.iseeyou.fortunetelling.dto.response.servicepackage.PackageInteractionPageResponse;
+import com.iseeyou.fortunetelling.dto.response.servicepackage.PackageInteractionResponse;
+import com.iseeyou.fortunetelling.dto.response.servicepackage.PackageRefundStatusResponse;
 import com.iseeyou.fortunetelling.dto.response.servicepackage.ServicePackageResponse;
 import com.iseeyou.fortunetelling.dto.response.ServicePackageDetailResponse;
 import com.iseeyou.fortunetelling.entity.servicepackage.ServicePackage;
 import com.iseeyou.fortunetelling.mapper.ServicePackageMapper;
+import com.iseeyou.fortunetelling.service.cache.CatalogCacheService;
 import com.iseeyou.fortunetelling.service.servicepackage.ServicePackageService;
 import com.iseeyou.fortunetelling.util.Constants;
 import io.swagger.v3.oas.annotations.Operation;
@@ -30,6 +35,7 @@ import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
 
+import java.util.List;
 import java.util.UUID;
 
 import static com.iseeyou.fortunetelling.util.Constants.SECURITY_SCHEME_NAME;
@@ -41,8 +47,12 @@ import static com.iseeyou.fortunetelling.util.Constants.SECURITY_SCHEME_NAME;
 @Slf4j
 public class ServicePackageController extends AbstractBaseController {
 
+    private static final List<String> PACKAGE_LIST_TAGS = List.of(
+            CatalogCacheService.TAG_PACKAGES, CatalogCacheService.TAG_SEERS, CatalogCacheService.TAG_CATEGORIES);
+
     private final ServicePackageService servicePackageService;
     private final ServicePackageMapper servicePackageMapper;
+    private final CatalogCacheService catalogCacheService;
 
     @GetMapping
     @Operation(
@@ -74,7 +84,7 @@ public class ServicePackageController extends AbstractBaseController {
             @RequestParam(defaultValue = "15") int limit,
             @Parameter(description = "Sort direction (asc/desc)")
             @RequestParam(defaultValue = "desc") String sortType,
-            @Parameter(description = "Sort field (createdAt, price, packageTitle)")
+            @Parameter(description = "Sort field (createdAt, price, packageTitle, avgRating)")
             @RequestParam(defaultValue = "createdAt") String sortBy,
             @Parameter(description = "Search by package name")
             @RequestParam(required = false) String name,
@@ -90,9 +100,16 @@ public class ServicePackageController extends AbstractBaseController {
             @RequestParam(required = false) Integer maxDuration
     ) {
         Pageable pageable = createPageable(page, limit, sortType, sortBy);
-        Page<ServicePackageResponse> response = servicePackageService.getAllPackagesWithInteractions(
-                pageable, name, categoryIds, minPrice, maxPrice, minDuration, maxDuration);
-        return responseFactory.successPage(response, "Service packages retrieved successfully");
+        return catalogCacheService.serve("packages:list",
+                CatalogCacheService.params("page", page, "limit", limit, "sortType", sortType, "sortBy", sortBy,
+                        "name", name, "categoryIds", categoryIds, "minPrice", minPrice, "maxPrice", maxPrice,
+                        "minDuration", minDuration, "maxDuration", maxDuration),
+                PACKAGE_LIST_TAGS,
+                new TypeReference<PageResponse<ServicePackageResponse>>() {},
+                () -> responseFactory.successPage(servicePackageService.getAllPackagesWithInteractions(
+                        pageable, name, categoryIds, minPrice, maxPrice, minDuration, maxDuration),
+                        "Service packages retrieved successfully").getBody(),
+                body -> servicePackageService.applyMyInteractions(body.getData()));
     }
 
     @GetMapping("/detail")
@@ -131,8 +148,16 @@ public class ServicePackageController extends AbstractBaseController {
             @Parameter(description = "Service Package ID", required = true)
             @RequestParam String id
     ) {
-        ServicePackageDetailResponse response = servicePackageService.findDetailById(id);
-        return responseFactory.successSingle(response, "Service package detail retrieved successfully");
+        UUID packageId = UUID.fromString(id);
+        servicePackageService.recordDetailView(packageId);
+        return catalogCacheService.serve("packages:detail",
+                CatalogCacheService.params("id", packageId),
+                List.of(CatalogCacheService.packageTag(packageId), CatalogCacheService.TAG_CATEGORIES),
+                new TypeReference<SingleResponse<ServicePackageDetailResponse>>() {},
+                () -> responseFactory.successSingle(servicePackageService.findDetailById(id),
+                        "Service package detail retrieved successfully").getBody(),
+                body -> servicePackageService.applyMyInteraction(body.getData()),
+                body -> servicePackageService.detailCacheTags(body.getData()));
     }
 
     @PostMapping(consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
@@ -185,7 +210,8 @@ public class ServicePackageController extends AbstractBaseController {
             summary = "Delete service package (Soft Delete with Auto Refund)",
             description = "Soft delete a service package. Seer can delete their own packages, Admin can delete any package. " +
                          "The package will be hidden from all queries but data is preserved for existing bookings and reports. " +
-                         "All incomplete bookings (PENDING, CONFIRMED) will be automatically refunded and canceled.",
+                         "Refunds of all incomplete bookings (PENDING, CONFIRMED) are queued and processed in the background, " +
+                         "with retries; poll GET /service-packages/{id}/refunds for their status.",
             security = @SecurityRequirement(name = SECURITY_SCHEME_NAME),
             responses = {
                     @ApiResponse(
@@ -234,14 +260,57 @@ public class ServicePackageController extends AbstractBaseController {
             @Parameter(description = "Service Package ID", required = true)
             @PathVariable String id
     ) {
-        servicePackageService.deleteServicePackage(id);
+        int queuedRefunds = servicePackageService.deleteServicePackage(id);
         return responseFactory.successSingle(
-                "Service package deleted successfully. All incomplete bookings have been refunded and canceled. " +
-                "Data is preserved for existing bookings and reports (soft delete).", 
+                "Service package deleted successfully. " + queuedRefunds + " refunds of incomplete bookings are queued, " +
+                "see /service-packages/" + id + "/refunds for their progress. " +
+                "Data is preserved for existing bookings and reports (soft delete).",
                 "Service package deleted successfully"
         );
     }
 
+    @GetMapping("/{id}/refunds")
+    @Operation(
+            summary = "Refund progress of a deleted service package",
+            description = "Status of each booking refund queued when the package was deleted. " +
+                         "Package owner or admin only.",
+            security = @SecurityRequirement(name = SECURITY_SCHEME_NAME),
+            responses = {
+                    @ApiResponse(
+                            responseCode = "200",
+                            description = "Refund status retrieved successfully",
+                            content = @Content(
+                                    mediaType = MediaType.APPLICATION_JSON_VALUE,
+                                    schema = @Schema(implementation = PackageRefundStatusResponse.class)
+                            )
+                    ),
+                    @ApiResponse(
+                            responseCode = "401",
+                            description = "Unauthorized",
+                            content = @Content(
+                                    mediaType = MediaType.APPLICATION_JSON_VALUE,
+                                    schema = @Schema(implementation = ErrorResponse.class)
+                            )
+                    ),
+                    @ApiResponse(
+                            responseCode = "404",
+                            description = "Service package not found",
+                            content = @Content(
+                                    mediaType = MediaType.APPLICATION_JSON_VALUE,
+                                    schema = @Schema(implementation = ErrorResponse.class)
+                            )
+                    )
+            }
+    )
+    @PreAuthorize("hasAnyAuthority('SEER', 'ADMIN')")
+    public ResponseEntity<SingleResponse<PackageRefundStatusResponse>> getRefundStatus(
+            @Parameter(description = "Service Package ID", required = true)
+            @PathVariable UUID id
+    ) {
+        PackageRefundStatusResponse response = servicePackageService.getRefundStatus(id);
+        return responseFactory.successSingle(response, "Refund status retrieved successfully");
+    }
+
     @GetMapping("/by-category/{category}")
     @Operation(
             summary = "Get service packages by category",
@@ -283,7 +352,7 @@ public class ServicePackageController extends AbstractBaseController {
             @RequestParam(defaultValue = "15") int limit,
             @Parameter(description = "Sort direction (asc/desc)")
             @RequestParam(defaultValue = "desc") String sortType,
-            @Parameter(description = "Sort field (createdAt, price, packageTitle)")
+            @Parameter(description = "Sort field (createdAt, price, packageTitle, avgRating)")
             @RequestParam(defaultValue = "createdAt") String sortBy,
             @Parameter(description = "Minimum price filter")
             @RequestParam(required = false) Double minPrice,
@@ -293,10 +362,15 @@ public class ServicePackageController extends AbstractBaseController {
         Constants.ServiceCategoryEnum categoryEnum = Constants.ServiceCategoryEnum.get(category);
         Pageable pageable = createPageable(page, limit, sortType, sortBy);
 
-        Page<ServicePackageResponse> response = servicePackageService.getPackagesByCategoryWithInteractions(categoryEnum, pageable, minPrice, maxPrice);
-
-        return responseFactory.successPage(response,
-                String.format("Service packages in category %s retrieved successfully", categoryEnum.getValue()));
+        return catalogCacheService.serve("packages:by-category",
+                CatalogCacheService.params("category", categoryEnum, "page", page, "limit", limit, "sortType", sortType,
+                        "sortBy", sortBy, "minPrice", minPrice, "maxPrice", maxPrice),
+                PACKAGE_LIST_TAGS,
+                new TypeReference<PageResponse<ServicePackageResponse>>() {},
+                () -> responseFactory.successPage(
+                        servicePackageService.getPackagesByCategoryWithInteractions(categoryEnum, pageable, minPrice, maxPrice),
+                        String.format("Service packages in category %s retrieved successfully", categoryEnum.getValue())).getBody(),
+                body -> servicePackageService.applyMyInteractions(body.getData()));
     }
 
     @PostMapping("/{packageId}/interact")
@@ -306,7 +380,7 @@ public class ServicePackageController extends AbstractBaseController {
                     "Click LIKE: +1 like (or remove if already liked). " +
                     "Click DISLIKE: +1 dislike (or remove if already disliked). " +
                     "Click DISLIKE when LIKED: remove like and add dislike (and vice versa). " +
-                    "Returns full service package response with all user interactions.",
+                    "Returns only the caller's new reaction and the package's like/dislike counts.",
             security = @SecurityRequirement(name = SECURITY_SCHEME_NAME),
             responses = {
                     @ApiResponse(
@@ -314,7 +388,7 @@ public class ServicePackageController extends AbstractBaseController {
                             description = "Interaction updated successfully",
                             content = @Content(
                                     mediaType = MediaType.APPLICATION_JSON_VALUE,
-                                    schema = @Schema(implementation = ServicePackageResponse.class)
+                                    schema = @Schema(implementation = PackageInteractionResponse.class)
                             )
                     ),
                     @ApiResponse(
@@ -343,28 +417,37 @@ public class ServicePackageController extends AbstractBaseController {
                     )
             }
     )
-    public ResponseEntity<SingleResponse<ServicePackageResponse>> toggleInteraction(
+    public ResponseEntity<SingleResponse<PackageInteractionResponse>> toggleInteraction(
             @Parameter(description = "Service Package ID", required = true)
             @PathVariable UUID packageId,
             @Parameter(description = "Interaction request (LIKE or DISLIKE)", required = true)
             @RequestBody @Valid PackageInteractionRequest request
     ) {
         Constants.InteractionTypeEnum interactionType = Constants.InteractionTypeEnum.get(request.getInteractionType());
-        ServicePackageResponse response = servicePackageService.toggleInteraction(packageId, interactionType);
+        PackageInteractionResponse response = servicePackageService.toggleInteraction(packageId, interactionType);
         return responseFactory.successSingle(response, "Interaction updated successfully");
     }
 
     @GetMapping("/{packageId}/interactions")
     @Operation(
-            summary = "Get service package with all user interactions",
-            description = "Get service package information with list of all users who interacted (liked/disliked)",
+            summary = "List users who reacted to a service package",
+            description = "Newest first, keyset paginated: pass nextCursor of the previous page as cursor to load more. " +
+                    "Package responses only carry the counts and the latest few reactions.",
             responses = {
                     @ApiResponse(
                             responseCode = "200",
-                            description = "Service package with interactions retrieved successfully",
+                            description = "Interactions retrieved successfully",
                             content = @Content(
                                     mediaType = MediaType.APPLICATION_JSON_VALUE,
-                                    schema = @Schema(implementation = ServicePackageResponse.class)
+                                    schema = @Schema(implementation = PackageInteractionPageResponse.class)
+                            )
+                    ),
+                    @ApiResponse(
+                            responseCode = "400",
+                            description = "Invalid interaction type or cursor",
+                            content = @Content(
+                                    mediaType = MediaType.APPLICATION_JSON_VALUE,
+                                    schema = @Schema(implementation = ErrorResponse.class)
                             )
                     ),
                     @ApiResponse(
@@ -377,12 +460,19 @@ public class ServicePackageController extends AbstractBaseController {
                     )
             }
     )
-    public ResponseEntity<SingleResponse<ServicePackageResponse>> getPackageWithInteractions(
+    public ResponseEntity<SingleResponse<PackageInteractionPageResponse>> getInteractions(
             @Parameter(description = "Service Package ID", required = true)
-            @PathVariable UUID packageId
+            @PathVariable UUID packageId,
+            @Parameter(description = "Only this reaction (LIKE or DISLIKE)")
+            @RequestParam(required = false) String type,
+            @Parameter(description = "nextCursor from the previous page")
+            @RequestParam(required = false) String cursor,
+            @Parameter(description = "Page size (max 100)")
+            @RequestParam(required = false) Integer limit
     ) {
-        ServicePackageResponse response = servicePackageService.getPackageWithInteractions(packageId);
-        return responseFactory.successSingle(response, "Service package with interactions retrieved successfully");
+        Constants.InteractionTypeEnum interactionType = type != null ? Constants.InteractionTypeEnum.get(type) : null;
+        PackageInteractionPageResponse response = servicePackageService.getInteractions(packageId, interactionType, cursor, limit);
+        return responseFactory.successSingle(response, "Interactions retrieved successfully");
     }
 
     // ============ Admin Endpoints ============
@@ -490,7 +580,7 @@ public class ServicePackageController extends AbstractBaseController {
             @RequestParam(defaultValue = "15") int limit,
             @Parameter(description = "Sort direction (asc/desc)")
             @RequestParam(defaultValue = "desc") String sortType,
-            @Parameter(description = "Sort field (createdAt, price, packageTitle)")
+            @Parameter(description = "Sort field (createdAt, price, packageTitle, avgRating)")
             @RequestParam(defaultValue = "createdAt") String sortBy
     ) {
         log.info("Admin fetching hidden service packages");
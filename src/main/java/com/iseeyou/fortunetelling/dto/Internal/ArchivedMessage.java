@@ -0,0 +1,34 @@
+package com.iseeyou.fortunetelling.dto.Internal;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Message as stored in an archive segment. Sender name/avatar are resolved at read time.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ArchivedMessage {
+    private UUID id;
+    private UUID senderId;
+    private String textContent;
+    private String imageUrl;
+    private String videoUrl;
+    private String messageType;
+    private Boolean isRead;
+    private LocalDateTime readAt;
+    private Boolean isRecalled;
+    private LocalDateTime recalledAt;
+    private UUID recalledBy;
+    private Set<UUID> deletedByUserIds;
+    private LocalDateTime createdAt;
+    private LocalDateTime updatedAt;
+}
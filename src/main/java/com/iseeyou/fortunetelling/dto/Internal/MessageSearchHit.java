@@ -5,20 +5,21 @@ import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 
-import java.io.Serializable;
 import java.time.LocalDateTime;
-import java.util.List;
 import java.util.UUID;
 
+/**
+ * One row of the message full-text search, in rank order. (rank, createdAt, messageId) is the keyset cursor.
+ */
 @Data
 @Builder
 @NoArgsConstructor
 @AllArgsConstructor
-public class DeletedMessageInfo implements Serializable {
-    private static final long serialVersionUID = 1L;
-
-    private UUID userId;
+public class MessageSearchHit {
+    private UUID messageId;
     private UUID conversationId;
-    private List<UUID> messageIds;
-    private LocalDateTime deletedAt;
+    private UUID senderId;
+    private String textContent;
+    private LocalDateTime createdAt;
+    private float rank;
 }
@@ -0,0 +1,25 @@
+package com.iseeyou.fortunetelling.dto.Internal;
+
+import com.iseeyou.fortunetelling.util.Constants;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ModerationResult {
+    // Strongest action among all matches, ALLOW when nothing matched
+    private Constants.ModerationActionEnum action;
+    // Text with MASK/BLOCK phrases replaced by '*', same length as the input
+    private String maskedText;
+    private List<String> matchedPhrases;
+
+    public boolean isFlagged() {
+        return action != Constants.ModerationActionEnum.ALLOW;
+    }
+}
@@ -0,0 +1,24 @@
+package com.iseeyou.fortunetelling.dto.Internal;
+
+import com.iseeyou.fortunetelling.dto.response.servicepackage.ServicePackageResponse;
+import com.iseeyou.fortunetelling.util.Constants;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Per-caller package data that is not on the service_package row, resolved for a whole page at once.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class PackageEnrichment {
+    private Constants.InteractionTypeEnum myInteraction;  // null for anonymous callers or no reaction
+    @Builder.Default  // latest few reactions only
+    private List<ServicePackageResponse.UserInteractionInfo> interactions = new ArrayList<>();
+}
@@ -20,4 +20,7 @@ public class ChatMessageRequest {
 
     private String imageUrl;
     private String videoUrl;
+
+    // Id của chunked upload đã COMPLETED, thay cho imageUrl/videoUrl
+    private UUID mediaUploadId;
 }
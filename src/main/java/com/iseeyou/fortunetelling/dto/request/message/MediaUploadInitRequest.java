@@ -0,0 +1,36 @@
+package com.iseeyou.fortunetelling.dto.request.message;
+
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Pattern;
+import jakarta.validation.constraints.Positive;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.UUID;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class MediaUploadInitRequest {
+    @NotNull(message = "Conversation ID is required")
+    private UUID conversationId;
+
+    @NotBlank(message = "File name is required")
+    private String fileName;
+
+    @NotBlank(message = "Content type is required")
+    private String contentType;
+
+    @NotNull(message = "Total size is required")
+    @Positive(message = "Total size must be positive")
+    private Long totalSize;
+
+    // Optional, server clamps it to the configured range
+    private Integer chunkSize;
+
+    // Optional SHA-256 (hex) of the whole file
+    @Pattern(regexp = "^[a-fA-F0-9]{64}$", message = "Checksum must be a SHA-256 hex string")
+    private String checksum;
+}
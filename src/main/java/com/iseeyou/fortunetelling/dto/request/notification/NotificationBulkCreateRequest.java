@@ -0,0 +1,31 @@
+package com.iseeyou.fortunetelling.dto.request.notification;
+
+import com.iseeyou.fortunetelling.util.Constants;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import lombok.experimental.SuperBuilder;
+
+import java.util.List;
+import java.util.UUID;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@SuperBuilder
+public class NotificationBulkCreateRequest {
+    @NotNull(message = "Notification type is required")
+    private Constants.NotificationTypeEnum notificationType;
+
+    @NotBlank(message = "Notification title is required")
+    private String notificationTitle;
+
+    @NotBlank(message = "Notification body is required")
+    private String notificationBody;
+
+    @NotEmpty(message = "Recipient IDs are required")
+    private List<UUID> recipientIds;
+}
@@ -0,0 +1,30 @@
+package com.iseeyou.fortunetelling.dto.response;
+
+import com.iseeyou.fortunetelling.util.Constants;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import lombok.experimental.SuperBuilder;
+
+import java.util.List;
+import java.util.UUID;
+
+@Getter
+@Setter
+@SuperBuilder
+@NoArgsConstructor
+@AllArgsConstructor
+public class MediaUploadResponse extends AbstractBaseDataResponse {
+    private UUID conversationId;
+    private String fileName;
+    private String contentType;
+    private Constants.MediaTypeEnum mediaType;
+    private Long totalSize;
+    private Integer chunkSize;
+    private Integer totalChunks;
+    private List<Integer> receivedChunks;  // Client chỉ cần gửi lại các chunk còn thiếu
+    private Constants.MediaUploadStatusEnum status;
+    private String url;
+    private String errorMessage;
+}
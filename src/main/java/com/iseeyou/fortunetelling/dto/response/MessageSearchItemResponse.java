@@ -0,0 +1,23 @@
+package com.iseeyou.fortunetelling.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import lombok.experimental.SuperBuilder;
+
+import java.util.UUID;
+
+@Getter
+@Setter
+@SuperBuilder
+@NoArgsConstructor
+@AllArgsConstructor
+public class MessageSearchItemResponse extends AbstractBaseDataResponse {
+    private UUID conversationId;
+    private UUID senderId;
+    private String senderName;
+    private String senderAvatar;
+    private String highlight;  // HTML-escaped snippet, matched words wrapped in <mark>
+    private Float rank;
+}
@@ -3,6 +3,7 @@ package com.iseeyou.fortunetelling.dto.response;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.EqualsAndHashCode;
+import lombok.NoArgsConstructor;
 import lombok.experimental.SuperBuilder;
 
 import java.util.List;
@@ -27,6 +28,7 @@ public class PageResponse<T> extends AbstractBaseResponse {
     }
 
     @Data
+    @NoArgsConstructor
     @AllArgsConstructor
     public static class PagingResponse {
         // The current page number being returned
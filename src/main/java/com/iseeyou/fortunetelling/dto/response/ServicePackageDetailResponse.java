@@ -1,5 +1,6 @@
 package com.iseeyou.fortunetelling.dto.response;
 
+import com.iseeyou.fortunetelling.dto.response.servicepackage.ServicePackageResponse;
 import com.iseeyou.fortunetelling.util.Constants;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
@@ -28,6 +29,13 @@ public class ServicePackageDetailResponse {
     private String rejectionReason;
     private LocalDateTime createdAt;
     private LocalDateTime updatedAt;
+    private Long viewCount;
+
+    // Reactions: counts, the caller's own reaction and the latest few users
+    private Long likeCount;
+    private Long dislikeCount;
+    private String myInteraction;
+    private List<ServicePackageResponse.UserInteractionInfo> userInteractions;
 
     // Review statistics
     private Double avgRating;
@@ -0,0 +1,19 @@
+package com.iseeyou.fortunetelling.dto.response.notification;
+
+import com.iseeyou.fortunetelling.dto.response.AbstractBaseDataResponse;
+import com.iseeyou.fortunetelling.util.Constants;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import lombok.experimental.SuperBuilder;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@SuperBuilder
+public class NotificationBroadcastResponse extends AbstractBaseDataResponse {
+    private Constants.NotificationAudienceEnum audience;
+    private Constants.NotificationTypeEnum notificationType;
+    private String notificationTitle;
+    private String notificationBody;
+}
@@ -0,0 +1,25 @@
+package com.iseeyou.fortunetelling.dto.response.notification;
+
+import com.iseeyou.fortunetelling.dto.response.AbstractBaseDataResponse;
+import com.iseeyou.fortunetelling.util.Constants;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import lombok.experimental.SuperBuilder;
+
+import java.util.UUID;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@SuperBuilder
+public class NotificationFanoutJobResponse extends AbstractBaseDataResponse {
+    private UUID broadcastId;
+    private Constants.FanoutJobStatusEnum status;
+    private int totalRecipients;
+    private int processedRecipients;
+    // Notifications created so far; for a broadcast, online users pushed
+    private int deliveredCount;
+    private int attempts;
+    private String lastError;
+}
@@ -0,0 +1,22 @@
+package com.iseeyou.fortunetelling.dto.response.notification;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.util.List;
+
+@Getter
+@Setter
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class NotificationReplayResponse {
+    private List<NotificationResponse> notifications;
+    // Cursor to send on the next reconnect
+    private String lastEventId;
+    // false: more was missed than one replay carries, reload the list endpoint
+    private Boolean complete;
+}
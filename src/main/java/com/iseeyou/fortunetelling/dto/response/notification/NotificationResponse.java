@@ -16,7 +16,11 @@ public class NotificationResponse extends AbstractBaseDataResponse {
     private String notificationTitle;
     private String notificationBody;
     private Boolean isRead;
+    // Only on the digest of compacted old unread notifications
+    private Integer digestCount;
     private RecipientInfo recipient;
+    // Replay stream id, the client sends the last one it saw when reconnecting
+    private String eventId;
 
     @Getter
     @Setter
@@ -0,0 +1,19 @@
+package com.iseeyou.fortunetelling.dto.response.servicepackage;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.util.List;
+
+@Getter
+@Setter
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class PackageInteractionPageResponse {
+    private List<ServicePackageResponse.UserInteractionInfo> items;
+    private String nextCursor;  // null khi không còn kết quả
+}
@@ -0,0 +1,19 @@
+package com.iseeyou.fortunetelling.dto.response.servicepackage;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.UUID;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class PackageInteractionResponse {
+    private UUID packageId;
+    private String myInteraction;  // LIKE, DISLIKE hoặc null sau khi bỏ reaction
+    private Long likeCount;
+    private Long dislikeCount;
+}
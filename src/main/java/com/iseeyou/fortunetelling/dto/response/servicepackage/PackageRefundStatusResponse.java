@@ -0,0 +1,37 @@
+package com.iseeyou.fortunetelling.dto.response.servicepackage;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class PackageRefundStatusResponse {
+    private UUID packageId;
+    private int totalJobs;
+    private Map<String, Long> countsByStatus;
+    private boolean finished;  // không còn job PENDING/RUNNING
+    private List<RefundJobInfo> jobs;
+
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class RefundJobInfo {
+        private UUID jobId;
+        private UUID bookingId;
+        private String status;
+        private int attempts;
+        private LocalDateTime nextAttemptAt;  // lần thử lại tiếp theo, khi status = PENDING
+        private String lastError;
+        private LocalDateTime updatedAt;
+    }
+}
@@ -27,7 +27,9 @@ public class ServicePackageResponse {
     private String rejectionReason;
     private Long likeCount;
     private Long dislikeCount;
-    private List<UserInteractionInfo> userInteractions; // Array of users who interacted
+    private Long viewCount;
+    private List<UserInteractionInfo> userInteractions; // Latest few reactions only, full list: GET /service-packages/{id}/interactions
+    private String myInteraction; // LIKE/DISLIKE of the current user, null if none
     private Double avgRating; // Average rating from booking reviews
     private Long totalReviews; // Total number of reviews
     private LocalDateTime createdAt;
@@ -63,5 +65,6 @@ public class ServicePackageResponse {
         private String name;
         private String avatar;
         private String typeInteract; // LIKE or DISLIKE
+        private LocalDateTime reactedAt; // Only set in the paginated list
     }
 }
@@ -17,5 +17,7 @@ public class SeerProfileResponse {
     // Thống kê booking
     private Long totalBookings;
     private Long completedBookings;
+    private Long cancelledBookings;
     private Double totalRevenue;
+    private Double avgResponseMinutes;  // từ lúc đặt đến lúc seer xác nhận, null khi chưa xác nhận booking nào
 }
\ No newline at end of file
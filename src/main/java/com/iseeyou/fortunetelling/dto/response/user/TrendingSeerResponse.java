@@ -0,0 +1,21 @@
+package com.iseeyou.fortunetelling.dto.response.user;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.UUID;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class TrendingSeerResponse {
+    private UUID id;
+    private String fullName;
+    private String avatarUrl;
+    private String profileDescription;
+    private Double avgRating;  // rounded to 1 decimal, null khi chưa có đánh giá
+    private Integer totalRates;
+}
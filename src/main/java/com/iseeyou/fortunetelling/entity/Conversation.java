@@ -23,6 +23,11 @@ public class Conversation extends AbstractBaseEntity {
     @JoinColumn(name = "booking_id", nullable = false)
     private Booking booking;
 
+    // Optimistic lock: concurrent writers (scheduler vs. user request) fail instead of silently overwriting
+    @Version
+    @Column(name = "version")
+    private Long version;
+
     @Column(name = "type", length = 50, nullable = false)
     @Enumerated(EnumType.STRING)
     private Constants.ConversationTypeEnum type;
@@ -57,4 +62,8 @@ public class Conversation extends AbstractBaseEntity {
     @Column(name = "extended_minutes")
     @Builder.Default
     private Integer extendedMinutes = 0;
+
+    // != null khi messages đã được chuyển sang archive segment (xem MessageArchiveService)
+    @Column(name = "archived_at")
+    private LocalDateTime archivedAt;
 }
\ No newline at end of file
@@ -0,0 +1,83 @@
+package com.iseeyou.fortunetelling.entity;
+
+import com.iseeyou.fortunetelling.entity.user.User;
+import com.iseeyou.fortunetelling.util.Constants;
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDateTime;
+import java.util.HashSet;
+import java.util.Set;
+
+@Entity
+@Table(name = "media_upload", indexes = {
+        @Index(name = "idx_media_upload_status_last_chunk", columnList = "status, last_chunk_at")
+})
+@Getter
+@Setter
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@AttributeOverrides({
+        @AttributeOverride(name = "id", column = @Column(name = "media_upload_id", nullable = false)),
+})
+public class MediaUpload extends AbstractBaseEntity {
+    @ManyToOne(fetch = FetchType.LAZY, optional = false)
+    @JoinColumn(name = "uploader_id", nullable = false)
+    private User uploader;
+
+    @ManyToOne(fetch = FetchType.LAZY, optional = false)
+    @JoinColumn(name = "conversation_id", nullable = false)
+    private Conversation conversation;
+
+    @Column(name = "file_name", length = 255, nullable = false)
+    private String fileName;
+
+    @Column(name = "content_type", length = 100, nullable = false)
+    private String contentType;
+
+    @Column(name = "media_type", length = 20, nullable = false)
+    @Enumerated(EnumType.STRING)
+    private Constants.MediaTypeEnum mediaType;
+
+    @Column(name = "total_size", nullable = false)
+    private Long totalSize;
+
+    @Column(name = "chunk_size", nullable = false)
+    private Integer chunkSize;
+
+    @Column(name = "total_chunks", nullable = false)
+    private Integer totalChunks;
+
+    // SHA-256 (hex) of the whole file, optional, verified after assembly
+    @Column(name = "checksum", length = 64)
+    private String checksum;
+
+    @Column(name = "status", length = 20, nullable = false)
+    @Enumerated(EnumType.STRING)
+    @Builder.Default
+    private Constants.MediaUploadStatusEnum status = Constants.MediaUploadStatusEnum.UPLOADING;
+
+    // Chunk index -> đã nhận đủ và đúng checksum
+    @ElementCollection
+    @CollectionTable(
+            name = "media_upload_chunk",
+            joinColumns = @JoinColumn(name = "media_upload_id"),
+            // addReceivedChunk's ON CONFLICT DO NOTHING conflicts on this, a re-sent chunk adds no row
+            uniqueConstraints = @UniqueConstraint(
+                    name = "uk_media_upload_chunk_upload_index",
+                    columnNames = {"media_upload_id", "chunk_index"})
+    )
+    @Column(name = "chunk_index")
+    @Builder.Default
+    private Set<Integer> receivedChunks = new HashSet<>();
+
+    @Column(name = "last_chunk_at")
+    private LocalDateTime lastChunkAt;
+
+    @Column(name = "url", length = 500)
+    private String url;
+
+    @Column(name = "error_message", length = 500)
+    private String errorMessage;
+}
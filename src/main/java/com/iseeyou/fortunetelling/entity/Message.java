@@ -1,9 +1,11 @@
 package com.iseeyou.fortunetelling.entity;
 
 import com.iseeyou.fortunetelling.entity.user.User;
+import com.iseeyou.fortunetelling.util.TextFolding;
 import jakarta.persistence.*;
 import lombok.*;
 
+import java.text.Normalizer;
 import java.time.LocalDateTime;
 import java.util.HashSet;
 import java.util.Set;
@@ -23,6 +25,11 @@ public class Message extends AbstractBaseEntity{
     @Column(name = "text_content", columnDefinition = "text")
     private String textContent;
 
+    // Folded (lowercase, không dấu) copy of textContent. Postgres derives the GIN-indexed search_vector
+    // column from it (V1_4 migration); that column is only used by native search queries, so it is not mapped.
+    @Column(name = "search_text", columnDefinition = "text")
+    private String searchText;
+
     @Column(name = "image_url", length = 500)
     private String imageUrl;
 
@@ -44,6 +51,11 @@ public class Message extends AbstractBaseEntity{
     @Builder.Default
     private Boolean isRemoved = false;
 
+    // Matched a FLAG/MASK phrase of the moderation list, for admin review
+    @Column(name = "is_flagged", nullable = false)
+    @Builder.Default
+    private Boolean isFlagged = false;
+
     @Column(name = "read_at")
     private LocalDateTime readAt;
 
@@ -79,6 +91,13 @@ public class Message extends AbstractBaseEntity{
     @JoinColumn(name = "recalled_by")
     private User recalledBy;
 
+    @PrePersist
+    @PreUpdate
+    protected void updateSearchText() {
+        searchText = textContent == null ? null
+                : TextFolding.fold(Normalizer.normalize(textContent, Normalizer.Form.NFC));
+    }
+
     public boolean isVisibleForUser(UUID userId) {
         // Nếu recalled → không ai thấy
         if (isRecalled) {
@@ -0,0 +1,40 @@
+package com.iseeyou.fortunetelling.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.util.UUID;
+
+/**
+ * Location of an archived conversation's messages inside the append-only segment files.
+ */
+@Entity
+@Table(name = "message_archive_index")
+@Getter
+@Setter
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@AttributeOverrides({
+        @AttributeOverride(name = "id", column = @Column(name = "message_archive_index_id", nullable = false)),
+})
+public class MessageArchiveIndex extends AbstractBaseEntity {
+    @Column(name = "conversation_id", nullable = false, unique = true)
+    private UUID conversationId;
+
+    @Column(name = "segment_name", length = 100, nullable = false)
+    private String segmentName;
+
+    @Column(name = "segment_offset", nullable = false)
+    private Long segmentOffset;
+
+    // Compressed size of the block in bytes
+    @Column(name = "block_length", nullable = false)
+    private Integer blockLength;
+
+    @Column(name = "block_crc32", nullable = false)
+    private Long blockCrc32;
+
+    @Column(name = "message_count", nullable = false)
+    private Integer messageCount;
+}
@@ -5,6 +5,8 @@ import com.iseeyou.fortunetelling.util.Constants;
 import jakarta.persistence.*;
 import lombok.*;
 
+import java.util.UUID;
+
 @Entity
 @Table(name = "notification")
 @Builder
@@ -33,4 +35,12 @@ public class Notification extends AbstractBaseEntity {
     @Column(name = "is_read", nullable = false)
     @Builder.Default
     private Boolean isRead = false;
+
+    // Set when this row is the per-user copy of a NotificationBroadcast
+    @Column(name = "broadcast_id")
+    private UUID broadcastId;
+
+    // Set on the digest row that stands in for compacted old unread notifications
+    @Column(name = "digest_count")
+    private Integer digestCount;
 }
@@ -0,0 +1,39 @@
+package com.iseeyou.fortunetelling.entity;
+
+import com.iseeyou.fortunetelling.entity.user.User;
+import com.iseeyou.fortunetelling.util.Constants;
+import jakarta.persistence.*;
+import lombok.*;
+
+/**
+ * Announcement stored once for a whole audience. Each user gets their own Notification row
+ * (broadcast_id = this id) lazily, the first time they read their notifications.
+ */
+@Entity
+@Table(name = "notification_broadcast")
+@Builder
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@AttributeOverrides({
+        @AttributeOverride(name = "id", column = @Column(name = "notification_broadcast_id", nullable = false)),
+})
+public class NotificationBroadcast extends AbstractBaseEntity {
+    @Column(name = "audience", nullable = false, length = 20)
+    @Enumerated(EnumType.STRING)
+    private Constants.NotificationAudienceEnum audience;
+
+    @Column(name = "notification_type", nullable = false)
+    private Constants.NotificationTypeEnum notificationType;
+
+    @Column(name = "notification_title", nullable = false)
+    private String notificationTitle;
+
+    @Column(name = "notification_body", nullable = false)
+    private String notificationBody;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "created_by", nullable = false)
+    private User createdBy;
+}
@@ -0,0 +1,76 @@
+package com.iseeyou.fortunetelling.entity;
+
+import com.iseeyou.fortunetelling.entity.user.User;
+import com.iseeyou.fortunetelling.util.Constants;
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * Either a recipient list (bulk notification) or a broadcast whose online users get their copy pushed.
+ */
+@Entity
+@Table(name = "notification_fanout_job")
+@Builder
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@AttributeOverrides({
+        @AttributeOverride(name = "id", column = @Column(name = "notification_fanout_job_id", nullable = false)),
+})
+public class NotificationFanoutJob extends AbstractBaseEntity {
+    @Column(name = "broadcast_id")
+    private UUID broadcastId;
+
+    @Column(name = "notification_type")
+    private Constants.NotificationTypeEnum notificationType;
+
+    @Column(name = "notification_title")
+    private String notificationTitle;
+
+    @Column(name = "notification_body")
+    private String notificationBody;
+
+    // Distinct, in request order; processed_recipients is the offset of the next chunk
+    @Column(name = "recipient_ids")
+    private UUID[] recipientIds;
+
+    @Column(name = "total_recipients", nullable = false)
+    @Builder.Default
+    private Integer totalRecipients = 0;
+
+    @Column(name = "processed_recipients", nullable = false)
+    @Builder.Default
+    private Integer processedRecipients = 0;
+
+    // Notifications created (unknown recipient ids are dropped), or online users reached for a broadcast
+    @Column(name = "delivered_count", nullable = false)
+    @Builder.Default
+    private Integer deliveredCount = 0;
+
+    @Column(name = "status", length = 20, nullable = false)
+    @Enumerated(EnumType.STRING)
+    @Builder.Default
+    private Constants.FanoutJobStatusEnum status = Constants.FanoutJobStatusEnum.PENDING;
+
+    @Column(name = "attempts", nullable = false)
+    @Builder.Default
+    private Integer attempts = 0;
+
+    @Column(name = "next_attempt_at", nullable = false)
+    private LocalDateTime nextAttemptAt;
+
+    // Lease of the worker running it, renewed with every chunk
+    @Column(name = "locked_until")
+    private LocalDateTime lockedUntil;
+
+    @Column(name = "last_error", length = 500)
+    private String lastError;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "created_by", nullable = false)
+    private User createdBy;
+}
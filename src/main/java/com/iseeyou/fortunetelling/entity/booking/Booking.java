@@ -9,8 +9,8 @@ import lombok.*;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
-import java.util.ArrayList;
-import java.util.List;
+import java.util.HashSet;
+import java.util.Set;
 
 @Entity
 @Table(name="booking")
@@ -23,12 +23,21 @@ import java.util.List;
         @AttributeOverride(name = "id", column = @Column(name = "booking_id", nullable = false)),
 })
 public class Booking extends AbstractBaseEntity {
+    // Status is written by user requests, payment callbacks and the session scheduler
+    @Version
+    @Column(name = "version")
+    private Long version;
+
     @Column(name = "scheduled_time", nullable = false)
     private LocalDateTime scheduledTime;
 
     @Column(name = "status", nullable = false, length = 20)
     private Constants.BookingStatusEnum status;
 
+    // First confirmation by the seer, the seer's response time is measured up to here
+    @Column(name = "confirmed_at")
+    private LocalDateTime confirmedAt;
+
     @Column(name = "additional_note", length = 1000)
     private String additionalNote;
 
@@ -52,5 +61,5 @@ public class Booking extends AbstractBaseEntity {
 
     @OneToMany(mappedBy = "booking", cascade = CascadeType.ALL, orphanRemoval = true, fetch = FetchType.LAZY)
     @Builder.Default
-    private List<BookingPayment> bookingPayments = new ArrayList<>();
+    private Set<BookingPayment> bookingPayments = new HashSet<>();
 }
@@ -16,6 +16,10 @@ import lombok.*;
         @AttributeOverride(name = "id", column = @Column(name = "booking_payment_id", nullable = false)),
 })
 public class BookingPayment extends AbstractBaseEntity {
+    @Version
+    @Column(name = "version")
+    private Long version;
+
     @Column(name = "payment_method", nullable = false, length = 50)
     private Constants.PaymentMethodEnum paymentMethod;
 
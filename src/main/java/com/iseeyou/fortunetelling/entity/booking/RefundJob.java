@@ -0,0 +1,52 @@
+package com.iseeyou.fortunetelling.entity.booking;
+
+import com.iseeyou.fortunetelling.entity.AbstractBaseEntity;
+import com.iseeyou.fortunetelling.util.Constants;
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+@Entity
+@Table(name = "refund_job")
+@Getter
+@Setter
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@AttributeOverrides({
+        @AttributeOverride(name = "id", column = @Column(name = "refund_job_id", nullable = false)),
+})
+public class RefundJob extends AbstractBaseEntity {
+    @ManyToOne(fetch = FetchType.LAZY, optional = false)
+    @JoinColumn(name = "booking_id", nullable = false, unique = true)
+    private Booking booking;
+
+    // Plain ids: the package is soft-deleted when its jobs are created, @Where would hide it
+    @Column(name = "service_package_id", nullable = false)
+    private UUID servicePackageId;
+
+    // Owner of the package, allowed to poll the job status
+    @Column(name = "seer_id")
+    private UUID seerId;
+
+    @Column(name = "status", length = 20, nullable = false)
+    @Enumerated(EnumType.STRING)
+    @Builder.Default
+    private Constants.RefundJobStatusEnum status = Constants.RefundJobStatusEnum.PENDING;
+
+    @Column(name = "attempts", nullable = false)
+    @Builder.Default
+    private Integer attempts = 0;
+
+    @Column(name = "next_attempt_at", nullable = false)
+    private LocalDateTime nextAttemptAt;
+
+    // Lease of the worker running it; an expired lease means the worker died and the job is claimed again
+    @Column(name = "locked_until")
+    private LocalDateTime lockedUntil;
+
+    @Column(name = "last_error", length = 500)
+    private String lastError;
+}
@@ -1,10 +1,12 @@
 package com.iseeyou.fortunetelling.entity.knowledge;
 
 import com.iseeyou.fortunetelling.entity.AbstractBaseEntity;
+import com.iseeyou.fortunetelling.listener.CatalogSearchEntityListener;
 import jakarta.persistence.*;
 import lombok.*;
 
 @Entity
+@EntityListeners(CatalogSearchEntityListener.class)
 @Table(name="item_category")
 @Builder
 @Getter
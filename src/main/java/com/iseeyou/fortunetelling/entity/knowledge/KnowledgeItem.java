@@ -1,6 +1,7 @@
 package com.iseeyou.fortunetelling.entity.knowledge;
 
 import com.iseeyou.fortunetelling.entity.AbstractBaseEntity;
+import com.iseeyou.fortunetelling.listener.CatalogSearchEntityListener;
 import com.iseeyou.fortunetelling.util.Constants;
 import jakarta.persistence.*;
 import lombok.*;
@@ -9,6 +10,7 @@ import java.util.HashSet;
 import java.util.Set;
 
 @Entity
+@EntityListeners(CatalogSearchEntityListener.class)
 @Table(name="knowledge_item")
 @Builder
 @Getter
@@ -28,7 +30,8 @@ public class KnowledgeItem extends AbstractBaseEntity {
     @Column(name = "image_url")
     private String imageUrl;
 
-    @Column(name = "view_count", nullable = false)
+    // Set to 0 on creation, afterwards only the view counter flush changes it
+    @Column(name = "view_count", nullable = false, updatable = false)
     private Long viewCount;
 
     @Column(name = "status")
@@ -3,10 +3,12 @@ package com.iseeyou.fortunetelling.entity.servicepackage;
 import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.iseeyou.fortunetelling.entity.AbstractBaseEntity;
 import com.iseeyou.fortunetelling.entity.knowledge.KnowledgeCategory;
+import com.iseeyou.fortunetelling.listener.CatalogSearchEntityListener;
 import jakarta.persistence.*;
 import lombok.*;
 
 @Entity
+@EntityListeners(CatalogSearchEntityListener.class)
 @Table(name="package_category")
 @Builder
 @Getter
@@ -4,12 +4,14 @@ import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.iseeyou.fortunetelling.entity.AbstractBaseEntity;
 import com.iseeyou.fortunetelling.entity.booking.Booking;
 import com.iseeyou.fortunetelling.entity.user.User;
+import com.iseeyou.fortunetelling.listener.CatalogSearchEntityListener;
 import com.iseeyou.fortunetelling.util.Constants;
 import jakarta.persistence.*;
 import lombok.*;
 import org.hibernate.annotations.SQLDelete;
 import org.hibernate.annotations.Where;
 
+import java.math.BigDecimal;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.HashSet;
@@ -17,6 +19,7 @@ import java.util.List;
 import java.util.Set;
 
 @Entity
+@EntityListeners(CatalogSearchEntityListener.class)
 @Table(name="service_package")
 @Builder
 @Getter
@@ -50,11 +53,12 @@ public class ServicePackage extends AbstractBaseEntity {
     @Column(name = "rejection_reason", length = 500)
     private String rejectionReason;
 
-    @Column(name = "like_count")
+    // Counters only change through relative UPDATEs (adjustInteractionCounts), entity saves keep them as they are
+    @Column(name = "like_count", updatable = false)
     @Builder.Default
     private Long likeCount = 0L;
 
-    @Column(name = "dislike_count")
+    @Column(name = "dislike_count", updatable = false)
     @Builder.Default
     private Long dislikeCount = 0L;
 
@@ -65,6 +69,19 @@ public class ServicePackage extends AbstractBaseEntity {
     @Column(name = "deleted_at")
     private LocalDateTime deletedAt;
 
+    @Column(name = "view_count", insertable = false, updatable = false)
+    private Long viewCount;
+
+    // Rating aggregates are only changed by relative UPDATEs (addRating / recomputeRatings), never by entity saves
+    @Column(name = "rating_sum", insertable = false, updatable = false)
+    private BigDecimal ratingSum;
+
+    @Column(name = "rating_count", insertable = false, updatable = false)
+    private Long ratingCount;
+
+    @Column(name = "avg_rating", insertable = false, updatable = false)
+    private Double avgRating;
+
     @OneToMany(mappedBy = "servicePackage", fetch = FetchType.LAZY, cascade = CascadeType.ALL, orphanRemoval = true)
     @JsonIgnore
     private Set<PackageCategory> packageCategories = new HashSet<>();
@@ -0,0 +1,45 @@
+package com.iseeyou.fortunetelling.entity.user;
+
+import jakarta.persistence.*;
+import lombok.*;
+import org.hibernate.annotations.Immutable;
+
+import java.time.LocalDateTime;
+
+/**
+ * Account counters for the admin overview, a single row with id {@link #SINGLETON_ID}.
+ * Only written through {@link com.iseeyou.fortunetelling.repository.user.AccountStatsRepository}.
+ */
+@Entity
+@Immutable
+@Table(name = "account_stats")
+@Getter
+@Setter
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class AccountStats {
+    public static final short SINGLETON_ID = 1;
+
+    @Id
+    @Column(name = "account_stats_id")
+    private Short id;
+
+    @Column(name = "updated_at", nullable = false)
+    private LocalDateTime updatedAt;
+
+    @Column(name = "customer_accounts", nullable = false)
+    private Long customerAccounts;
+
+    @Column(name = "seer_accounts", nullable = false)
+    private Long seerAccounts;
+
+    @Column(name = "admin_accounts", nullable = false)
+    private Long adminAccounts;
+
+    @Column(name = "pending_accounts", nullable = false)
+    private Long pendingAccounts;  // UNVERIFIED_SEER
+
+    @Column(name = "blocked_accounts", nullable = false)
+    private Long blockedAccounts;
+}
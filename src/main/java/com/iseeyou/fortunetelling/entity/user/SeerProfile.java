@@ -4,6 +4,8 @@ import com.iseeyou.fortunetelling.entity.AbstractBaseEntity;
 import jakarta.persistence.*;
 import lombok.*;
 
+import java.math.BigDecimal;
+
 @Entity
 @Table(name="seer_profile")
 @Builder
@@ -17,12 +19,16 @@ public class SeerProfile extends AbstractBaseEntity {
     @JoinColumn(name = "seer_id", referencedColumnName = "user_id")
     private User user;
 
-    @Column(name = "avg_rating", nullable = false)
+    // Rating columns are set to 0 on creation, afterwards only relative UPDATEs touch them
+    @Column(name = "avg_rating", nullable = false, updatable = false)
     private Double avgRating;
 
-    @Column(name = "total_rates", nullable = false)
+    @Column(name = "total_rates", nullable = false, updatable = false)
     private Integer totalRates;
 
+    @Column(name = "rating_sum", insertable = false, updatable = false)
+    private BigDecimal ratingSum;
+
     @Column(name = "payment_info", length = 500)
     private String paymentInfo;
 }
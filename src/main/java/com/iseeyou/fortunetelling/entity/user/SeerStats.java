@@ -0,0 +1,42 @@
+package com.iseeyou.fortunetelling.entity.user;
+
+import com.iseeyou.fortunetelling.entity.AbstractBaseEntity;
+import jakarta.persistence.*;
+import lombok.*;
+import org.hibernate.annotations.Immutable;
+
+/**
+ * Booking counters of a seer, keyed by the seer's user id. Read-only here: rows are only written by the relative
+ * upserts and the repair in {@link com.iseeyou.fortunetelling.repository.user.SeerStatsRepository}.
+ */
+@Entity
+@Immutable
+@Table(name = "seer_stats")
+@Getter
+@Setter
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@AttributeOverrides({
+        @AttributeOverride(name = "id", column = @Column(name = "seer_id", nullable = false)),
+})
+public class SeerStats extends AbstractBaseEntity {
+    @Column(name = "total_bookings", nullable = false)
+    private Long totalBookings;
+
+    @Column(name = "completed_bookings", nullable = false)
+    private Long completedBookings;
+
+    @Column(name = "cancelled_bookings", nullable = false)
+    private Long cancelledBookings;
+
+    @Column(name = "total_revenue", nullable = false)
+    private Double totalRevenue;
+
+    // Confirmed bookings and the summed time from booking to confirmation
+    @Column(name = "response_count", nullable = false)
+    private Long responseCount;
+
+    @Column(name = "response_seconds_sum", nullable = false)
+    private Double responseSecondsSum;
+}
@@ -15,6 +15,7 @@ import org.springframework.data.crossstore.ChangeSetPersister;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.http.converter.HttpMessageNotReadableException;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
 import org.springframework.security.access.AccessDeniedException;
 import org.springframework.security.authentication.AuthenticationCredentialsNotFoundException;
 import org.springframework.security.authentication.BadCredentialsException;
@@ -120,6 +121,12 @@ public class AppExceptionHandler {
         return build(HttpStatus.NOT_FOUND, e.getMessage());
     }
 
+    @ExceptionHandler(ObjectOptimisticLockingFailureException.class)
+    public final ResponseEntity<ErrorResponse> handleOptimisticLockingFailure(final ObjectOptimisticLockingFailureException e) {
+        log.warn("Concurrent update conflict: {}", e.getMessage());
+        return build(HttpStatus.CONFLICT, "The resource was modified by another request, please reload and try again");
+    }
+
     @ExceptionHandler(RefreshTokenExpiredException.class)
     public final ResponseEntity<ErrorResponse> handleRefreshTokenExpiredException(final RefreshTokenExpiredException e) {
         log.error("Refresh token expired: {}", e.getMessage());
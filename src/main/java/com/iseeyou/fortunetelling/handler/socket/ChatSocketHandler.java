@@ -11,6 +11,7 @@ import com.iseeyou.fortunetelling.exception.NotFoundException;
 import com.iseeyou.fortunetelling.repository.converstation.ConversationRepository;
 import com.iseeyou.fortunetelling.service.MessageSourceService;
 import com.iseeyou.fortunetelling.service.message.MessageService;
+import com.iseeyou.fortunetelling.service.socket.SocketEmitter;
 import com.iseeyou.fortunetelling.service.user.UserService;
 import jakarta.annotation.PostConstruct;
 import jakarta.annotation.PreDestroy;
@@ -31,6 +32,7 @@ public class ChatSocketHandler {
     private final UserService userService;
     private final SocketIOServer socketIOServer;
     private final MessageSourceService messageSourceService;
+    private final SocketEmitter socketEmitter;
 
     @PostConstruct
     public void init() {
@@ -75,16 +77,14 @@ public class ChatSocketHandler {
                     log.info("Customer joined on time for conversation: {}", conversationId);
                 }
 
-                // Notify others in room
-                com.corundumstudio.socketio.BroadcastOperations roomOps = namespace.getRoomOperations(conversationId);
-                if (roomOps != null) {
-                    roomOps.sendEvent("user_joined",
-                            Map.of(
-                                    "userId", userId,
-                                    "message", messageSourceService.get("chat.user.joined"),
-                                    "timestamp", LocalDateTime.now().toString()
-                            ));
-                }
+                // Notify others in room (presence is ephemeral: only the latest state per user matters)
+                socketEmitter.emitEphemeralToRoom(namespace, conversationId, null, "user_joined",
+                        SocketEmitter.presenceKey(conversationId, userId),
+                        Map.of(
+                                "userId", userId,
+                                "message", messageSourceService.get("chat.user.joined"),
+                                "timestamp", LocalDateTime.now().toString()
+                        ));
 
                 ackRequest.sendAckData("success");
             } catch (Exception e) {
@@ -100,10 +100,8 @@ public class ChatSocketHandler {
                 String userId = client.get("userId");
                 log.info("User {} left conversation {}", userId, conversationId);
 
-                com.corundumstudio.socketio.BroadcastOperations roomOps = namespace.getRoomOperations(conversationId);
-                if (roomOps != null) {
-                    roomOps.sendEvent("user_left", Map.of("userId", userId));
-                }
+                socketEmitter.emitEphemeralToRoom(namespace, conversationId, null, "user_left",
+                        SocketEmitter.presenceKey(conversationId, userId), Map.of("userId", userId));
 
                 ackRequest.sendAckData("success");
             } catch (Exception e) {
@@ -132,10 +130,7 @@ public class ChatSocketHandler {
                 ChatMessageResponse message = messageService.sendMessage(request.getConversationId(), request);
 
                 // Broadcast to conversation room
-                com.corundumstudio.socketio.BroadcastOperations roomOps = namespace.getRoomOperations(request.getConversationId().toString());
-                if (roomOps != null) {
-                    roomOps.sendEvent("receive_message", message);
-                }
+                socketEmitter.emitToRoom(namespace, request.getConversationId().toString(), "receive_message", message);
 
                 log.info("Message sent in conversation {}: {}", request.getConversationId(), message.getId());
                 ackRequest.sendAckData("success", message);
@@ -157,8 +152,24 @@ public class ChatSocketHandler {
             }
         });
 
+        // Typing indicator, relayed to the rest of the room and coalesced per user
+        namespace.addEventListener("typing", String.class, (client, conversationId, ackRequest) -> {
+            String userId = client.get("userId");
+            if (userId == null || !client.getAllRooms().contains(conversationId)) {
+                return;
+            }
+            socketEmitter.emitEphemeralToRoom(namespace, conversationId, client, "user_typing",
+                    SocketEmitter.typingKey(conversationId, userId),
+                    Map.of(
+                            "userId", userId,
+                            "conversationId", conversationId,
+                            "timestamp", LocalDateTime.now().toString()
+                    ));
+        });
+
         // User disconnects
         namespace.addDisconnectListener(client -> {
+            socketEmitter.release(client);
             String userId = client.get("userId");
             log.info("User disconnected: {}", userId);
         });
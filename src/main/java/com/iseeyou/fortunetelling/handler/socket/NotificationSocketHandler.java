@@ -1,8 +1,15 @@
 package com.iseeyou.fortunetelling.handler.socket;
 
+import com.corundumstudio.socketio.SocketIOClient;
 import com.corundumstudio.socketio.SocketIONamespace;
 import com.corundumstudio.socketio.SocketIOServer;
+import com.iseeyou.fortunetelling.repository.user.UserRepository;
+import com.iseeyou.fortunetelling.security.JwtTokenProvider;
+import com.iseeyou.fortunetelling.service.notification.NotificationFanoutService;
+import com.iseeyou.fortunetelling.service.notification.NotificationPresenceService;
+import com.iseeyou.fortunetelling.service.notification.NotificationReplayService;
 import com.iseeyou.fortunetelling.service.socket.SocketIOService;
+import com.iseeyou.fortunetelling.service.socket.SocketEmitter;
 import com.iseeyou.fortunetelling.service.socket.impl.SocketIOServiceImpl;
 import jakarta.annotation.PostConstruct;
 import lombok.RequiredArgsConstructor;
@@ -18,6 +25,14 @@ import java.util.UUID;
 public class NotificationSocketHandler {
     private final SocketIOServer socketIOServer;
     private final SocketIOService socketIOService;
+    private final SocketEmitter socketEmitter;
+    private final NotificationReplayService notificationReplayService;
+    private final NotificationFanoutService notificationFanoutService;
+    private final NotificationPresenceService notificationPresenceService;
+    private final UserRepository userRepository;
+    private final JwtTokenProvider jwtTokenProvider;
+
+    private static final String REPLAY_EVENT = "notification-replay";
 
     @PostConstruct
     public void init() {
@@ -41,6 +56,7 @@ public class NotificationSocketHandler {
                 if (socketIOService instanceof SocketIOServiceImpl) {
                     ((SocketIOServiceImpl) socketIOService).registerUser(userUuid, client);
                 }
+                notificationPresenceService.userConnected(userUuid);
 
                 log.info("User {} connected to notifications namespace with socket id: {}", userId, client.getSessionId());
 
@@ -50,6 +66,15 @@ public class NotificationSocketHandler {
                         "userId", userId
                 ));
 
+                // Client resumes from the last stream id it saw
+                String lastEventId = client.getHandshakeData().getSingleUrlParam("lastEventId");
+                String token = client.getHandshakeData().getSingleUrlParam("token");
+                if (isTokenOf(token, userId)) {
+                    replayMissed(client, userUuid, lastEventId);
+                } else {
+                    log.debug("Skipping notification replay for user {} without a valid token", userId);
+                }
+
             } catch (IllegalArgumentException e) {
                 log.error("Invalid userId format", e);
                 client.disconnect();
@@ -61,6 +86,7 @@ public class NotificationSocketHandler {
 
         // User disconnects from notification namespace
         namespace.addDisconnectListener(client -> {
+            socketEmitter.release(client);
             try {
                 String userId = client.get("userId");
 
@@ -86,4 +112,29 @@ public class NotificationSocketHandler {
 
         log.info("Notification Socket.IO namespace initialized: /notifications");
     }
+
+    private void replayMissed(SocketIOClient client, UUID userId, String lastEventId) {
+        notificationReplayService.replay(userId, lastEventId, () -> userRepository.findById(userId)
+                        .map(notificationFanoutService::materializeBroadcasts)
+                        .orElse(0))
+                .whenComplete((replay, error) -> {
+                    if (error != null) {
+                        log.error("Failed to replay notifications for user {}", userId, error);
+                    } else if (client.isChannelOpen()) {
+                        socketEmitter.emit(client, REPLAY_EVENT, replay);
+                    }
+                });
+    }
+
+    // Replay returns notification history, so unlike live pushes it needs the user's own token
+    private boolean isTokenOf(String token, String userId) {
+        if (token == null || token.isEmpty()) {
+            return false;
+        }
+        try {
+            return jwtTokenProvider.validateToken(token, false) && userId.equals(jwtTokenProvider.getUserIdFromToken(token));
+        } catch (Exception e) {
+            return false;
+        }
+    }
 }
@@ -0,0 +1,43 @@
+package com.iseeyou.fortunetelling.listener;
+
+import com.iseeyou.fortunetelling.entity.knowledge.ItemCategory;
+import com.iseeyou.fortunetelling.entity.knowledge.KnowledgeItem;
+import com.iseeyou.fortunetelling.entity.servicepackage.PackageCategory;
+import com.iseeyou.fortunetelling.entity.servicepackage.ServicePackage;
+import com.iseeyou.fortunetelling.service.search.CatalogSearchService;
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.stereotype.Component;
+
+/**
+ * Keeps the catalog search index current. Only ids are passed on, the index re-reads the rows after commit.
+ * Bulk JPQL updates/deletes bypass entity callbacks and have to notify {@link CatalogSearchService} themselves.
+ */
+@Component
+public class CatalogSearchEntityListener {
+
+    private final CatalogSearchService catalogSearchService;
+
+    // @Lazy: listeners are created with the EntityManagerFactory, before the repositories the service needs
+    public CatalogSearchEntityListener(@Lazy CatalogSearchService catalogSearchService) {
+        this.catalogSearchService = catalogSearchService;
+    }
+
+    @PostPersist
+    @PostUpdate
+    @PostRemove
+    public void onChange(Object entity) {
+        if (entity instanceof ServicePackage servicePackage) {
+            catalogSearchService.packageChanged(servicePackage.getId());
+        } else if (entity instanceof PackageCategory packageCategory && packageCategory.getServicePackage() != null) {
+            // getId() on the lazy proxy does not load the package
+            catalogSearchService.packageChanged(packageCategory.getServicePackage().getId());
+        } else if (entity instanceof KnowledgeItem knowledgeItem) {
+            catalogSearchService.knowledgeItemChanged(knowledgeItem.getId());
+        } else if (entity instanceof ItemCategory itemCategory && itemCategory.getKnowledgeItem() != null) {
+            catalogSearchService.knowledgeItemChanged(itemCategory.getKnowledgeItem().getId());
+        }
+    }
+}
@@ -2,41 +2,56 @@ package com.iseeyou.fortunetelling.repository.booking;
 
 import com.iseeyou.fortunetelling.entity.booking.Booking;
 import com.iseeyou.fortunetelling.entity.user.User;
+import com.iseeyou.fortunetelling.repository.paging.GraphPagingRepository;
 import com.iseeyou.fortunetelling.util.Constants;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.data.jpa.repository.EntityGraph;
-import org.springframework.data.jpa.repository.JpaRepository;
-import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
 
 @Repository
-public interface BookingRepository extends JpaRepository<Booking, UUID>, JpaSpecificationExecutor<Booking> {
+public interface BookingRepository extends GraphPagingRepository<Booking> {
 
     @EntityGraph(attributePaths = {"servicePackage", "customer", "servicePackage.seer", "servicePackage.seer.seerProfile", "bookingPayments", "servicePackage.packageCategories.knowledgeCategory"})
     Optional<Booking> findWithDetailById(UUID id);
 
-    @EntityGraph(attributePaths = {"servicePackage", "customer", "servicePackage.seer","servicePackage.seer.seerProfile", "bookingPayments", "servicePackage.packageCategories.knowledgeCategory"})
-    Page<Booking> findAllByCustomer(User customer, Pageable pageable);
+    @EntityGraph(attributePaths = {"servicePackage", "customer", "servicePackage.seer", "servicePackage.seer.seerProfile", "bookingPayments", "servicePackage.packageCategories.knowledgeCategory"})
+    List<Booking> findAllByIdIn(Collection<UUID> ids);
+
+    default Page<Booking> findAllByCustomer(User customer, Pageable pageable) {
+        return findPage((root, query, cb) -> cb.equal(root.get("customer"), customer), pageable);
+    }
 
-    @EntityGraph(attributePaths = {"servicePackage", "customer", "servicePackage.seer", "bookingPayments", "servicePackage.packageCategories.knowledgeCategory"})
-    @Query("SELECT b FROM Booking b WHERE b.servicePackage.seer = :seer")
-    Page<Booking> findAllBySeer(User seer, Pageable pageable);
+    default Page<Booking> findAllBySeer(User seer, Pageable pageable) {
+        return findPage(bySeer(seer), pageable);
+    }
 
-    @EntityGraph(attributePaths = {"servicePackage", "customer", "servicePackage.seer", "bookingPayments", "servicePackage.packageCategories.knowledgeCategory"})
-    Page<Booking> findAllByCustomerAndStatus(User customer, Constants.BookingStatusEnum status, Pageable pageable);
+    default Page<Booking> findAllByCustomerAndStatus(User customer, Constants.BookingStatusEnum status, Pageable pageable) {
+        return findPage((root, query, cb) -> cb.and(
+                cb.equal(root.get("customer"), customer),
+                cb.equal(root.get("status"), status)), pageable);
+    }
 
-    @EntityGraph(attributePaths = {"servicePackage", "customer", "servicePackage.seer", "bookingPayments", "servicePackage.packageCategories.knowledgeCategory"})
-    @Query("SELECT b FROM Booking b WHERE b.servicePackage.seer = :seer AND b.status = :status")
-    Page<Booking> findAllBySeerAndStatus(User seer, Constants.BookingStatusEnum status, Pageable pageable);
+    default Page<Booking> findAllBySeerAndStatus(User seer, Constants.BookingStatusEnum status, Pageable pageable) {
+        return findPage(bySeer(seer).and((root, query, cb) -> cb.equal(root.get("status"), status)), pageable);
+    }
 
-    @EntityGraph(attributePaths = {"servicePackage", "customer", "servicePackage.seer", "bookingPayments", "servicePackage.packageCategories.knowledgeCategory"})
-    Page<Booking> findAllByStatus(Constants.BookingStatusEnum status, Pageable pageable);
+    default Page<Booking> findAllByStatus(Constants.BookingStatusEnum status, Pageable pageable) {
+        return findPage((root, query, cb) -> cb.equal(root.get("status"), status), pageable);
+    }
+
+    private static Specification<Booking> bySeer(User seer) {
+        return (root, query, cb) -> cb.equal(root.get("servicePackage").get("seer"), seer);
+    }
 
     // Thống kê booking cho seer
     @Query("SELECT COUNT(b) FROM Booking b WHERE b.servicePackage.seer = :seer")
@@ -49,9 +64,11 @@ public interface BookingRepository extends JpaRepository<Booking, UUID>, JpaSpec
            "WHERE b.servicePackage.seer = :seer AND bp.status = :paymentStatus")
     Double getTotalRevenueBySeer(User seer, Constants.PaymentStatusEnum paymentStatus);
 
-    @EntityGraph(attributePaths = {"servicePackage", "customer", "bookingPayments"})
-    @Query("SELECT b FROM Booking b WHERE b.servicePackage.seer = :seer ORDER BY b.scheduledTime DESC")
-    List<Booking> findRecentBookingsBySeer(User seer, Pageable pageable);
+    // Newest by scheduled time, only the page number and size of the pageable are used
+    default List<Booking> findRecentBookingsBySeer(User seer, Pageable pageable) {
+        return findList(bySeer(seer), PageRequest.of(pageable.getPageNumber(), pageable.getPageSize(),
+                Sort.by(Sort.Direction.DESC, "scheduledTime")));
+    }
 
     // Review related queries
     @EntityGraph(attributePaths = {"servicePackage", "customer"})
@@ -63,5 +80,6 @@ public interface BookingRepository extends JpaRepository<Booking, UUID>, JpaSpec
 
     @Query("SELECT AVG(b.rating) FROM Booking b WHERE b.servicePackage.id = :packageId AND b.rating IS NOT NULL")
     Double getAverageRatingByServicePackageId(UUID packageId);
+
 }
 
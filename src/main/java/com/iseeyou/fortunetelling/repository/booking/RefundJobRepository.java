@@ -0,0 +1,48 @@
+package com.iseeyou.fortunetelling.repository.booking;
+
+import com.iseeyou.fortunetelling.entity.booking.RefundJob;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+@Repository
+public interface RefundJobRepository extends JpaRepository<RefundJob, UUID> {
+
+    /**
+     * Marks up to {@code limit} jobs RUNNING for this worker: due pending ones and running ones whose lease expired.
+     * SKIP LOCKED lets several instances claim side by side. Returns (job id, booking id, attempts).
+     */
+    @Transactional
+    @Query(value = "UPDATE refund_job SET status = 'RUNNING', locked_until = :lockedUntil, " +
+            "attempts = attempts + 1, updated_at = :now " +
+            "WHERE refund_job_id IN (SELECT refund_job_id FROM refund_job " +
+            "WHERE (status = 'PENDING' AND next_attempt_at <= :now) OR (status = 'RUNNING' AND locked_until < :now) " +
+            "ORDER BY next_attempt_at LIMIT :limit FOR UPDATE SKIP LOCKED) " +
+            "RETURNING refund_job_id, booking_id, attempts",
+            nativeQuery = true)
+    List<Object[]> claimDue(@Param("now") LocalDateTime now,
+                            @Param("lockedUntil") LocalDateTime lockedUntil,
+                            @Param("limit") int limit);
+
+    // Only the claim that is still current may finish the job (attempts fences off a worker whose lease expired)
+    @Modifying
+    @Query(value = "UPDATE refund_job SET status = :status, last_error = :lastError, next_attempt_at = :nextAttemptAt, " +
+            "locked_until = NULL, updated_at = :now " +
+            "WHERE refund_job_id = :jobId AND status = 'RUNNING' AND attempts = :attempts",
+            nativeQuery = true)
+    int finish(@Param("jobId") UUID jobId,
+               @Param("attempts") int attempts,
+               @Param("status") String status,
+               @Param("lastError") String lastError,
+               @Param("nextAttemptAt") LocalDateTime nextAttemptAt,
+               @Param("now") LocalDateTime now);
+
+    List<RefundJob> findAllByServicePackageIdOrderByCreatedAtAsc(UUID servicePackageId);
+}
@@ -2,34 +2,48 @@ package com.iseeyou.fortunetelling.repository.certificate;
 
 import com.iseeyou.fortunetelling.entity.certificate.Certificate;
 import com.iseeyou.fortunetelling.entity.certificate.CertificateCategory;
+import com.iseeyou.fortunetelling.repository.paging.CollectionSpecifications;
+import com.iseeyou.fortunetelling.repository.paging.GraphPagingRepository;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.data.jpa.repository.EntityGraph;
-import org.springframework.data.jpa.repository.JpaRepository;
-import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
-import org.springframework.data.jpa.repository.Query;
-import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Set;
 import java.util.UUID;
 
 @Repository
-public interface CertificateRepository extends JpaRepository<Certificate, UUID>, JpaSpecificationExecutor<Certificate> {
-    @EntityGraph(attributePaths = {"certificateCategories.knowledgeCategory", "seer"})
-    Page<Certificate> findAllBySeer_Id(UUID seerId, Pageable pageable);
+public interface CertificateRepository extends GraphPagingRepository<Certificate> {
+    default Page<Certificate> findAllBySeer_Id(UUID seerId, Pageable pageable) {
+        return findPage(bySeer(seerId), pageable);
+    }
 
     Set<Certificate> findAllByCertificateCategories(Set<CertificateCategory> certificateCategories);
 
     @Override
-    @EntityGraph(attributePaths = {"certificateCategories.knowledgeCategory", "seer"})
-    Page<Certificate> findAll(Pageable pageable);
+    default Page<Certificate> findAll(Pageable pageable) {
+        return findPage(null, pageable);
+    }
 
     @EntityGraph(attributePaths = {"certificateCategories.knowledgeCategory", "seer"})
-    @Query("SELECT c FROM Certificate c JOIN c.certificateCategories cc WHERE c.seer.id = :seerId AND cc.knowledgeCategory.id = :categoryId")
-    Page<Certificate> findBySeerIdAndCategoryId(@Param("seerId") UUID seerId, @Param("categoryId") UUID categoryId, Pageable pageable);
+    List<Certificate> findAllByIdIn(Collection<UUID> ids);
 
-    @EntityGraph(attributePaths = {"certificateCategories.knowledgeCategory", "seer"})
-    @Query("SELECT c FROM Certificate c JOIN c.certificateCategories cc WHERE cc.knowledgeCategory.id = :categoryId")
-    Page<Certificate> findByCategoryId(@Param("categoryId") UUID categoryId, Pageable pageable);
+    default Page<Certificate> findBySeerIdAndCategoryId(UUID seerId, UUID categoryId, Pageable pageable) {
+        return findPage(bySeer(seerId).and(byCategory(categoryId)), pageable);
+    }
+
+    default Page<Certificate> findByCategoryId(UUID categoryId, Pageable pageable) {
+        return findPage(byCategory(categoryId), pageable);
+    }
+
+    private static Specification<Certificate> bySeer(UUID seerId) {
+        return (root, query, cb) -> cb.equal(root.get("seer").get("id"), seerId);
+    }
+
+    private static Specification<Certificate> byCategory(UUID categoryId) {
+        return CollectionSpecifications.anyIn("certificateCategories", "knowledgeCategory.id", List.of(categoryId));
+    }
 }
@@ -50,6 +50,18 @@ public interface ConversationRepository extends JpaRepository<Conversation, UUID
             @Param("now") LocalDateTime now
     );
 
+    // Finished conversations whose messages are still in the hot message table
+    @Query("SELECT conv.id FROM Conversation conv WHERE " +
+            "conv.status IN :statuses AND " +
+            "conv.archivedAt IS NULL AND " +
+            "COALESCE(conv.sessionEndTime, conv.updatedAt) < :cutoff " +
+            "ORDER BY COALESCE(conv.sessionEndTime, conv.updatedAt)")
+    List<UUID> findArchivableConversationIds(
+            @Param("statuses") List<Constants.ConversationStatusEnum> statuses,
+            @Param("cutoff") LocalDateTime cutoff,
+            Pageable pageable
+    );
+
     // FOR ADMIN: Get all conversations with filters (participant name, conversation type, statuses)
     @Query("SELECT DISTINCT conv FROM Conversation conv " +
             "LEFT JOIN FETCH conv.booking b " +
@@ -9,6 +9,8 @@ import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Set;
 import java.util.UUID;
 
@@ -18,4 +20,8 @@ public interface ItemCategoryRepository extends JpaRepository<ItemCategory, UUID
     @Transactional
     @Query("DELETE FROM ItemCategory ic WHERE ic.knowledgeItem.id = :itemId AND ic.knowledgeCategory.id IN :categoryIds")
     void deleteAllByKnowledgeItem_IdAndKnowledgeCategory_IdIn(@Param("itemId") UUID itemId, @Param("categoryIds") Set<UUID> categoryIds);
+
+    // (item id, category id) pairs for the search index
+    @Query("SELECT ic.knowledgeItem.id, ic.knowledgeCategory.id FROM ItemCategory ic WHERE ic.knowledgeItem.id IN :itemIds")
+    List<Object[]> findCategoryIdsByItemIds(@Param("itemIds") Collection<UUID> itemIds);
 }
\ No newline at end of file
@@ -1,42 +1,59 @@
 package com.iseeyou.fortunetelling.repository.knowledge;
 
 import com.iseeyou.fortunetelling.entity.knowledge.KnowledgeItem;
+import com.iseeyou.fortunetelling.repository.paging.GraphPagingRepository;
 import com.iseeyou.fortunetelling.util.Constants;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.EntityGraph;
-import org.springframework.data.jpa.repository.JpaRepository;
-import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.UUID;
 
 @Repository
-public interface KnowledgeItemRepository extends JpaRepository<KnowledgeItem, UUID>, JpaSpecificationExecutor<KnowledgeItem> {
-    @EntityGraph(attributePaths = {"itemCategories.knowledgeCategory"})
-    Page<KnowledgeItem> findAllByStatus(Constants.KnowledgeItemStatusEnum status, Pageable pageable);
+public interface KnowledgeItemRepository extends GraphPagingRepository<KnowledgeItem> {
+
+    // ids / deltas are Postgres array literals of the same length, one statement per flush
+    @Modifying
+    @Transactional
+    @Query(value = "UPDATE knowledge_item k SET view_count = k.view_count + v.delta " +
+            "FROM unnest(CAST(:ids AS uuid[]), CAST(:deltas AS bigint[])) AS v(id, delta) " +
+            "WHERE k.item_id = v.id",
+            nativeQuery = true)
+    int addViewCounts(@Param("ids") String ids, @Param("deltas") String deltas);
+
+    default Page<KnowledgeItem> findAllByStatus(Constants.KnowledgeItemStatusEnum status, Pageable pageable) {
+        return findPage((root, query, cb) -> cb.equal(root.get("status"), status), pageable);
+    }
 
     @Override
-    @EntityGraph(attributePaths = {"itemCategories.knowledgeCategory"})
-    Page<KnowledgeItem> findAll(Pageable pageable);
+    default Page<KnowledgeItem> findAll(Pageable pageable) {
+        return findPage(null, pageable);
+    }
 
-    @EntityGraph(attributePaths = {"itemCategories.knowledgeCategory"})
-    @Query("SELECT DISTINCT ki FROM KnowledgeItem ki JOIN ki.itemCategories ic WHERE ic.knowledgeCategory.id = :categoryId")
-    Page<KnowledgeItem> findAllByKnowledgeCategory_Id(@Param("categoryId") UUID categoryId, Pageable pageable);
+    default Page<KnowledgeItem> findAllByKnowledgeCategory_Id(UUID categoryId, Pageable pageable) {
+        return findPage(KnowledgeItemSpecification.inCategories(List.of(categoryId)), pageable);
+    }
+
+    default Page<KnowledgeItem> search(String title, List<UUID> categoryIds, Constants.KnowledgeItemStatusEnum status,
+                                       Pageable pageable) {
+        return findPage(KnowledgeItemSpecification.search(title, categoryIds, status), pageable);
+    }
 
+    // Second step of every page above, also hydrates id pages from the search index
     @EntityGraph(attributePaths = {"itemCategories.knowledgeCategory"})
-    @Query("SELECT DISTINCT knowledgeItem FROM KnowledgeItem knowledgeItem " +
-            "LEFT JOIN knowledgeItem.itemCategories itemCategories " +
-            "WHERE (:title IS NULL OR LOWER(knowledgeItem.title) LIKE LOWER(CONCAT('%', :title, '%'))) " +
-            "AND (:categoryIds IS NULL OR itemCategories.knowledgeCategory.id IN :categoryIds) " +
-            "AND (:status IS NULL OR knowledgeItem.status = :status)")
-    Page<KnowledgeItem> search(
-            @Param("title") String title,
-            @Param("categoryIds") List<UUID> categoryIds,
-            @Param("status") Constants.KnowledgeItemStatusEnum status,
-            Pageable pageable
-    );
+    List<KnowledgeItem> findAllByIdIn(Collection<UUID> ids);
+
+    @Query("SELECT k.id FROM KnowledgeItem k")
+    List<UUID> findAllIds();
+
+    // Search index documents: id, title, content, status, createdAt
+    @Query("SELECT k.id, k.title, k.content, k.status, k.createdAt FROM KnowledgeItem k WHERE k.id IN :ids")
+    List<Object[]> findSearchDocuments(@Param("ids") Collection<UUID> ids);
 }
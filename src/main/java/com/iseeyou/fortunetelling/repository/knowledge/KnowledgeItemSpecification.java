@@ -0,0 +1,37 @@
+package com.iseeyou.fortunetelling.repository.knowledge;
+
+import com.iseeyou.fortunetelling.entity.knowledge.KnowledgeItem;
+import com.iseeyou.fortunetelling.repository.paging.CollectionSpecifications;
+import com.iseeyou.fortunetelling.util.Constants;
+import jakarta.persistence.criteria.Predicate;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+public class KnowledgeItemSpecification {
+
+    public static Specification<KnowledgeItem> inCategories(List<UUID> categoryIds) {
+        return CollectionSpecifications.anyIn("itemCategories", "knowledgeCategory.id", categoryIds);
+    }
+
+    // Null arguments don't filter
+    public static Specification<KnowledgeItem> search(String title, List<UUID> categoryIds,
+                                                      Constants.KnowledgeItemStatusEnum status) {
+        return (root, query, criteriaBuilder) -> {
+            List<Predicate> predicates = new ArrayList<>();
+            if (title != null) {
+                predicates.add(criteriaBuilder.like(
+                        criteriaBuilder.lower(root.get("title")), "%" + title.toLowerCase() + "%"));
+            }
+            if (categoryIds != null) {
+                predicates.add(inCategories(categoryIds).toPredicate(root, query, criteriaBuilder));
+            }
+            if (status != null) {
+                predicates.add(criteriaBuilder.equal(root.get("status"), status));
+            }
+            return criteriaBuilder.and(predicates.toArray(new Predicate[0]));
+        };
+    }
+}
@@ -0,0 +1,73 @@
+package com.iseeyou.fortunetelling.repository.message;
+
+import com.iseeyou.fortunetelling.entity.MediaUpload;
+import com.iseeyou.fortunetelling.util.Constants;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+
+public interface MediaUploadRepository extends JpaRepository<MediaUpload, UUID> {
+
+    // Insert-only so parallel chunk PUTs of the same upload never overwrite each other
+    @Modifying
+    @Transactional
+    @Query(value = "INSERT INTO media_upload_chunk (media_upload_id, chunk_index) VALUES (:uploadId, :chunkIndex) " +
+            "ON CONFLICT DO NOTHING", nativeQuery = true)
+    void addReceivedChunk(@Param("uploadId") UUID uploadId, @Param("chunkIndex") int chunkIndex);
+
+    @Modifying
+    @Transactional
+    @Query("UPDATE MediaUpload u SET u.lastChunkAt = :now WHERE u.id = :uploadId")
+    void touchLastChunkAt(@Param("uploadId") UUID uploadId, @Param("now") LocalDateTime now);
+
+    @Query(value = "SELECT chunk_index FROM media_upload_chunk WHERE media_upload_id = :uploadId ORDER BY chunk_index",
+            nativeQuery = true)
+    List<Integer> findReceivedChunks(@Param("uploadId") UUID uploadId);
+
+    // Compare-and-set on the status: of two nodes completing the same upload only one gets 1 back and processes it
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE MediaUpload u SET u.status = :to, u.errorMessage = :errorMessage, u.updatedAt = :now " +
+            "WHERE u.id = :uploadId AND u.status IN :from")
+    int transitionStatus(@Param("uploadId") UUID uploadId,
+                         @Param("from") Collection<Constants.MediaUploadStatusEnum> from,
+                         @Param("to") Constants.MediaUploadStatusEnum to,
+                         @Param("errorMessage") String errorMessage,
+                         @Param("now") LocalDateTime now);
+
+    // Only while still stuck: a node that already released it, or a fresh claim since, makes this a no-op
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE MediaUpload u SET u.status = :to, u.errorMessage = :errorMessage, u.updatedAt = :now " +
+            "WHERE u.id = :uploadId AND u.status = com.iseeyou.fortunetelling.util.Constants.MediaUploadStatusEnum.PROCESSING " +
+            "AND u.updatedAt < :cutoff")
+    int releaseStuckUpload(@Param("uploadId") UUID uploadId,
+                           @Param("to") Constants.MediaUploadStatusEnum to,
+                           @Param("errorMessage") String errorMessage,
+                           @Param("cutoff") LocalDateTime cutoff,
+                           @Param("now") LocalDateTime now);
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE MediaUpload u SET u.status = com.iseeyou.fortunetelling.util.Constants.MediaUploadStatusEnum.COMPLETED, " +
+            "u.url = :url, u.updatedAt = :now " +
+            "WHERE u.id = :uploadId AND u.status = com.iseeyou.fortunetelling.util.Constants.MediaUploadStatusEnum.PROCESSING")
+    int markCompleted(@Param("uploadId") UUID uploadId, @Param("url") String url, @Param("now") LocalDateTime now);
+
+    // PROCESSING since before the cutoff: the claim sets updatedAt, so it is when processing started
+    @Query("SELECT u FROM MediaUpload u WHERE u.status = com.iseeyou.fortunetelling.util.Constants.MediaUploadStatusEnum.PROCESSING " +
+            "AND u.updatedAt < :cutoff")
+    List<MediaUpload> findStuckProcessingUploads(@Param("cutoff") LocalDateTime cutoff);
+
+    // Uploads that stopped receiving chunks before the cutoff (abandoned by the client)
+    @Query("SELECT u FROM MediaUpload u WHERE u.status IN :statuses " +
+            "AND COALESCE(u.lastChunkAt, u.createdAt) < :cutoff")
+    List<MediaUpload> findStaleUploads(
+            @Param("statuses") List<Constants.MediaUploadStatusEnum> statuses,
+            @Param("cutoff") LocalDateTime cutoff
+    );
+}
@@ -0,0 +1,11 @@
+package com.iseeyou.fortunetelling.repository.message;
+
+import com.iseeyou.fortunetelling.entity.MessageArchiveIndex;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+import java.util.Optional;
+import java.util.UUID;
+
+public interface MessageArchiveIndexRepository extends JpaRepository<MessageArchiveIndex, UUID> {
+    Optional<MessageArchiveIndex> findByConversationId(UUID conversationId);
+}
@@ -4,6 +4,7 @@ import com.iseeyou.fortunetelling.entity.Message;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 
@@ -11,7 +12,7 @@ import java.time.LocalDateTime;
 import java.util.List;
 import java.util.UUID;
 
-public interface MessageRepository extends JpaRepository<Message, UUID> {
+public interface MessageRepository extends JpaRepository<Message, UUID>, MessageSearchRepository {
     Page<Message> findByConversation_IdOrderByCreatedAtDesc(UUID conversationId, Pageable pageable);
     List<Message> findByConversation_Id(UUID conversationId);
 
@@ -75,4 +76,15 @@ public interface MessageRepository extends JpaRepository<Message, UUID> {
             @Param("senderId") UUID senderId,
             @Param("timeLimit") LocalDateTime timeLimit
     );
+
+    // Load every message of a conversation for archival (deletedByUserIds fetched in the same query)
+    @Query("SELECT DISTINCT m FROM Message m " +
+            "LEFT JOIN FETCH m.deletedByUserIds " +
+            "WHERE m.conversation.id = :conversationId")
+    List<Message> findAllForArchive(@Param("conversationId") UUID conversationId);
+
+    // Bulk delete, Hibernate also clears the message_deleted_by collection table
+    @Modifying
+    @Query("DELETE FROM Message m WHERE m.conversation.id = :conversationId")
+    int deleteAllByConversationId(@Param("conversationId") UUID conversationId);
 }
@@ -0,0 +1,20 @@
+package com.iseeyou.fortunetelling.repository.message;
+
+import com.iseeyou.fortunetelling.dto.Internal.MessageSearchHit;
+
+import java.util.List;
+import java.util.UUID;
+
+public interface MessageSearchRepository {
+
+    /**
+     * Full-text search over the messages visible to the user (participant of the conversation,
+     * not recalled, not deleted on their side), best match first.
+     *
+     * @param tsQuery        to_tsquery('simple', ...) expression built from folded terms
+     * @param conversationId restrict to one conversation, or null for all of the user's conversations
+     * @param after          last hit of the previous page, or null for the first page
+     */
+    List<MessageSearchHit> searchVisibleMessages(UUID userId, String tsQuery, UUID conversationId,
+                                                 MessageSearchHit after, int limit);
+}
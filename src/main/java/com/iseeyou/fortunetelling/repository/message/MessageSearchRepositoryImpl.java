@@ -0,0 +1,94 @@
+package com.iseeyou.fortunetelling.repository.message;
+
+import com.iseeyou.fortunetelling.dto.Internal.MessageSearchHit;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.Query;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+public class MessageSearchRepositoryImpl implements MessageSearchRepository {
+
+    // Visibility is resolved with joins only (anti-join on message_deleted_by), no per-row subqueries,
+    // so the planner can drive the query from the GIN index on search_vector. Package-private for the plan test.
+    static final String SEARCH_SQL =
+            "SELECT s.message_id, s.conversation_id, s.sender_id, s.text_content, s.created_at, s.rank FROM (" +
+            "  SELECT m.message_id, m.conversation_conversation_id AS conversation_id, m.sender_id, " +
+            "         m.text_content, m.created_at, CAST(ts_rank_cd(m.search_vector, q) AS real) AS rank " +
+            "  FROM message m " +
+            "  CROSS JOIN to_tsquery('simple', :tsQuery) q " +
+            "  JOIN conversation c ON c.conversation_id = m.conversation_conversation_id " +
+            "  JOIN booking b ON b.booking_id = c.booking_id " +
+            "  JOIN service_package sp ON sp.package_id = b.service_package_id " +
+            "  LEFT JOIN message_deleted_by d ON d.message_id = m.message_id AND d.user_id = :userId " +
+            "  WHERE m.search_vector @@ q " +
+            "    AND d.message_id IS NULL " +
+            "    AND m.is_recalled = false " +
+            "    AND m.is_deleted = false " +
+            "    AND (b.customer_id = :userId OR sp.seer_id = :userId) " +
+            "    %s" +
+            ") s %s " +
+            "ORDER BY s.rank DESC, s.created_at DESC, s.message_id DESC " +
+            "LIMIT :limit";
+
+    private static final String CONVERSATION_FILTER = "AND m.conversation_conversation_id = :conversationId ";
+
+    // Transaction-scoped. A cached generic plan cannot see :userId and walks every conversation of the
+    // table by index; a plan made for the caller picks between that and the GIN index per user.
+    private static final String CUSTOM_PLAN_SQL = "SELECT set_config('plan_cache_mode', 'force_custom_plan', true)";
+
+    private static final String KEYSET_FILTER =
+            "WHERE s.rank < :afterRank " +
+            "OR (s.rank = :afterRank AND (s.created_at, s.message_id) < (:afterCreatedAt, :afterId)) ";
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public List<MessageSearchHit> searchVisibleMessages(UUID userId, String tsQuery, UUID conversationId,
+                                                        MessageSearchHit after, int limit) {
+        String sql = String.format(SEARCH_SQL,
+                conversationId != null ? CONVERSATION_FILTER : "",
+                after != null ? KEYSET_FILTER : "");
+
+        entityManager.createNativeQuery(CUSTOM_PLAN_SQL).getSingleResult();
+        Query query = entityManager.createNativeQuery(sql)
+                .setParameter("tsQuery", tsQuery)
+                .setParameter("userId", userId)
+                .setParameter("limit", limit);
+        if (conversationId != null) {
+            query.setParameter("conversationId", conversationId);
+        }
+        if (after != null) {
+            query.setParameter("afterRank", after.getRank())
+                    .setParameter("afterCreatedAt", after.getCreatedAt())
+                    .setParameter("afterId", after.getMessageId());
+        }
+
+        List<Object[]> rows = query.getResultList();
+        List<MessageSearchHit> hits = new ArrayList<>(rows.size());
+        for (Object[] row : rows) {
+            hits.add(MessageSearchHit.builder()
+                    .messageId((UUID) row[0])
+                    .conversationId((UUID) row[1])
+                    .senderId((UUID) row[2])
+                    .textContent((String) row[3])
+                    .createdAt(toLocalDateTime(row[4]))
+                    .rank(((Number) row[5]).floatValue())
+                    .build());
+        }
+        return hits;
+    }
+
+    private static LocalDateTime toLocalDateTime(Object value) {
+        if (value instanceof Timestamp timestamp) {
+            return timestamp.toLocalDateTime();
+        }
+        return (LocalDateTime) value;
+    }
+}
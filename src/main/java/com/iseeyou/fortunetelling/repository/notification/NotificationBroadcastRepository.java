@@ -0,0 +1,59 @@
+package com.iseeyou.fortunetelling.repository.notification;
+
+import com.iseeyou.fortunetelling.entity.NotificationBroadcast;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+public interface NotificationBroadcastRepository extends JpaRepository<NotificationBroadcast, UUID> {
+
+    // Copies the broadcasts the user has not received yet into their inbox, in one statement.
+    // The unique (recipient_id, broadcast_id) index makes concurrent reads of the same user harmless.
+    @Modifying
+    @Transactional
+    @Query(value = "INSERT INTO notification (notification_id, created_at, updated_at, is_read, notification_type, " +
+            "notification_title, notification_body, recipient_id, broadcast_id) " +
+            "SELECT gen_random_uuid(), b.created_at, now(), false, b.notification_type, " +
+            "b.notification_title, b.notification_body, :userId, b.notification_broadcast_id " +
+            "FROM notification_broadcast b " +
+            "WHERE b.audience IN (:audiences) AND b.created_at >= :since " +
+            "AND NOT EXISTS (SELECT 1 FROM notification n " +
+            "WHERE n.recipient_id = :userId AND n.broadcast_id = b.notification_broadcast_id) " +
+            "ON CONFLICT (recipient_id, broadcast_id) WHERE broadcast_id IS NOT NULL DO NOTHING",
+            nativeQuery = true)
+    int materializeForUser(
+            @Param("userId") UUID userId,
+            @Param("audiences") List<String> audiences,
+            @Param("since") LocalDateTime since
+    );
+
+    // Same copy for a batch of users at once (online users right after the broadcast is created)
+    @Modifying
+    @Transactional
+    @Query(value = "INSERT INTO notification (notification_id, created_at, updated_at, is_read, notification_type, " +
+            "notification_title, notification_body, recipient_id, broadcast_id) " +
+            "SELECT gen_random_uuid(), b.created_at, now(), false, b.notification_type, " +
+            "b.notification_title, b.notification_body, u.user_id, b.notification_broadcast_id " +
+            "FROM notification_broadcast b JOIN \"user\" u ON u.user_id IN (:userIds) " +
+            "WHERE b.notification_broadcast_id = :broadcastId " +
+            "ON CONFLICT (recipient_id, broadcast_id) WHERE broadcast_id IS NOT NULL DO NOTHING",
+            nativeQuery = true)
+    int materializeForUsers(
+            @Param("broadcastId") UUID broadcastId,
+            @Param("userIds") List<UUID> userIds
+    );
+
+    // Copies are purged or compacted by then; a copy that is still around keeps its broadcast
+    @Modifying
+    @Transactional
+    @Query(value = "DELETE FROM notification_broadcast b WHERE b.created_at < :cutoff " +
+            "AND NOT EXISTS (SELECT 1 FROM notification n WHERE n.broadcast_id = b.notification_broadcast_id)",
+            nativeQuery = true)
+    int deleteUnreferencedCreatedBefore(@Param("cutoff") LocalDateTime cutoff);
+}
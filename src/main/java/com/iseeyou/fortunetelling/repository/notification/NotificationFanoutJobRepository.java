@@ -0,0 +1,59 @@
+package com.iseeyou.fortunetelling.repository.notification;
+
+import com.iseeyou.fortunetelling.entity.NotificationFanoutJob;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+@Repository
+public interface NotificationFanoutJobRepository extends JpaRepository<NotificationFanoutJob, UUID> {
+
+    /**
+     * Marks up to {@code limit} jobs RUNNING for this worker: due pending ones and running ones whose lease expired.
+     * Returns (job id, attempts).
+     */
+    @Transactional
+    @Query(value = "UPDATE notification_fanout_job SET status = 'RUNNING', locked_until = :lockedUntil, " +
+            "attempts = attempts + 1, updated_at = :now " +
+            "WHERE notification_fanout_job_id IN (SELECT notification_fanout_job_id FROM notification_fanout_job " +
+            "WHERE (status = 'PENDING' AND next_attempt_at <= :now) OR (status = 'RUNNING' AND locked_until < :now) " +
+            "ORDER BY next_attempt_at LIMIT :limit FOR UPDATE SKIP LOCKED) " +
+            "RETURNING notification_fanout_job_id, attempts",
+            nativeQuery = true)
+    List<Object[]> claimDue(@Param("now") LocalDateTime now,
+                            @Param("lockedUntil") LocalDateTime lockedUntil,
+                            @Param("limit") int limit);
+
+    // Committed together with the chunk it counts, and renews the lease; 0 when another worker took the job over
+    @Modifying
+    @Query(value = "UPDATE notification_fanout_job SET total_recipients = :total, processed_recipients = :processed, " +
+            "delivered_count = :delivered, locked_until = :lockedUntil, updated_at = :now " +
+            "WHERE notification_fanout_job_id = :jobId AND status = 'RUNNING' AND attempts = :attempts",
+            nativeQuery = true)
+    int recordProgress(@Param("jobId") UUID jobId,
+                       @Param("attempts") int attempts,
+                       @Param("total") int total,
+                       @Param("processed") int processed,
+                       @Param("delivered") int delivered,
+                       @Param("lockedUntil") LocalDateTime lockedUntil,
+                       @Param("now") LocalDateTime now);
+
+    @Modifying
+    @Query(value = "UPDATE notification_fanout_job SET status = :status, last_error = :lastError, " +
+            "next_attempt_at = :nextAttemptAt, locked_until = NULL, updated_at = :now " +
+            "WHERE notification_fanout_job_id = :jobId AND status = 'RUNNING' AND attempts = :attempts",
+            nativeQuery = true)
+    int finish(@Param("jobId") UUID jobId,
+               @Param("attempts") int attempts,
+               @Param("status") String status,
+               @Param("lastError") String lastError,
+               @Param("nextAttemptAt") LocalDateTime nextAttemptAt,
+               @Param("now") LocalDateTime now);
+}
@@ -10,8 +10,12 @@ import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 import java.util.UUID;
 
 public interface NotificationRepository extends JpaRepository<Notification, UUID> {
@@ -43,14 +47,77 @@ public interface NotificationRepository extends JpaRepository<Notification, UUID
     @Query("SELECT COUNT(n) FROM Notification n WHERE n.recipient = :recipient AND n.isRead = false")
     Long countUnreadByRecipient(@Param("recipient") User recipient);
 
+    @Query("SELECT COUNT(n) FROM Notification n WHERE n.recipient.id = :recipientId AND n.isRead = false")
+    long countUnreadByRecipientId(@Param("recipientId") UUID recipientId);
+
+    // Rows are (recipientId, unreadCount), recipients without unread notifications are absent
+    @Query("SELECT n.recipient.id, COUNT(n) FROM Notification n " +
+            "WHERE n.recipient.id IN :recipientIds AND n.isRead = false GROUP BY n.recipient.id")
+    List<Object[]> countUnreadByRecipientIds(@Param("recipientIds") Collection<UUID> recipientIds);
+
+    // Replay fallback when the stream no longer covers the gap: oldest first, ties broken by id
+    @Query("SELECT n FROM Notification n WHERE n.recipient.id = :recipientId AND n.createdAt >= :since " +
+            "ORDER BY n.createdAt ASC, n.id ASC")
+    List<Notification> findCreatedSinceByRecipientId(@Param("recipientId") UUID recipientId,
+                                                     @Param("since") LocalDateTime since,
+                                                     Pageable pageable);
+
     @Modifying
     @Query("UPDATE Notification n SET n.isRead = true WHERE n.recipient = :recipient AND n.isRead = false")
     int markAllAsReadByRecipient(@Param("recipient") User recipient);
 
+    // Conditional on is_read = false: of two concurrent calls only one flips the row, so only one gets 1 back
+    @Modifying
+    @Query("UPDATE Notification n SET n.isRead = true WHERE n.id = :id AND n.isRead = false")
+    int markAsReadById(@Param("id") UUID id);
+
     @Modifying
-    @Query("UPDATE Notification n SET n.isRead = true WHERE n.id IN :ids AND n.recipient = :recipient")
+    @Query("UPDATE Notification n SET n.isRead = true WHERE n.id IN :ids AND n.recipient = :recipient AND n.isRead = false")
     int markAsReadByIds(@Param("ids") List<UUID> ids, @Param("recipient") User recipient);
 
     @Query("SELECT n FROM Notification n WHERE n.id IN :ids AND n.recipient = :recipient")
     List<Notification> findAllByIdsAndRecipient(@Param("ids") List<UUID> ids, @Param("recipient") User recipient);
+
+    @Query("SELECT n FROM Notification n WHERE n.broadcastId = :broadcastId AND n.recipient.id IN :recipientIds")
+    List<Notification> findAllByBroadcastIdAndRecipientIds(
+            @Param("broadcastId") UUID broadcastId,
+            @Param("recipientIds") List<UUID> recipientIds
+    );
+
+    // Retention: deletes go by ctid in bounded chunks, rows locked by a concurrent mark-as-read are skipped
+    @Modifying
+    @Transactional
+    @Query(value = "DELETE FROM notification WHERE ctid IN (SELECT ctid FROM notification " +
+            "WHERE is_read = true AND created_at < :cutoff LIMIT :limit FOR UPDATE SKIP LOCKED)",
+            nativeQuery = true)
+    int deleteReadCreatedBefore(@Param("cutoff") LocalDateTime cutoff, @Param("limit") int limit);
+
+    @Query(value = "SELECT DISTINCT recipient_id FROM notification " +
+            "WHERE is_read = false AND digest_count IS NULL AND created_at < :cutoff LIMIT :limit",
+            nativeQuery = true)
+    List<UUID> findRecipientsWithUnreadCreatedBefore(@Param("cutoff") LocalDateTime cutoff, @Param("limit") int limit);
+
+    @Modifying
+    @Query(value = "DELETE FROM notification WHERE recipient_id = :recipientId " +
+            "AND is_read = false AND digest_count IS NULL AND created_at < :cutoff",
+            nativeQuery = true)
+    int deleteUnreadCreatedBefore(@Param("recipientId") UUID recipientId, @Param("cutoff") LocalDateTime cutoff);
+
+    @Query("SELECT n FROM Notification n WHERE n.recipient.id = :recipientId " +
+            "AND n.digestCount IS NOT NULL AND n.isRead = false")
+    Optional<Notification> findUnreadDigest(@Param("recipientId") UUID recipientId);
+
+    @Query(value = "SELECT recipient_id FROM notification WHERE is_read = true " +
+            "GROUP BY recipient_id HAVING count(*) > :cap LIMIT :limit",
+            nativeQuery = true)
+    List<UUID> findRecipientsWithReadOver(@Param("cap") int cap, @Param("limit") int limit);
+
+    // Keeps the newest :cap read notifications of the recipient
+    @Modifying
+    @Transactional
+    @Query(value = "DELETE FROM notification WHERE ctid IN (SELECT ctid FROM notification " +
+            "WHERE recipient_id = :recipientId AND is_read = true " +
+            "ORDER BY created_at DESC OFFSET :cap LIMIT :limit)",
+            nativeQuery = true)
+    int deleteReadBeyondCap(@Param("recipientId") UUID recipientId, @Param("cap") int cap, @Param("limit") int limit);
 }
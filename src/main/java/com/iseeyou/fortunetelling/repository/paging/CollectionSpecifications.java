@@ -0,0 +1,36 @@
+package com.iseeyou.fortunetelling.repository.paging;
+
+import jakarta.persistence.criteria.Join;
+import jakarta.persistence.criteria.Path;
+import jakarta.persistence.criteria.Root;
+import jakarta.persistence.criteria.Subquery;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.util.Collection;
+
+/**
+ * Filters on to-many associations as correlated EXISTS, so the id query keeps one row per entity
+ * (SELECT DISTINCT id can't be ordered by columns outside the select list on Postgres).
+ */
+public final class CollectionSpecifications {
+
+    private CollectionSpecifications() {
+    }
+
+    /**
+     * Some element of {@code collection} has {@code path} (dotted, e.g. "knowledgeCategory.id") in {@code values}.
+     */
+    public static <T> Specification<T> anyIn(String collection, String path, Collection<?> values) {
+        return (root, query, cb) -> {
+            Subquery<Integer> subquery = query.subquery(Integer.class);
+            Root<T> correlated = subquery.correlate(root);
+            Join<T, ?> element = correlated.join(collection);
+            Path<?> value = element;
+            for (String part : path.split("\\.")) {
+                value = value.get(part);
+            }
+            subquery.select(cb.literal(1)).where(value.in(values));
+            return cb.exists(subquery);
+        };
+    }
+}
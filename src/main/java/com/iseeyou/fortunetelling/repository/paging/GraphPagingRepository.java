@@ -0,0 +1,69 @@
+package com.iseeyou.fortunetelling.repository.paging;
+
+import com.iseeyou.fortunetelling.entity.AbstractBaseEntity;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.repository.NoRepositoryBean;
+import org.springframework.lang.Nullable;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Pages entities that are fetched with a collection in their entity graph. Limiting such a query would make
+ * Hibernate read every matching row and cut the page in memory, so it runs in two steps instead:
+ * <ol>
+ *     <li>the page of ids, sorted and limited in the database ({@link GraphPagingJpaRepository});</li>
+ *     <li>exactly those rows with their graph, through the repository's {@link #findAllByIdIn}.</li>
+ * </ol>
+ * To-many filters go in the spec as EXISTS ({@link CollectionSpecifications}), a join would repeat ids.
+ */
+@NoRepositoryBean
+public interface GraphPagingRepository<T extends AbstractBaseEntity>
+        extends JpaRepository<T, UUID>, JpaSpecificationExecutor<T> {
+
+    // The count query only runs when the page alone can't tell the total
+    Page<UUID> findIds(@Nullable Specification<T> spec, Pageable pageable);
+
+    // Same without the count, for lists that only need the rows
+    List<UUID> findIdList(@Nullable Specification<T> spec, Pageable pageable);
+
+    // Redeclared by each repository with the @EntityGraph its pages need
+    List<T> findAllByIdIn(Collection<UUID> ids);
+
+    default Page<T> findPage(@Nullable Specification<T> spec, Pageable pageable) {
+        Page<UUID> ids = findIds(spec, pageable);
+        return new PageImpl<>(hydrate(ids.getContent()), ids.getPageable(), ids.getTotalElements());
+    }
+
+    default List<T> findList(@Nullable Specification<T> spec, Pageable pageable) {
+        return hydrate(findIdList(spec, pageable));
+    }
+
+    // Rows in the order of the ids; ids deleted in between are skipped
+    default List<T> hydrate(List<UUID> ids) {
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+        Map<UUID, T> byId = new HashMap<>(ids.size());
+        for (T entity : findAllByIdIn(ids)) {
+            byId.put(entity.getId(), entity);
+        }
+        List<T> result = new ArrayList<>(ids.size());
+        for (UUID id : ids) {
+            T entity = byId.get(id);
+            if (entity != null) {
+                result.add(entity);
+            }
+        }
+        return result;
+    }
+}
@@ -1,40 +1,55 @@
 package com.iseeyou.fortunetelling.repository.report;
 
 import com.iseeyou.fortunetelling.entity.report.Report;
+import com.iseeyou.fortunetelling.repository.paging.GraphPagingRepository;
 import com.iseeyou.fortunetelling.util.Constants;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.data.jpa.repository.EntityGraph;
-import org.springframework.data.jpa.repository.JpaRepository;
-import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
 
 @Repository
-public interface ReportRepository extends JpaRepository<Report, UUID>, JpaSpecificationExecutor<Report> {
+public interface ReportRepository extends GraphPagingRepository<Report> {
 
     @Override
-    @EntityGraph(attributePaths = {"reporter", "reportedUser", "reportType", "reportEvidences"})
-    Page<Report> findAll(Pageable pageable);
+    default Page<Report> findAll(Pageable pageable) {
+        return findPage(null, pageable);
+    }
 
     @Override
     @EntityGraph(attributePaths = {"reporter", "reportedUser", "reportType", "reportEvidences"})
     Optional<Report> findById(UUID id);
 
     @EntityGraph(attributePaths = {"reporter", "reportedUser", "reportType", "reportEvidences"})
-    Page<Report> findAllByReporter_Id(UUID reporterId, Pageable pageable);
+    List<Report> findAllByIdIn(Collection<UUID> ids);
 
-    @EntityGraph(attributePaths = {"reporter", "reportedUser", "reportType", "reportEvidences"})
-    Page<Report> findAllByReportedUser_Id(UUID reportedUserId, Pageable pageable);
+    default Page<Report> findAllByReporter_Id(UUID reporterId, Pageable pageable) {
+        return findPage(byUser("reporter", reporterId), pageable);
+    }
 
-    @EntityGraph(attributePaths = {"reporter", "reportedUser", "reportType", "reportEvidences"})
-    Page<Report> findAllByTargetId(UUID targetId, Pageable pageable);
+    default Page<Report> findAllByReportedUser_Id(UUID reportedUserId, Pageable pageable) {
+        return findPage(byUser("reportedUser", reportedUserId), pageable);
+    }
 
-    @EntityGraph(attributePaths = {"reporter", "reportedUser", "reportType", "reportEvidences"})
-    Page<Report> findAllByTargetType(Constants.TargetReportTypeEnum targetType, Pageable pageable);
+    default Page<Report> findAllByTargetId(UUID targetId, Pageable pageable) {
+        return findPage((root, query, cb) -> cb.equal(root.get("targetId"), targetId), pageable);
+    }
 
-    @EntityGraph(attributePaths = {"reporter", "reportedUser", "reportType", "reportEvidences"})
-    Page<Report> findAllByStatus(Constants.ReportStatusEnum status, Pageable pageable);
+    default Page<Report> findAllByTargetType(Constants.TargetReportTypeEnum targetType, Pageable pageable) {
+        return findPage((root, query, cb) -> cb.equal(root.get("targetType"), targetType), pageable);
+    }
+
+    default Page<Report> findAllByStatus(Constants.ReportStatusEnum status, Pageable pageable) {
+        return findPage((root, query, cb) -> cb.equal(root.get("status"), status), pageable);
+    }
+
+    private static Specification<Report> byUser(String user, UUID userId) {
+        return (root, query, cb) -> cb.equal(root.get(user).get("id"), userId);
+    }
 }
@@ -8,6 +8,8 @@ import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 import java.util.Set;
 import java.util.UUID;
@@ -20,4 +22,8 @@ public interface PackageCategoryRepository extends JpaRepository<PackageCategory
     void deleteAllByServicePackage_IdAndKnowledgeCategory_IdIn(@Param("packageId") UUID packageId, @Param("categoryIds") Set<UUID> categoryIds);
 
     Optional<PackageCategory> findByServicePackage_IdAndKnowledgeCategory_Id(UUID packageId, UUID categoryId);
+
+    // (package id, category id) pairs for the search index
+    @Query("SELECT pc.servicePackage.id, pc.knowledgeCategory.id FROM PackageCategory pc WHERE pc.servicePackage.id IN :packageIds")
+    List<Object[]> findCategoryIdsByPackageIds(@Param("packageIds") Collection<UUID> packageIds);
 }
@@ -1,13 +1,15 @@
 package com.iseeyou.fortunetelling.repository.servicepackage;
 
 import com.iseeyou.fortunetelling.entity.servicepackage.PackageInteraction;
-import com.iseeyou.fortunetelling.util.Constants;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
@@ -19,10 +21,104 @@ public interface PackageInteractionRepository extends JpaRepository<PackageInter
 
     boolean existsByUser_IdAndServicePackage_Id(UUID userId, UUID packageId);
 
-    long countByServicePackage_IdAndInteractionType(UUID packageId, Constants.InteractionTypeEnum interactionType);
-    
     void deleteByUser_IdAndServicePackage_Id(UUID userId, UUID packageId);
 
-    @Query("SELECT pi FROM PackageInteraction pi JOIN FETCH pi.user WHERE pi.servicePackage.id = :packageId")
-    List<PackageInteraction> findAllByServicePackage_IdWithUser(@Param("packageId") UUID packageId);
+    /**
+     * Inserts the reaction, or only locks the existing row when the user already reacted.
+     * Returns (previousType, inserted, previousSetAt): on conflict the row is left as it was, so these are the state
+     * before this call; inserted comes from xmax = 0 (no prior row version). updated_at is when the current type
+     * was set (insert or {@link #updateInteractionType}).
+     */
+    @Query(value = "INSERT INTO package_interaction (package_interaction_id, created_at, updated_at, interaction_type, package_id, user_id) " +
+            "VALUES (gen_random_uuid(), now(), now(), :type, :packageId, :userId) " +
+            "ON CONFLICT (user_id, package_id) DO UPDATE SET updated_at = package_interaction.updated_at " +
+            "RETURNING interaction_type, (xmax = 0), updated_at",
+            nativeQuery = true)
+    List<Object[]> upsertInteraction(@Param("userId") UUID userId,
+                                     @Param("packageId") UUID packageId,
+                                     @Param("type") String type);
+
+    // Row is locked by upsertInteraction in the same transaction
+    @Modifying
+    @Query(value = "UPDATE package_interaction SET interaction_type = :type, updated_at = now() " +
+            "WHERE user_id = :userId AND package_id = :packageId",
+            nativeQuery = true)
+    int updateInteractionType(@Param("userId") UUID userId,
+                              @Param("packageId") UUID packageId,
+                              @Param("type") String type);
+
+    @Modifying
+    @Query(value = "DELETE FROM package_interaction WHERE user_id = :userId AND package_id = :packageId",
+            nativeQuery = true)
+    int deleteInteraction(@Param("userId") UUID userId, @Param("packageId") UUID packageId);
+
+    /**
+     * Latest reactions of each package, at most perPackage rows per package.
+     * Rows are (packageId, userId, fullName, avatarUrl, interactionType); the LATERAL LIMIT reads only the index head
+     * of each package however many reactions it has.
+     */
+    @Query(value = "SELECT sp.package_id, u.user_id, u.full_name, u.avatar_url, s.interaction_type " +
+            "FROM service_package sp " +
+            "CROSS JOIN LATERAL (SELECT pi.user_id, pi.interaction_type, pi.created_at, pi.package_interaction_id " +
+            "FROM package_interaction pi WHERE pi.package_id = sp.package_id " +
+            "ORDER BY pi.created_at DESC, pi.package_interaction_id DESC LIMIT :perPackage) s " +
+            "JOIN \"user\" u ON u.user_id = s.user_id " +
+            "WHERE sp.package_id IN (:packageIds) " +
+            "ORDER BY sp.package_id, s.created_at DESC, s.package_interaction_id DESC",
+            nativeQuery = true)
+    List<Object[]> findLatestByPackageIds(@Param("packageIds") Collection<UUID> packageIds,
+                                          @Param("perPackage") int perPackage);
+
+    /**
+     * Keyset pages of a package's reactions, newest first. Rows are
+     * (packageInteractionId, createdAt, userId, fullName, avatarUrl, interactionType).
+     * The first page and the pages after a cursor are separate queries, as are the typed and untyped lists, so each
+     * has a plain predicate: the row-value comparison (created_at, package_interaction_id) &lt; (:afterCreatedAt, :afterId)
+     * becomes an index condition on idx_package_interaction_package_created (idx_package_interaction_package_type_created
+     * for the typed lists) and the scan starts at the cursor instead of filtering from the head.
+     */
+    @Query(value = "SELECT pi.package_interaction_id, pi.created_at, u.user_id, u.full_name, u.avatar_url, pi.interaction_type " +
+            "FROM package_interaction pi JOIN \"user\" u ON u.user_id = pi.user_id " +
+            "WHERE pi.package_id = :packageId " +
+            "ORDER BY pi.created_at DESC, pi.package_interaction_id DESC LIMIT :limit",
+            nativeQuery = true)
+    List<Object[]> findFirstPage(@Param("packageId") UUID packageId, @Param("limit") int limit);
+
+    @Query(value = "SELECT pi.package_interaction_id, pi.created_at, u.user_id, u.full_name, u.avatar_url, pi.interaction_type " +
+            "FROM package_interaction pi JOIN \"user\" u ON u.user_id = pi.user_id " +
+            "WHERE pi.package_id = :packageId " +
+            "AND (pi.created_at, pi.package_interaction_id) < (:afterCreatedAt, :afterId) " +
+            "ORDER BY pi.created_at DESC, pi.package_interaction_id DESC LIMIT :limit",
+            nativeQuery = true)
+    List<Object[]> findPageAfter(@Param("packageId") UUID packageId,
+                                 @Param("afterCreatedAt") LocalDateTime afterCreatedAt,
+                                 @Param("afterId") UUID afterId,
+                                 @Param("limit") int limit);
+
+    @Query(value = "SELECT pi.package_interaction_id, pi.created_at, u.user_id, u.full_name, u.avatar_url, pi.interaction_type " +
+            "FROM package_interaction pi JOIN \"user\" u ON u.user_id = pi.user_id " +
+            "WHERE pi.package_id = :packageId AND pi.interaction_type = :type " +
+            "ORDER BY pi.created_at DESC, pi.package_interaction_id DESC LIMIT :limit",
+            nativeQuery = true)
+    List<Object[]> findFirstPageByType(@Param("packageId") UUID packageId,
+                                       @Param("type") String type,
+                                       @Param("limit") int limit);
+
+    @Query(value = "SELECT pi.package_interaction_id, pi.created_at, u.user_id, u.full_name, u.avatar_url, pi.interaction_type " +
+            "FROM package_interaction pi JOIN \"user\" u ON u.user_id = pi.user_id " +
+            "WHERE pi.package_id = :packageId AND pi.interaction_type = :type " +
+            "AND (pi.created_at, pi.package_interaction_id) < (:afterCreatedAt, :afterId) " +
+            "ORDER BY pi.created_at DESC, pi.package_interaction_id DESC LIMIT :limit",
+            nativeQuery = true)
+    List<Object[]> findPageByTypeAfter(@Param("packageId") UUID packageId,
+                                       @Param("type") String type,
+                                       @Param("afterCreatedAt") LocalDateTime afterCreatedAt,
+                                       @Param("afterId") UUID afterId,
+                                       @Param("limit") int limit);
+
+    // Rows are (packageId, interactionType) for the packages the user reacted to
+    @Query("SELECT pi.servicePackage.id, pi.interactionType FROM PackageInteraction pi " +
+            "WHERE pi.user.id = :userId AND pi.servicePackage.id IN :packageIds")
+    List<Object[]> findInteractionTypesByUserIdAndPackageIds(@Param("userId") UUID userId,
+                                                           @Param("packageIds") Collection<UUID> packageIds);
 }
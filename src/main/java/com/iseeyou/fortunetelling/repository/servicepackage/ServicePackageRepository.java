@@ -1,55 +1,138 @@
 package com.iseeyou.fortunetelling.repository.servicepackage;
 
 import com.iseeyou.fortunetelling.entity.servicepackage.ServicePackage;
+import com.iseeyou.fortunetelling.repository.paging.CollectionSpecifications;
+import com.iseeyou.fortunetelling.repository.paging.GraphPagingRepository;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.domain.Specification;
 import org.springframework.data.jpa.repository.EntityGraph;
-import org.springframework.data.jpa.repository.JpaRepository;
-import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.math.BigDecimal;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
 
 @Repository
-public interface ServicePackageRepository extends JpaRepository<ServicePackage, UUID>, JpaSpecificationExecutor<ServicePackage> {
+public interface ServicePackageRepository extends GraphPagingRepository<ServicePackage> {
 
     @Override
-    @EntityGraph(attributePaths = {"packageCategories.knowledgeCategory", "seer", "seer.seerProfile"})
-    Page<ServicePackage> findAll(Pageable pageable);
-    
+    default Page<ServicePackage> findAll(Pageable pageable) {
+        return findPage(null, pageable);
+    }
+
     @Override
-    @EntityGraph(attributePaths = {"packageCategories.knowledgeCategory", "seer", "seer.seerProfile"})
-    Page<ServicePackage> findAll(Specification<ServicePackage> spec, Pageable pageable);
+    default Page<ServicePackage> findAll(Specification<ServicePackage> spec, Pageable pageable) {
+        return findPage(spec, pageable);
+    }
 
     @Override
-    @EntityGraph(attributePaths = {"packageCategories.knowledgeCategory", "seer", "seer.seerProfile"})
+    @EntityGraph(attributePaths = {"packageCategories.knowledgeCategory", "seer", "seer.seerProfile", "seer.customerProfile"})
     Optional<ServicePackage> findById(UUID id);
 
-    @EntityGraph(attributePaths = {"packageCategories.knowledgeCategory", "seer", "seer.seerProfile"})
-    Page<ServicePackage> findAllBySeer_Id(UUID seerId, Pageable pageable);
-
-    @EntityGraph(attributePaths = {"packageCategories.knowledgeCategory", "seer", "seer.seerProfile"})
-    @Query("SELECT DISTINCT sp FROM ServicePackage sp " +
-           "JOIN sp.packageCategories pc " +
-           "WHERE sp.seer.id = :seerId AND pc.knowledgeCategory.id = :categoryId")
-    Page<ServicePackage> findBySeerIdAndCategoryId(@Param("seerId") UUID seerId,
-                                                   @Param("categoryId") UUID categoryId,
-                                                   Pageable pageable);
-
-    @EntityGraph(attributePaths = {"packageCategories.knowledgeCategory", "seer", "seer.seerProfile"})
-    @Query("SELECT DISTINCT sp FROM ServicePackage sp " +
-           "JOIN sp.packageCategories pc " +
-           "WHERE pc.knowledgeCategory.id = :categoryId")
-    Page<ServicePackage> findByCategoryId(@Param("categoryId") UUID categoryId, Pageable pageable);
-
-    @EntityGraph(attributePaths = {"packageCategories.knowledgeCategory", "seer", "seer.seerProfile"})
-    @Query("SELECT DISTINCT sp FROM ServicePackage sp " +
-           "JOIN sp.packageCategories pc " +
-           "WHERE pc.knowledgeCategory.id IN :categoryIds")
-    Page<ServicePackage> findByCategoryIds(@Param("categoryIds") List<UUID> categoryIds, Pageable pageable);
+    default Page<ServicePackage> findAllBySeer_Id(UUID seerId, Pageable pageable) {
+        return findPage(bySeer(seerId), pageable);
+    }
+
+    default Page<ServicePackage> findBySeerIdAndCategoryId(UUID seerId, UUID categoryId, Pageable pageable) {
+        return findPage(bySeer(seerId).and(byCategories(List.of(categoryId))), pageable);
+    }
+
+    default Page<ServicePackage> findByCategoryId(UUID categoryId, Pageable pageable) {
+        return findPage(byCategories(List.of(categoryId)), pageable);
+    }
+
+    default Page<ServicePackage> findByCategoryIds(List<UUID> categoryIds, Pageable pageable) {
+        return findPage(byCategories(categoryIds), pageable);
+    }
+
+    private static Specification<ServicePackage> bySeer(UUID seerId) {
+        return (root, query, cb) -> cb.equal(root.get("seer").get("id"), seerId);
+    }
+
+    private static Specification<ServicePackage> byCategories(List<UUID> categoryIds) {
+        return CollectionSpecifications.anyIn("packageCategories", "knowledgeCategory.id", categoryIds);
+    }
+
+    // Relative update, concurrent reactions never overwrite each other. Returns (likeCount, dislikeCount)
+    @Query(value = "UPDATE service_package SET like_count = COALESCE(like_count, 0) + :likeDelta, " +
+            "dislike_count = COALESCE(dislike_count, 0) + :dislikeDelta " +
+            "WHERE package_id = :packageId AND deleted_at IS NULL RETURNING like_count, dislike_count",
+            nativeQuery = true)
+    List<Object[]> adjustInteractionCounts(@Param("packageId") UUID packageId,
+                                           @Param("likeDelta") long likeDelta,
+                                           @Param("dislikeDelta") long dislikeDelta);
+
+    @Modifying
+    @Transactional
+    @Query(value = "UPDATE service_package sp SET like_count = agg.likes, dislike_count = agg.dislikes " +
+            "FROM (SELECT p.package_id, " +
+            "COUNT(pi.package_interaction_id) FILTER (WHERE pi.interaction_type = 'LIKE') AS likes, " +
+            "COUNT(pi.package_interaction_id) FILTER (WHERE pi.interaction_type = 'DISLIKE') AS dislikes " +
+            "FROM service_package p LEFT JOIN package_interaction pi ON pi.package_id = p.package_id " +
+            "GROUP BY p.package_id) agg " +
+            "WHERE sp.package_id = agg.package_id " +
+            "AND (sp.like_count IS DISTINCT FROM agg.likes OR sp.dislike_count IS DISTINCT FROM agg.dislikes)",
+            nativeQuery = true)
+    int recomputeInteractionCounts();
+
+    // See KnowledgeItemRepository.addViewCounts
+    @Modifying
+    @Transactional
+    @Query(value = "UPDATE service_package sp SET view_count = sp.view_count + v.delta " +
+            "FROM unnest(CAST(:ids AS uuid[]), CAST(:deltas AS bigint[])) AS v(id, delta) " +
+            "WHERE sp.package_id = v.id",
+            nativeQuery = true)
+    int addViewCounts(@Param("ids") String ids, @Param("deltas") String deltas);
+
+    // Relative update on review submission, see SeerProfileRepository.addRating
+    @Modifying
+    @Query(value = "UPDATE service_package SET rating_sum = rating_sum + :rating, rating_count = rating_count + 1, " +
+            "avg_rating = (rating_sum + :rating) / (rating_count + 1) WHERE package_id = :packageId",
+            nativeQuery = true)
+    int addRating(@Param("packageId") UUID packageId, @Param("rating") BigDecimal rating);
+
+    // Soft-deleted packages included: their reviews still count for the seer
+    @Modifying
+    @Transactional
+    @Query(value = "UPDATE service_package sp SET rating_sum = agg.rating_sum, rating_count = agg.rating_count, " +
+            "avg_rating = CASE WHEN agg.rating_count > 0 THEN agg.rating_sum / agg.rating_count ELSE 0 END " +
+            "FROM (SELECT p.package_id, COALESCE(SUM(b.rating), 0) AS rating_sum, COUNT(b.rating) AS rating_count " +
+            "FROM service_package p LEFT JOIN booking b ON b.service_package_id = p.package_id " +
+            "GROUP BY p.package_id) agg " +
+            "WHERE sp.package_id = agg.package_id " +
+            "AND (sp.rating_sum <> agg.rating_sum OR sp.rating_count <> agg.rating_count)",
+            nativeQuery = true)
+    int recomputeRatings();
+
+    // Second step of every page above, also hydrates id pages from the search index. Both profiles of the seer are
+    // inverse one-to-ones, which Hibernate loads eagerly one query per seer unless they are in the graph
+    @EntityGraph(attributePaths = {"packageCategories.knowledgeCategory", "seer", "seer.seerProfile", "seer.customerProfile"})
+    List<ServicePackage> findAllByIdIn(Collection<UUID> ids);
+
+    @Query("SELECT p.id FROM ServicePackage p")
+    List<UUID> findAllIds();
+
+    // Search index documents: id, title, content, seer id, price, duration, status, createdAt
+    @Query("SELECT p.id, p.packageTitle, p.packageContent, s.id, p.price, p.durationMinutes, p.status, p.createdAt " +
+            "FROM ServicePackage p LEFT JOIN p.seer s WHERE p.id IN :ids")
+    List<Object[]> findSearchDocuments(@Param("ids") Collection<UUID> ids);
+
+    // Owner of a package, soft-deleted ones included; one (package id, seer id) row, none for an unknown id
+    @Query(value = "SELECT sp.package_id, sp.seer_id FROM service_package sp WHERE sp.package_id = :packageId",
+            nativeQuery = true)
+    List<Object[]> findOwnerIncludingDeleted(@Param("packageId") UUID packageId);
+
+    // What a trending event on the package counts towards: one (seer id, category id) row per category
+    @Query(value = "SELECT sp.seer_id, pc.category_id FROM service_package sp " +
+            "LEFT JOIN package_category pc ON pc.package_id = sp.package_id " +
+            "WHERE sp.package_id = :packageId AND sp.deleted_at IS NULL",
+            nativeQuery = true)
+    List<Object[]> findTrendingTargets(@Param("packageId") UUID packageId);
 }
@@ -1,7 +1,7 @@
 package com.iseeyou.fortunetelling.repository.servicepackage;
 
-import com.iseeyou.fortunetelling.entity.servicepackage.PackageCategory;
 import com.iseeyou.fortunetelling.entity.servicepackage.ServicePackage;
+import com.iseeyou.fortunetelling.repository.paging.CollectionSpecifications;
 import com.iseeyou.fortunetelling.util.Constants;
 import jakarta.persistence.criteria.*;
 import org.springframework.data.jpa.domain.Specification;
@@ -43,9 +43,10 @@ public class ServicePackageSpecification {
             if (StringUtils.hasText(categoryIds)) {
                 List<UUID> categoryUUIDs = parseCategories(categoryIds);
                 if (!categoryUUIDs.isEmpty()) {
-                    Join<ServicePackage, PackageCategory> packageCategoryJoin = root.join("packageCategories");
+                    // EXISTS instead of a join: no duplicates, so no DISTINCT in the paged id query
                     predicate = criteriaBuilder.and(predicate,
-                        packageCategoryJoin.get("knowledgeCategory").get("id").in(categoryUUIDs)
+                        CollectionSpecifications.<ServicePackage>anyIn("packageCategories", "knowledgeCategory.id", categoryUUIDs)
+                            .toPredicate(root, query, criteriaBuilder)
                     );
                 }
             }
@@ -74,16 +75,11 @@ public class ServicePackageSpecification {
                 );
             }
 
-            // Make distinct to avoid duplicates when joining with categories
-            if (StringUtils.hasText(categoryIds)) {
-                query.distinct(true);
-            }
-
             return predicate;
         };
     }
 
-    private static List<UUID> parseCategories(String categoryIds) {
+    public static List<UUID> parseCategories(String categoryIds) {
         try {
             return Arrays.stream(categoryIds.split(","))
                     .map(String::trim)
@@ -0,0 +1,42 @@
+package com.iseeyou.fortunetelling.repository.user;
+
+import com.iseeyou.fortunetelling.entity.user.AccountStats;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+
+@Repository
+public interface AccountStatsRepository extends JpaRepository<AccountStats, Short> {
+
+    // Relative update of the single row, concurrent sign-ups add up instead of overwriting
+    @Modifying
+    @Query(value = "UPDATE account_stats SET customer_accounts = customer_accounts + :customers, " +
+            "seer_accounts = seer_accounts + :seers, admin_accounts = admin_accounts + :admins, " +
+            "pending_accounts = pending_accounts + :pending, blocked_accounts = blocked_accounts + :blocked, " +
+            "updated_at = :now WHERE account_stats_id = 1",
+            nativeQuery = true)
+    int addDeltas(@Param("customers") long customers,
+                  @Param("seers") long seers,
+                  @Param("admins") long admins,
+                  @Param("pending") long pending,
+                  @Param("blocked") long blocked,
+                  @Param("now") LocalDateTime now);
+
+    // Role ordinals: 0 = ADMIN, 1 = SEER, 2 = UNVERIFIED_SEER, 4 = CUSTOMER; status 4 = BLOCKED
+    @Modifying
+    @Transactional
+    @Query(value = "UPDATE account_stats a SET customer_accounts = c.customers, seer_accounts = c.seers, " +
+            "admin_accounts = c.admins, pending_accounts = c.pending, blocked_accounts = c.blocked, updated_at = :now " +
+            "FROM (SELECT COUNT(*) FILTER (WHERE role = 4) AS customers, COUNT(*) FILTER (WHERE role = 1) AS seers, " +
+            "COUNT(*) FILTER (WHERE role = 0) AS admins, COUNT(*) FILTER (WHERE role = 2) AS pending, " +
+            "COUNT(*) FILTER (WHERE status = 4) AS blocked FROM \"user\") c " +
+            "WHERE a.account_stats_id = 1 AND (a.customer_accounts <> c.customers OR a.seer_accounts <> c.seers " +
+            "OR a.admin_accounts <> c.admins OR a.pending_accounts <> c.pending OR a.blocked_accounts <> c.blocked)",
+            nativeQuery = true)
+    int recompute(@Param("now") LocalDateTime now);
+}
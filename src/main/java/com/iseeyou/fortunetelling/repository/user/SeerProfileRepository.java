@@ -0,0 +1,37 @@
+package com.iseeyou.fortunetelling.repository.user;
+
+import com.iseeyou.fortunetelling.entity.user.SeerProfile;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.util.UUID;
+
+@Repository
+public interface SeerProfileRepository extends JpaRepository<SeerProfile, UUID> {
+
+    // Relative update: right-hand side reads the old values, concurrent reviews add up instead of overwriting
+    @Modifying
+    @Query(value = "UPDATE seer_profile SET rating_sum = rating_sum + :rating, total_rates = total_rates + 1, " +
+            "avg_rating = (rating_sum + :rating) / (total_rates + 1) WHERE seer_id = :seerId",
+            nativeQuery = true)
+    int addRating(@Param("seerId") UUID seerId, @Param("rating") BigDecimal rating);
+
+    // Recomputes from the reviewed bookings of all the seer's packages, only rows that drifted are written
+    @Modifying
+    @Transactional
+    @Query(value = "UPDATE seer_profile s SET rating_sum = agg.rating_sum, total_rates = agg.rating_count, " +
+            "avg_rating = CASE WHEN agg.rating_count > 0 THEN agg.rating_sum / agg.rating_count ELSE 0 END " +
+            "FROM (SELECT p.seer_id, COALESCE(SUM(b.rating), 0) AS rating_sum, COUNT(b.rating) AS rating_count " +
+            "FROM seer_profile p LEFT JOIN service_package sp ON sp.seer_id = p.seer_id " +
+            "LEFT JOIN booking b ON b.service_package_id = sp.package_id " +
+            "GROUP BY p.seer_id) agg " +
+            "WHERE s.seer_id = agg.seer_id " +
+            "AND (s.rating_sum <> agg.rating_sum OR s.total_rates <> agg.rating_count)",
+            nativeQuery = true)
+    int recomputeRatings();
+}
@@ -0,0 +1,87 @@
+package com.iseeyou.fortunetelling.repository.user;
+
+import com.iseeyou.fortunetelling.entity.user.SeerStats;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+@Repository
+public interface SeerStatsRepository extends JpaRepository<SeerStats, UUID> {
+
+    /**
+     * Adds the deltas to the stats of the booking's seer, creating the row on the seer's first booking.
+     * The seer is resolved from the booking in SQL, so bookings of soft-deleted packages still count.
+     * {@code responded} is +1/-1 for a first confirmation gained/lost, its time is read from the booking row.
+     */
+    @Modifying
+    @Query(value = "INSERT INTO seer_stats (seer_id, created_at, updated_at, total_bookings, completed_bookings, " +
+            "cancelled_bookings, total_revenue, response_count, response_seconds_sum) " +
+            "SELECT sp.seer_id, :now, :now, :total, :completed, :cancelled, :revenue, :responded, " +
+            ":responded * COALESCE(EXTRACT(EPOCH FROM (b.confirmed_at - b.created_at)), 0) " +
+            "FROM booking b JOIN service_package sp ON sp.package_id = b.service_package_id " +
+            "WHERE b.booking_id = :bookingId AND sp.seer_id IS NOT NULL " +
+            "ON CONFLICT (seer_id) DO UPDATE SET " +
+            "total_bookings = seer_stats.total_bookings + EXCLUDED.total_bookings, " +
+            "completed_bookings = seer_stats.completed_bookings + EXCLUDED.completed_bookings, " +
+            "cancelled_bookings = seer_stats.cancelled_bookings + EXCLUDED.cancelled_bookings, " +
+            "total_revenue = seer_stats.total_revenue + EXCLUDED.total_revenue, " +
+            "response_count = seer_stats.response_count + EXCLUDED.response_count, " +
+            "response_seconds_sum = seer_stats.response_seconds_sum + EXCLUDED.response_seconds_sum, " +
+            "updated_at = EXCLUDED.updated_at",
+            nativeQuery = true)
+    int addDeltas(@Param("bookingId") UUID bookingId,
+                  @Param("total") long total,
+                  @Param("completed") long completed,
+                  @Param("cancelled") long cancelled,
+                  @Param("revenue") double revenue,
+                  @Param("responded") long responded,
+                  @Param("now") LocalDateTime now);
+
+    /**
+     * Recomputes every seer with bookings from booking / booking_payment (status ordinals: booking 2 = COMPLETED,
+     * 4 = CANCELED, payment 1 = COMPLETED); only rows that drifted are written.
+     */
+    @Modifying
+    @Transactional
+    @Query(value = "INSERT INTO seer_stats (seer_id, created_at, updated_at, total_bookings, completed_bookings, " +
+            "cancelled_bookings, total_revenue, response_count, response_seconds_sum) " +
+            "SELECT sp.seer_id, :now, :now, COUNT(b.booking_id), " +
+            "COUNT(b.booking_id) FILTER (WHERE b.status = 2), COUNT(b.booking_id) FILTER (WHERE b.status = 4), " +
+            "COALESCE(SUM(pay.revenue), 0), COUNT(b.confirmed_at), " +
+            "COALESCE(SUM(EXTRACT(EPOCH FROM (b.confirmed_at - b.created_at))), 0) " +
+            "FROM service_package sp JOIN booking b ON b.service_package_id = sp.package_id " +
+            "JOIN \"user\" u ON u.user_id = sp.seer_id " +
+            "LEFT JOIN (SELECT booking_id, SUM(amount) AS revenue FROM booking_payment WHERE status = 1 " +
+            "GROUP BY booking_id) pay ON pay.booking_id = b.booking_id " +
+            "GROUP BY sp.seer_id " +
+            "ON CONFLICT (seer_id) DO UPDATE SET " +
+            "total_bookings = EXCLUDED.total_bookings, completed_bookings = EXCLUDED.completed_bookings, " +
+            "cancelled_bookings = EXCLUDED.cancelled_bookings, total_revenue = EXCLUDED.total_revenue, " +
+            "response_count = EXCLUDED.response_count, response_seconds_sum = EXCLUDED.response_seconds_sum, " +
+            "updated_at = EXCLUDED.updated_at " +
+            "WHERE seer_stats.total_bookings <> EXCLUDED.total_bookings " +
+            "OR seer_stats.completed_bookings <> EXCLUDED.completed_bookings " +
+            "OR seer_stats.cancelled_bookings <> EXCLUDED.cancelled_bookings " +
+            "OR ABS(seer_stats.total_revenue - EXCLUDED.total_revenue) > 0.01 " +
+            "OR seer_stats.response_count <> EXCLUDED.response_count " +
+            "OR ABS(seer_stats.response_seconds_sum - EXCLUDED.response_seconds_sum) > 1",
+            nativeQuery = true)
+    int recompute(@Param("now") LocalDateTime now);
+
+    // Seers whose last booking is gone keep a row the recompute above no longer produces
+    @Modifying
+    @Transactional
+    @Query(value = "UPDATE seer_stats s SET total_bookings = 0, completed_bookings = 0, cancelled_bookings = 0, " +
+            "total_revenue = 0, response_count = 0, response_seconds_sum = 0, updated_at = :now " +
+            "WHERE (s.total_bookings <> 0 OR s.total_revenue <> 0 OR s.response_count <> 0) " +
+            "AND NOT EXISTS (SELECT 1 FROM service_package sp JOIN booking b ON b.service_package_id = sp.package_id " +
+            "WHERE sp.seer_id = s.seer_id)",
+            nativeQuery = true)
+    int resetWithoutBookings(@Param("now") LocalDateTime now);
+}
@@ -10,6 +10,7 @@ import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
@@ -27,6 +28,9 @@ public interface UserRepository extends JpaRepository<User, UUID>, JpaSpecificat
     @Query("SELECT u FROM User u LEFT JOIN FETCH u.seerProfile WHERE u.id = :userId")
     Optional<User> findByIdWithSeerProfile(@Param("userId") UUID userId);
 
+    @Query("SELECT u FROM User u LEFT JOIN FETCH u.seerProfile WHERE u.id IN :userIds")
+    List<User> findAllByIdInWithSeerProfile(@Param("userIds") Collection<UUID> userIds);
+
     // Statistics methods
     long countByRole(Constants.RoleEnum role);
 
@@ -61,4 +65,13 @@ public interface UserRepository extends JpaRepository<User, UUID>, JpaSpecificat
     Page<User> findByStatus(Constants.StatusProfileEnum status, Pageable pageable);
 
     Page<User> findByRoleAndStatus(Constants.RoleEnum role, Constants.StatusProfileEnum status, Pageable pageable);
+
+    @Query("SELECT u.id FROM User u WHERE u.id IN :ids")
+    List<UUID> findExistingIds(@Param("ids") Collection<UUID> ids);
+
+    @Query("SELECT u.id FROM User u WHERE u.id IN :ids AND u.role IN :roles")
+    List<UUID> findIdsByIdInAndRoleIn(
+            @Param("ids") Collection<UUID> ids,
+            @Param("roles") Collection<Constants.RoleEnum> roles
+    );
 }
@@ -0,0 +1,25 @@
+package com.iseeyou.fortunetelling.scheduler;
+
+import com.iseeyou.fortunetelling.service.search.CatalogSearchService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class CatalogSearchScheduler {
+    private final CatalogSearchService catalogSearchService;
+
+    // Picks up changes made on other instances and compacts removed documents; the startup build is separate
+    @Scheduled(fixedDelayString = "${app.search.rebuild-interval-ms:900000}",
+            initialDelayString = "${app.search.rebuild-interval-ms:900000}")
+    public void rebuildSearchIndex() {
+        try {
+            catalogSearchService.rebuild();
+        } catch (Exception e) {
+            log.error("Error scheduling catalog search index rebuild", e);
+        }
+    }
+}
@@ -6,6 +6,7 @@ import com.iseeyou.fortunetelling.entity.Conversation;
 import com.iseeyou.fortunetelling.repository.converstation.ConversationRepository;
 import com.iseeyou.fortunetelling.service.MessageSourceService;
 import com.iseeyou.fortunetelling.service.converstation.ConversationService;
+import com.iseeyou.fortunetelling.service.socket.SocketEmitter;
 import com.iseeyou.fortunetelling.util.Constants;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -23,6 +24,7 @@ public class ConversationScheduler {
     private final ConversationRepository conversationRepository;
     private final ConversationService conversationService;
     private final SocketIOServer socketIOServer;
+    private final SocketEmitter socketEmitter;
     private final MessageSourceService messageSourceService;
 
     @Scheduled(fixedRate = 60000)  // 1 mins  ms
@@ -51,17 +53,18 @@ public class ConversationScheduler {
         for (Conversation conversation : lateSessions) {
             try {
                 // Cancel conversation & booking
-                conversationService.cancelLateSession(conversation.getId());
+                if (!conversationService.cancelLateSession(conversation.getId())) {
+                    continue;
+                }
 
                 // Notify qua Socket.IO
                 SocketIONamespace namespace = socketIOServer.getNamespace("/chat");
-                namespace.getRoomOperations(conversation.getId().toString())
-                        .sendEvent("session_canceled", Map.of(
-                                "conversationId", conversation.getId().toString(),
-                                "reason", "Customer late >10 minutes",
-                                "message", messageSourceService.get("chat.session.canceled.late"),
-                                "timestamp", LocalDateTime.now().toString()
-                        ));
+                socketEmitter.emitToRoom(namespace, conversation.getId().toString(), "session_canceled", Map.of(
+                        "conversationId", conversation.getId().toString(),
+                        "reason", "Customer late >10 minutes",
+                        "message", messageSourceService.get("chat.session.canceled.late"),
+                        "timestamp", LocalDateTime.now().toString()
+                ));
 
                 log.info("Canceled late session: conversationId={}", conversation.getId());
             } catch (Exception e) {
@@ -90,7 +93,9 @@ public class ConversationScheduler {
         for (Conversation conversation : endingSessions) {
             try {
                 // Mark warning sent
-                conversationService.sendWarningNotification(conversation.getId());
+                if (!conversationService.sendWarningNotification(conversation.getId())) {
+                    continue;
+                }
 
                 // Calculate remaining minutes
                 long remainingMinutes = java.time.Duration.between(
@@ -100,14 +105,13 @@ public class ConversationScheduler {
 
                 // Notify qua Socket.IO
                 SocketIONamespace namespace = socketIOServer.getNamespace("/chat");
-                namespace.getRoomOperations(conversation.getId().toString())
-                        .sendEvent("session_ending_soon", Map.of(
-                                "conversationId", conversation.getId().toString(),
-                                "remainingMinutes", remainingMinutes,
-                                "message", String.format(messageSourceService.get("chat.session.ending.soon"), remainingMinutes),
-                                "canExtend", true,  // Frontend có thể show extend button
-                                "timestamp", LocalDateTime.now().toString()
-                        ));
+                socketEmitter.emitToRoom(namespace, conversation.getId().toString(), "session_ending_soon", Map.of(
+                        "conversationId", conversation.getId().toString(),
+                        "remainingMinutes", remainingMinutes,
+                        "message", String.format(messageSourceService.get("chat.session.ending.soon"), remainingMinutes),
+                        "canExtend", true,  // Frontend có thể show extend button
+                        "timestamp", LocalDateTime.now().toString()
+                ));
 
                 log.info("Sent warning notification: conversationId={}, remainingMinutes={}",
                         conversation.getId(), remainingMinutes);
@@ -134,18 +138,19 @@ public class ConversationScheduler {
 
         for (Conversation conversation : expiredSessions) {
             try {
-                // End conversation & complete booking
-                conversationService.autoEndSession(conversation.getId());
+                // End conversation & complete booking (skipped if extended meanwhile)
+                if (!conversationService.autoEndSession(conversation.getId())) {
+                    continue;
+                }
 
                 // Notify qua Socket.IO
                 SocketIONamespace namespace = socketIOServer.getNamespace("/chat");
-                namespace.getRoomOperations(conversation.getId().toString())
-                        .sendEvent("session_ended", Map.of(
-                                "conversationId", conversation.getId().toString(),
-                                "reason", "Session time expired",
-                                "message", messageSourceService.get("chat.session.ended"),
-                                "timestamp", LocalDateTime.now().toString()
-                        ));
+                socketEmitter.emitToRoom(namespace, conversation.getId().toString(), "session_ended", Map.of(
+                        "conversationId", conversation.getId().toString(),
+                        "reason", "Session time expired",
+                        "message", messageSourceService.get("chat.session.ended"),
+                        "timestamp", LocalDateTime.now().toString()
+                ));
 
                 log.info("Auto-ended expired session: conversationId={}", conversation.getId());
             } catch (Exception e) {
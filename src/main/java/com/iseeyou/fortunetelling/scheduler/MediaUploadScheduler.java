@@ -0,0 +1,33 @@
+package com.iseeyou.fortunetelling.scheduler;
+
+import com.iseeyou.fortunetelling.service.fileupload.MediaUploadService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class MediaUploadScheduler {
+    private final MediaUploadService mediaUploadService;
+
+    @Scheduled(fixedDelay = 3600000)  // 1 hour
+    public void expireStaleUploads() {
+        log.debug("Running stale media upload cleanup...");
+        try {
+            mediaUploadService.expireStaleUploads();
+        } catch (Exception e) {
+            log.error("Error expiring stale media uploads", e);
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${app.media.upload.recovery-interval-ms:300000}")  // 5 minutes
+    public void recoverStuckUploads() {
+        try {
+            mediaUploadService.recoverStuckUploads();
+        } catch (Exception e) {
+            log.error("Error recovering stuck media uploads", e);
+        }
+    }
+}
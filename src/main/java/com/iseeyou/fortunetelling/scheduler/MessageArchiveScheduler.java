@@ -0,0 +1,27 @@
+package com.iseeyou.fortunetelling.scheduler;
+
+import com.iseeyou.fortunetelling.service.message.MessageArchiveService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class MessageArchiveScheduler {
+    private final MessageArchiveService messageArchiveService;
+
+    @Scheduled(cron = "${app.message.archive.cron:0 30 3 * * *}")  // 03:30 mỗi ngày
+    public void archiveEndedConversations() {
+        log.debug("Running message archival...");
+        try {
+            // Chạy theo batch cho đến khi không còn conversation cần archive
+            while (messageArchiveService.archiveEndedConversations() > 0) {
+                log.debug("Archived a batch of conversations, checking for more...");
+            }
+        } catch (Exception e) {
+            log.error("Error archiving ended conversations", e);
+        }
+    }
+}
@@ -0,0 +1,34 @@
+package com.iseeyou.fortunetelling.scheduler;
+
+import com.iseeyou.fortunetelling.service.notification.NotificationSseService;
+import com.iseeyou.fortunetelling.service.notification.NotificationUnreadCounterService;
+import com.iseeyou.fortunetelling.service.socket.SocketIOService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.Set;
+import java.util.UUID;
+
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class NotificationCounterScheduler {
+    private final NotificationUnreadCounterService notificationUnreadCounterService;
+    private final SocketIOService socketIOService;
+    private final NotificationSseService notificationSseService;
+
+    // Online users are the ones looking at the badge, offline counters are left to the TTL
+    @Scheduled(fixedDelayString = "${app.notification.unread.reconcile-interval-ms:600000}")
+    public void reconcileOnlineUsers() {
+        log.debug("Reconciling unread notification counters...");
+        try {
+            Set<UUID> onlineUserIds = socketIOService.getOnlineUserIds();
+            onlineUserIds.addAll(notificationSseService.getConnectedUserIds());
+            notificationUnreadCounterService.reconcile(onlineUserIds);
+        } catch (Exception e) {
+            log.error("Error reconciling unread notification counters", e);
+        }
+    }
+}
@@ -0,0 +1,27 @@
+package com.iseeyou.fortunetelling.scheduler;
+
+import com.iseeyou.fortunetelling.service.notification.NotificationFanoutService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class NotificationFanoutScheduler {
+    private final NotificationFanoutService notificationFanoutService;
+
+    // Also resumes jobs left RUNNING by a crashed instance once their lease is over
+    @Scheduled(fixedDelayString = "${app.notification.fanout.poll-interval-ms:2000}")
+    public void processFanoutJobs() {
+        try {
+            int processed = notificationFanoutService.processDueJobs();
+            if (processed > 0) {
+                log.debug("Processed {} notification fan-out jobs", processed);
+            }
+        } catch (Exception e) {
+            log.error("Error processing notification fan-out jobs", e);
+        }
+    }
+}
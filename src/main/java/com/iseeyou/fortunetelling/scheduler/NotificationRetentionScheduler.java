@@ -0,0 +1,24 @@
+package com.iseeyou.fortunetelling.scheduler;
+
+import com.iseeyou.fortunetelling.service.notification.NotificationRetentionService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class NotificationRetentionScheduler {
+    private final NotificationRetentionService notificationRetentionService;
+
+    @Scheduled(cron = "${app.notification.retention.cron:0 0 4 * * *}")  // 04:00 mỗi ngày
+    public void applyRetention() {
+        log.debug("Running notification retention...");
+        try {
+            notificationRetentionService.applyRetention();
+        } catch (Exception e) {
+            log.error("Error applying notification retention", e);
+        }
+    }
+}
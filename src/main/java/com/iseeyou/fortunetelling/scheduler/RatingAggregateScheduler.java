@@ -0,0 +1,24 @@
+package com.iseeyou.fortunetelling.scheduler;
+
+import com.iseeyou.fortunetelling.service.rating.RatingAggregateService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class RatingAggregateScheduler {
+    private final RatingAggregateService ratingAggregateService;
+
+    @Scheduled(cron = "${app.rating.repair-cron:0 30 3 * * *}")  // 03:30 mỗi ngày
+    public void repairAggregates() {
+        log.debug("Running rating aggregate repair...");
+        try {
+            ratingAggregateService.repair();
+        } catch (Exception e) {
+            log.error("Error repairing rating aggregates", e);
+        }
+    }
+}
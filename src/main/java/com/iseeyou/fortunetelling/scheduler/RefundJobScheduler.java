@@ -0,0 +1,27 @@
+package com.iseeyou.fortunetelling.scheduler;
+
+import com.iseeyou.fortunetelling.service.booking.RefundJobService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class RefundJobScheduler {
+    private final RefundJobService refundJobService;
+
+    // Also resumes jobs left RUNNING by a crashed instance once their lease is over
+    @Scheduled(fixedDelayString = "${app.refund.poll-interval-ms:5000}")
+    public void processRefundJobs() {
+        try {
+            int processed = refundJobService.processDueJobs();
+            if (processed > 0) {
+                log.debug("Processed {} refund jobs", processed);
+            }
+        } catch (Exception e) {
+            log.error("Error processing refund jobs", e);
+        }
+    }
+}
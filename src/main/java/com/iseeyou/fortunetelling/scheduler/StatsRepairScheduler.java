@@ -0,0 +1,31 @@
+package com.iseeyou.fortunetelling.scheduler;
+
+import com.iseeyou.fortunetelling.service.user.AccountStatsService;
+import com.iseeyou.fortunetelling.service.user.SeerStatsService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class StatsRepairScheduler {
+    private final SeerStatsService seerStatsService;
+    private final AccountStatsService accountStatsService;
+
+    @Scheduled(cron = "${app.stats.repair-cron:0 45 3 * * *}")  // 03:45 mỗi ngày, sau rating repair
+    public void repairStats() {
+        log.debug("Running seer and account stats repair...");
+        try {
+            seerStatsService.repair();
+        } catch (Exception e) {
+            log.error("Error repairing seer stats", e);
+        }
+        try {
+            accountStatsService.repair();
+        } catch (Exception e) {
+            log.error("Error repairing account stats", e);
+        }
+    }
+}
@@ -0,0 +1,24 @@
+package com.iseeyou.fortunetelling.scheduler;
+
+import com.iseeyou.fortunetelling.service.trending.TrendingService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class TrendingScheduler {
+    private final TrendingService trendingService;
+
+    // Every instance runs it; right after another one it finds nothing to scale
+    @Scheduled(fixedDelayString = "${app.trending.rescale-interval-ms:3600000}")
+    public void rescaleTrendingScores() {
+        try {
+            trendingService.rescale();
+        } catch (Exception e) {
+            log.error("Error rescaling trending scores", e);
+        }
+    }
+}
@@ -0,0 +1,24 @@
+package com.iseeyou.fortunetelling.scheduler;
+
+import com.iseeyou.fortunetelling.service.view.ViewCounterService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class ViewCounterScheduler {
+    private final ViewCounterService viewCounterService;
+
+    // The interval is the most a crash can lose
+    @Scheduled(fixedDelayString = "${app.view-counter.flush-interval-ms:5000}")
+    public void flushViewCounts() {
+        try {
+            viewCounterService.flush();
+        } catch (Exception e) {
+            log.error("Error flushing view counts", e);
+        }
+    }
+}
@@ -27,6 +27,9 @@ public interface BookingService {
     Booking updateBooking(UUID id, BookingUpdateRequest request);
     void deleteBooking(UUID id);
     Booking refundBooking(UUID id);
+    // Same refund without a caller permission check, run by the refund job worker.
+    // idempotencyKey is sent to the gateway, a repeated call with the same key refunds only once
+    Booking refundBookingOfDeletedPackage(UUID id, String idempotencyKey);
     Booking cancelBooking(UUID id);
     
     // Review methods
@@ -0,0 +1,23 @@
+package com.iseeyou.fortunetelling.service.booking;
+
+import com.iseeyou.fortunetelling.dto.response.servicepackage.PackageRefundStatusResponse;
+import com.iseeyou.fortunetelling.entity.booking.Booking;
+
+import java.util.Collection;
+import java.util.UUID;
+
+/**
+ * Durable queue of booking refunds for deleted service packages. Jobs are rows in refund_job, created in the
+ * deleting transaction and worked off in the background with bounded concurrency and retry with backoff.
+ */
+public interface RefundJobService {
+
+    // Joins the caller's transaction; returns how many jobs were queued
+    int enqueue(UUID servicePackageId, UUID seerId, Collection<Booking> bookings);
+
+    // Claims and runs due jobs, returns how many ran
+    int processDueJobs();
+
+    // Package owner or admin only
+    PackageRefundStatusResponse getPackageRefundStatus(UUID servicePackageId);
+}
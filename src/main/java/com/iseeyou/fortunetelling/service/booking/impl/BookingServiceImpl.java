@@ -14,9 +14,13 @@ import com.iseeyou.fortunetelling.repository.booking.BookingRepository;
 import com.iseeyou.fortunetelling.service.booking.BookingService;
 import com.iseeyou.fortunetelling.service.booking.strategy.PaymentStrategy;
 import com.iseeyou.fortunetelling.service.converstation.ConversationService;
+import com.iseeyou.fortunetelling.service.rating.RatingAggregateService;
 import com.iseeyou.fortunetelling.service.servicepackage.ServicePackageService;
+import com.iseeyou.fortunetelling.service.trending.TrendingService;
+import com.iseeyou.fortunetelling.service.user.SeerStatsService;
 import com.iseeyou.fortunetelling.service.user.UserService;
 import com.iseeyou.fortunetelling.util.Constants;
+import com.iseeyou.fortunetelling.util.OptimisticLockRetryExecutor;
 import com.paypal.base.rest.PayPalRESTException;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -41,6 +45,10 @@ public class BookingServiceImpl implements BookingService {
     private final ConversationService conversationService;
     private final BookingMapper bookingMapper;
     private final Map<Constants.PaymentMethodEnum, PaymentStrategy> paymentStrategies;
+    private final OptimisticLockRetryExecutor optimisticLockRetryExecutor;
+    private final RatingAggregateService ratingAggregateService;
+    private final TrendingService trendingService;
+    private final SeerStatsService seerStatsService;
 
     @Override
     @Transactional(readOnly = true)
@@ -118,6 +126,7 @@ public class BookingServiceImpl implements BookingService {
         booking.setCustomer(customer);
 
         Booking newBooking = bookingRepository.save(booking);
+        seerStatsService.bookingCreated(newBooking.getId());
 
         try {
             BookingPayment bookingPayment = createBookingPayment(newBooking, request.getPaymentMethod());
@@ -129,6 +138,7 @@ public class BookingServiceImpl implements BookingService {
             bookingRepository.save(newBooking);
             throw new RuntimeException("Error creating payment", e);
         }
+        trendingService.recordPackageEvent(packageId, Constants.TrendingEventEnum.BOOKING);
 
         // Fetch booking with all relationships to avoid LazyInitializationException
         return bookingRepository.findWithDetailById(newBooking.getId())
@@ -155,40 +165,57 @@ public class BookingServiceImpl implements BookingService {
     }
 
     @Override
-    @Transactional
     public Booking updateBooking(UUID id, BookingUpdateRequest request) {
-        Booking existingBooking = bookingRepository.findById(id)
-                .orElseThrow(() -> new NotFoundException("Booking not found with id: " + id));
+        // Retried on @Version conflicts (scheduler ending the session, payment callback...), re-reading the booking
+        return optimisticLockRetryExecutor.execute("Update booking " + id, () -> {
+            Booking existingBooking = bookingRepository.findById(id)
+                    .orElseThrow(() -> new NotFoundException("Booking not found with id: " + id));
 
-        // check if status changed to CONFIRMED
-        boolean statusChangedToConfirmed = request.getStatus() != null &&
-                !existingBooking.getStatus().equals(request.getStatus()) &&
-                request.getStatus().equals(Constants.BookingStatusEnum.CONFIRMED);
+            boolean statusChanged = request.getStatus() != null &&
+                    !existingBooking.getStatus().equals(request.getStatus());
+            if (statusChanged && (existingBooking.getStatus() == Constants.BookingStatusEnum.CANCELED
+                    || existingBooking.getStatus() == Constants.BookingStatusEnum.COMPLETED)) {
+                throw new IllegalArgumentException("Cannot change status of a " + existingBooking.getStatus() + " booking");
+            }
 
-        // Update booking fields from request
-        if (request.getStatus() != null) {
-            existingBooking.setStatus(request.getStatus());
-        }
-        if (request.getAdditionalNote() != null) {
-            existingBooking.setAdditionalNote(request.getAdditionalNote());
-        }
-        if (request.getScheduledTime() != null) {
-            existingBooking.setScheduledTime(request.getScheduledTime());
-        }
+            // check if status changed to CONFIRMED
+            boolean statusChangedToConfirmed = statusChanged &&
+                    request.getStatus().equals(Constants.BookingStatusEnum.CONFIRMED);
+            // Only the first confirmation measures the seer's response time
+            boolean firstConfirmation = statusChangedToConfirmed && existingBooking.getConfirmedAt() == null;
+            if (firstConfirmation) {
+                existingBooking.setConfirmedAt(LocalDateTime.now());
+            }
+            Constants.BookingStatusEnum previousStatus = existingBooking.getStatus();
+
+            // Update booking fields from request
+            if (request.getStatus() != null) {
+                existingBooking.setStatus(request.getStatus());
+            }
+            if (request.getAdditionalNote() != null) {
+                existingBooking.setAdditionalNote(request.getAdditionalNote());
+            }
+            if (request.getScheduledTime() != null) {
+                existingBooking.setScheduledTime(request.getScheduledTime());
+            }
 
-        bookingRepository.save(existingBooking);
+            bookingRepository.save(existingBooking);
+            if (statusChanged) {
+                seerStatsService.bookingStatusChanged(id, previousStatus, existingBooking.getStatus(), firstConfirmation);
+            }
 
-        // create chat session if booking confirmed
-        if (statusChangedToConfirmed) {
-            log.info("Booking confirmed, creating chat session for booking: {}", id);
-            conversationService.createChatSession(id);
-        }
+            // create chat session if booking confirmed
+            if (statusChangedToConfirmed) {
+                log.info("Booking confirmed, creating chat session for booking: {}", id);
+                conversationService.createChatSession(id);
+            }
 
-        // Fetch booking with all relationships to avoid LazyInitializationException
-        Booking updatedBooking = bookingRepository.findWithDetailById(id)
-                .orElseThrow(() -> new NotFoundException("Booking not found with id: " + id));
+            // Fetch booking with all relationships to avoid LazyInitializationException
+            Booking updatedBooking = bookingRepository.findWithDetailById(id)
+                    .orElseThrow(() -> new NotFoundException("Booking not found with id: " + id));
 
-        return updatedBooking;
+            return updatedBooking;
+        });
     }
 
     @Override
@@ -196,6 +223,7 @@ public class BookingServiceImpl implements BookingService {
     public void deleteBooking(UUID id) {
         Booking existingBooking = bookingRepository.findById(id)
                 .orElseThrow(() -> new NotFoundException("Booking not found with id: " + id));
+        seerStatsService.bookingDeleted(existingBooking);
         bookingRepository.delete(existingBooking);
     }
 
@@ -289,8 +317,10 @@ public class BookingServiceImpl implements BookingService {
         }
         
         // 6. Update booking status to CANCELED
+        Constants.BookingStatusEnum previousStatus = booking.getStatus();
         booking.setStatus(Constants.BookingStatusEnum.CANCELED);
         bookingRepository.save(booking);
+        seerStatsService.bookingStatusChanged(id, previousStatus, Constants.BookingStatusEnum.CANCELED, false);
         
         log.info("Booking {} cancelled successfully by user {}", id, currentUser.getId());
         
@@ -318,7 +348,29 @@ public class BookingServiceImpl implements BookingService {
     @Transactional
     public Booking refundBooking(UUID id) {
         log.info("Starting refund process for booking {}", id);
-        
+        Booking booking = findRefundableBooking(id);
+
+        // Validate user permission - only customer can refund their own booking (or admin)
+        User currentUser = userService.getUser();
+        boolean isCustomer = booking.getCustomer().getId().equals(currentUser.getId());
+        boolean isAdmin = currentUser.getRole().equals(Constants.RoleEnum.ADMIN);
+
+        if (!isCustomer && !isAdmin) {
+            throw new IllegalArgumentException("Only the booking customer or admin can request a refund");
+        }
+
+        return processRefund(booking, null);
+    }
+
+    @Override
+    @Transactional
+    public Booking refundBookingOfDeletedPackage(UUID id, String idempotencyKey) {
+        log.info("Starting refund process for booking {} of a deleted service package", id);
+        // No caller here: the package owner or an admin authorized it by deleting the package
+        return processRefund(findRefundableBooking(id), idempotencyKey);
+    }
+
+    private Booking findRefundableBooking(UUID id) {
         // 1. Find booking with payments
         Booking booking = bookingRepository.findById(id)
                 .orElseThrow(() -> new NotFoundException("Booking not found with id: " + id));
@@ -336,16 +388,13 @@ public class BookingServiceImpl implements BookingService {
             throw new IllegalArgumentException("Cannot refund a failed booking.");
         }
         
-        // 3. Validate user permission - only customer can refund their own booking (or admin)
-        User currentUser = userService.getUser();
-        boolean isCustomer = booking.getCustomer().getId().equals(currentUser.getId());
-        boolean isAdmin = currentUser.getRole().equals(Constants.RoleEnum.ADMIN);
-        
-        if (!isCustomer && !isAdmin) {
-            throw new IllegalArgumentException("Only the booking customer or admin can request a refund");
-        }
-        
-        // 4. Find completed payment to refund
+        return booking;
+    }
+
+    private Booking processRefund(Booking booking, String idempotencyKey) {
+        UUID id = booking.getId();
+
+        // 3. Find completed payment to refund
         BookingPayment completedPayment = booking.getBookingPayments().stream()
                 .filter(p -> p.getStatus().equals(Constants.PaymentStatusEnum.COMPLETED))
                 .findFirst()
@@ -356,7 +405,7 @@ public class BookingServiceImpl implements BookingService {
             throw new IllegalArgumentException("No completed payment found for this booking. Nothing to refund.");
         }
         
-        // 5. Check if payment was already refunded
+        // 4. Check if payment was already refunded
         boolean hasRefundedPayment = booking.getBookingPayments().stream()
                 .anyMatch(p -> p.getStatus().equals(Constants.PaymentStatusEnum.REFUNDED));
         
@@ -364,7 +413,7 @@ public class BookingServiceImpl implements BookingService {
             throw new IllegalArgumentException("This booking has already been refunded");
         }
         
-        // 6. Process refund through payment strategy
+        // 5. Process refund through payment strategy
         try {
             PaymentStrategy paymentStrategy = paymentStrategies.get(completedPayment.getPaymentMethod());
             
@@ -378,16 +427,18 @@ public class BookingServiceImpl implements BookingService {
                     completedPayment.getId(), completedPayment.getPaymentMethod());
             
             // Call strategy to refund payment
-            BookingPayment refundedPayment = paymentStrategy.refund(id, completedPayment);
+            BookingPayment refundedPayment = paymentStrategy.refund(id, completedPayment, idempotencyKey);
             
-            // 7. Update booking status to CANCELED
+            // 6. Update booking status to CANCELED
+            Constants.BookingStatusEnum previousStatus = booking.getStatus();
             booking.setStatus(Constants.BookingStatusEnum.CANCELED);
             bookingRepository.save(booking);
+            seerStatsService.bookingStatusChanged(id, previousStatus, Constants.BookingStatusEnum.CANCELED, false);
             
             log.info("Booking {} refunded successfully. Payment {} status: REFUNDED", 
                     id, refundedPayment.getId());
             
-            // 8. Fetch booking with all relationships to avoid LazyInitializationException
+            // 7. Fetch booking with all relationships to avoid LazyInitializationException
             Booking updatedBooking = bookingRepository.findWithDetailById(id)
                     .orElseThrow(() -> new NotFoundException("Booking not found with id: " + id));
             
@@ -441,6 +492,10 @@ public class BookingServiceImpl implements BookingService {
         booking.setReviewedAt(LocalDateTime.now());
         
         Booking savedBooking = bookingRepository.save(booking);
+        // The native UPDATE flushes the booking first: a concurrent second review fails on @Version before anything is counted
+        ratingAggregateService.addRating(savedBooking.getServicePackage().getId(),
+                savedBooking.getServicePackage().getSeer().getId(), savedBooking.getRating());
+        trendingService.recordReview(savedBooking.getServicePackage().getId(), savedBooking.getRating());
         log.info("Review submitted for booking {} by user {}", bookingId, currentUser.getId());
         
         // Build response
@@ -0,0 +1,253 @@
+package com.iseeyou.fortunetelling.service.booking.impl;
+
+import com.iseeyou.fortunetelling.dto.response.servicepackage.PackageRefundStatusResponse;
+import com.iseeyou.fortunetelling.entity.booking.Booking;
+import com.iseeyou.fortunetelling.entity.booking.RefundJob;
+import com.iseeyou.fortunetelling.entity.user.User;
+import com.iseeyou.fortunetelling.exception.NotFoundException;
+import com.iseeyou.fortunetelling.exception.UnauthorizedException;
+import com.iseeyou.fortunetelling.repository.booking.RefundJobRepository;
+import com.iseeyou.fortunetelling.repository.servicepackage.ServicePackageRepository;
+import com.iseeyou.fortunetelling.service.booking.BookingService;
+import com.iseeyou.fortunetelling.service.booking.RefundJobService;
+import com.iseeyou.fortunetelling.service.user.UserService;
+import com.iseeyou.fortunetelling.util.Constants;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.UUID;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.stream.Collectors;
+
+/**
+ * Jobs go PENDING -> RUNNING -> SUCCEEDED / SKIPPED, or back to PENDING with a backoff until max-attempts (FAILED).
+ * <ul>
+ *     <li>A claim leases the job; if the instance dies the lease runs out and the job is claimed again.</li>
+ *     <li>The refund and its SUCCEEDED mark commit together, a job is never marked done without its refund.</li>
+ *     <li>The job id goes to the gateway as the idempotency key (PayPal-Request-Id). A crash between the gateway
+ *     call and that commit retries with the same key, and the gateway answers with the refund it already made
+ *     instead of refunding twice.</li>
+ * </ul>
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class RefundJobServiceImpl implements RefundJobService {
+
+    private static final int MAX_ERROR_LENGTH = 500;
+
+    private final RefundJobRepository refundJobRepository;
+    private final ServicePackageRepository servicePackageRepository;
+    private final BookingService bookingService;
+    private final UserService userService;
+    private final TransactionTemplate transactionTemplate;
+
+    // Concurrent calls to the payment gateway, per instance
+    @Value("${app.refund.threads:2}")
+    private int threads;
+
+    @Value("${app.refund.batch-size:10}")
+    private int batchSize;
+
+    @Value("${app.refund.max-attempts:8}")
+    private int maxAttempts;
+
+    @Value("${app.refund.backoff-base-seconds:30}")
+    private long backoffBaseSeconds;
+
+    @Value("${app.refund.backoff-max-seconds:3600}")
+    private long backoffMaxSeconds;
+
+    // Must outlast a whole batch (batch-size / threads gateway calls)
+    @Value("${app.refund.lease-seconds:600}")
+    private long leaseSeconds;
+
+    private ExecutorService refundExecutor;
+
+    @PostConstruct
+    public void init() {
+        refundExecutor = Executors.newFixedThreadPool(threads);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        refundExecutor.shutdown();
+    }
+
+    @Override
+    @Transactional(propagation = Propagation.MANDATORY)
+    public int enqueue(UUID servicePackageId, UUID seerId, Collection<Booking> bookings) {
+        LocalDateTime now = LocalDateTime.now();
+        List<RefundJob> jobs = bookings.stream()
+                .map(booking -> RefundJob.builder()
+                        .booking(booking)
+                        .servicePackageId(servicePackageId)
+                        .seerId(seerId)
+                        .nextAttemptAt(now)
+                        .build())
+                .toList();
+        refundJobRepository.saveAll(jobs);
+        return jobs.size();
+    }
+
+    @Override
+    public int processDueJobs() {
+        LocalDateTime now = LocalDateTime.now();
+        List<Object[]> claimed = refundJobRepository.claimDue(now, now.plusSeconds(leaseSeconds), batchSize);
+        if (claimed.isEmpty()) {
+            return 0;
+        }
+
+        List<Future<?>> running = new ArrayList<>(claimed.size());
+        for (Object[] row : claimed) {
+            UUID jobId = (UUID) row[0];
+            UUID bookingId = (UUID) row[1];
+            int attempts = ((Number) row[2]).intValue();
+            running.add(refundExecutor.submit(() -> run(jobId, bookingId, attempts)));
+        }
+        // Waiting keeps claimed jobs from sitting in the pool queue while their lease runs out
+        for (Future<?> future : running) {
+            try {
+                future.get();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            } catch (ExecutionException e) {
+                log.error("Refund job crashed", e.getCause());
+            }
+        }
+        return claimed.size();
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public PackageRefundStatusResponse getPackageRefundStatus(UUID servicePackageId) {
+        User currentUser = userService.getUser();
+        // Ownership comes from the package itself: a package without jobs must not look the same to everyone
+        List<Object[]> owner = servicePackageRepository.findOwnerIncludingDeleted(servicePackageId);
+        if (owner.isEmpty()) {
+            throw new NotFoundException("Service package not found with id: " + servicePackageId);
+        }
+        boolean isAdmin = currentUser.getRole().equals(Constants.RoleEnum.ADMIN);
+        if (!isAdmin && !currentUser.getId().equals(owner.get(0)[1])) {
+            throw new UnauthorizedException("Only the package owner or admin can view its refunds");
+        }
+
+        List<RefundJob> jobs = refundJobRepository.findAllByServicePackageIdOrderByCreatedAtAsc(servicePackageId);
+
+        Map<String, Long> countsByStatus = jobs.stream()
+                .collect(Collectors.groupingBy(job -> job.getStatus().getValue(), TreeMap::new, Collectors.counting()));
+        boolean finished = jobs.stream().noneMatch(job ->
+                job.getStatus() == Constants.RefundJobStatusEnum.PENDING
+                        || job.getStatus() == Constants.RefundJobStatusEnum.RUNNING);
+
+        return PackageRefundStatusResponse.builder()
+                .packageId(servicePackageId)
+                .totalJobs(jobs.size())
+                .countsByStatus(countsByStatus)
+                .finished(finished)
+                .jobs(jobs.stream()
+                        .map(job -> PackageRefundStatusResponse.RefundJobInfo.builder()
+                                .jobId(job.getId())
+                                // booking is an uninitialized proxy here, getId() does not load it
+                                .bookingId(job.getBooking().getId())
+                                .status(job.getStatus().getValue())
+                                .attempts(job.getAttempts())
+                                .nextAttemptAt(job.getStatus() == Constants.RefundJobStatusEnum.PENDING
+                                        ? job.getNextAttemptAt() : null)
+                                .lastError(job.getLastError())
+                                .updatedAt(job.getUpdatedAt())
+                                .build())
+                        .toList())
+                .build();
+    }
+
+    private void run(UUID jobId, UUID bookingId, int attempts) {
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                bookingService.refundBookingOfDeletedPackage(bookingId, jobId.toString());
+                finish(jobId, attempts, Constants.RefundJobStatusEnum.SUCCEEDED, null, LocalDateTime.now());
+            });
+            log.info("Refund job {} refunded booking {}", jobId, bookingId);
+        } catch (UnsupportedOperationException e) {
+            skip(jobId, bookingId, attempts, manualRefundRequired(e));
+        } catch (IllegalArgumentException | NotFoundException e) {
+            // Already canceled, nothing paid, unsupported method: retrying won't change it.
+            // BookingService rethrows the strategy's UnsupportedOperationException as IllegalArgumentException
+            skip(jobId, bookingId, attempts, e.getCause() instanceof UnsupportedOperationException unsupported
+                    ? manualRefundRequired(unsupported) : e.getMessage());
+        } catch (Exception e) {
+            boolean exhausted = attempts >= maxAttempts;
+            LocalDateTime now = LocalDateTime.now();
+            if (exhausted) {
+                log.error("Refund job {} for booking {} failed for good after {} attempts", jobId, bookingId, attempts, e);
+                finishQuietly(jobId, attempts, Constants.RefundJobStatusEnum.FAILED, e.getMessage(), now);
+            } else {
+                LocalDateTime next = now.plusSeconds(backoffSeconds(attempts));
+                log.warn("Refund job {} for booking {} failed (attempt {}), retrying at {}: {}",
+                        jobId, bookingId, attempts, next, e.getMessage());
+                finishQuietly(jobId, attempts, Constants.RefundJobStatusEnum.PENDING, e.getMessage(), next);
+            }
+        }
+    }
+
+    private void skip(UUID jobId, UUID bookingId, int attempts, String reason) {
+        log.info("Refund job {} skipped booking {}: {}", jobId, bookingId, reason);
+        finishQuietly(jobId, attempts, Constants.RefundJobStatusEnum.SKIPPED, reason, LocalDateTime.now());
+    }
+
+    private static String manualRefundRequired(UnsupportedOperationException e) {
+        return "Payment method cannot be refunded automatically, refund it manually: " + e.getMessage();
+    }
+
+    private void finish(UUID jobId, int attempts, Constants.RefundJobStatusEnum status, String error,
+                        LocalDateTime nextAttemptAt) {
+        int updated = refundJobRepository.finish(jobId, attempts, status.name(), truncate(error), nextAttemptAt,
+                LocalDateTime.now());
+        if (updated == 0) {
+            // Lease ran out and another worker claimed it meanwhile; its refund reuses the same idempotency key
+            log.warn("Refund job {} was reclaimed before attempt {} finished", jobId, attempts);
+        }
+    }
+
+    // Nếu ghi trạng thái lỗi thất bại thì lease hết hạn và job được chạy lại
+    private void finishQuietly(UUID jobId, int attempts, Constants.RefundJobStatusEnum status, String error,
+                               LocalDateTime nextAttemptAt) {
+        try {
+            transactionTemplate.executeWithoutResult(tx -> finish(jobId, attempts, status, error, nextAttemptAt));
+        } catch (Exception e) {
+            log.error("Failed to record {} for refund job {}", status, jobId, e);
+        }
+    }
+
+    // Exponential, capped, with jitter so retries after a gateway outage don't all arrive together
+    private long backoffSeconds(int attempts) {
+        long delay = backoffBaseSeconds << Math.min(attempts - 1, 20);
+        delay = Math.min(delay, backoffMaxSeconds);
+        return delay / 2 + ThreadLocalRandom.current().nextLong(delay / 2 + 1);
+    }
+
+    private static String truncate(String error) {
+        if (error == null || error.length() <= MAX_ERROR_LENGTH) {
+            return error;
+        }
+        return error.substring(0, MAX_ERROR_LENGTH);
+    }
+}
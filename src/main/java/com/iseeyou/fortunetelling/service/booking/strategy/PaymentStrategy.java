@@ -10,5 +10,10 @@ import java.util.UUID;
 public interface PaymentStrategy {
     BookingPayment pay(Booking booking) throws PayPalRESTException;
     BookingPayment executePayment(Map<String, Object> paymentParams);
-    BookingPayment refund(UUID bookingId, BookingPayment payment) throws PayPalRESTException;
+    BookingPayment refund(UUID bookingId, BookingPayment payment, String idempotencyKey) throws PayPalRESTException;
+
+    // Without a key the gateway treats every call as a new refund request
+    default BookingPayment refund(UUID bookingId, BookingPayment payment) throws PayPalRESTException {
+        return refund(bookingId, payment, null);
+    }
 }
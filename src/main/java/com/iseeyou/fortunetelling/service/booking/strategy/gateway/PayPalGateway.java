@@ -80,11 +80,13 @@ public class PayPalGateway {
      * Hoàn tiền cho một Sale transaction trên PayPal
      * @param saleId ID của sale transaction cần hoàn tiền
      * @param amount Số tiền cần hoàn (null = hoàn toàn bộ)
+     * @param requestId PayPal-Request-Id: PayPal trả lại refund đã tạo thay vì hoàn tiền lần nữa khi gọi lại
+     *                  với cùng id (null = SDK tự sinh id mới cho mỗi lần gọi)
      * @return DetailedRefund object chứa thông tin hoàn tiền
      * @throws PayPalRESTException nếu có lỗi từ PayPal API
      */
     @Transactional
-    public DetailedRefund refundSale(String saleId, Double amount) throws PayPalRESTException {
+    public DetailedRefund refundSale(String saleId, Double amount, String requestId) throws PayPalRESTException {
         try {
             // Lấy thông tin Sale transaction
             Sale sale = Sale.get(apiContext, saleId);
@@ -105,7 +107,7 @@ public class PayPalGateway {
             }
             
             // Thực hiện hoàn tiền
-            DetailedRefund refund = sale.refund(apiContext, refundRequest);
+            DetailedRefund refund = sale.refund(requestContext(requestId), refundRequest);
             
             log.info("PayPal refund successful. Refund ID: {}, Status: {}, Amount: {}", 
                     refund.getId(), refund.getState(), 
@@ -119,4 +121,14 @@ public class PayPalGateway {
             throw e;
         }
     }
+
+    // The shared context is used by every thread, the request id goes on a per-call copy with the same token
+    private APIContext requestContext(String requestId) throws PayPalRESTException {
+        if (requestId == null) {
+            return apiContext;
+        }
+        APIContext context = new APIContext(apiContext.fetchAccessToken(), requestId);
+        context.setConfigurationMap(apiContext.getConfigurationMap());
+        return context;
+    }
 }
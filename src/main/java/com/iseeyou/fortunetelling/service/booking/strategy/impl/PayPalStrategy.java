@@ -5,6 +5,7 @@ import com.iseeyou.fortunetelling.entity.booking.BookingPayment;
 import com.iseeyou.fortunetelling.repository.booking.BookingPaymentRepository;
 import com.iseeyou.fortunetelling.service.booking.strategy.PaymentStrategy;
 import com.iseeyou.fortunetelling.service.booking.strategy.gateway.PayPalGateway;
+import com.iseeyou.fortunetelling.service.user.SeerStatsService;
 import com.iseeyou.fortunetelling.util.Constants;
 import com.paypal.api.payments.DetailedRefund;
 import com.paypal.api.payments.Payment;
@@ -27,6 +28,7 @@ public class PayPalStrategy implements PaymentStrategy {
 
     private final PayPalGateway payPalGateway;
     private final BookingPaymentRepository bookingPaymentRepository;
+    private final SeerStatsService seerStatsService;
 
     // USD conversion rate - 1 VND = 0.0395 USD
     private static final double VND_TO_USD = 0.0395;
@@ -124,6 +126,8 @@ public class PayPalStrategy implements PaymentStrategy {
 
             // Update payment status based on PayPal response
             if ("approved".equals(executedPayment.getState())) {
+                seerStatsService.paymentStatusChanged(bookingPayment.getBooking().getId(), bookingPayment.getAmount(),
+                        bookingPayment.getStatus(), Constants.PaymentStatusEnum.COMPLETED);
                 bookingPayment.setStatus(Constants.PaymentStatusEnum.COMPLETED);
 
 
@@ -156,7 +160,8 @@ public class PayPalStrategy implements PaymentStrategy {
 
     @Override
     @Transactional(rollbackFor = Exception.class)
-    public BookingPayment refund(UUID bookingId, BookingPayment payment) throws PayPalRESTException {
+    public BookingPayment refund(UUID bookingId, BookingPayment payment, String idempotencyKey)
+            throws PayPalRESTException {
         log.info("Starting refund process for booking {} with payment {}", bookingId, payment.getId());
         log.debug("Payment details - ID: {}, Method: {}, Status: {}, Amount: {}, TransactionID: {}", 
                 payment.getId(), payment.getPaymentMethod(), payment.getStatus(), 
@@ -209,13 +214,15 @@ public class PayPalStrategy implements PaymentStrategy {
             double amountInUSD = amountInVND * VND_TO_USD;
             
             // Call PayPal API to refund
-            DetailedRefund refund = payPalGateway.refundSale(saleId, amountInUSD);
+            DetailedRefund refund = payPalGateway.refundSale(saleId, amountInUSD, idempotencyKey);
             
             // Update payment status and info
             payment.setStatus(Constants.PaymentStatusEnum.REFUNDED);
             payment.setExtraInfo(buildRefundInfo(refund, payment.getExtraInfo()));
             
             BookingPayment savedPayment = bookingPaymentRepository.save(payment);
+            seerStatsService.paymentStatusChanged(bookingId, payment.getAmount(),
+                    Constants.PaymentStatusEnum.COMPLETED, Constants.PaymentStatusEnum.REFUNDED);
             
             log.info("Successfully refunded payment {} for booking {}. Refund ID: {}, State: {}", 
                     payment.getId(), bookingId, refund.getId(), refund.getState());
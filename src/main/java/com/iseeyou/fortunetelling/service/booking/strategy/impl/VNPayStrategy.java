@@ -5,6 +5,7 @@ import com.iseeyou.fortunetelling.entity.booking.BookingPayment;
 import com.iseeyou.fortunetelling.repository.booking.BookingPaymentRepository;
 import com.iseeyou.fortunetelling.service.booking.strategy.PaymentStrategy;
 import com.iseeyou.fortunetelling.service.booking.strategy.gateway.VNPayGateway;
+import com.iseeyou.fortunetelling.service.user.SeerStatsService;
 import com.iseeyou.fortunetelling.util.Constants;
 import com.paypal.base.rest.PayPalRESTException;
 import lombok.RequiredArgsConstructor;
@@ -22,6 +23,7 @@ public class VNPayStrategy implements PaymentStrategy {
 
     private final VNPayGateway vnPayGateway;
     private final BookingPaymentRepository bookingPaymentRepository;
+    private final SeerStatsService seerStatsService;
 
     @Override
     @Transactional(rollbackFor = Exception.class)
@@ -100,6 +102,7 @@ public class VNPayStrategy implements PaymentStrategy {
         currentBookingPayment.setTransactionId(vnp_TransactionNo);
         
         log.info("Processing VNPay payment for booking {}, response code: {}", bookingId, vnp_ResponseCode);
+        Constants.PaymentStatusEnum previousStatus = currentBookingPayment.getStatus();
 
         if (vnp_ResponseCode.equals("00")) {
             currentBookingPayment.setStatus(Constants.PaymentStatusEnum.COMPLETED);
@@ -112,12 +115,16 @@ public class VNPayStrategy implements PaymentStrategy {
             // Additional logic for failed payment can be added here
         }
 
-        return bookingPaymentRepository.save(currentBookingPayment);
+        BookingPayment savedPayment = bookingPaymentRepository.save(currentBookingPayment);
+        seerStatsService.paymentStatusChanged(UUID.fromString(bookingId), savedPayment.getAmount(),
+                previousStatus, savedPayment.getStatus());
+        return savedPayment;
     }
 
     @Override
     @Transactional(rollbackFor = Exception.class)
-    public BookingPayment refund(UUID bookingId, BookingPayment payment) throws PayPalRESTException {
+    public BookingPayment refund(UUID bookingId, BookingPayment payment, String idempotencyKey)
+            throws PayPalRESTException {
         log.warn("VNPay refund is not yet implemented for booking {} with payment {}", bookingId, payment.getId());
         throw new UnsupportedOperationException("VNPay refund functionality is not yet implemented. Please contact support for manual refund.");
     }
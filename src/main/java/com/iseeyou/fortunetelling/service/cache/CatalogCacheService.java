@@ -0,0 +1,59 @@
+package com.iseeyou.fortunetelling.service.cache;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import org.springframework.http.ResponseEntity;
+
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.UUID;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+public interface CatalogCacheService {
+    // Package lists; a package's own detail is tagged packageTag(id)
+    String TAG_PACKAGES = "packages";
+    // Seer name/avatar/rating shown in package lists; details depend on seerTag(id) instead
+    String TAG_SEERS = "seers";
+    String TAG_CATEGORIES = "categories";
+    String TAG_KNOWLEDGE = "knowledge";
+
+    static String packageTag(UUID packageId) {
+        return "package:" + packageId;
+    }
+
+    // One seer's name/avatar/rating, for responses that show a single seer (package detail)
+    static String seerTag(UUID seerId) {
+        return "seer:" + seerId;
+    }
+
+    // Key/value pairs, null values allowed (unlike Map.of) and dropped from the cache key
+    static Map<String, Object> params(Object... keyValues) {
+        Map<String, Object> params = new LinkedHashMap<>();
+        for (int i = 0; i + 1 < keyValues.length; i += 2) {
+            params.put((String) keyValues[i], keyValues[i + 1]);
+        }
+        return params;
+    }
+
+    /**
+     * Serves a public response from the cache, or builds it with the loader (always as an anonymous caller).
+     * The overlay adds per-user fields to the copy being returned and reports what it added, so the ETag differs
+     * per user; it may be null, and it is not called for anonymous callers. Answers 304 when If-None-Match matches.
+     */
+    default <T> ResponseEntity<T> serve(String namespace, Map<String, Object> params, Collection<String> tags,
+                                        TypeReference<T> type, Supplier<T> loader, Function<T, String> overlay) {
+        return serve(namespace, params, tags, type, loader, overlay, null);
+    }
+
+    /**
+     * Same, plus tags only known from the built body (e.g. the seer of a package). They are recorded in the entry
+     * and checked on every read like the static tags.
+     */
+    <T> ResponseEntity<T> serve(String namespace, Map<String, Object> params, Collection<String> tags,
+                                TypeReference<T> type, Supplier<T> loader, Function<T, String> overlay,
+                                Function<T, Collection<String>> dependencies);
+
+    // Cached responses carrying any of these tags are rebuilt on their next request (after commit)
+    void evict(String... tags);
+}
@@ -0,0 +1,489 @@
+package com.iseeyou.fortunetelling.service.cache.impl;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.iseeyou.fortunetelling.service.cache.CatalogCacheService;
+import com.iseeyou.fortunetelling.util.TransactionHooks;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jakarta.servlet.http.HttpServletRequest;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.authentication.AnonymousAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContext;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.TransactionException;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+
+/**
+ * Two-tier cache for public catalog responses: Caffeine per instance, Redis shared between instances.
+ * <ul>
+ *     <li>Entries hold the serialized JSON, a strong ETag (hash of the JSON) and the versions of their tags,
+ *     including dependencies read off the body.</li>
+ *     <li>Eviction bumps tag versions in Redis; an entry whose recorded versions differ from the current ones is
+ *     rebuilt. Other instances see the bump within tag-refresh-ms.</li>
+ *     <li>Entries older than fresh-seconds are served once more while a background rebuild runs (stale-while-
+ *     revalidate); an invalidated entry is also served when the rebuild fails on the database.</li>
+ * </ul>
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class CatalogCacheServiceImpl implements CatalogCacheService {
+
+    private static final String ENTRY_PREFIX = "catalog:cache:entry:";
+    private static final String TAG_PREFIX = "catalog:cache:tag:";
+
+    private final StringRedisTemplate stringRedisTemplate;
+    private final ObjectMapper objectMapper;
+    private final MeterRegistry meterRegistry;
+
+    @Value("${app.catalog-cache.enabled:true}")
+    private boolean enabled;
+
+    @Value("${app.catalog-cache.fresh-seconds:30}")
+    private long freshSeconds;
+
+    @Value("${app.catalog-cache.ttl-seconds:600}")
+    private long ttlSeconds;
+
+    @Value("${app.catalog-cache.tag-refresh-ms:1000}")
+    private long tagRefreshMs;
+
+    @Value("${app.catalog-cache.max-entries:10000}")
+    private long maxEntries;
+
+    // Part of every Redis entry key; bump it when a cached response changes shape, old entries then just expire
+    @Value("${app.catalog-cache.key-version:1}")
+    private int keyVersion;
+
+    private Cache<String, Entry> entries;
+    private Cache<String, Long> tagVersions;
+    // Last versions read from Redis, used while Redis is unreachable
+    private final Map<String, Long> lastKnownVersions = new ConcurrentHashMap<>();
+    private final Map<String, CompletableFuture<Entry>> loading = new ConcurrentHashMap<>();
+    private final Set<String> refreshing = ConcurrentHashMap.newKeySet();
+    private ExecutorService refreshExecutor;
+
+    private Counter localHits;
+    private Counter redisHits;
+    private Counter misses;
+    private Counter staleServes;
+    private Counter notModified;
+
+    @PostConstruct
+    public void init() {
+        entries = Caffeine.newBuilder()
+                .maximumSize(maxEntries)
+                .expireAfterWrite(Duration.ofSeconds(ttlSeconds))
+                .recordStats()
+                .build();
+        tagVersions = Caffeine.newBuilder()
+                .expireAfterWrite(Duration.ofMillis(tagRefreshMs))
+                .build();
+        refreshExecutor = Executors.newSingleThreadExecutor();
+
+        CaffeineCacheMetrics.monitor(meterRegistry, entries, "catalog-response");
+        localHits = meterRegistry.counter("catalog.cache.requests", "result", "hit");
+        redisHits = meterRegistry.counter("catalog.cache.requests", "result", "redis_hit");
+        misses = meterRegistry.counter("catalog.cache.requests", "result", "miss");
+        staleServes = meterRegistry.counter("catalog.cache.requests", "result", "stale");
+        notModified = meterRegistry.counter("catalog.cache.not_modified");
+        Gauge.builder("catalog.cache.hit.ratio", this, CatalogCacheServiceImpl::hitRatio)
+                .description("Share of catalog requests answered without a database rebuild")
+                .register(meterRegistry);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        refreshExecutor.shutdown();
+    }
+
+    @Override
+    public <T> ResponseEntity<T> serve(String namespace, Map<String, Object> params, Collection<String> tags,
+                                       TypeReference<T> type, Supplier<T> loader, Function<T, String> overlay,
+                                       Function<T, Collection<String>> dependencies) {
+        // The cached body is already what an anonymous caller gets: no overlay, so a hit needs no database session
+        if (!isAuthenticated()) {
+            overlay = null;
+        }
+        if (!enabled) {
+            T body = loader.get();
+            if (overlay != null) {
+                overlay.apply(body);
+            }
+            return ResponseEntity.ok(body);
+        }
+
+        String key = namespace + "?" + normalize(params);
+        Entry entry = entries.getIfPresent(key);
+        boolean local = entry != null;
+        if (!local) {
+            entry = readShared(key);
+        }
+        // Tags recorded in the entry (its dependencies) count as much as the requested ones
+        Set<String> allTags = new TreeSet<>(tags);
+        if (entry != null) {
+            allTags.addAll(entry.tags());
+        }
+        Map<String, Long> versions = currentVersions(allTags);
+
+        Entry served;
+        if (entry != null && entry.versions.equals(format(versions))) {
+            served = entry;
+            (local ? localHits : redisHits).increment();
+            if (System.currentTimeMillis() - entry.builtAt > freshSeconds * 1000) {
+                staleServes.increment();
+                refreshInBackground(key, versions, loader, dependencies);
+            }
+        } else {
+            try {
+                served = load(key, versions, loader, dependencies);
+                misses.increment();
+            } catch (DataAccessException | TransactionException e) {
+                if (entry == null) {
+                    throw e;
+                }
+                // Database unavailable: the invalidated entry is better than an error page
+                log.warn("Serving stale {} after rebuild failure: {}", namespace, e.getMessage());
+                staleServes.increment();
+                served = entry;
+            }
+        }
+        return respond(served, type, overlay);
+    }
+
+    @Override
+    public void evict(String... tags) {
+        TransactionHooks.afterCommit(() -> {
+            for (String tag : tags) {
+                long version;
+                try {
+                    Long bumped = stringRedisTemplate.opsForValue().increment(TAG_PREFIX + tag);
+                    version = bumped != null ? bumped : lastKnownVersions.getOrDefault(tag, 0L) + 1;
+                } catch (Exception e) {
+                    // Other instances keep serving the old entry until their TTL, this one rebuilds right away
+                    log.warn("Catalog cache eviction of tag {} not shared: {}", tag, e.getMessage());
+                    version = lastKnownVersions.getOrDefault(tag, 0L) + 1;
+                }
+                lastKnownVersions.put(tag, version);
+                tagVersions.put(tag, version);
+            }
+        });
+    }
+
+    private Entry readShared(String key) {
+        try {
+            String stored = stringRedisTemplate.opsForValue().get(sharedKey(key));
+            if (stored != null) {
+                Entry entry = Entry.parse(stored);
+                entries.put(key, entry);
+                return entry;
+            }
+        } catch (Exception e) {
+            log.debug("Catalog cache Redis read failed: {}", e.getMessage());
+        }
+        return null;
+    }
+
+    // Concurrent misses of one key share a single rebuild
+    private <T> Entry load(String key, Map<String, Long> versions, Supplier<T> loader,
+                           Function<T, Collection<String>> dependencies) {
+        CompletableFuture<Entry> mine = new CompletableFuture<>();
+        CompletableFuture<Entry> running = loading.putIfAbsent(key, mine);
+        if (running != null) {
+            try {
+                return running.join();
+            } catch (CompletionException e) {
+                throw e.getCause() instanceof RuntimeException cause ? cause : e;
+            }
+        }
+        try {
+            Entry entry = build(key, versions, loader, dependencies);
+            mine.complete(entry);
+            return entry;
+        } catch (RuntimeException e) {
+            mine.completeExceptionally(e);
+            throw e;
+        } finally {
+            loading.remove(key, mine);
+        }
+    }
+
+    private <T> void refreshInBackground(String key, Map<String, Long> versions, Supplier<T> loader,
+                                         Function<T, Collection<String>> dependencies) {
+        if (!refreshing.add(key)) {
+            return;
+        }
+        refreshExecutor.submit(() -> {
+            try {
+                build(key, versions, loader, dependencies);
+            } catch (Exception e) {
+                log.warn("Background refresh of {} failed: {}", key, e.getMessage());
+            } finally {
+                refreshing.remove(key);
+            }
+        });
+    }
+
+    private <T> Entry build(String key, Map<String, Long> versions, Supplier<T> loader,
+                            Function<T, Collection<String>> dependencies) {
+        T body = asAnonymous(loader);
+        Map<String, Long> recorded = versions;
+        if (dependencies != null) {
+            List<String> extra = dependencies.apply(body).stream()
+                    .filter(tag -> !versions.containsKey(tag))
+                    .toList();
+            if (!extra.isEmpty()) {
+                // Read after the load, a change committed meanwhile is only picked up by the next refresh
+                recorded = new TreeMap<>(versions);
+                recorded.putAll(currentVersions(extra));
+            }
+        }
+        String json;
+        try {
+            json = objectMapper.writeValueAsString(body);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Cannot serialize catalog response " + key, e);
+        }
+        Entry entry = new Entry(format(recorded), System.currentTimeMillis(), strongEtag(json), json);
+        entries.put(key, entry);
+        try {
+            stringRedisTemplate.opsForValue().set(sharedKey(key), entry.serialize(), Duration.ofSeconds(ttlSeconds));
+        } catch (Exception e) {
+            log.debug("Catalog cache Redis write failed: {}", e.getMessage());
+        }
+        return entry;
+    }
+
+    private static boolean isAuthenticated() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        return authentication != null && authentication.isAuthenticated()
+                && !(authentication instanceof AnonymousAuthenticationToken);
+    }
+
+    // Cached bodies are shared, so they are always built without the caller's identity
+    private <T> T asAnonymous(Supplier<T> loader) {
+        SecurityContext previous = SecurityContextHolder.getContext();
+        SecurityContextHolder.setContext(SecurityContextHolder.createEmptyContext());
+        try {
+            return loader.get();
+        } finally {
+            SecurityContextHolder.setContext(previous);
+        }
+    }
+
+    private <T> ResponseEntity<T> respond(Entry entry, TypeReference<T> type, Function<T, String> overlay) {
+        T body;
+        String etag = entry.etag;
+        CacheControl cacheControl = CacheControl.noCache();
+        if (overlay == null) {
+            body = entry.decoded(objectMapper, type);
+        } else {
+            // Own copy, the overlay writes into it
+            body = Entry.decode(objectMapper, entry.json, type);
+            String personal = overlay.apply(body);
+            if (personal != null && !personal.isEmpty()) {
+                etag = strongEtag(entry.etag + "|" + personal);
+                cacheControl = CacheControl.noCache().cachePrivate();
+            }
+        }
+
+        HttpServletRequest request = currentRequest();
+        if (request != null && matches(request.getHeader(HttpHeaders.IF_NONE_MATCH), etag)) {
+            notModified.increment();
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED)
+                    .eTag(etag)
+                    .cacheControl(cacheControl)
+                    .varyBy(HttpHeaders.AUTHORIZATION)
+                    .build();
+        }
+        return ResponseEntity.ok()
+                .eTag(etag)
+                .cacheControl(cacheControl)
+                .varyBy(HttpHeaders.AUTHORIZATION)
+                .body(body);
+    }
+
+    private Map<String, Long> currentVersions(Collection<String> tags) {
+        List<String> sorted = tags.stream().distinct().sorted().toList();
+        Map<String, Long> known = new TreeMap<>(tagVersions.getAllPresent(sorted));
+        List<String> missing = sorted.stream().filter(tag -> !known.containsKey(tag)).toList();
+        if (!missing.isEmpty()) {
+            try {
+                List<String> values = stringRedisTemplate.opsForValue()
+                        .multiGet(missing.stream().map(tag -> TAG_PREFIX + tag).toList());
+                for (int i = 0; i < missing.size(); i++) {
+                    String value = values != null ? values.get(i) : null;
+                    long version = value != null ? Long.parseLong(value) : 0L;
+                    known.put(missing.get(i), version);
+                    lastKnownVersions.put(missing.get(i), version);
+                    tagVersions.put(missing.get(i), version);
+                }
+            } catch (Exception e) {
+                log.debug("Catalog cache tag read failed: {}", e.getMessage());
+                missing.forEach(tag -> known.put(tag, lastKnownVersions.getOrDefault(tag, 0L)));
+            }
+        }
+        return known;
+    }
+
+    // tag=version,... sorted by tag; tags never contain '=' or ','
+    private static String format(Map<String, Long> versions) {
+        return versions.entrySet().stream().map(e -> e.getKey() + "=" + e.getValue()).collect(Collectors.joining(","));
+    }
+
+    private String sharedKey(String key) {
+        return ENTRY_PREFIX + "v" + keyVersion + ":" + hash(key);
+    }
+
+    // Sorted, nulls and blanks dropped: ?a=1&b= and ?b=&a=1 share one entry
+    private String normalize(Map<String, Object> params) {
+        Map<String, String> sorted = new TreeMap<>();
+        params.forEach((name, value) -> {
+            if (value == null) {
+                return;
+            }
+            String text = value instanceof Collection<?> values
+                    ? values.stream().map(String::valueOf).sorted().collect(Collectors.joining(","))
+                    : String.valueOf(value).trim();
+            if (!text.isEmpty()) {
+                sorted.put(name, text);
+            }
+        });
+        return sorted.entrySet().stream().map(e -> e.getKey() + "=" + e.getValue()).collect(Collectors.joining("&"));
+    }
+
+    private boolean matches(String ifNoneMatch, String etag) {
+        if (ifNoneMatch == null) {
+            return false;
+        }
+        for (String candidate : ifNoneMatch.split(",")) {
+            String trimmed = candidate.trim();
+            if (trimmed.startsWith("W/")) {
+                trimmed = trimmed.substring(2);
+            }
+            if (trimmed.equals("*") || trimmed.equals(etag)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private HttpServletRequest currentRequest() {
+        if (RequestContextHolder.getRequestAttributes() instanceof ServletRequestAttributes attributes) {
+            return attributes.getRequest();
+        }
+        return null;
+    }
+
+    private double hitRatio() {
+        double hits = localHits.count() + redisHits.count();
+        double total = hits + misses.count();
+        return total == 0 ? 0 : hits / total;
+    }
+
+    private static String strongEtag(String content) {
+        return "\"" + hash(content) + "\"";
+    }
+
+    private static String hash(String content) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(content.getBytes(StandardCharsets.UTF_8));
+            return Base64.getUrlEncoder().withoutPadding().encodeToString(digest);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static final class Entry {
+        private final String versions;
+        private final long builtAt;
+        private final String etag;
+        private final String json;
+        // Shared decoded body for responses without overlay, never modified after decoding
+        private volatile Object decoded;
+
+        private Entry(String versions, long builtAt, String etag, String json) {
+            this.versions = versions;
+            this.builtAt = builtAt;
+            this.etag = etag;
+            this.json = json;
+        }
+
+        private List<String> tags() {
+            if (versions.isEmpty()) {
+                return List.of();
+            }
+            return Arrays.stream(versions.split(","))
+                    .map(pair -> pair.substring(0, pair.lastIndexOf('=')))
+                    .toList();
+        }
+
+        @SuppressWarnings("unchecked")
+        private <T> T decoded(ObjectMapper objectMapper, TypeReference<T> type) {
+            Object body = decoded;
+            if (body == null) {
+                body = decode(objectMapper, json, type);
+                decoded = body;
+            }
+            return (T) body;
+        }
+
+        private static <T> T decode(ObjectMapper objectMapper, String json, TypeReference<T> type) {
+            try {
+                return objectMapper.readValue(json, type);
+            } catch (JsonProcessingException e) {
+                throw new IllegalStateException("Cannot decode cached catalog response", e);
+            }
+        }
+
+        // versions \n builtAt \n etag \n json; the first three never contain a newline
+        private String serialize() {
+            return versions + "\n" + builtAt + "\n" + etag + "\n" + json;
+        }
+
+        private static Entry parse(String stored) {
+            String[] parts = stored.split("\n", 4);
+            return new Entry(parts[0], Long.parseLong(parts[1]), parts[2], parts[3]);
+        }
+    }
+}
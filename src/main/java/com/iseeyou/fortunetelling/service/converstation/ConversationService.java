@@ -13,12 +13,12 @@ public interface ConversationService {
     Page<ChatSessionResponse> getMyChatSessions(Pageable pageable);
     void endChatSession(UUID conversationId);
 
-    // Auto-cancel late sessions
-    void cancelLateSession(UUID conversationId);
+    // Auto-cancel late sessions. false = session changed meanwhile (customer joined, ended...), nothing done
+    boolean cancelLateSession(UUID conversationId);
 
-    //Warning & auto-end
-    void sendWarningNotification(UUID conversationId);
-    void autoEndSession(UUID conversationId); // auto end if 10 mins late (system)
+    //Warning & auto-end, same return semantics
+    boolean sendWarningNotification(UUID conversationId);
+    boolean autoEndSession(UUID conversationId); // auto end if 10 mins late (system)
 
     //Extend session
     void extendSession(UUID conversationId, Integer additionalMinutes);
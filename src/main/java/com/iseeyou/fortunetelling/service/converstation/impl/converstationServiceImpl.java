@@ -12,8 +12,10 @@ import com.iseeyou.fortunetelling.repository.booking.BookingRepository;
 import com.iseeyou.fortunetelling.repository.converstation.ConversationRepository;
 import com.iseeyou.fortunetelling.service.MessageSourceService;
 import com.iseeyou.fortunetelling.service.converstation.ConversationService;
+import com.iseeyou.fortunetelling.service.user.SeerStatsService;
 import com.iseeyou.fortunetelling.service.user.UserService;
 import com.iseeyou.fortunetelling.util.Constants;
+import com.iseeyou.fortunetelling.util.OptimisticLockRetryExecutor;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.data.domain.Page;
@@ -34,6 +36,8 @@ public class converstationServiceImpl implements ConversationService {
     private final BookingRepository bookingRepository;
     private final UserService userService;
     private final ConversationMapper conversationMapper;
+    private final OptimisticLockRetryExecutor optimisticLockRetryExecutor;
+    private final SeerStatsService seerStatsService;
 
     @Override
     @Transactional
@@ -106,84 +110,138 @@ public class converstationServiceImpl implements ConversationService {
         return conversations.map(conv -> conversationMapper.mapTo(conv, ChatSessionResponse.class));
     }
 
+    // Các method dưới đây chạy trong transaction riêng và retry khi đụng @Version,
+    // mỗi lần retry đọc lại conversation nên phải kiểm tra lại trạng thái
     @Override
-    @Transactional
     public void endChatSession(UUID conversationId) {
-        Conversation conversation = conversationRepository.findById(conversationId)
-                .orElseThrow(() -> new NotFoundException("Conversation not found with id: " + conversationId));
+        optimisticLockRetryExecutor.run("End chat session " + conversationId, () -> {
+            Conversation conversation = conversationRepository.findById(conversationId)
+                    .orElseThrow(() -> new NotFoundException("Conversation not found with id: " + conversationId));
+
+            if (conversation.getStatus() != Constants.ConversationStatusEnum.ACTIVE) {
+                log.info("Chat session {} already {}, nothing to end", conversationId, conversation.getStatus());
+                return;
+            }
 
-        conversation.setStatus(Constants.ConversationStatusEnum.ENDED);
-        conversation.setSessionEndTime(LocalDateTime.now());
-        conversationRepository.save(conversation);
-        log.info("Chat session ended for conversation: {}", conversationId);
+            conversation.setStatus(Constants.ConversationStatusEnum.ENDED);
+            conversation.setSessionEndTime(LocalDateTime.now());
+            conversationRepository.save(conversation);
+            log.info("Chat session ended for conversation: {}", conversationId);
+        });
     }
 
     @Override
-    @Transactional
-    public void cancelLateSession(UUID conversationId) {
-        Conversation conversation = conversationRepository.findById(conversationId)
-                .orElseThrow(() -> new NotFoundException("Conversation not found"));
-
-        // Cancel conversation
-        conversation.setStatus(Constants.ConversationStatusEnum.CANCELLED);
-        conversation.setCancelReason("Customer late >10 minutes");
-        conversationRepository.save(conversation);
-
-        // Cancel booking
-        Booking booking = conversation.getBooking();
-        booking.setStatus(Constants.BookingStatusEnum.CANCELED);
-        bookingRepository.save(booking);
-
-        log.info("Session canceled due to customer late: conversation={}, booking={}",
-                conversationId, booking.getId());
+    public boolean cancelLateSession(UUID conversationId) {
+        return optimisticLockRetryExecutor.execute("Cancel late session " + conversationId, () -> {
+            Conversation conversation = conversationRepository.findById(conversationId)
+                    .orElseThrow(() -> new NotFoundException("Conversation not found"));
+
+            // Customer may have joined (or the session ended) since the scheduler listed it
+            if (conversation.getStatus() != Constants.ConversationStatusEnum.ACTIVE
+                    || conversation.getCustomerJoinedAt() != null) {
+                log.info("Skip late cancel, session changed meanwhile: conversation={}, status={}",
+                        conversationId, conversation.getStatus());
+                return false;
+            }
+
+            // Cancel conversation
+            conversation.setStatus(Constants.ConversationStatusEnum.CANCELLED);
+            conversation.setCancelReason("Customer late >10 minutes");
+            conversationRepository.save(conversation);
+
+            // Cancel booking
+            Booking booking = conversation.getBooking();
+            Constants.BookingStatusEnum previousStatus = booking.getStatus();
+            booking.setStatus(Constants.BookingStatusEnum.CANCELED);
+            bookingRepository.save(booking);
+            seerStatsService.bookingStatusChanged(booking.getId(), previousStatus,
+                    Constants.BookingStatusEnum.CANCELED, false);
+
+            log.info("Session canceled due to customer late: conversation={}, booking={}",
+                    conversationId, booking.getId());
+            return true;
+        });
     }
 
     @Override
-    @Transactional
-    public void sendWarningNotification(UUID conversationId) {
-        Conversation conversation = conversationRepository.findById(conversationId)
-                .orElseThrow(() -> new NotFoundException("Conversation not found"));
+    public boolean sendWarningNotification(UUID conversationId) {
+        return optimisticLockRetryExecutor.execute("Mark warning sent " + conversationId, () -> {
+            Conversation conversation = conversationRepository.findById(conversationId)
+                    .orElseThrow(() -> new NotFoundException("Conversation not found"));
+
+            if (conversation.getStatus() != Constants.ConversationStatusEnum.ACTIVE
+                    || Boolean.TRUE.equals(conversation.getWarningNotificationSent())) {
+                return false;
+            }
 
-        // Mark warning sent
-        conversation.setWarningNotificationSent(true);
-        conversationRepository.save(conversation);
+            // Mark warning sent
+            conversation.setWarningNotificationSent(true);
+            conversationRepository.save(conversation);
 
-        log.info("Warning notification sent for conversation: {}", conversationId);
+            log.info("Warning notification sent for conversation: {}", conversationId);
+            return true;
+        });
     }
 
     @Override
-    @Transactional
-    public void autoEndSession(UUID conversationId) {
-        Conversation conversation = conversationRepository.findById(conversationId)
-                .orElseThrow(() -> new NotFoundException("Conversation not found"));
-
-        // End conversation
-        conversation.setStatus(Constants.ConversationStatusEnum.ENDED);
-        conversation.setSessionEndTime(LocalDateTime.now());
-        conversationRepository.save(conversation);
-
-        // Complete booking
-        Booking booking = conversation.getBooking();
-        booking.setStatus(Constants.BookingStatusEnum.COMPLETED);
-        bookingRepository.save(booking);
-
-        log.info("Session auto-ended: conversation={}, booking={}",
-                conversationId, booking.getId());
+    public boolean autoEndSession(UUID conversationId) {
+        return optimisticLockRetryExecutor.execute("Auto-end session " + conversationId, () -> {
+            Conversation conversation = conversationRepository.findById(conversationId)
+                    .orElseThrow(() -> new NotFoundException("Conversation not found"));
+
+            LocalDateTime now = LocalDateTime.now();
+            // An extension committed after the scheduler's query moves the end time forward
+            if (conversation.getStatus() != Constants.ConversationStatusEnum.ACTIVE
+                    || conversation.getSessionEndTime().isAfter(now)) {
+                log.info("Skip auto-end, session changed meanwhile: conversation={}, status={}, endTime={}",
+                        conversationId, conversation.getStatus(), conversation.getSessionEndTime());
+                return false;
+            }
+
+            // End conversation
+            conversation.setStatus(Constants.ConversationStatusEnum.ENDED);
+            conversation.setSessionEndTime(now);
+            conversationRepository.save(conversation);
+
+            // Complete booking, unless it was cancelled/refunded in the meantime
+            Booking booking = conversation.getBooking();
+            if (booking.getStatus() == Constants.BookingStatusEnum.CONFIRMED) {
+                booking.setStatus(Constants.BookingStatusEnum.COMPLETED);
+                bookingRepository.save(booking);
+                seerStatsService.bookingStatusChanged(booking.getId(), Constants.BookingStatusEnum.CONFIRMED,
+                        Constants.BookingStatusEnum.COMPLETED, false);
+            }
+
+            log.info("Session auto-ended: conversation={}, booking={}",
+                    conversationId, booking.getId());
+            return true;
+        });
     }
 
     @Override
     public void extendSession(UUID conversationId, Integer additionalMinutes) {
-        Conversation conversation = conversationRepository.findById(conversationId)
-                .orElseThrow(() -> new NotFoundException("Conversation not found"));
+        if (additionalMinutes == null || additionalMinutes <= 0) {
+            throw new IllegalArgumentException("Additional minutes must be positive");
+        }
+
+        optimisticLockRetryExecutor.run("Extend session " + conversationId, () -> {
+            Conversation conversation = conversationRepository.findById(conversationId)
+                    .orElseThrow(() -> new NotFoundException("Conversation not found"));
+
+            // Không được "hồi sinh" session đã bị end/cancel bởi scheduler
+            if (conversation.getStatus() != Constants.ConversationStatusEnum.ACTIVE) {
+                throw new IllegalArgumentException("Cannot extend a session that is " + conversation.getStatus());
+            }
 
-        // Extend session
-        LocalDateTime newEndTime = conversation.getSessionEndTime().plusMinutes(additionalMinutes);
-        conversation.setSessionEndTime(newEndTime);
-        conversation.setExtendedMinutes(conversation.getExtendedMinutes() + additionalMinutes);
-        conversation.setWarningNotificationSent(false); // Reset warning flag
-        conversationRepository.save(conversation);
+            // Extend session
+            LocalDateTime newEndTime = conversation.getSessionEndTime().plusMinutes(additionalMinutes);
+            conversation.setSessionEndTime(newEndTime);
+            conversation.setExtendedMinutes(conversation.getExtendedMinutes() + additionalMinutes);
+            conversation.setWarningNotificationSent(false); // Reset warning flag
+            conversationRepository.save(conversation);
 
-        log.info("Session extended by {} minutes: conversation={}", additionalMinutes, conversationId);
+            log.info("Session extended by {} minutes: conversation={}", additionalMinutes, conversationId);
+        });
     }
 
     @Override
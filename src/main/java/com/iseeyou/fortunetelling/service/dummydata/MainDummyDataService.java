@@ -5,6 +5,8 @@ import com.iseeyou.fortunetelling.service.dummydata.domain.Bookings;
 import com.iseeyou.fortunetelling.service.dummydata.domain.Knowledge;
 import com.iseeyou.fortunetelling.service.dummydata.domain.Reports;
 import com.iseeyou.fortunetelling.service.dummydata.domain.ServicePackages;
+import com.iseeyou.fortunetelling.service.user.AccountStatsService;
+import com.iseeyou.fortunetelling.service.user.SeerStatsService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.boot.CommandLineRunner;
@@ -20,6 +22,8 @@ public class MainDummyDataService implements CommandLineRunner {
     private final ServicePackages servicePackages;
     private final Reports reports;
     private final Bookings bookings;
+    private final SeerStatsService seerStatsService;
+    private final AccountStatsService accountStatsService;
 
     @Override
     public void run(String... args) {
@@ -47,5 +51,13 @@ public class MainDummyDataService implements CommandLineRunner {
         log.info("Creating bookings, payments and reviews...");
         bookings.createDummyData();
         log.info("Bookings created successfully.");
+
+        // Seeded rows bypass the services that keep the counters; otherwise the nightly repair catches up
+        try {
+            seerStatsService.repair();
+            accountStatsService.repair();
+        } catch (Exception e) {
+            log.warn("Could not recompute stats after seeding: {}", e.getMessage());
+        }
     }
 }
@@ -186,26 +186,10 @@ public class ServicePackages {
     }
 
     private void updatePackageCounts() {
-        List<ServicePackage> packages = servicePackageRepository.findAll();
-        
-        for (ServicePackage servicePackage : packages) {
-            // Count likes
-            long likeCount = packageInteractionRepository.countByServicePackage_IdAndInteractionType(
-                    servicePackage.getId(), Constants.InteractionTypeEnum.LIKE);
-            
-            // Count dislikes
-            long dislikeCount = packageInteractionRepository.countByServicePackage_IdAndInteractionType(
-                    servicePackage.getId(), Constants.InteractionTypeEnum.DISLIKE);
-            
-            // Update package
-            servicePackage.setLikeCount(likeCount);
-            servicePackage.setDislikeCount(dislikeCount);
-            servicePackageRepository.save(servicePackage);
-            
-            log.debug("Updated package {} - Likes: {}, Dislikes: {}", 
-                    servicePackage.getPackageTitle(), likeCount, dislikeCount);
-        }
-        
+        // like_count/dislike_count are not updatable through the entity
+        int updated = servicePackageRepository.recomputeInteractionCounts();
+        log.debug("Updated like/dislike counts of {} packages", updated);
+
         log.info("Đã cập nhật like/dislike counts cho tất cả packages dựa trên interactions thực tế");
     }
 
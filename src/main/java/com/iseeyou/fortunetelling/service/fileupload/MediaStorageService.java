@@ -0,0 +1,17 @@
+package com.iseeyou.fortunetelling.service.fileupload;
+
+import com.iseeyou.fortunetelling.util.Constants;
+
+import java.io.File;
+import java.io.IOException;
+
+/**
+ * Destination of assembled chunked uploads.
+ * Implementations must stream from the file instead of loading it into memory.
+ */
+public interface MediaStorageService {
+    /**
+     * @param fileName the client's (sanitized) file name, only used as metadata: the file itself has an internal name
+     */
+    String store(File file, String fileName, String folder, Constants.MediaTypeEnum mediaType) throws IOException;
+}
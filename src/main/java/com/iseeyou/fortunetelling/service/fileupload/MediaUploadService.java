@@ -0,0 +1,19 @@
+package com.iseeyou.fortunetelling.service.fileupload;
+
+import com.iseeyou.fortunetelling.dto.request.message.MediaUploadInitRequest;
+import com.iseeyou.fortunetelling.dto.response.MediaUploadResponse;
+import com.iseeyou.fortunetelling.entity.MediaUpload;
+
+import java.io.InputStream;
+import java.util.UUID;
+
+public interface MediaUploadService {
+    MediaUploadResponse initiateUpload(MediaUploadInitRequest request);
+    MediaUploadResponse uploadChunk(UUID uploadId, int chunkIndex, InputStream content, String checksum);
+    MediaUploadResponse getUpload(UUID uploadId);
+    MediaUploadResponse completeUpload(UUID uploadId);
+    MediaUpload getCompletedUpload(UUID uploadId, UUID conversationId, UUID uploaderId);
+    void expireStaleUploads();
+    // PROCESSING uploads whose assembly died with the node go back to FAILED (chunks kept) or UPLOADING
+    void recoverStuckUploads();
+}
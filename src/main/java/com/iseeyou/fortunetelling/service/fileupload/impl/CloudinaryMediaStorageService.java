@@ -0,0 +1,37 @@
+package com.iseeyou.fortunetelling.service.fileupload.impl;
+
+import com.cloudinary.Cloudinary;
+import com.cloudinary.utils.ObjectUtils;
+import com.iseeyou.fortunetelling.service.fileupload.MediaStorageService;
+import com.iseeyou.fortunetelling.util.Constants;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Service;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.Map;
+
+@Service
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "app.media.storage", havingValue = "cloudinary", matchIfMissing = true)
+public class CloudinaryMediaStorageService implements MediaStorageService {
+
+    private final Cloudinary cloudinary;
+
+    // Cloudinary đọc file theo từng phần kích thước này, không load cả file vào heap
+    @Value("${app.media.upload.cloudinary-chunk-size:6291456}")
+    private int cloudinaryChunkSize;
+
+    @Override
+    public String store(File file, String fileName, String folder, Constants.MediaTypeEnum mediaType) throws IOException {
+        String resourceType = mediaType == Constants.MediaTypeEnum.VIDEO ? "video" : "image";
+        Map<?, ?> result = cloudinary.uploader().uploadLarge(file, ObjectUtils.asMap(
+                "folder", folder,
+                "resource_type", resourceType,
+                "chunk_size", cloudinaryChunkSize
+        ));
+        return result.get("secure_url").toString();
+    }
+}
@@ -0,0 +1,36 @@
+package com.iseeyou.fortunetelling.service.fileupload.impl;
+
+import com.iseeyou.fortunetelling.service.fileupload.MediaStorageService;
+import com.iseeyou.fortunetelling.util.Constants;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Service;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.UUID;
+
+/**
+ * Stores media on the local filesystem. Used for tests and local development without Cloudinary.
+ */
+@Service
+@ConditionalOnProperty(name = "app.media.storage", havingValue = "local")
+public class LocalMediaStorageService implements MediaStorageService {
+
+    @Value("${app.media.local-dir:${java.io.tmpdir}/isu-media}")
+    private String localDir;
+
+    @Override
+    public String store(File file, String fileName, String folder, Constants.MediaTypeEnum mediaType) throws IOException {
+        Path targetDir = Paths.get(localDir, folder);
+        Files.createDirectories(targetDir);
+
+        Path target = targetDir.resolve(UUID.randomUUID() + "-" + fileName);
+        Files.move(file.toPath(), target, StandardCopyOption.REPLACE_EXISTING);
+        return target.toUri().toString();
+    }
+}
@@ -0,0 +1,511 @@
+package com.iseeyou.fortunetelling.service.fileupload.impl;
+
+import com.iseeyou.fortunetelling.dto.request.message.MediaUploadInitRequest;
+import com.iseeyou.fortunetelling.dto.response.MediaUploadResponse;
+import com.iseeyou.fortunetelling.entity.Conversation;
+import com.iseeyou.fortunetelling.entity.MediaUpload;
+import com.iseeyou.fortunetelling.entity.user.User;
+import com.iseeyou.fortunetelling.exception.NotFoundException;
+import com.iseeyou.fortunetelling.repository.converstation.ConversationRepository;
+import com.iseeyou.fortunetelling.repository.message.MediaUploadRepository;
+import com.iseeyou.fortunetelling.service.fileupload.MediaStorageService;
+import com.iseeyou.fortunetelling.service.fileupload.MediaUploadService;
+import com.iseeyou.fortunetelling.service.user.UserService;
+import com.iseeyou.fortunetelling.util.Constants;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.util.FileSystemUtils;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.LocalDateTime;
+import java.util.HashSet;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Resumable chunked upload: initiate -> PUT numbered chunks -> complete.
+ * Chunks are streamed straight to the spool directory through a fixed-size buffer, so memory per
+ * upload does not depend on the file size. Completed uploads are assembled and handed to
+ * {@link MediaStorageService} on a background executor.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class MediaUploadServiceImpl implements MediaUploadService {
+
+    private static final int BUFFER_SIZE = 8192;
+    // Internal name, never the client's: a name like chunk-000001 would overwrite a chunk while concatenating
+    private static final String ASSEMBLED_FILE_NAME = "assembled.bin";
+    private static final List<Constants.MediaUploadStatusEnum> CLAIMABLE_STATUSES = List.of(
+            Constants.MediaUploadStatusEnum.UPLOADING,
+            Constants.MediaUploadStatusEnum.FAILED
+    );
+    private static final List<Constants.MediaUploadStatusEnum> PROCESSING_STATUS = List.of(
+            Constants.MediaUploadStatusEnum.PROCESSING
+    );
+
+    private final MediaUploadRepository mediaUploadRepository;
+    private final ConversationRepository conversationRepository;
+    private final UserService userService;
+    private final MediaStorageService mediaStorageService;
+    private final TransactionTemplate transactionTemplate;
+
+    private ExecutorService processingExecutor;
+    // Uploads being assembled/stored by this node, never treated as stuck. Across nodes the conditional status
+    // transitions decide who processes or recovers an upload
+    private final Set<UUID> processingLocally = ConcurrentHashMap.newKeySet();
+
+    @Value("${app.media.upload.spool-dir:${java.io.tmpdir}/isu-media-uploads}")
+    private String spoolDir;
+
+    @Value("${app.media.upload.default-chunk-size:5242880}")
+    private int defaultChunkSize;
+
+    @Value("${app.media.upload.min-chunk-size:262144}")
+    private int minChunkSize;
+
+    @Value("${app.media.upload.max-chunk-size:16777216}")
+    private int maxChunkSize;
+
+    @Value("${app.media.upload.max-file-size:524288000}")
+    private long maxFileSize;
+
+    @Value("${app.media.upload.expire-after-hours:24}")
+    private int expireAfterHours;
+
+    @Value("${app.media.upload.processing-threads:2}")
+    private int processingThreads;
+
+    @Value("${app.media.upload.processing-timeout-minutes:60}")
+    private int processingTimeoutMinutes;
+
+    @PostConstruct
+    public void init() {
+        processingExecutor = Executors.newFixedThreadPool(processingThreads);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        processingExecutor.shutdown();
+    }
+
+    @Override
+    @Transactional
+    public MediaUploadResponse initiateUpload(MediaUploadInitRequest request) {
+        User currentUser = userService.getUser();
+        Conversation conversation = conversationRepository.findById(request.getConversationId())
+                .orElseThrow(() -> new NotFoundException("Conversation not found with id: " + request.getConversationId()));
+
+        validateParticipant(conversation, currentUser.getId());
+        if (!conversation.getStatus().equals(Constants.ConversationStatusEnum.ACTIVE)) {
+            throw new IllegalStateException("Cannot upload media to inactive conversation");
+        }
+        if (request.getTotalSize() > maxFileSize) {
+            throw new IllegalArgumentException("File exceeds maximum size of " + maxFileSize + " bytes");
+        }
+
+        int chunkSize = request.getChunkSize() != null ? request.getChunkSize() : defaultChunkSize;
+        chunkSize = Math.max(minChunkSize, Math.min(maxChunkSize, chunkSize));
+        int totalChunks = (int) ((request.getTotalSize() + chunkSize - 1) / chunkSize);
+
+        MediaUpload upload = MediaUpload.builder()
+                .uploader(currentUser)
+                .conversation(conversation)
+                .fileName(sanitizeFileName(request.getFileName()))
+                .contentType(request.getContentType())
+                .mediaType(resolveMediaType(request.getContentType()))
+                .totalSize(request.getTotalSize())
+                .chunkSize(chunkSize)
+                .totalChunks(totalChunks)
+                .checksum(request.getChecksum() != null ? request.getChecksum().toLowerCase() : null)
+                .build();
+
+        MediaUpload saved = mediaUploadRepository.save(upload);
+        log.info("Initiated media upload {} ({} bytes, {} chunks) in conversation {}",
+                saved.getId(), saved.getTotalSize(), totalChunks, conversation.getId());
+        return toResponse(saved, List.of());
+    }
+
+    @Override
+    public MediaUploadResponse uploadChunk(UUID uploadId, int chunkIndex, InputStream content, String checksum) {
+        // Không giữ transaction/connection trong lúc đọc body từ client (mạng mobile có thể rất chậm)
+        MediaUpload upload = getOwnedUpload(uploadId);
+        if (upload.getStatus() != Constants.MediaUploadStatusEnum.UPLOADING) {
+            throw new IllegalStateException("Upload is not accepting chunks, status: " + upload.getStatus());
+        }
+        if (chunkIndex < 0 || chunkIndex >= upload.getTotalChunks()) {
+            throw new IllegalArgumentException("Chunk index out of range: " + chunkIndex);
+        }
+        if (checksum == null || checksum.isBlank()) {
+            throw new IllegalArgumentException("Chunk checksum is required");
+        }
+
+        long expectedSize = chunkIndex == upload.getTotalChunks() - 1
+                ? upload.getTotalSize() - (long) chunkIndex * upload.getChunkSize()
+                : upload.getChunkSize();
+
+        Path uploadDir = uploadDir(uploadId);
+        Path target = uploadDir.resolve(chunkFileName(chunkIndex));
+        Path temp = uploadDir.resolve(chunkFileName(chunkIndex) + "." + UUID.randomUUID() + ".part");
+        try {
+            Files.createDirectories(uploadDir);
+            MessageDigest digest = sha256();
+            long written;
+            try (OutputStream out = Files.newOutputStream(temp)) {
+                written = copy(content, out, digest, expectedSize);
+            }
+            if (written != expectedSize) {
+                throw new IllegalArgumentException(String.format(
+                        "Chunk %d has %d bytes, expected %d", chunkIndex, written, expectedSize));
+            }
+            String actual = HexFormat.of().formatHex(digest.digest());
+            if (!actual.equalsIgnoreCase(checksum.trim())) {
+                throw new IllegalArgumentException("Checksum mismatch for chunk " + chunkIndex);
+            }
+            // Atomic rename: a retried chunk simply replaces the previous copy
+            Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            throw new IllegalStateException("Failed to store chunk " + chunkIndex + " of upload " + uploadId, e);
+        } finally {
+            deleteQuietly(temp);
+        }
+
+        return transactionTemplate.execute(status -> {
+            mediaUploadRepository.addReceivedChunk(uploadId, chunkIndex);
+            mediaUploadRepository.touchLastChunkAt(uploadId, LocalDateTime.now());
+            return toResponse(upload, mediaUploadRepository.findReceivedChunks(uploadId));
+        });
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public MediaUploadResponse getUpload(UUID uploadId) {
+        MediaUpload upload = getOwnedUpload(uploadId);
+        return toResponse(upload, mediaUploadRepository.findReceivedChunks(uploadId));
+    }
+
+    @Override
+    @Transactional
+    public MediaUploadResponse completeUpload(UUID uploadId) {
+        MediaUpload upload = getOwnedUpload(uploadId);
+        if (upload.getStatus() == Constants.MediaUploadStatusEnum.PROCESSING
+                || upload.getStatus() == Constants.MediaUploadStatusEnum.COMPLETED) {
+            // Idempotent: client có thể gọi lại complete sau khi mất kết nối
+            return toResponse(upload, mediaUploadRepository.findReceivedChunks(uploadId));
+        }
+        if (upload.getStatus() == Constants.MediaUploadStatusEnum.EXPIRED) {
+            throw new IllegalStateException("Upload has expired");
+        }
+
+        List<Integer> receivedChunks = mediaUploadRepository.findReceivedChunks(uploadId);
+        if (receivedChunks.size() != upload.getTotalChunks()) {
+            throw new IllegalStateException(String.format("Upload is incomplete: %d of %d chunks received",
+                    receivedChunks.size(), upload.getTotalChunks()));
+        }
+
+        // Claim: a concurrent complete (another node, a retried request) waits on the row, then updates nothing
+        int claimed = mediaUploadRepository.transitionStatus(uploadId, CLAIMABLE_STATUSES,
+                Constants.MediaUploadStatusEnum.PROCESSING, null, LocalDateTime.now());
+        MediaUpload current = mediaUploadRepository.findById(uploadId).orElseThrow();
+        if (claimed == 0) {
+            return toResponse(current, receivedChunks);
+        }
+
+        // Only start processing once the PROCESSING status is visible to other transactions
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                processingExecutor.submit(() -> processUpload(uploadId));
+            }
+        });
+
+        return toResponse(current, receivedChunks);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public MediaUpload getCompletedUpload(UUID uploadId, UUID conversationId, UUID uploaderId) {
+        MediaUpload upload = mediaUploadRepository.findById(uploadId)
+                .orElseThrow(() -> new NotFoundException("Media upload not found with id: " + uploadId));
+
+        if (!upload.getUploader().getId().equals(uploaderId)
+                || !upload.getConversation().getId().equals(conversationId)) {
+            throw new IllegalArgumentException("Media upload does not belong to this conversation");
+        }
+        if (upload.getStatus() != Constants.MediaUploadStatusEnum.COMPLETED) {
+            throw new IllegalStateException("Media upload is not ready, status: " + upload.getStatus());
+        }
+        return upload;
+    }
+
+    @Override
+    @Transactional
+    public void expireStaleUploads() {
+        LocalDateTime cutoff = LocalDateTime.now().minusHours(expireAfterHours);
+        List<MediaUpload> staleUploads = mediaUploadRepository.findStaleUploads(
+                List.of(Constants.MediaUploadStatusEnum.UPLOADING, Constants.MediaUploadStatusEnum.FAILED),
+                cutoff
+        );
+
+        for (MediaUpload upload : staleUploads) {
+            upload.setStatus(Constants.MediaUploadStatusEnum.EXPIRED);
+            upload.getReceivedChunks().clear();
+            deleteUploadDir(upload.getId());
+        }
+
+        if (!staleUploads.isEmpty()) {
+            mediaUploadRepository.saveAll(staleUploads);
+            log.info("Expired {} stale media uploads", staleUploads.size());
+        }
+    }
+
+    @Override
+    @Transactional
+    public void recoverStuckUploads() {
+        LocalDateTime cutoff = LocalDateTime.now().minusMinutes(processingTimeoutMinutes);
+        List<MediaUpload> stuckUploads = mediaUploadRepository.findStuckProcessingUploads(cutoff).stream()
+                .filter(upload -> !processingLocally.contains(upload.getId()))
+                .toList();
+
+        int recovered = 0;
+        for (MediaUpload upload : stuckUploads) {
+            UUID uploadId = upload.getId();
+            Set<Integer> onDisk = chunksOnDisk(upload);
+            boolean chunksSurvived = onDisk.size() == upload.getTotalChunks();
+            // Chunks survived: complete can be called again without re-sending anything.
+            // Spool lost (other node / wiped tmp): client resumes the missing chunks
+            int released = chunksSurvived
+                    ? mediaUploadRepository.releaseStuckUpload(uploadId, Constants.MediaUploadStatusEnum.FAILED,
+                            "Processing was interrupted, please complete the upload again", cutoff, LocalDateTime.now())
+                    : mediaUploadRepository.releaseStuckUpload(uploadId, Constants.MediaUploadStatusEnum.UPLOADING,
+                            "Processing was interrupted, please re-send the missing chunks", cutoff, LocalDateTime.now());
+            if (released == 0) {
+                // Another node recovered it first
+                continue;
+            }
+            if (!chunksSurvived) {
+                mediaUploadRepository.findById(uploadId).orElseThrow().getReceivedChunks().retainAll(onDisk);
+            }
+            recovered++;
+        }
+
+        if (recovered > 0) {
+            log.warn("Recovered {} media uploads stuck in PROCESSING for more than {} minutes",
+                    recovered, processingTimeoutMinutes);
+        }
+    }
+
+    private void processUpload(UUID uploadId) {
+        if (!processingLocally.add(uploadId)) {
+            return;
+        }
+        try {
+            doProcessUpload(uploadId);
+        } finally {
+            processingLocally.remove(uploadId);
+        }
+    }
+
+    private void doProcessUpload(UUID uploadId) {
+        MediaUpload upload = mediaUploadRepository.findById(uploadId).orElse(null);
+        if (upload == null) {
+            return;
+        }
+
+        Path uploadDir = uploadDir(uploadId);
+        Path assembled = uploadDir.resolve(ASSEMBLED_FILE_NAME);
+        try {
+            String actualChecksum = assemble(uploadDir, assembled, upload.getTotalChunks());
+            if (upload.getChecksum() != null && !upload.getChecksum().equals(actualChecksum)) {
+                // File hỏng: xoá chunk để client upload lại từ đầu
+                log.warn("Checksum mismatch for media upload {}", uploadId);
+                deleteUploadDir(uploadId);
+                transactionTemplate.executeWithoutResult(status -> {
+                    if (mediaUploadRepository.transitionStatus(uploadId, PROCESSING_STATUS,
+                            Constants.MediaUploadStatusEnum.UPLOADING, "Checksum mismatch, please upload the file again",
+                            LocalDateTime.now()) > 0) {
+                        mediaUploadRepository.findById(uploadId).orElseThrow().getReceivedChunks().clear();
+                    }
+                });
+                return;
+            }
+
+            String folder = "chat/" + upload.getConversation().getId();
+            String url = mediaStorageService.store(assembled.toFile(), upload.getFileName(), folder, upload.getMediaType());
+            deleteUploadDir(uploadId);
+
+            Integer completed = transactionTemplate.execute(status ->
+                    mediaUploadRepository.markCompleted(uploadId, url, LocalDateTime.now()));
+            if (completed == null || completed == 0) {
+                // Recovered as stuck while this node was still storing it
+                log.warn("Media upload {} left PROCESSING before it was stored, {} is unreferenced", uploadId, url);
+                return;
+            }
+            log.info("Media upload {} stored at {}", uploadId, url);
+        } catch (Exception e) {
+            // Giữ lại chunk trên đĩa để client có thể gọi complete lại
+            log.error("Failed to process media upload {}", uploadId, e);
+            deleteQuietly(assembled);
+            transactionTemplate.executeWithoutResult(status -> mediaUploadRepository.transitionStatus(uploadId,
+                    PROCESSING_STATUS, Constants.MediaUploadStatusEnum.FAILED, truncate(e.getMessage()), LocalDateTime.now()));
+        }
+    }
+
+    /**
+     * Concatenates chunk files into the target, hashing on the way.
+     * @return SHA-256 hex of the assembled file
+     */
+    private String assemble(Path uploadDir, Path target, int totalChunks) throws IOException {
+        MessageDigest digest = sha256();
+        try (OutputStream out = Files.newOutputStream(target)) {
+            for (int i = 0; i < totalChunks; i++) {
+                try (InputStream in = Files.newInputStream(uploadDir.resolve(chunkFileName(i)))) {
+                    copy(in, out, digest, Long.MAX_VALUE);
+                }
+            }
+        }
+        return HexFormat.of().formatHex(digest.digest());
+    }
+
+    /**
+     * Copies at most limit + 1 bytes so an oversized chunk is detected without reading the whole body.
+     */
+    private long copy(InputStream in, OutputStream out, MessageDigest digest, long limit) throws IOException {
+        byte[] buffer = new byte[BUFFER_SIZE];
+        long total = 0;
+        int read;
+        while ((read = in.read(buffer)) != -1) {
+            total += read;
+            if (total > limit) {
+                return total;
+            }
+            digest.update(buffer, 0, read);
+            out.write(buffer, 0, read);
+        }
+        return total;
+    }
+
+    private Set<Integer> chunksOnDisk(MediaUpload upload) {
+        Path uploadDir = uploadDir(upload.getId());
+        Set<Integer> present = new HashSet<>();
+        for (int i = 0; i < upload.getTotalChunks(); i++) {
+            if (Files.exists(uploadDir.resolve(chunkFileName(i)))) {
+                present.add(i);
+            }
+        }
+        return present;
+    }
+
+    private MediaUpload getOwnedUpload(UUID uploadId) {
+        MediaUpload upload = mediaUploadRepository.findById(uploadId)
+                .orElseThrow(() -> new NotFoundException("Media upload not found with id: " + uploadId));
+        User currentUser = userService.getUser();
+        if (!upload.getUploader().getId().equals(currentUser.getId())) {
+            throw new NotFoundException("Media upload not found with id: " + uploadId);
+        }
+        return upload;
+    }
+
+    private void validateParticipant(Conversation conversation, UUID userId) {
+        boolean isParticipant = conversation.getBooking().getCustomer().getId().equals(userId)
+                || conversation.getBooking().getServicePackage().getSeer().getId().equals(userId);
+        if (!isParticipant) {
+            throw new IllegalArgumentException("You are not a participant of this conversation");
+        }
+    }
+
+    private Constants.MediaTypeEnum resolveMediaType(String contentType) {
+        String type = contentType.toLowerCase();
+        if (type.startsWith("image/")) {
+            return Constants.MediaTypeEnum.IMAGE;
+        }
+        if (type.startsWith("video/")) {
+            return Constants.MediaTypeEnum.VIDEO;
+        }
+        throw new IllegalArgumentException("Unsupported content type: " + contentType);
+    }
+
+    private String sanitizeFileName(String fileName) {
+        String name = Paths.get(fileName).getFileName().toString().replaceAll("[^A-Za-z0-9._-]", "_");
+        return name.length() > 200 ? name.substring(name.length() - 200) : name;
+    }
+
+    private Path uploadDir(UUID uploadId) {
+        return Paths.get(spoolDir, uploadId.toString());
+    }
+
+    private String chunkFileName(int chunkIndex) {
+        return String.format("chunk-%06d", chunkIndex);
+    }
+
+    private void deleteUploadDir(UUID uploadId) {
+        try {
+            FileSystemUtils.deleteRecursively(uploadDir(uploadId));
+        } catch (IOException e) {
+            log.warn("Could not delete spool directory of media upload {}: {}", uploadId, e.getMessage());
+        }
+    }
+
+    private void deleteQuietly(Path path) {
+        try {
+            Files.deleteIfExists(path);
+        } catch (IOException e) {
+            log.debug("Could not delete {}: {}", path, e.getMessage());
+        }
+    }
+
+    private MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private String truncate(String message) {
+        if (message == null) {
+            return "Upload processing failed";
+        }
+        return message.length() > 500 ? message.substring(0, 500) : message;
+    }
+
+    private MediaUploadResponse toResponse(MediaUpload upload, List<Integer> receivedChunks) {
+        return MediaUploadResponse.builder()
+                .id(upload.getId())
+                .createdAt(upload.getCreatedAt())
+                .updatedAt(upload.getUpdatedAt())
+                .conversationId(upload.getConversation().getId())
+                .fileName(upload.getFileName())
+                .contentType(upload.getContentType())
+                .mediaType(upload.getMediaType())
+                .totalSize(upload.getTotalSize())
+                .chunkSize(upload.getChunkSize())
+                .totalChunks(upload.getTotalChunks())
+                .receivedChunks(receivedChunks)
+                .status(upload.getStatus())
+                .url(upload.getUrl())
+                .errorMessage(upload.getErrorMessage())
+                .build();
+    }
+}
@@ -3,6 +3,7 @@ package com.iseeyou.fortunetelling.service.knowledgecategory.impl;
 import com.iseeyou.fortunetelling.entity.knowledge.KnowledgeCategory;
 import com.iseeyou.fortunetelling.exception.NotFoundException;
 import com.iseeyou.fortunetelling.repository.knowledge.KnowledgeCategoryRepository;
+import com.iseeyou.fortunetelling.service.cache.CatalogCacheService;
 import com.iseeyou.fortunetelling.service.knowledgecategory.KnowledgeCategoryService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -20,6 +21,7 @@ import java.util.UUID;
 public class KnowledgeCategoryServiceImpl implements KnowledgeCategoryService {
 
     private final KnowledgeCategoryRepository knowledgeCategoryRepository;
+    private final CatalogCacheService catalogCacheService;
 
     @Override
     @Transactional
@@ -56,6 +58,7 @@ public class KnowledgeCategoryServiceImpl implements KnowledgeCategoryService {
         if (knowledgeCategoryRepository.findByName(knowledgeCategory.getName()).isPresent()) {
             throw new IllegalArgumentException("KnowledgeCategory with name '" + knowledgeCategory.getName() + "' already exists.");
         }
+        catalogCacheService.evict(CatalogCacheService.TAG_CATEGORIES);
         return knowledgeCategoryRepository.save(knowledgeCategory);
     }
 
@@ -67,6 +70,7 @@ public class KnowledgeCategoryServiceImpl implements KnowledgeCategoryService {
         try {
             existingCategory.setName(knowledgeCategory.getName());
             existingCategory.setDescription(knowledgeCategory.getDescription());
+            catalogCacheService.evict(CatalogCacheService.TAG_CATEGORIES);
             return knowledgeCategoryRepository.save(existingCategory);
         } catch (Exception e) {
             throw new IllegalArgumentException("The name '" + knowledgeCategory.getName() + "' is already in use.");
@@ -90,5 +94,6 @@ public class KnowledgeCategoryServiceImpl implements KnowledgeCategoryService {
             throw new NotFoundException("KnowledgeCategory not found with id: " + id);
         }
         knowledgeCategoryRepository.deleteById(UUID.fromString(id));
+        catalogCacheService.evict(CatalogCacheService.TAG_CATEGORIES);
     }
 }
@@ -6,12 +6,16 @@ import com.iseeyou.fortunetelling.entity.knowledge.KnowledgeItem;
 import com.iseeyou.fortunetelling.exception.NotFoundException;
 import com.iseeyou.fortunetelling.repository.knowledge.ItemCategoryRepository;
 import com.iseeyou.fortunetelling.repository.knowledge.KnowledgeItemRepository;
+import com.iseeyou.fortunetelling.service.cache.CatalogCacheService;
 import com.iseeyou.fortunetelling.service.fileupload.CloudinaryService;
 import com.iseeyou.fortunetelling.service.knowledgecategory.KnowledgeCategoryService;
 import com.iseeyou.fortunetelling.service.knowledgeitem.KnowledgeItemService;
+import com.iseeyou.fortunetelling.service.search.CatalogSearchService;
+import com.iseeyou.fortunetelling.service.view.ViewCounterService;
 import com.iseeyou.fortunetelling.util.Constants;
 import lombok.RequiredArgsConstructor;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
@@ -19,6 +23,7 @@ import org.springframework.transaction.annotation.Transactional;
 import java.io.IOException;
 import java.util.HashSet;
 import java.util.List;
+import java.util.Optional;
 import java.util.Set;
 import java.util.UUID;
 import java.util.stream.Collectors;
@@ -31,6 +36,9 @@ public class KnowledgeItemServiceImpl implements KnowledgeItemService {
     private final KnowledgeItemRepository knowledgeItemRepository;
     private final KnowledgeCategoryService knowledgeCategoryService;
     private final CloudinaryService cloudinaryService;
+    private final ViewCounterService viewCounterService;
+    private final CatalogCacheService catalogCacheService;
+    private final CatalogSearchService catalogSearchService;
 
     @Override
     @Transactional(readOnly = true)
@@ -80,6 +88,7 @@ public class KnowledgeItemServiceImpl implements KnowledgeItemService {
         itemCategoryRepository.saveAll(itemCategories);
 
         newKnowledgeItem.setItemCategories(itemCategories);
+        catalogCacheService.evict(CatalogCacheService.TAG_KNOWLEDGE);
         return newKnowledgeItem;
     }
 
@@ -116,6 +125,8 @@ public class KnowledgeItemServiceImpl implements KnowledgeItemService {
             if (!categoriesToRemove.isEmpty()) {
                 itemCategoryRepository.deleteAllByKnowledgeItem_IdAndKnowledgeCategory_IdIn(
                         existingKnowledgeItem.getId(), categoriesToRemove);
+                // Bulk delete, the entity listener doesn't see it
+                catalogSearchService.knowledgeItemChanged(existingKnowledgeItem.getId());
                 existingKnowledgeItem.getItemCategories().removeIf(
                         ic -> categoriesToRemove.contains(ic.getKnowledgeCategory().getId()));
             }
@@ -138,6 +149,7 @@ public class KnowledgeItemServiceImpl implements KnowledgeItemService {
             }
         }
 
+        catalogCacheService.evict(CatalogCacheService.TAG_KNOWLEDGE);
         return existingKnowledgeItem;
     }
 
@@ -151,22 +163,36 @@ public class KnowledgeItemServiceImpl implements KnowledgeItemService {
             knowledgeItem.setImageUrl(knowledgeItem.getImageUrl());
         }
         knowledgeItemRepository.delete(knowledgeItem);
+        catalogCacheService.evict(CatalogCacheService.TAG_KNOWLEDGE);
     }
 
     @Override
-    @Transactional
     public void view(UUID id) {
-        KnowledgeItem knowledgeItem = knowledgeItemRepository.findById(id)
-                .orElseThrow(() -> new NotFoundException("knowledgeItem not found"));
-        knowledgeItem.setViewCount(knowledgeItem.getViewCount() + 1);
-        knowledgeItemRepository.save(knowledgeItem);
+        if (!knowledgeItemRepository.existsById(id)) {
+            throw new NotFoundException("knowledgeItem not found");
+        }
+        // Buffered, written to view_count by the next flush
+        viewCounterService.recordView(Constants.ViewTargetEnum.KNOWLEDGE_ITEM, id);
     }
 
     @Override
     @Transactional
     public Page<KnowledgeItem> search(String title, List<UUID> categoryIds, Constants.KnowledgeItemStatusEnum status, Pageable pageable) {
+        Optional<Page<UUID>> ids = catalogSearchService.searchKnowledgeItems(title, categoryIds, status, pageable);
+        if (ids.isPresent()) {
+            return hydrate(ids.get(), status);
+        }
+
         // Convert empty list to null to avoid empty IN clause
         List<UUID> effectiveCategoryIds = (categoryIds != null && categoryIds.isEmpty()) ? null : categoryIds;
         return knowledgeItemRepository.search(title, effectiveCategoryIds, status, pageable);
     }
+
+    // One batch fetch in index order; items changed on another node since the last rebuild are dropped
+    private Page<KnowledgeItem> hydrate(Page<UUID> ids, Constants.KnowledgeItemStatusEnum status) {
+        List<KnowledgeItem> content = knowledgeItemRepository.hydrate(ids.getContent()).stream()
+                .filter(item -> status == null || item.getStatus() == status)
+                .toList();
+        return new PageImpl<>(content, ids.getPageable(), ids.getTotalElements());
+    }
 }
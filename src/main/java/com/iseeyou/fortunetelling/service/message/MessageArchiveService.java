@@ -0,0 +1,17 @@
+package com.iseeyou.fortunetelling.service.message;
+
+import com.iseeyou.fortunetelling.dto.response.ChatMessageResponse;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+
+import java.util.UUID;
+
+public interface MessageArchiveService {
+    /**
+     * Moves messages of conversations ended more than the configured number of days ago into segment storage.
+     * @return number of conversations archived
+     */
+    int archiveEndedConversations();
+
+    Page<ChatMessageResponse> getArchivedMessages(UUID conversationId, UUID userId, Pageable pageable);
+}
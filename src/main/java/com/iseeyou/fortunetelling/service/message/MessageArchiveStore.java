@@ -0,0 +1,38 @@
+package com.iseeyou.fortunetelling.service.message;
+
+import java.io.IOException;
+
+/**
+ * Append-only storage for compressed conversation blocks. Hot rows are deleted once their block is appended,
+ * so an implementation has to be durable and readable from every node.
+ * The shared-directory implementation writes rolling segment files; an object-storage implementation only has
+ * to return a location it can later read back by (segment name, offset, length).
+ * Without an implementation configured, conversations are not archived.
+ */
+public interface MessageArchiveStore {
+
+    /**
+     * Appends the block durably and returns where it was written.
+     */
+    Location append(byte[] block) throws IOException;
+
+    byte[] read(String segmentName, long offset, int length) throws IOException;
+
+    class Location {
+        private final String segmentName;
+        private final long offset;
+
+        public Location(String segmentName, long offset) {
+            this.segmentName = segmentName;
+            this.offset = offset;
+        }
+
+        public String getSegmentName() {
+            return segmentName;
+        }
+
+        public long getOffset() {
+            return offset;
+        }
+    }
+}
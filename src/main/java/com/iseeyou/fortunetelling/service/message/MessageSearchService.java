@@ -0,0 +1,9 @@
+package com.iseeyou.fortunetelling.service.message;
+
+import com.iseeyou.fortunetelling.dto.response.MessageSearchResponse;
+
+import java.util.UUID;
+
+public interface MessageSearchService {
+    MessageSearchResponse searchMessages(String query, UUID conversationId, String cursor, Integer limit);
+}
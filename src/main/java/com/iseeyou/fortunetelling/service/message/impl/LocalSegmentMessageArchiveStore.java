@@ -0,0 +1,102 @@
+package com.iseeyou.fortunetelling.service.message.impl;
+
+import com.iseeyou.fortunetelling.service.message.MessageArchiveStore;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnExpression;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.stream.Stream;
+
+/**
+ * Segment files in a shared directory: segment-000001.seg, segment-000002.seg, ...
+ * Only the newest segment is ever written to; it is rolled once it reaches the configured size.
+ * The directory has to be a durable volume mounted on every node, since any node may serve archived history;
+ * it is never created here, so an unmounted volume fails at startup instead of filling a local directory.
+ */
+@Service
+@ConditionalOnExpression("'${app.message.archive.dir:}' != ''")
+@Slf4j
+public class LocalSegmentMessageArchiveStore implements MessageArchiveStore {
+
+    private static final String SEGMENT_PREFIX = "segment-";
+    private static final String SEGMENT_SUFFIX = ".seg";
+
+    @Value("${app.message.archive.dir}")
+    private String archiveDir;
+
+    @Value("${app.message.archive.segment-max-bytes:67108864}")
+    private long segmentMaxBytes;
+
+    @PostConstruct
+    void checkDirectory() {
+        Path dir = Paths.get(archiveDir);
+        if (!Files.isDirectory(dir) || !Files.isWritable(dir)) {
+            throw new IllegalStateException("Message archive directory " + dir + " is not a mounted, writable directory");
+        }
+        log.info("Archiving messages into {}", dir.toAbsolutePath());
+    }
+
+    @Override
+    public synchronized Location append(byte[] block) throws IOException {
+        Path dir = Paths.get(archiveDir);
+
+        Path segment = currentSegment(dir);
+        if (Files.exists(segment) && Files.size(segment) > 0 && Files.size(segment) + block.length > segmentMaxBytes) {
+            segment = dir.resolve(segmentName(segmentNumber(segment) + 1));
+        }
+
+        try (FileChannel channel = FileChannel.open(segment,
+                StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND)) {
+            long offset = channel.size();
+            ByteBuffer buffer = ByteBuffer.wrap(block);
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+            // Block phải nằm trên đĩa trước khi xoá messages khỏi DB
+            channel.force(true);
+            return new Location(segment.getFileName().toString(), offset);
+        }
+    }
+
+    @Override
+    public byte[] read(String segmentName, long offset, int length) throws IOException {
+        Path segment = Paths.get(archiveDir).resolve(segmentName);
+        try (FileChannel channel = FileChannel.open(segment, StandardOpenOption.READ)) {
+            ByteBuffer buffer = ByteBuffer.allocate(length);
+            while (buffer.hasRemaining()) {
+                if (channel.read(buffer, offset + buffer.position()) < 0) {
+                    throw new IOException("Unexpected end of segment " + segmentName);
+                }
+            }
+            return buffer.array();
+        }
+    }
+
+    private Path currentSegment(Path dir) throws IOException {
+        try (Stream<Path> files = Files.list(dir)) {
+            return files
+                    .filter(p -> p.getFileName().toString().startsWith(SEGMENT_PREFIX)
+                            && p.getFileName().toString().endsWith(SEGMENT_SUFFIX))
+                    .max((a, b) -> Integer.compare(segmentNumber(a), segmentNumber(b)))
+                    .orElse(dir.resolve(segmentName(1)));
+        }
+    }
+
+    private int segmentNumber(Path segment) {
+        String name = segment.getFileName().toString();
+        return Integer.parseInt(name.substring(SEGMENT_PREFIX.length(), name.length() - SEGMENT_SUFFIX.length()));
+    }
+
+    private String segmentName(int number) {
+        return String.format("%s%06d%s", SEGMENT_PREFIX, number, SEGMENT_SUFFIX);
+    }
+}
@@ -0,0 +1,275 @@
+package com.iseeyou.fortunetelling.service.message.impl;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.iseeyou.fortunetelling.dto.Internal.ArchivedMessage;
+import com.iseeyou.fortunetelling.dto.response.ChatMessageResponse;
+import com.iseeyou.fortunetelling.entity.Conversation;
+import com.iseeyou.fortunetelling.entity.Message;
+import com.iseeyou.fortunetelling.entity.MessageArchiveIndex;
+import com.iseeyou.fortunetelling.entity.user.User;
+import com.iseeyou.fortunetelling.exception.NotFoundException;
+import com.iseeyou.fortunetelling.repository.converstation.ConversationRepository;
+import com.iseeyou.fortunetelling.repository.message.MessageArchiveIndexRepository;
+import com.iseeyou.fortunetelling.repository.message.MessageRepository;
+import com.iseeyou.fortunetelling.repository.user.UserRepository;
+import com.iseeyou.fortunetelling.service.message.MessageArchiveService;
+import com.iseeyou.fortunetelling.service.message.MessageArchiveStore;
+import com.iseeyou.fortunetelling.util.Constants;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.zip.CRC32;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Cold storage for messages of finished conversations.
+ * Each conversation becomes one gzip-compressed JSON block appended to a segment file; its location is kept
+ * in message_archive_index. The block is written (and fsynced) before the hot rows are deleted, so a crash
+ * in between only leaves an unreferenced block in the segment. Without a configured {@link MessageArchiveStore}
+ * nothing is archived and the hot rows stay where they are.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class MessageArchiveServiceImpl implements MessageArchiveService {
+
+    private static final String ARCHIVE_LOCK_KEY = "lock:message-archive";
+    // Deletes the lock only while it still holds this run's token: a run outliving the TTL must not free
+    // the lock another node has taken since
+    private static final RedisScript<Long> RELEASE_LOCK_SCRIPT = new DefaultRedisScript<>(
+            "if redis.call('GET', KEYS[1]) == ARGV[1] then return redis.call('DEL', KEYS[1]) end return 0",
+            Long.class
+    );
+    private static final List<Constants.ConversationStatusEnum> ARCHIVABLE_STATUSES = List.of(
+            Constants.ConversationStatusEnum.ENDED,
+            Constants.ConversationStatusEnum.CANCELLED
+    );
+
+    private final ConversationRepository conversationRepository;
+    private final MessageRepository messageRepository;
+    private final MessageArchiveIndexRepository messageArchiveIndexRepository;
+    private final UserRepository userRepository;
+    private final Optional<MessageArchiveStore> messageArchiveStore;
+    private final ObjectMapper objectMapper;
+    private final StringRedisTemplate stringRedisTemplate;
+    private final TransactionTemplate transactionTemplate;
+
+    @Value("${app.message.archive.after-days:30}")
+    private int archiveAfterDays;
+
+    @Value("${app.message.archive.batch-size:100}")
+    private int batchSize;
+
+    @Override
+    public int archiveEndedConversations() {
+        if (messageArchiveStore.isEmpty()) {
+            log.warn("No message archive store configured (app.message.archive.dir), ended conversations are kept");
+            return 0;
+        }
+
+        // Only one node appends to the segments at a time
+        String lockToken = UUID.randomUUID().toString();
+        Boolean locked = stringRedisTemplate.opsForValue()
+                .setIfAbsent(ARCHIVE_LOCK_KEY, lockToken, Duration.ofHours(1));
+        if (!Boolean.TRUE.equals(locked)) {
+            log.debug("Message archival already running on another node");
+            return 0;
+        }
+
+        int archived = 0;
+        try {
+            LocalDateTime cutoff = LocalDateTime.now().minusDays(archiveAfterDays);
+            List<UUID> conversationIds = conversationRepository.findArchivableConversationIds(
+                    ARCHIVABLE_STATUSES, cutoff, PageRequest.of(0, batchSize));
+
+            for (UUID conversationId : conversationIds) {
+                try {
+                    archiveConversation(conversationId);
+                    archived++;
+                } catch (Exception e) {
+                    log.error("Error archiving messages of conversation {}", conversationId, e);
+                }
+            }
+        } finally {
+            stringRedisTemplate.execute(RELEASE_LOCK_SCRIPT, Collections.singletonList(ARCHIVE_LOCK_KEY), lockToken);
+        }
+
+        if (archived > 0) {
+            log.info("Archived messages of {} conversations", archived);
+        }
+        return archived;
+    }
+
+    @Override
+    public Page<ChatMessageResponse> getArchivedMessages(UUID conversationId, UUID userId, Pageable pageable) {
+        MessageArchiveIndex index = messageArchiveIndexRepository.findByConversationId(conversationId)
+                .orElseThrow(() -> new NotFoundException("Archived messages not found for conversation: " + conversationId));
+
+        List<ArchivedMessage> visible = readBlock(index).stream()
+                .filter(m -> !Boolean.TRUE.equals(m.getIsRecalled()))
+                .filter(m -> m.getDeletedByUserIds() == null || !m.getDeletedByUserIds().contains(userId))
+                .sorted(comparator(pageable.getSort()))
+                .collect(Collectors.toList());
+
+        int from = (int) Math.min(pageable.getOffset(), visible.size());
+        int to = Math.min(from + pageable.getPageSize(), visible.size());
+        List<ArchivedMessage> pageContent = visible.subList(from, to);
+
+        Set<UUID> senderIds = pageContent.stream()
+                .map(ArchivedMessage::getSenderId)
+                .collect(Collectors.toSet());
+        Map<UUID, User> senders = userRepository.findAllById(senderIds).stream()
+                .collect(Collectors.toMap(User::getId, Function.identity()));
+
+        List<ChatMessageResponse> responses = pageContent.stream()
+                .map(m -> toResponse(conversationId, m, senders.get(m.getSenderId())))
+                .collect(Collectors.toList());
+        return new PageImpl<>(responses, pageable, visible.size());
+    }
+
+    private void archiveConversation(UUID conversationId) throws IOException {
+        List<Message> messages = messageRepository.findAllForArchive(conversationId);
+        List<ArchivedMessage> archivedMessages = messages.stream()
+                .map(this::toArchived)
+                .sorted(Comparator.comparing(ArchivedMessage::getCreatedAt))
+                .collect(Collectors.toList());
+
+        byte[] block = compress(objectMapper.writeValueAsBytes(archivedMessages));
+        CRC32 crc = new CRC32();
+        crc.update(block);
+
+        MessageArchiveStore.Location location = messageArchiveStore.get().append(block);
+
+        transactionTemplate.executeWithoutResult(status -> {
+            Conversation conversation = conversationRepository.findById(conversationId)
+                    .orElseThrow(() -> new NotFoundException("Conversation not found with id: " + conversationId));
+
+            messageArchiveIndexRepository.save(MessageArchiveIndex.builder()
+                    .conversationId(conversationId)
+                    .segmentName(location.getSegmentName())
+                    .segmentOffset(location.getOffset())
+                    .blockLength(block.length)
+                    .blockCrc32(crc.getValue())
+                    .messageCount(archivedMessages.size())
+                    .build());
+
+            messageRepository.deleteAllByConversationId(conversationId);
+
+            conversation.setArchivedAt(LocalDateTime.now());
+            conversationRepository.save(conversation);
+        });
+
+        log.debug("Archived {} messages of conversation {} into {}@{}",
+                archivedMessages.size(), conversationId, location.getSegmentName(), location.getOffset());
+    }
+
+    private List<ArchivedMessage> readBlock(MessageArchiveIndex index) {
+        try {
+            MessageArchiveStore store = messageArchiveStore.orElseThrow(() -> new IllegalStateException(
+                    "No message archive store configured to read conversation " + index.getConversationId()));
+            byte[] block = store.read(index.getSegmentName(), index.getSegmentOffset(), index.getBlockLength());
+            CRC32 crc = new CRC32();
+            crc.update(block);
+            if (crc.getValue() != index.getBlockCrc32()) {
+                throw new IllegalStateException("Corrupted archive block for conversation " + index.getConversationId());
+            }
+            return objectMapper.readValue(decompress(block), new TypeReference<List<ArchivedMessage>>() {});
+        } catch (IOException e) {
+            throw new IllegalStateException("Failed to read archived messages of conversation " + index.getConversationId(), e);
+        }
+    }
+
+    private Comparator<ArchivedMessage> comparator(Sort sort) {
+        Sort.Order order = sort.getOrderFor("createdAt");
+        Comparator<ArchivedMessage> byCreatedAt = Comparator.comparing(ArchivedMessage::getCreatedAt);
+        // Mặc định giống query hot table: mới nhất trước
+        return order != null && order.isAscending() ? byCreatedAt : byCreatedAt.reversed();
+    }
+
+    private ArchivedMessage toArchived(Message message) {
+        return ArchivedMessage.builder()
+                .id(message.getId())
+                .senderId(message.getSender().getId())
+                .textContent(message.getTextContent())
+                .imageUrl(message.getImageUrl())
+                .videoUrl(message.getVideoUrl())
+                .messageType(message.getMessageType())
+                .isRead(message.getIsRead())
+                .readAt(message.getReadAt())
+                .isRecalled(message.getIsRecalled())
+                .recalledAt(message.getRecalledAt())
+                .recalledBy(message.getRecalledBy() != null ? message.getRecalledBy().getId() : null)
+                .deletedByUserIds(new HashSet<>(message.getDeletedByUserIds()))
+                .createdAt(message.getCreatedAt())
+                .updatedAt(message.getUpdatedAt())
+                .build();
+    }
+
+    private ChatMessageResponse toResponse(UUID conversationId, ArchivedMessage message, User sender) {
+        ChatMessageResponse response = new ChatMessageResponse();
+        response.setId(message.getId());
+        response.setCreatedAt(message.getCreatedAt());
+        response.setUpdatedAt(message.getUpdatedAt());
+        response.setConversationId(conversationId);
+        response.setSenderId(message.getSenderId());
+        if (sender != null) {
+            response.setSenderName(sender.getFullName());
+            response.setSenderAvatar(sender.getAvatarUrl());
+        }
+        response.setTextContent(message.getTextContent());
+        response.setImageUrl(message.getImageUrl());
+        response.setVideoUrl(message.getVideoUrl());
+        response.setMessageType(Constants.MessageTypeEnum.get(message.getMessageType()));
+        response.setIsRead(message.getIsRead());
+        response.setIsRecalled(message.getIsRecalled());
+        response.setRecalledAt(message.getRecalledAt());
+        response.setRecalledBy(message.getRecalledBy());
+        // Conversation đã kết thúc từ lâu, không thể recall
+        response.setCanRecall(false);
+        return response;
+    }
+
+    private byte[] compress(byte[] data) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(Math.max(64, data.length / 4));
+        try (OutputStream gzip = new GZIPOutputStream(out)) {
+            gzip.write(data);
+        }
+        return out.toByteArray();
+    }
+
+    private byte[] decompress(byte[] block) throws IOException {
+        try (InputStream gzip = new GZIPInputStream(new ByteArrayInputStream(block))) {
+            return gzip.readAllBytes();
+        }
+    }
+}
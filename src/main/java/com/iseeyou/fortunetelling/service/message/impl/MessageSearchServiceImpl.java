@@ -0,0 +1,187 @@
+package com.iseeyou.fortunetelling.service.message.impl;
+
+import com.iseeyou.fortunetelling.dto.Internal.MessageSearchHit;
+import com.iseeyou.fortunetelling.dto.response.MessageSearchItemResponse;
+import com.iseeyou.fortunetelling.dto.response.MessageSearchResponse;
+import com.iseeyou.fortunetelling.entity.user.User;
+import com.iseeyou.fortunetelling.repository.message.MessageRepository;
+import com.iseeyou.fortunetelling.repository.user.UserRepository;
+import com.iseeyou.fortunetelling.service.message.MessageSearchService;
+import com.iseeyou.fortunetelling.service.user.UserService;
+import com.iseeyou.fortunetelling.util.TextFolding;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.util.HtmlUtils;
+
+import java.nio.charset.StandardCharsets;
+import java.text.Normalizer;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class MessageSearchServiceImpl implements MessageSearchService {
+
+    private static final int MAX_TERMS = 8;
+    private static final int SNIPPET_CONTEXT = 60;
+
+    private final MessageRepository messageRepository;
+    private final UserRepository userRepository;
+    private final UserService userService;
+
+    @Value("${app.message.search.default-limit:20}")
+    private int defaultLimit;
+
+    @Value("${app.message.search.max-limit:50}")
+    private int maxLimit;
+
+    @Override
+    @Transactional(readOnly = true)
+    public MessageSearchResponse searchMessages(String query, UUID conversationId, String cursor, Integer limit) {
+        List<String> terms = toTerms(query);
+        if (terms.isEmpty()) {
+            throw new IllegalArgumentException("Search query must contain at least one word");
+        }
+        int pageSize = limit == null ? defaultLimit : Math.max(1, Math.min(limit, maxLimit));
+        MessageSearchHit after = cursor == null || cursor.isBlank() ? null : decodeCursor(cursor);
+
+        UUID userId = userService.getUser().getId();
+        // Prefix match on every term: "boi bai" finds "Bói bài tarot"
+        String tsQuery = terms.stream().map(term -> term + ":*").collect(Collectors.joining(" & "));
+
+        // One extra row tells whether there is a next page
+        List<MessageSearchHit> hits = messageRepository.searchVisibleMessages(
+                userId, tsQuery, conversationId, after, pageSize + 1);
+        boolean hasMore = hits.size() > pageSize;
+        if (hasMore) {
+            hits = hits.subList(0, pageSize);
+        }
+
+        Set<UUID> senderIds = hits.stream().map(MessageSearchHit::getSenderId).collect(Collectors.toSet());
+        Map<UUID, User> senders = userRepository.findAllById(senderIds).stream()
+                .collect(Collectors.toMap(User::getId, Function.identity()));
+
+        List<MessageSearchItemResponse> items = new ArrayList<>(hits.size());
+        for (MessageSearchHit hit : hits) {
+            User sender = senders.get(hit.getSenderId());
+            items.add(MessageSearchItemResponse.builder()
+                    .id(hit.getMessageId())
+                    .createdAt(hit.getCreatedAt())
+                    .conversationId(hit.getConversationId())
+                    .senderId(hit.getSenderId())
+                    .senderName(sender != null ? sender.getFullName() : null)
+                    .senderAvatar(sender != null ? sender.getAvatarUrl() : null)
+                    .highlight(highlight(hit.getTextContent(), terms))
+                    .rank(hit.getRank())
+                    .build());
+        }
+
+        return MessageSearchResponse.builder()
+                .items(items)
+                .nextCursor(hasMore ? encodeCursor(hits.get(hits.size() - 1)) : null)
+                .build();
+    }
+
+    // Same folding as Message.searchText, and only letters/digits so the terms are safe inside to_tsquery
+    private List<String> toTerms(String query) {
+        if (query == null) {
+            return List.of();
+        }
+        String folded = TextFolding.fold(Normalizer.normalize(query, Normalizer.Form.NFC));
+        Set<String> terms = new LinkedHashSet<>();
+        for (String token : folded.split("[^\\p{L}\\p{N}]+")) {
+            if (!token.isEmpty() && terms.size() < MAX_TERMS) {
+                terms.add(token);
+            }
+        }
+        return new ArrayList<>(terms);
+    }
+
+    /**
+     * Marks every word starting with one of the terms. Folding is 1:1 per char, so offsets found
+     * in the folded text are valid in the original one. Returns a window around the first match.
+     */
+    private String highlight(String text, List<String> terms) {
+        if (text == null) {
+            return null;
+        }
+        String original = Normalizer.normalize(text, Normalizer.Form.NFC);
+        String folded = TextFolding.fold(original);
+
+        List<int[]> ranges = new ArrayList<>();
+        int i = 0;
+        while (i < folded.length()) {
+            if (!Character.isLetterOrDigit(folded.charAt(i))) {
+                i++;
+                continue;
+            }
+            int end = i;
+            while (end < folded.length() && Character.isLetterOrDigit(folded.charAt(end))) {
+                end++;
+            }
+            for (String term : terms) {
+                if (folded.startsWith(term, i)) {
+                    ranges.add(new int[]{i, end});
+                    break;
+                }
+            }
+            i = end;
+        }
+
+        int from = ranges.isEmpty() ? 0 : Math.max(0, ranges.get(0)[0] - SNIPPET_CONTEXT);
+        int to = Math.min(original.length(),
+                (ranges.isEmpty() ? 0 : ranges.get(0)[1]) + SNIPPET_CONTEXT * 2);
+
+        StringBuilder snippet = new StringBuilder();
+        if (from > 0) {
+            snippet.append("…");
+        }
+        int position = from;
+        for (int[] range : ranges) {
+            if (range[0] >= to) {
+                break;
+            }
+            snippet.append(HtmlUtils.htmlEscape(original.substring(position, range[0])))
+                    .append("<mark>")
+                    .append(HtmlUtils.htmlEscape(original.substring(range[0], Math.min(range[1], to))))
+                    .append("</mark>");
+            position = Math.min(range[1], to);
+        }
+        snippet.append(HtmlUtils.htmlEscape(original.substring(position, to)));
+        if (to < original.length()) {
+            snippet.append("…");
+        }
+        return snippet.toString();
+    }
+
+    // Rank is carried as raw float bits so the keyset comparison is exact
+    private String encodeCursor(MessageSearchHit hit) {
+        String raw = Float.floatToIntBits(hit.getRank()) + "|" + hit.getCreatedAt() + "|" + hit.getMessageId();
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private MessageSearchHit decodeCursor(String cursor) {
+        try {
+            String[] parts = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8).split("\\|");
+            return MessageSearchHit.builder()
+                    .rank(Float.intBitsToFloat(Integer.parseInt(parts[0])))
+                    .createdAt(LocalDateTime.parse(parts[1]))
+                    .messageId(UUID.fromString(parts[2]))
+                    .build();
+        } catch (RuntimeException e) {
+            throw new IllegalArgumentException("Invalid search cursor");
+        }
+    }
+}
@@ -1,18 +1,22 @@
 package com.iseeyou.fortunetelling.service.message.impl;
 
+import com.iseeyou.fortunetelling.dto.Internal.ModerationResult;
 import com.iseeyou.fortunetelling.dto.request.message.ChatMessageRequest;
 import com.iseeyou.fortunetelling.dto.request.message.MessageDeleteRequest;
 import com.iseeyou.fortunetelling.dto.request.message.MessageRecallRequest;
 import com.iseeyou.fortunetelling.dto.response.ChatMessageResponse;
-import com.iseeyou.fortunetelling.dto.Internal.DeletedMessageInfo;
 import com.iseeyou.fortunetelling.entity.Conversation;
+import com.iseeyou.fortunetelling.entity.MediaUpload;
 import com.iseeyou.fortunetelling.entity.Message;
 import com.iseeyou.fortunetelling.entity.user.User;
 import com.iseeyou.fortunetelling.exception.NotFoundException;
 import com.iseeyou.fortunetelling.mapper.MessageMapper;
 import com.iseeyou.fortunetelling.repository.converstation.ConversationRepository;
 import com.iseeyou.fortunetelling.repository.message.MessageRepository;
+import com.iseeyou.fortunetelling.service.fileupload.MediaUploadService;
+import com.iseeyou.fortunetelling.service.message.MessageArchiveService;
 import com.iseeyou.fortunetelling.service.message.MessageService;
+import com.iseeyou.fortunetelling.service.moderation.ModerationService;
 import com.iseeyou.fortunetelling.service.user.UserService;
 import com.iseeyou.fortunetelling.util.Constants;
 import lombok.RequiredArgsConstructor;
@@ -25,7 +29,6 @@ import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
 import java.util.List;
-import java.util.Optional;
 import java.util.UUID;
 
 @Service
@@ -38,6 +41,9 @@ public class MessageServiceImpl implements MessageService {
     private final UserService userService;
     private final MessageMapper messageMapper;
     private final MessageCacheService messageCacheService;
+    private final MediaUploadService mediaUploadService;
+    private final MessageArchiveService messageArchiveService;
+    private final ModerationService moderationService;
 
     @Value("${app.message.recall-time-limit-minutes:15}")
     private int recallTimeLimitMinutes;
@@ -59,13 +65,34 @@ public class MessageServiceImpl implements MessageService {
             throw new IllegalStateException("Cannot send message to inactive conversation");
         }
 
+        // Screen before saving/broadcasting (single pass, linear in message length)
+        ModerationResult moderation = moderationService.screen(request.getTextContent(), "message");
+        if (moderation.getAction() == Constants.ModerationActionEnum.BLOCK) {
+            log.warn("Blocked message from user {} in conversation {}: {}",
+                    currentUser.getId(), conversationId, moderation.getMatchedPhrases());
+            throw new IllegalArgumentException("Message contains prohibited content");
+        }
+
+        String imageUrl = request.getImageUrl();
+        String videoUrl = request.getVideoUrl();
+        if (request.getMediaUploadId() != null) {
+            MediaUpload upload = mediaUploadService.getCompletedUpload(
+                    request.getMediaUploadId(), conversationId, currentUser.getId());
+            if (upload.getMediaType() == Constants.MediaTypeEnum.VIDEO) {
+                videoUrl = upload.getUrl();
+            } else {
+                imageUrl = upload.getUrl();
+            }
+        }
+
         // Create message
         Message message = Message.builder()
                 .conversation(conversation)
                 .sender(currentUser)
-                .textContent(request.getTextContent())
-                .imageUrl(request.getImageUrl())
-                .videoUrl(request.getVideoUrl())
+                .textContent(moderation.getMaskedText())
+                .isFlagged(moderation.isFlagged())
+                .imageUrl(imageUrl)
+                .videoUrl(videoUrl)
                 .messageType(Constants.MessageTypeEnum.USER.getValue())
                 .isRead(false)
                 .isDeleted(false)
@@ -83,6 +110,13 @@ public class MessageServiceImpl implements MessageService {
     public Page<ChatMessageResponse> getMessages(UUID conversationId, Pageable pageable) {
         User currentUser = userService.getUser();
 
+        // Conversation cũ đã được archive: đọc từ segment storage thay vì bảng message
+        Conversation conversation = conversationRepository.findById(conversationId)
+                .orElseThrow(() -> new NotFoundException("Conversation not found with id: " + conversationId));
+        if (conversation.getArchivedAt() != null) {
+            return messageArchiveService.getArchivedMessages(conversationId, currentUser.getId(), pageable);
+        }
+
         Page<Message> messages = messageRepository.findVisibleMessagesByConversationAndUser(
                 conversationId,
                 currentUser.getId(),
@@ -167,23 +201,21 @@ public class MessageServiceImpl implements MessageService {
         // Validate conversation access
         validateConversationAccess(conversationId, currentUser.getId());
 
-        // Get deleted message info from Redis
-        Optional<DeletedMessageInfo> cachedInfo = messageCacheService.getDeletedMessages(
+        // Atomically take the ids out of Redis: a second undo (other device) gets nothing
+        List<UUID> deletedMessageIds = messageCacheService.popDeletedMessages(
                 currentUser.getId(),
                 conversationId
         );
 
-        if (cachedInfo.isEmpty()) {
+        if (deletedMessageIds.isEmpty()) {
             throw new IllegalStateException(
                     "No recently deleted messages found or undo time limit exceeded (30 seconds)"
             );
         }
 
-        DeletedMessageInfo info = cachedInfo.get();
-
         // Find messages that were deleted by this user
         List<Message> messages = messageRepository.findDeletedMessagesByUser(
-                info.getMessageIds(),
+                deletedMessageIds,
                 currentUser.getId(),
                 conversationId
         );
@@ -199,9 +231,6 @@ public class MessageServiceImpl implements MessageService {
 
         messageRepository.saveAll(messages);
 
-        // Remove from Redis cache
-        messageCacheService.removeCachedMessages(currentUser.getId(), conversationId);
-
         log.info("User {} restored {} messages in conversation {}",
                 currentUser.getId(), messages.size(), conversationId);
     }
@@ -213,24 +242,7 @@ public class MessageServiceImpl implements MessageService {
             throw new IllegalArgumentException("Cannot delete more than 50 messages at once");
         }
 
-        User currentUser = userService.getUser();
-
-        // Check if there's existing cached deletion
-        Optional<DeletedMessageInfo> existingCache = messageCacheService.getDeletedMessages(
-                currentUser.getId(),
-                conversationId
-        );
-
-        if (existingCache.isPresent()) {
-            // Append to existing cache and refresh TTL
-            messageCacheService.appendDeletedMessages(
-                    currentUser.getId(),
-                    conversationId,
-                    request.getMessageIds()
-            );
-        }
-
-        // Use the same soft delete logic
+        // Same soft delete logic: the undo buffer merges with any pending deletion and refreshes TTL
         softDeleteMessages(conversationId, request);
     }
 
@@ -0,0 +1,17 @@
+package com.iseeyou.fortunetelling.service.moderation;
+
+import com.iseeyou.fortunetelling.dto.Internal.ModerationResult;
+
+public interface ModerationService {
+    /**
+     * Screens text against the phrase list. Never throws for content; callers decide how to apply the action.
+     * @param source where the text comes from (message, service_package, report), used for logs and metrics
+     */
+    ModerationResult screen(String text, String source);
+
+    /**
+     * Screens and enforces: BLOCK throws IllegalArgumentException, MASK returns the masked text,
+     * FLAG and ALLOW return the text unchanged.
+     */
+    String enforce(String text, String source);
+}
@@ -0,0 +1,157 @@
+package com.iseeyou.fortunetelling.service.moderation.impl;
+
+import com.iseeyou.fortunetelling.dto.Internal.ModerationResult;
+import com.iseeyou.fortunetelling.service.moderation.ModerationService;
+import com.iseeyou.fortunetelling.util.Constants;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.Resource;
+import org.springframework.core.io.ResourceLoader;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class ModerationServiceImpl implements ModerationService {
+
+    private final ResourceLoader resourceLoader;
+    private final MeterRegistry meterRegistry;
+
+    @Value("${app.moderation.enabled:true}")
+    private boolean enabled;
+
+    @Value("${app.moderation.phrases-location:classpath:moderation/banned-phrases.txt}")
+    private String phrasesLocation;
+
+    // Swapped atomically on reload, scans in flight keep using the previous automaton
+    private volatile PhraseAutomaton automaton = new PhraseAutomaton(Collections.emptyMap());
+    private volatile long loadedLastModified = -1;
+
+    @PostConstruct
+    public void init() {
+        reloadIfChanged();
+    }
+
+    @Scheduled(fixedDelayString = "${app.moderation.reload-interval-ms:30000}")
+    public void reloadIfChanged() {
+        Resource resource = resourceLoader.getResource(phrasesLocation);
+        if (!resource.exists()) {
+            log.warn("Moderation phrase list not found at {}", phrasesLocation);
+            return;
+        }
+
+        try {
+            long lastModified = resource.isFile() ? resource.lastModified() : 0;
+            if (lastModified == loadedLastModified) {
+                return;
+            }
+            PhraseAutomaton reloaded = new PhraseAutomaton(readPhrases(resource));
+            automaton = reloaded;
+            loadedLastModified = lastModified;
+            log.info("Loaded {} moderation phrases from {}", reloaded.size(), phrasesLocation);
+        } catch (IOException | IllegalArgumentException e) {
+            // Giữ danh sách cũ nếu file mới bị lỗi
+            log.error("Failed to load moderation phrases from {}, keeping previous list", phrasesLocation, e);
+        }
+    }
+
+    @Override
+    public ModerationResult screen(String text, String source) {
+        if (!enabled || text == null || text.isEmpty()) {
+            return ModerationResult.builder()
+                    .action(Constants.ModerationActionEnum.ALLOW)
+                    .maskedText(text)
+                    .matchedPhrases(Collections.emptyList())
+                    .build();
+        }
+
+        // NFC so that each Vietnamese letter is one char and positions map 1:1 onto the folded text
+        String normalized = Normalizer.normalize(text, Normalizer.Form.NFC);
+        List<PhraseAutomaton.Match> matches = automaton.scan(normalized);
+
+        Constants.ModerationActionEnum action = Constants.ModerationActionEnum.ALLOW;
+        List<String> phrases = new ArrayList<>(matches.size());
+        char[] masked = null;
+        for (PhraseAutomaton.Match match : matches) {
+            phrases.add(match.phrase);
+            if (match.action.compareTo(action) > 0) {
+                action = match.action;
+            }
+            if (match.action.compareTo(Constants.ModerationActionEnum.MASK) >= 0) {
+                if (masked == null) {
+                    masked = normalized.toCharArray();
+                }
+                for (int i = match.start; i < match.end; i++) {
+                    if (!Character.isWhitespace(masked[i])) {
+                        masked[i] = '*';
+                    }
+                }
+            }
+        }
+
+        if (action != Constants.ModerationActionEnum.ALLOW) {
+            meterRegistry.counter("moderation.matches", "source", source, "action", action.getValue()).increment();
+        }
+
+        return ModerationResult.builder()
+                .action(action)
+                .maskedText(masked != null ? new String(masked) : normalized)
+                .matchedPhrases(phrases)
+                .build();
+    }
+
+    @Override
+    public String enforce(String text, String source) {
+        ModerationResult result = screen(text, source);
+        switch (result.getAction()) {
+            case BLOCK:
+                log.warn("Blocked {} content matching {}", source, result.getMatchedPhrases());
+                throw new IllegalArgumentException("Content contains prohibited phrases");
+            case MASK:
+                log.info("Masked {} content matching {}", source, result.getMatchedPhrases());
+                return result.getMaskedText();
+            case FLAG:
+                log.warn("Flagged {} content matching {}", source, result.getMatchedPhrases());
+                return result.getMaskedText();
+            default:
+                return result.getMaskedText();
+        }
+    }
+
+    private Map<String, Constants.ModerationActionEnum> readPhrases(Resource resource) throws IOException {
+        Map<String, Constants.ModerationActionEnum> phrases = new LinkedHashMap<>();
+        try (BufferedReader reader = new BufferedReader(
+                new InputStreamReader(resource.getInputStream(), StandardCharsets.UTF_8))) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                line = line.trim();
+                if (line.isEmpty() || line.startsWith("#")) {
+                    continue;
+                }
+                int separator = line.lastIndexOf('|');
+                if (separator < 0) {
+                    phrases.put(line, Constants.ModerationActionEnum.MASK);
+                } else {
+                    phrases.put(line.substring(0, separator).trim(),
+                            Constants.ModerationActionEnum.get(line.substring(separator + 1).trim()));
+                }
+            }
+        }
+        return phrases;
+    }
+}
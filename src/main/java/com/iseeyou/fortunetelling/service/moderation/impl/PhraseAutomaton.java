@@ -0,0 +1,155 @@
+package com.iseeyou.fortunetelling.service.moderation.impl;
+
+import com.iseeyou.fortunetelling.util.Constants;
+import com.iseeyou.fortunetelling.util.TextFolding;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Aho-Corasick automaton over folded (lowercase, diacritic-free) phrases.
+ * Immutable once built, so one instance can be shared by all request threads and swapped on reload.
+ * Scanning is a single pass over the text: O(text length + number of matches).
+ */
+final class PhraseAutomaton {
+
+    static final class Match {
+        final int start;
+        final int end;  // exclusive
+        final String phrase;
+        final Constants.ModerationActionEnum action;
+
+        Match(int start, int end, String phrase, Constants.ModerationActionEnum action) {
+            this.start = start;
+            this.end = end;
+            this.phrase = phrase;
+            this.action = action;
+        }
+    }
+
+    private static final class Node {
+        final Map<Character, Integer> next = new HashMap<>();
+        int fail;
+        // Index into outputs of the phrase ending here, -1 if none
+        int output = -1;
+        // Nearest node on the fail chain that has an output, -1 if none
+        int dictLink = -1;
+    }
+
+    private final List<Node> nodes = new ArrayList<>();
+    private final List<String> phrases = new ArrayList<>();
+    private final List<Constants.ModerationActionEnum> actions = new ArrayList<>();
+
+    PhraseAutomaton(Map<String, Constants.ModerationActionEnum> phraseActions) {
+        nodes.add(new Node());
+        for (Map.Entry<String, Constants.ModerationActionEnum> entry : phraseActions.entrySet()) {
+            String folded = TextFolding.fold(entry.getKey()).trim();
+            if (!folded.isEmpty()) {
+                insert(folded, entry.getValue());
+            }
+        }
+        buildFailLinks();
+    }
+
+    int size() {
+        return phrases.size();
+    }
+
+    /**
+     * Returns every whole-word occurrence of a phrase. Positions refer to the original text
+     * because folding maps each char to exactly one char.
+     */
+    List<Match> scan(String text) {
+        List<Match> matches = new ArrayList<>();
+        if (text == null || text.isEmpty() || phrases.isEmpty()) {
+            return matches;
+        }
+
+        char[] folded = TextFolding.foldChars(text);
+        int state = 0;
+        for (int i = 0; i < folded.length; i++) {
+            char c = folded[i];
+            while (state != 0 && !nodes.get(state).next.containsKey(c)) {
+                state = nodes.get(state).fail;
+            }
+            state = nodes.get(state).next.getOrDefault(c, 0);
+
+            int candidate = nodes.get(state).output >= 0 ? state : nodes.get(state).dictLink;
+            while (candidate >= 0) {
+                int phraseIndex = nodes.get(candidate).output;
+                String phrase = phrases.get(phraseIndex);
+                int start = i - phrase.length() + 1;
+                int end = i + 1;
+                // Chỉ match nguyên từ, tránh false positive kiểu "class" chứa "ass"
+                if (isBoundary(folded, start - 1) && isBoundary(folded, end)) {
+                    matches.add(new Match(start, end, phrase, actions.get(phraseIndex)));
+                }
+                candidate = nodes.get(candidate).dictLink;
+            }
+        }
+        return matches;
+    }
+
+    private static boolean isBoundary(char[] text, int index) {
+        return index < 0 || index >= text.length || !Character.isLetterOrDigit(text[index]);
+    }
+
+    private void insert(String phrase, Constants.ModerationActionEnum action) {
+        int state = 0;
+        for (char c : phrase.toCharArray()) {
+            Integer next = nodes.get(state).next.get(c);
+            if (next == null) {
+                nodes.add(new Node());
+                next = nodes.size() - 1;
+                nodes.get(state).next.put(c, next);
+            }
+            state = next;
+        }
+
+        Node node = nodes.get(state);
+        if (node.output >= 0) {
+            // Trùng phrase: giữ action mạnh hơn
+            if (action.compareTo(actions.get(node.output)) > 0) {
+                actions.set(node.output, action);
+            }
+            return;
+        }
+        node.output = phrases.size();
+        phrases.add(phrase);
+        actions.add(action);
+    }
+
+    private void buildFailLinks() {
+        Deque<Integer> queue = new ArrayDeque<>();
+        for (int child : nodes.get(0).next.values()) {
+            nodes.get(child).fail = 0;
+            queue.add(child);
+        }
+
+        while (!queue.isEmpty()) {
+            int state = queue.poll();
+            Node node = nodes.get(state);
+            for (Map.Entry<Character, Integer> edge : node.next.entrySet()) {
+                char c = edge.getKey();
+                int child = edge.getValue();
+
+                int fail = node.fail;
+                while (fail != 0 && !nodes.get(fail).next.containsKey(c)) {
+                    fail = nodes.get(fail).fail;
+                }
+                Integer target = nodes.get(fail).next.get(c);
+                int childFail = (target != null && target != child) ? target : 0;
+
+                Node childNode = nodes.get(child);
+                childNode.fail = childFail;
+                Node failNode = nodes.get(childFail);
+                childNode.dictLink = failNode.output >= 0 ? childFail : failNode.dictLink;
+                queue.add(child);
+            }
+        }
+    }
+}
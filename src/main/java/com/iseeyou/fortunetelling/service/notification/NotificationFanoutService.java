@@ -0,0 +1,21 @@
+package com.iseeyou.fortunetelling.service.notification;
+
+import com.iseeyou.fortunetelling.dto.request.notification.NotificationBroadcastRequest;
+import com.iseeyou.fortunetelling.dto.request.notification.NotificationBulkCreateRequest;
+import com.iseeyou.fortunetelling.dto.response.notification.NotificationBroadcastResponse;
+import com.iseeyou.fortunetelling.dto.response.notification.NotificationFanoutJobResponse;
+import com.iseeyou.fortunetelling.entity.user.User;
+
+import java.util.UUID;
+
+public interface NotificationFanoutService {
+    // Stores a fan-out job for the distinct recipients; the delivered count is on the job once it has run
+    NotificationFanoutJobResponse queueFanOut(NotificationBulkCreateRequest request);
+    NotificationFanoutJobResponse getFanOutJob(UUID jobId);
+    NotificationBroadcastResponse broadcast(NotificationBroadcastRequest request);
+    // Runs due fan-out jobs (and those left by a dead instance); returns the number of jobs claimed
+    int processDueJobs();
+    // Copies pending broadcasts into the user's inbox, called before reading notifications.
+    // Returns the number of notifications created
+    int materializeBroadcasts(User user);
+}
@@ -0,0 +1,20 @@
+package com.iseeyou.fortunetelling.service.notification;
+
+import com.iseeyou.fortunetelling.dto.response.notification.NotificationResponse;
+
+import java.util.Collection;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+public interface NotificationPresenceService {
+    String getNodeId();
+    // Records a new notification socket / SSE stream on this node right away, without waiting for the heartbeat
+    void userConnected(UUID userId);
+    // Users with a notification connection on some node, grouped by node id; offline users are left out
+    Map<String, Set<UUID>> groupByNode(Collection<UUID> userIds);
+    // Every online user, grouped by node id
+    Map<String, Set<UUID>> getOnlineUsersByNode();
+    // Pushes each notification on the node its recipient is connected to. Returns the number of recipients online
+    int deliver(Map<UUID, NotificationResponse> notificationsByRecipient);
+}
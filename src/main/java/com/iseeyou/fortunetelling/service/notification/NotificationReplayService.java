@@ -0,0 +1,19 @@
+package com.iseeyou.fortunetelling.service.notification;
+
+import com.iseeyou.fortunetelling.dto.response.notification.NotificationReplayResponse;
+import com.iseeyou.fortunetelling.dto.response.notification.NotificationResponse;
+
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.IntSupplier;
+
+public interface NotificationReplayService {
+    // Appends to the recipient's replay stream after commit, then pushes it on whichever node the recipient is connected to
+    void publish(UUID recipientId, NotificationResponse notification);
+    // Same for a batch with one notification per recipient, appended in a single pipeline
+    void publishAll(Map<UUID, NotificationResponse> notificationsByRecipient);
+    // Everything the user missed after lastEventId; null lastEventId only returns the current cursor.
+    // materializePending copies pending broadcasts into the inbox and returns how many it created
+    CompletableFuture<NotificationReplayResponse> replay(UUID userId, String lastEventId, IntSupplier materializePending);
+}
@@ -0,0 +1,10 @@
+package com.iseeyou.fortunetelling.service.notification;
+
+public interface NotificationRetentionService {
+    /**
+     * Purges old read notifications, compacts old unread ones into a digest per user, trims users over the
+     * per-user cap and drops broadcasts nobody references anymore. Work is chunked and bounded per run.
+     * @return number of notification rows removed
+     */
+    int applyRetention();
+}
@@ -5,6 +5,7 @@ import com.iseeyou.fortunetelling.entity.Notification;
 import com.iseeyou.fortunetelling.util.Constants;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
 import java.util.List;
 import java.util.UUID;
@@ -17,6 +18,8 @@ public interface NotificationService {
 
     Notification findById(UUID id);
     Long getUnreadCount();
+    // SSE stream of my notifications, resuming after lastEventId
+    SseEmitter openNotificationStream(String lastEventId);
 
     Notification createNotification(NotificationCreateRequest request);
     void markAsRead(UUID notificationId);
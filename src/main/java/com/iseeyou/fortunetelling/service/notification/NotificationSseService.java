@@ -0,0 +1,21 @@
+package com.iseeyou.fortunetelling.service.notification;
+
+import com.iseeyou.fortunetelling.dto.response.notification.NotificationReplayResponse;
+import com.iseeyou.fortunetelling.dto.response.notification.NotificationResponse;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Supplier;
+
+public interface NotificationSseService {
+    // Opens an event stream. The replay starts once the connection is registered, and live events
+    // are held back until it has been queued
+    SseEmitter open(UUID userId, Supplier<CompletableFuture<NotificationReplayResponse>> replay);
+    void sendNotificationsToUsers(Map<UUID, NotificationResponse> notificationsByUser);
+    // Coalesced like the socket event, a slow connection only gets the newest count
+    void sendUnreadCountToUser(UUID userId, long unreadCount);
+    Set<UUID> getConnectedUserIds();
+}
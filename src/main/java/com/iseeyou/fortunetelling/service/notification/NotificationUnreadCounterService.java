@@ -0,0 +1,21 @@
+package com.iseeyou.fortunetelling.service.notification;
+
+import java.util.Collection;
+import java.util.UUID;
+import java.util.function.LongSupplier;
+
+public interface NotificationUnreadCounterService {
+    // Served from Redis; recount (database) only runs when the counter is missing or stale
+    long getUnreadCount(UUID userId, LongSupplier recount);
+    // True when the user's counter was recounted (broadcasts materialized) after the latest broadcast.
+    // False when it is stale, missing or Redis is down: the caller has to materialize
+    boolean hasSeenLatestBroadcast(UUID userId);
+    void adjust(UUID userId, long delta);
+    void adjustAll(Collection<UUID> userIds, long delta);
+    void reset(UUID userId);
+    void invalidate(UUID userId);
+    // A new broadcast changes everyone's count: counters are recomputed once on their next read
+    void invalidateAll();
+    // Compares cached counters with the database and repairs drift
+    void reconcile(Collection<UUID> userIds);
+}
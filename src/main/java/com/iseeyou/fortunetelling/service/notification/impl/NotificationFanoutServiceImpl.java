@@ -0,0 +1,435 @@
+package com.iseeyou.fortunetelling.service.notification.impl;
+
+import com.iseeyou.fortunetelling.dto.request.notification.NotificationBroadcastRequest;
+import com.iseeyou.fortunetelling.dto.request.notification.NotificationBulkCreateRequest;
+import com.iseeyou.fortunetelling.dto.response.notification.NotificationBroadcastResponse;
+import com.iseeyou.fortunetelling.dto.response.notification.NotificationFanoutJobResponse;
+import com.iseeyou.fortunetelling.dto.response.notification.NotificationResponse;
+import com.iseeyou.fortunetelling.entity.Notification;
+import com.iseeyou.fortunetelling.entity.NotificationBroadcast;
+import com.iseeyou.fortunetelling.entity.NotificationFanoutJob;
+import com.iseeyou.fortunetelling.entity.user.User;
+import com.iseeyou.fortunetelling.exception.NotFoundException;
+import com.iseeyou.fortunetelling.exception.UnauthorizedException;
+import com.iseeyou.fortunetelling.repository.notification.NotificationBroadcastRepository;
+import com.iseeyou.fortunetelling.repository.notification.NotificationFanoutJobRepository;
+import com.iseeyou.fortunetelling.repository.notification.NotificationRepository;
+import com.iseeyou.fortunetelling.repository.user.UserRepository;
+import com.iseeyou.fortunetelling.service.notification.NotificationFanoutService;
+import com.iseeyou.fortunetelling.service.notification.NotificationPresenceService;
+import com.iseeyou.fortunetelling.service.notification.NotificationReplayService;
+import com.iseeyou.fortunetelling.service.notification.NotificationUnreadCounterService;
+import com.iseeyou.fortunetelling.service.user.UserService;
+import com.iseeyou.fortunetelling.util.Constants;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Bulk notifications and broadcast pushes run as notification_fanout_job rows, claimed and leased like refund jobs,
+ * so a restart or a crashed instance does not lose them.
+ * <ul>
+ *     <li>Recipient list: each chunk of notifications commits with the job's progress, a retry resumes after the
+ *     last committed chunk and never inserts a recipient twice.</li>
+ *     <li>Broadcast: the online users (all nodes, from the presence registry) get their copy materialized and
+ *     pushed; a retry materializes again harmlessly, clients de-duplicate a repeated push by id.</li>
+ * </ul>
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class NotificationFanoutServiceImpl implements NotificationFanoutService {
+
+    private static final int MAX_ERROR_LENGTH = 500;
+
+    private final NotificationRepository notificationRepository;
+    private final NotificationBroadcastRepository notificationBroadcastRepository;
+    private final NotificationFanoutJobRepository notificationFanoutJobRepository;
+    private final UserRepository userRepository;
+    private final UserService userService;
+    private final NotificationPresenceService notificationPresenceService;
+    private final NotificationUnreadCounterService notificationUnreadCounterService;
+    private final NotificationReplayService notificationReplayService;
+    private final TransactionTemplate transactionTemplate;
+
+    private ExecutorService fanoutExecutor;
+
+    // Rows per transaction; inserts inside a chunk go out as JDBC batches (hibernate.jdbc.batch_size)
+    @Value("${app.notification.fanout.chunk-size:1000}")
+    private int chunkSize;
+
+    @Value("${app.notification.fanout.max-recipients:100000}")
+    private int maxRecipients;
+
+    // Jobs running side by side, per instance
+    @Value("${app.notification.fanout.threads:2}")
+    private int fanoutThreads;
+
+    @Value("${app.notification.fanout.max-attempts:5}")
+    private int maxAttempts;
+
+    @Value("${app.notification.fanout.backoff-base-seconds:10}")
+    private long backoffBaseSeconds;
+
+    @Value("${app.notification.fanout.backoff-max-seconds:600}")
+    private long backoffMaxSeconds;
+
+    // Renewed with every chunk, so it only has to outlast one chunk
+    @Value("${app.notification.fanout.lease-seconds:120}")
+    private long leaseSeconds;
+
+    // Older broadcasts are not copied anymore; must stay below the retention windows or purged copies come back
+    @Value("${app.notification.retention.broadcast-days:30}")
+    private int broadcastDays;
+
+    @PostConstruct
+    public void init() {
+        fanoutExecutor = Executors.newFixedThreadPool(fanoutThreads);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        fanoutExecutor.shutdown();
+    }
+
+    @Override
+    @Transactional
+    public NotificationFanoutJobResponse queueFanOut(NotificationBulkCreateRequest request) {
+        User admin = requireAdmin();
+
+        UUID[] recipientIds = new LinkedHashSet<>(request.getRecipientIds()).toArray(new UUID[0]);
+        if (recipientIds.length > maxRecipients) {
+            throw new IllegalArgumentException("Too many recipients, maximum is " + maxRecipients +
+                    ". Use a broadcast to reach a whole audience.");
+        }
+
+        // Request thread only validates and stores the job, inserts and pushes run on the fan-out workers
+        NotificationFanoutJob job = notificationFanoutJobRepository.save(NotificationFanoutJob.builder()
+                .notificationType(request.getNotificationType())
+                .notificationTitle(request.getNotificationTitle())
+                .notificationBody(request.getNotificationBody())
+                .recipientIds(recipientIds)
+                .totalRecipients(recipientIds.length)
+                .nextAttemptAt(LocalDateTime.now())
+                .createdBy(admin)
+                .build());
+        log.info("Queued notification fan-out job {} '{}' to {} recipients",
+                job.getId(), request.getNotificationTitle(), recipientIds.length);
+        return toResponse(job);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public NotificationFanoutJobResponse getFanOutJob(UUID jobId) {
+        requireAdmin();
+        return notificationFanoutJobRepository.findById(jobId)
+                .map(this::toResponse)
+                .orElseThrow(() -> new NotFoundException("Notification fan-out job not found with id: " + jobId));
+    }
+
+    @Override
+    @Transactional
+    public NotificationBroadcastResponse broadcast(NotificationBroadcastRequest request) {
+        User admin = requireAdmin();
+
+        NotificationBroadcast broadcast = notificationBroadcastRepository.save(NotificationBroadcast.builder()
+                .audience(request.getAudience())
+                .notificationType(request.getNotificationType())
+                .notificationTitle(request.getNotificationTitle())
+                .notificationBody(request.getNotificationBody())
+                .createdBy(admin)
+                .build());
+        // Offline users get it on their next read, online users are served by the job right away
+        notificationFanoutJobRepository.save(NotificationFanoutJob.builder()
+                .broadcastId(broadcast.getId())
+                .nextAttemptAt(LocalDateTime.now())
+                .createdBy(admin)
+                .build());
+        log.info("Created {} broadcast {}", broadcast.getAudience(), broadcast.getId());
+        // Cached counters don't include it yet, every user recounts (and materializes) on the next read
+        notificationUnreadCounterService.invalidateAll();
+
+        return NotificationBroadcastResponse.builder()
+                .id(broadcast.getId())
+                .createdAt(broadcast.getCreatedAt())
+                .updatedAt(broadcast.getUpdatedAt())
+                .audience(broadcast.getAudience())
+                .notificationType(broadcast.getNotificationType())
+                .notificationTitle(broadcast.getNotificationTitle())
+                .notificationBody(broadcast.getNotificationBody())
+                .build();
+    }
+
+    @Override
+    public int processDueJobs() {
+        LocalDateTime now = LocalDateTime.now();
+        List<Object[]> claimed = notificationFanoutJobRepository.claimDue(now, now.plusSeconds(leaseSeconds),
+                fanoutThreads);
+        if (claimed.isEmpty()) {
+            return 0;
+        }
+
+        List<Future<?>> running = new ArrayList<>(claimed.size());
+        for (Object[] row : claimed) {
+            UUID jobId = (UUID) row[0];
+            int attempts = ((Number) row[1]).intValue();
+            running.add(fanoutExecutor.submit(() -> run(jobId, attempts)));
+        }
+        for (Future<?> future : running) {
+            try {
+                future.get();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            } catch (ExecutionException e) {
+                log.error("Notification fan-out job crashed", e.getCause());
+            }
+        }
+        return claimed.size();
+    }
+
+    @Override
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    public int materializeBroadcasts(User user) {
+        List<String> audiences = audiencesOf(user.getRole());
+        LocalDateTime windowStart = LocalDateTime.now().minusDays(broadcastDays);
+        LocalDateTime since = user.getCreatedAt().isAfter(windowStart) ? user.getCreatedAt() : windowStart;
+        int created = notificationBroadcastRepository.materializeForUser(user.getId(), audiences, since);
+        if (created > 0) {
+            log.debug("Materialized {} broadcasts for user {}", created, user.getId());
+        }
+        return created;
+    }
+
+    private void run(UUID jobId, int attempts) {
+        long startedAt = System.currentTimeMillis();
+        try {
+            NotificationFanoutJob job = notificationFanoutJobRepository.findById(jobId)
+                    .orElseThrow(() -> new NotFoundException("Notification fan-out job not found with id: " + jobId));
+            boolean owned = job.getBroadcastId() != null
+                    ? deliverBroadcastToOnlineUsers(job, attempts)
+                    : deliverToRecipients(job, attempts);
+            if (!owned) {
+                log.warn("Notification fan-out job {} was reclaimed before attempt {} finished", jobId, attempts);
+                return;
+            }
+            finishQuietly(jobId, attempts, Constants.FanoutJobStatusEnum.SUCCEEDED, null, LocalDateTime.now());
+            log.info("Notification fan-out job {} finished in {} ms", jobId, System.currentTimeMillis() - startedAt);
+        } catch (Exception e) {
+            LocalDateTime now = LocalDateTime.now();
+            if (attempts >= maxAttempts) {
+                log.error("Notification fan-out job {} failed for good after {} attempts", jobId, attempts, e);
+                finishQuietly(jobId, attempts, Constants.FanoutJobStatusEnum.FAILED, e.getMessage(), now);
+            } else {
+                LocalDateTime next = now.plusSeconds(backoffSeconds(attempts));
+                log.warn("Notification fan-out job {} failed (attempt {}), resuming at {}: {}",
+                        jobId, attempts, next, e.getMessage());
+                finishQuietly(jobId, attempts, Constants.FanoutJobStatusEnum.PENDING, e.getMessage(), next);
+            }
+        }
+    }
+
+    // Returns false when the lease was lost to another worker
+    private boolean deliverToRecipients(NotificationFanoutJob job, int attempts) {
+        List<UUID> recipientIds = Arrays.asList(job.getRecipientIds());
+        int delivered = job.getDeliveredCount();
+        for (int from = job.getProcessedRecipients(); from < recipientIds.size(); from += chunkSize) {
+            int to = Math.min(from + chunkSize, recipientIds.size());
+            List<UUID> chunk = recipientIds.subList(from, to);
+            int deliveredBefore = delivered;
+
+            Integer saved = transactionTemplate.execute(status -> {
+                // Unknown ids are dropped instead of failing the whole chunk on the FK
+                List<Notification> notifications = new ArrayList<>(chunk.size());
+                for (UUID recipientId : userRepository.findExistingIds(chunk)) {
+                    notifications.add(Notification.builder()
+                            .notificationType(job.getNotificationType())
+                            .notificationTitle(job.getNotificationTitle())
+                            .notificationBody(job.getNotificationBody())
+                            .recipient(userRepository.getReferenceById(recipientId))
+                            .isRead(false)
+                            .build());
+                }
+                List<Notification> inserted = notificationRepository.saveAll(notifications);
+                if (!recordProgress(job, attempts, recipientIds.size(), to, deliveredBefore + inserted.size())) {
+                    status.setRollbackOnly();
+                    return null;
+                }
+                // Both run after this chunk commits
+                notificationUnreadCounterService.adjustAll(
+                        inserted.stream().map(n -> n.getRecipient().getId()).toList(), 1);
+                publishToRecipients(inserted);
+                return inserted.size();
+            });
+            if (saved == null) {
+                return false;
+            }
+            delivered += saved;
+        }
+        log.info("Notification fan-out job {} '{}' delivered to {}/{} recipients",
+                job.getId(), job.getNotificationTitle(), delivered, recipientIds.size());
+        return true;
+    }
+
+    private boolean deliverBroadcastToOnlineUsers(NotificationFanoutJob job, int attempts) {
+        NotificationBroadcast broadcast = notificationBroadcastRepository.findById(job.getBroadcastId()).orElse(null);
+        if (broadcast == null) {
+            // Purged meanwhile, nothing left to push
+            return true;
+        }
+        Set<Constants.RoleEnum> roles = rolesOf(broadcast.getAudience());
+
+        List<UUID> onlineUserIds = new ArrayList<>();
+        for (Set<UUID> nodeUsers : notificationPresenceService.getOnlineUsersByNode().values()) {
+            onlineUserIds.addAll(nodeUsers);
+        }
+        int delivered = 0;
+        for (int from = 0; from < onlineUserIds.size(); from += chunkSize) {
+            int to = Math.min(from + chunkSize, onlineUserIds.size());
+            List<UUID> chunk = onlineUserIds.subList(from, to);
+            int deliveredBefore = delivered;
+
+            Integer pushed = transactionTemplate.execute(status -> {
+                List<UUID> eligible = userRepository.findIdsByIdInAndRoleIn(chunk, roles);
+                List<Notification> materialized = List.of();
+                if (!eligible.isEmpty()) {
+                    notificationBroadcastRepository.materializeForUsers(broadcast.getId(), eligible);
+                    materialized = notificationRepository.findAllByBroadcastIdAndRecipientIds(broadcast.getId(), eligible);
+                }
+                if (!recordProgress(job, attempts, onlineUserIds.size(), to, deliveredBefore + materialized.size())) {
+                    status.setRollbackOnly();
+                    return null;
+                }
+                publishToRecipients(materialized);
+                return materialized.size();
+            });
+            if (pushed == null) {
+                return false;
+            }
+            delivered += pushed;
+        }
+        log.info("Broadcast {} pushed to {} online users", broadcast.getId(), delivered);
+        return true;
+    }
+
+    private boolean recordProgress(NotificationFanoutJob job, int attempts, int total, int processed, int delivered) {
+        LocalDateTime now = LocalDateTime.now();
+        return notificationFanoutJobRepository.recordProgress(job.getId(), attempts, total, processed, delivered,
+                now.plusSeconds(leaseSeconds), now) > 0;
+    }
+
+    // Every recipient gets a replay stream entry, online ones (on any node) also get the push
+    private void publishToRecipients(Collection<Notification> notifications) {
+        Map<UUID, NotificationResponse> payloads = new HashMap<>();
+        for (Notification notification : notifications) {
+            // recipient is an uninitialized proxy here, getId() does not load it
+            UUID recipientId = notification.getRecipient().getId();
+            payloads.put(recipientId, NotificationResponse.builder()
+                    .id(notification.getId())
+                    .createdAt(notification.getCreatedAt())
+                    .updatedAt(notification.getUpdatedAt())
+                    .notificationType(notification.getNotificationType())
+                    .notificationTitle(notification.getNotificationTitle())
+                    .notificationBody(notification.getNotificationBody())
+                    .isRead(false)
+                    .build());
+        }
+        notificationReplayService.publishAll(payloads);
+    }
+
+    // Nếu ghi trạng thái thất bại thì lease hết hạn và job được chạy tiếp
+    private void finishQuietly(UUID jobId, int attempts, Constants.FanoutJobStatusEnum status, String error,
+                               LocalDateTime nextAttemptAt) {
+        try {
+            Integer updated = transactionTemplate.execute(tx -> notificationFanoutJobRepository.finish(jobId, attempts,
+                    status.name(), truncate(error), nextAttemptAt, LocalDateTime.now()));
+            if (updated == null || updated == 0) {
+                log.warn("Notification fan-out job {} was reclaimed before attempt {} finished", jobId, attempts);
+            }
+        } catch (Exception e) {
+            log.error("Failed to record {} for notification fan-out job {}", status, jobId, e);
+        }
+    }
+
+    // Exponential, capped, with jitter
+    private long backoffSeconds(int attempts) {
+        long delay = backoffBaseSeconds << Math.min(attempts - 1, 20);
+        delay = Math.min(delay, backoffMaxSeconds);
+        return delay / 2 + ThreadLocalRandom.current().nextLong(delay / 2 + 1);
+    }
+
+    private NotificationFanoutJobResponse toResponse(NotificationFanoutJob job) {
+        return NotificationFanoutJobResponse.builder()
+                .id(job.getId())
+                .createdAt(job.getCreatedAt())
+                .updatedAt(job.getUpdatedAt())
+                .broadcastId(job.getBroadcastId())
+                .status(job.getStatus())
+                .totalRecipients(job.getTotalRecipients())
+                .processedRecipients(job.getProcessedRecipients())
+                .deliveredCount(job.getDeliveredCount())
+                .attempts(job.getAttempts())
+                .lastError(job.getLastError())
+                .build();
+    }
+
+    private Set<Constants.RoleEnum> rolesOf(Constants.NotificationAudienceEnum audience) {
+        switch (audience) {
+            case CUSTOMER:
+                return EnumSet.of(Constants.RoleEnum.CUSTOMER);
+            case SEER:
+                return EnumSet.of(Constants.RoleEnum.SEER, Constants.RoleEnum.UNVERIFIED_SEER);
+            default:
+                return EnumSet.allOf(Constants.RoleEnum.class);
+        }
+    }
+
+    private List<String> audiencesOf(Constants.RoleEnum role) {
+        List<String> audiences = new ArrayList<>(2);
+        audiences.add(Constants.NotificationAudienceEnum.ALL.name());
+        if (role == Constants.RoleEnum.CUSTOMER) {
+            audiences.add(Constants.NotificationAudienceEnum.CUSTOMER.name());
+        } else if (role == Constants.RoleEnum.SEER || role == Constants.RoleEnum.UNVERIFIED_SEER) {
+            audiences.add(Constants.NotificationAudienceEnum.SEER.name());
+        }
+        return audiences;
+    }
+
+    private User requireAdmin() {
+        User currentUser = userService.getUser();
+        if (!currentUser.getRole().equals(Constants.RoleEnum.ADMIN)) {
+            throw new UnauthorizedException("Only admin can send bulk notifications");
+        }
+        return currentUser;
+    }
+
+    private static String truncate(String error) {
+        if (error == null || error.length() <= MAX_ERROR_LENGTH) {
+            return error;
+        }
+        return error.substring(0, MAX_ERROR_LENGTH);
+    }
+}
@@ -0,0 +1,273 @@
+package com.iseeyou.fortunetelling.service.notification.impl;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.iseeyou.fortunetelling.dto.response.notification.NotificationResponse;
+import com.iseeyou.fortunetelling.service.notification.NotificationPresenceService;
+import com.iseeyou.fortunetelling.service.notification.NotificationSseService;
+import com.iseeyou.fortunetelling.service.socket.SocketIOService;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.core.RedisOperations;
+import org.springframework.data.redis.core.SessionCallback;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.net.InetAddress;
+import java.net.UnknownHostException;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Which node holds each user's notification connections, so a push reaches users connected to another instance.
+ * <ul>
+ *     <li>Every node keeps a Redis set of its connected users, rewritten from its local connections on each
+ *     heartbeat and expiring with it: a crashed node drops out after the TTL, a closed connection at the next
+ *     heartbeat.</li>
+ *     <li>Live nodes are a sorted set scored by their last heartbeat.</li>
+ *     <li>Pushes for another node go through that node's pub/sub channel; it delivers them to its own sockets and
+ *     SSE streams. Pub/sub is fire-and-forget, a lost push is still in the inbox and the replay stream.</li>
+ * </ul>
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class NotificationPresenceServiceImpl implements NotificationPresenceService {
+
+    private static final String NODES_KEY = "notification:presence:nodes";
+    private static final String NODE_USERS_PREFIX = "notification:presence:node:";
+    private static final String NODE_CHANNEL_PREFIX = "notification:push:";
+    private static final int WRITE_CHUNK_SIZE = 1000;
+    private static final TypeReference<Map<UUID, NotificationResponse>> PUSH_TYPE = new TypeReference<>() {
+    };
+
+    private final StringRedisTemplate stringRedisTemplate;
+    private final RedisMessageListenerContainer redisMessageListenerContainer;
+    private final ObjectMapper objectMapper;
+    private final SocketIOService socketIOService;
+    private final NotificationSseService notificationSseService;
+
+    // Blank: host name plus a random suffix, so a restarted node never inherits the sockets of its predecessor
+    @Value("${app.node-id:}")
+    private String configuredNodeId;
+
+    // Must stay well above the heartbeat interval
+    @Value("${app.notification.presence.ttl-seconds:45}")
+    private long ttlSeconds;
+
+    private String nodeId;
+    private MessageListener pushListener;
+
+    @PostConstruct
+    public void init() {
+        nodeId = configuredNodeId == null || configuredNodeId.isBlank() ? defaultNodeId() : configuredNodeId;
+        pushListener = this::onPush;
+        redisMessageListenerContainer.addMessageListener(pushListener, new ChannelTopic(channel(nodeId)));
+        log.info("Notification presence registered as node {}", nodeId);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        redisMessageListenerContainer.removeMessageListener(pushListener);
+        try {
+            stringRedisTemplate.opsForZSet().remove(NODES_KEY, nodeId);
+            stringRedisTemplate.delete(nodeUsersKey(nodeId));
+        } catch (Exception e) {
+            log.debug("Could not deregister node {}: {}", nodeId, e.getMessage());
+        }
+    }
+
+    @Override
+    public String getNodeId() {
+        return nodeId;
+    }
+
+    @Override
+    public void userConnected(UUID userId) {
+        try {
+            stringRedisTemplate.opsForSet().add(nodeUsersKey(nodeId), userId.toString());
+        } catch (Exception e) {
+            // Picked up by the next heartbeat
+            log.debug("Presence update failed for user {}: {}", userId, e.getMessage());
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${app.notification.presence.heartbeat-interval-ms:15000}")
+    public void heartbeat() {
+        Set<UUID> local = localUserIds();
+        List<String> members = local.stream().map(UUID::toString).toList();
+        String key = nodeUsersKey(nodeId);
+        long now = System.currentTimeMillis();
+        try {
+            stringRedisTemplate.execute(new SessionCallback<List<Object>>() {
+                @Override
+                @SuppressWarnings({"unchecked", "rawtypes"})
+                public List<Object> execute(RedisOperations operations) throws DataAccessException {
+                    operations.multi();
+                    operations.delete(key);
+                    for (int from = 0; from < members.size(); from += WRITE_CHUNK_SIZE) {
+                        operations.opsForSet().add(key, members.subList(from,
+                                Math.min(from + WRITE_CHUNK_SIZE, members.size())).toArray());
+                    }
+                    operations.expire(key, Duration.ofSeconds(ttlSeconds));
+                    operations.opsForZSet().add(NODES_KEY, nodeId, now);
+                    operations.opsForZSet().removeRangeByScore(NODES_KEY, 0, now - ttlSeconds * 1000);
+                    return operations.exec();
+                }
+            });
+        } catch (Exception e) {
+            log.warn("Presence heartbeat failed for node {}: {}", nodeId, e.getMessage());
+        }
+    }
+
+    @Override
+    public Map<String, Set<UUID>> groupByNode(Collection<UUID> userIds) {
+        Map<String, Set<UUID>> byNode = new HashMap<>();
+        if (userIds.isEmpty()) {
+            return byNode;
+        }
+        Object[] members = userIds.stream().map(UUID::toString).toArray();
+        for (String node : liveNodes()) {
+            // SMISMEMBER: one round trip per node whatever the number of users
+            Map<Object, Boolean> online = stringRedisTemplate.opsForSet().isMember(nodeUsersKey(node), members);
+            if (online == null) {
+                continue;
+            }
+            Set<UUID> users = new HashSet<>();
+            online.forEach((member, isOnline) -> {
+                if (Boolean.TRUE.equals(isOnline)) {
+                    users.add(UUID.fromString((String) member));
+                }
+            });
+            if (!users.isEmpty()) {
+                byNode.put(node, users);
+            }
+        }
+        return byNode;
+    }
+
+    @Override
+    public Map<String, Set<UUID>> getOnlineUsersByNode() {
+        Map<String, Set<UUID>> byNode = new HashMap<>();
+        for (String node : liveNodes()) {
+            Set<String> members = stringRedisTemplate.opsForSet().members(nodeUsersKey(node));
+            if (members != null && !members.isEmpty()) {
+                Set<UUID> users = new HashSet<>(members.size());
+                members.forEach(member -> users.add(UUID.fromString(member)));
+                byNode.put(node, users);
+            }
+        }
+        return byNode;
+    }
+
+    @Override
+    public int deliver(Map<UUID, NotificationResponse> notificationsByRecipient) {
+        if (notificationsByRecipient.isEmpty()) {
+            return 0;
+        }
+        Map<String, Set<UUID>> byNode;
+        try {
+            byNode = groupByNode(notificationsByRecipient.keySet());
+        } catch (Exception e) {
+            // Without the registry only local connections can be reached
+            log.warn("Presence lookup failed, pushing to local connections only: {}", e.getMessage());
+            pushLocally(notificationsByRecipient);
+            return 0;
+        }
+
+        int online = 0;
+        for (Map.Entry<String, Set<UUID>> entry : byNode.entrySet()) {
+            Map<UUID, NotificationResponse> payloads = new HashMap<>(entry.getValue().size());
+            for (UUID userId : entry.getValue()) {
+                payloads.put(userId, notificationsByRecipient.get(userId));
+            }
+            online += payloads.size();
+            if (entry.getKey().equals(nodeId)) {
+                pushLocally(payloads);
+            } else {
+                publishToNode(entry.getKey(), payloads);
+            }
+        }
+        log.debug("Routed {} of {} notifications to {} nodes", online, notificationsByRecipient.size(), byNode.size());
+        return online;
+    }
+
+    private void publishToNode(String node, Map<UUID, NotificationResponse> payloads) {
+        try {
+            stringRedisTemplate.convertAndSend(channel(node), objectMapper.writeValueAsString(payloads));
+        } catch (JsonProcessingException e) {
+            log.error("Failed to serialize {} notifications for node {}", payloads.size(), node, e);
+        } catch (Exception e) {
+            log.warn("Failed to publish {} notifications to node {}: {}", payloads.size(), node, e.getMessage());
+        }
+    }
+
+    private void onPush(Message message, byte[] pattern) {
+        try {
+            Map<UUID, NotificationResponse> payloads = objectMapper.readValue(
+                    new String(message.getBody(), StandardCharsets.UTF_8), PUSH_TYPE);
+            pushLocally(payloads);
+        } catch (Exception e) {
+            log.warn("Dropping unreadable notification push: {}", e.getMessage());
+        }
+    }
+
+    // Users who disconnected since the last heartbeat are skipped by both senders
+    private void pushLocally(Map<UUID, NotificationResponse> payloads) {
+        socketIOService.sendNotificationsToUsers(payloads);
+        notificationSseService.sendNotificationsToUsers(payloads);
+    }
+
+    private Set<UUID> localUserIds() {
+        Set<UUID> userIds = socketIOService.getOnlineUserIds();
+        userIds.addAll(notificationSseService.getConnectedUserIds());
+        return userIds;
+    }
+
+    private List<String> liveNodes() {
+        Set<String> nodes = stringRedisTemplate.opsForZSet().rangeByScore(NODES_KEY,
+                System.currentTimeMillis() - ttlSeconds * 1000, Double.POSITIVE_INFINITY);
+        List<String> live = nodes == null ? new ArrayList<>() : new ArrayList<>(nodes);
+        // This node counts before its first heartbeat
+        if (!live.contains(nodeId)) {
+            live.add(nodeId);
+        }
+        return live;
+    }
+
+    private static String defaultNodeId() {
+        String host;
+        try {
+            host = InetAddress.getLocalHost().getHostName();
+        } catch (UnknownHostException e) {
+            host = "node";
+        }
+        return host + "-" + UUID.randomUUID().toString().substring(0, 8);
+    }
+
+    private static String nodeUsersKey(String node) {
+        return NODE_USERS_PREFIX + node;
+    }
+
+    private static String channel(String node) {
+        return NODE_CHANNEL_PREFIX + node;
+    }
+}
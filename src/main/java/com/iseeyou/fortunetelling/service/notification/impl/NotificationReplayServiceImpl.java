@@ -0,0 +1,282 @@
+package com.iseeyou.fortunetelling.service.notification.impl;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.iseeyou.fortunetelling.dto.response.notification.NotificationReplayResponse;
+import com.iseeyou.fortunetelling.dto.response.notification.NotificationResponse;
+import com.iseeyou.fortunetelling.entity.Notification;
+import com.iseeyou.fortunetelling.repository.notification.NotificationRepository;
+import com.iseeyou.fortunetelling.service.notification.NotificationPresenceService;
+import com.iseeyou.fortunetelling.service.notification.NotificationReplayService;
+import com.iseeyou.fortunetelling.service.notification.NotificationUnreadCounterService;
+import com.iseeyou.fortunetelling.util.TransactionHooks;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Range;
+import org.springframework.data.redis.connection.Limit;
+import org.springframework.data.redis.connection.RedisStreamCommands.XAddOptions;
+import org.springframework.data.redis.connection.StringRedisConnection;
+import org.springframework.data.redis.connection.stream.MapRecord;
+import org.springframework.data.redis.connection.stream.RecordId;
+import org.springframework.data.redis.connection.stream.StreamRecords;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.stereotype.Service;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.IntSupplier;
+
+/**
+ * Per-user capped Redis Stream of the notifications pushed to that user. The stream id is the
+ * client's resume cursor: a reconnect reads the entries after it instead of reloading the list.
+ * When the stream no longer reaches back to the cursor (trimmed, expired, or broadcasts were
+ * materialized meanwhile) the gap is served from the database, by created_at.
+ * Clients de-duplicate by notification id, a live push may overtake the replay of the same item.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class NotificationReplayServiceImpl implements NotificationReplayService {
+
+    private static final String STREAM_PREFIX = "notification:stream:";
+    private static final String PAYLOAD_FIELD = "payload";
+
+    private final StringRedisTemplate stringRedisTemplate;
+    private final ObjectMapper objectMapper;
+    private final NotificationRepository notificationRepository;
+    private final NotificationPresenceService notificationPresenceService;
+    private final NotificationUnreadCounterService notificationUnreadCounterService;
+
+    private ExecutorService replayExecutor;
+
+    // Approximate trimming, the stream may hold slightly more entries
+    @Value("${app.notification.replay.max-len:200}")
+    private long maxLen;
+
+    @Value("${app.notification.replay.ttl-seconds:604800}")
+    private long ttlSeconds;
+
+    @Value("${app.notification.replay.batch-size:100}")
+    private int batchSize;
+
+    // Stream ids come from the Redis clock, created_at from the app clock
+    @Value("${app.notification.replay.clock-skew-ms:2000}")
+    private long clockSkewMs;
+
+    @Value("${app.notification.replay.threads:2}")
+    private int replayThreads;
+
+    @PostConstruct
+    public void init() {
+        replayExecutor = Executors.newFixedThreadPool(replayThreads);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        replayExecutor.shutdown();
+    }
+
+    @Override
+    public void publish(UUID recipientId, NotificationResponse notification) {
+        publishAll(Map.of(recipientId, notification));
+    }
+
+    @Override
+    public void publishAll(Map<UUID, NotificationResponse> notificationsByRecipient) {
+        if (notificationsByRecipient.isEmpty()) {
+            return;
+        }
+        TransactionHooks.afterCommit(() -> {
+            try {
+                append(notificationsByRecipient);
+            } catch (Exception e) {
+                // Push still goes out without a cursor, a later replay finds the gap and uses the database
+                log.warn("Failed to append {} notifications to replay streams: {}",
+                        notificationsByRecipient.size(), e.getMessage());
+            }
+            notificationPresenceService.deliver(notificationsByRecipient);
+        });
+    }
+
+    @Override
+    public CompletableFuture<NotificationReplayResponse> replay(UUID userId, String lastEventId,
+                                                                IntSupplier materializePending) {
+        return CompletableFuture.supplyAsync(() -> doReplay(userId, lastEventId, materializePending), replayExecutor);
+    }
+
+    private NotificationReplayResponse doReplay(UUID userId, String lastEventId, IntSupplier materializePending) {
+        String key = streamKey(userId);
+
+        // Read the head first: anything appended later reaches the client live or on the next replay
+        List<MapRecord<String, Object, Object>> newest = stringRedisTemplate.opsForStream()
+                .reverseRange(key, Range.unbounded(), Limit.limit().count(1));
+        String headId = newest == null || newest.isEmpty() ? null : newest.get(0).getId().getValue();
+
+        if (lastEventId == null || lastEventId.isBlank()) {
+            return NotificationReplayResponse.builder()
+                    .notifications(List.of())
+                    .lastEventId(headId)
+                    .complete(true)
+                    .build();
+        }
+
+        RecordId cursor;
+        try {
+            cursor = RecordId.of(lastEventId);
+        } catch (IllegalArgumentException e) {
+            log.debug("Ignoring malformed replay cursor {} from user {}", lastEventId, userId);
+            return NotificationReplayResponse.builder()
+                    .notifications(List.of())
+                    .lastEventId(headId)
+                    .complete(false)
+                    .build();
+        }
+
+        // Materialized broadcasts never went through the stream. Nothing to materialize (and no database
+        // round trip) while the user's broadcast epoch is current, the common reconnect
+        boolean materialized = !notificationUnreadCounterService.hasSeenLatestBroadcast(userId)
+                && materializePending.getAsInt() > 0;
+        if (!materialized) {
+            List<MapRecord<String, Object, Object>> oldest = stringRedisTemplate.opsForStream()
+                    .range(key, Range.unbounded(), Limit.limit().count(1));
+            if (oldest != null && !oldest.isEmpty() && compare(oldest.get(0).getId(), cursor) <= 0) {
+                return fromStream(key, lastEventId, headId);
+            }
+        }
+        return fromDatabase(userId, cursor, headId);
+    }
+
+    private NotificationReplayResponse fromStream(String key, String lastEventId, String headId) {
+        List<MapRecord<String, Object, Object>> records = stringRedisTemplate.opsForStream()
+                .range(key, Range.rightUnbounded(Range.Bound.exclusive(lastEventId)),
+                        Limit.limit().count(batchSize + 1));
+
+        List<NotificationResponse> missed = new ArrayList<>();
+        String cursor = headId;
+        for (MapRecord<String, Object, Object> record : records) {
+            if (missed.size() == batchSize) {
+                break;
+            }
+            NotificationResponse notification = readPayload((String) record.getValue().get(PAYLOAD_FIELD));
+            if (notification != null) {
+                notification.setEventId(record.getId().getValue());
+                missed.add(notification);
+            }
+            if (cursor == null || compare(record.getId(), RecordId.of(cursor)) > 0) {
+                cursor = record.getId().getValue();
+            }
+        }
+
+        return NotificationReplayResponse.builder()
+                .notifications(missed)
+                .lastEventId(cursor)
+                .complete(records.size() <= batchSize)
+                .build();
+    }
+
+    private NotificationReplayResponse fromDatabase(UUID userId, RecordId cursor, String headId) {
+        LocalDateTime since = LocalDateTime.ofInstant(
+                Instant.ofEpochMilli(cursor.getTimestamp() - clockSkewMs), ZoneId.systemDefault());
+        List<Notification> rows = notificationRepository.findCreatedSinceByRecipientId(
+                userId, since, PageRequest.of(0, batchSize + 1));
+
+        List<NotificationResponse> missed = new ArrayList<>(Math.min(rows.size(), batchSize));
+        for (Notification notification : rows.subList(0, Math.min(rows.size(), batchSize))) {
+            missed.add(toResponse(notification));
+        }
+        log.debug("Replayed {} notifications for user {} from the database", missed.size(), userId);
+
+        return NotificationReplayResponse.builder()
+                .notifications(missed)
+                .lastEventId(headId != null ? headId : cursor.getValue())
+                .complete(rows.size() <= batchSize)
+                .build();
+    }
+
+    private void append(Map<UUID, NotificationResponse> notificationsByRecipient) {
+        List<NotificationResponse> notifications = new ArrayList<>(notificationsByRecipient.size());
+        List<String> keys = new ArrayList<>(notificationsByRecipient.size());
+        List<String> payloads = new ArrayList<>(notificationsByRecipient.size());
+        for (Map.Entry<UUID, NotificationResponse> entry : notificationsByRecipient.entrySet()) {
+            String payload = writePayload(entry.getValue());
+            if (payload != null) {
+                notifications.add(entry.getValue());
+                keys.add(streamKey(entry.getKey()));
+                payloads.add(payload);
+            }
+        }
+
+        XAddOptions options = XAddOptions.maxlen(maxLen).approximateTrimming(true);
+        List<Object> results = stringRedisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+            StringRedisConnection stringConnection = (StringRedisConnection) connection;
+            for (int i = 0; i < keys.size(); i++) {
+                stringConnection.xAdd(StreamRecords.string(Map.of(PAYLOAD_FIELD, payloads.get(i)))
+                        .withStreamKey(keys.get(i)), options);
+                stringConnection.expire(keys.get(i), ttlSeconds);
+            }
+            return null;
+        });
+
+        // Results alternate XADD id, EXPIRE flag
+        for (int i = 0; i < notifications.size(); i++) {
+            Object id = results.get(i * 2);
+            if (id instanceof RecordId recordId) {
+                notifications.get(i).setEventId(recordId.getValue());
+            } else if (id instanceof String value) {
+                notifications.get(i).setEventId(value);
+            }
+        }
+    }
+
+    private String writePayload(NotificationResponse notification) {
+        try {
+            return objectMapper.writeValueAsString(notification);
+        } catch (JsonProcessingException e) {
+            log.error("Failed to serialize notification {} for the replay stream", notification.getId(), e);
+            return null;
+        }
+    }
+
+    private NotificationResponse readPayload(String payload) {
+        try {
+            return objectMapper.readValue(payload, NotificationResponse.class);
+        } catch (JsonProcessingException | IllegalArgumentException e) {
+            log.warn("Skipping unreadable replay stream entry: {}", e.getMessage());
+            return null;
+        }
+    }
+
+    private NotificationResponse toResponse(Notification notification) {
+        return NotificationResponse.builder()
+                .id(notification.getId())
+                .createdAt(notification.getCreatedAt())
+                .updatedAt(notification.getUpdatedAt())
+                .notificationType(notification.getNotificationType())
+                .notificationTitle(notification.getNotificationTitle())
+                .notificationBody(notification.getNotificationBody())
+                .isRead(notification.getIsRead())
+                .build();
+    }
+
+    private static int compare(RecordId a, RecordId b) {
+        int byTime = Long.compare(a.getTimestamp(), b.getTimestamp());
+        return byTime != 0 ? byTime : Long.compare(a.getSequence(), b.getSequence());
+    }
+
+    private String streamKey(UUID userId) {
+        return STREAM_PREFIX + userId;
+    }
+}
@@ -0,0 +1,161 @@
+package com.iseeyou.fortunetelling.service.notification.impl;
+
+import com.iseeyou.fortunetelling.entity.Notification;
+import com.iseeyou.fortunetelling.repository.notification.NotificationBroadcastRepository;
+import com.iseeyou.fortunetelling.repository.notification.NotificationRepository;
+import com.iseeyou.fortunetelling.repository.user.UserRepository;
+import com.iseeyou.fortunetelling.service.notification.NotificationRetentionService;
+import com.iseeyou.fortunetelling.service.notification.NotificationUnreadCounterService;
+import com.iseeyou.fortunetelling.util.Constants;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+import java.util.function.IntSupplier;
+
+/**
+ * Keeps the notification table bounded. Deletes run as many small statements (ctid chunks) with a pause in
+ * between instead of one long transaction, so vacuum keeps up and user queries never wait on a big lock.
+ * Table partitioning was not used: notification_id and the (recipient_id, broadcast_id) unique index
+ * would both have to include created_at.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class NotificationRetentionServiceImpl implements NotificationRetentionService {
+
+    private static final String RETENTION_LOCK_KEY = "lock:notification-retention";
+    private static final String DIGEST_TITLE = "Thông báo cũ chưa đọc";
+
+    private final NotificationRepository notificationRepository;
+    private final NotificationBroadcastRepository notificationBroadcastRepository;
+    private final UserRepository userRepository;
+    private final NotificationUnreadCounterService notificationUnreadCounterService;
+    private final StringRedisTemplate stringRedisTemplate;
+    private final TransactionTemplate transactionTemplate;
+
+    @Value("${app.notification.retention.read-days:90}")
+    private int readDays;
+
+    @Value("${app.notification.retention.unread-days:180}")
+    private int unreadDays;
+
+    @Value("${app.notification.retention.max-read-per-user:500}")
+    private int maxReadPerUser;
+
+    @Value("${app.notification.retention.chunk-size:5000}")
+    private int chunkSize;
+
+    @Value("${app.notification.retention.max-chunks-per-run:200}")
+    private int maxChunksPerRun;
+
+    @Value("${app.notification.retention.pause-ms:100}")
+    private long pauseMs;
+
+    @Override
+    public int applyRetention() {
+        Boolean locked = stringRedisTemplate.opsForValue()
+                .setIfAbsent(RETENTION_LOCK_KEY, "1", Duration.ofHours(2));
+        if (!Boolean.TRUE.equals(locked)) {
+            log.debug("Notification retention already running on another node");
+            return 0;
+        }
+
+        try {
+            LocalDateTime readCutoff = LocalDateTime.now().minusDays(readDays);
+            LocalDateTime unreadCutoff = LocalDateTime.now().minusDays(unreadDays);
+
+            int purged = inChunks(() -> notificationRepository.deleteReadCreatedBefore(readCutoff, chunkSize));
+            int compacted = compactUnread(unreadCutoff);
+            int trimmed = trimToCap();
+            int broadcasts = notificationBroadcastRepository.deleteUnreferencedCreatedBefore(
+                    readCutoff.isBefore(unreadCutoff) ? readCutoff : unreadCutoff);
+
+            log.info("Notification retention: purged {} read, compacted {} unread, trimmed {} over cap, " +
+                    "removed {} broadcasts", purged, compacted, trimmed, broadcasts);
+            return purged + compacted + trimmed;
+        } finally {
+            stringRedisTemplate.delete(RETENTION_LOCK_KEY);
+        }
+    }
+
+    private int compactUnread(LocalDateTime cutoff) {
+        int compacted = 0;
+        for (int batch = 0; batch < maxChunksPerRun; batch++) {
+            List<UUID> recipientIds = notificationRepository.findRecipientsWithUnreadCreatedBefore(cutoff, 500);
+            if (recipientIds.isEmpty()) {
+                break;
+            }
+            for (UUID recipientId : recipientIds) {
+                Integer count = transactionTemplate.execute(status -> compactRecipient(recipientId, cutoff));
+                compacted += count != null ? count : 0;
+                notificationUnreadCounterService.invalidate(recipientId);
+            }
+            pause();
+        }
+        return compacted;
+    }
+
+    private int compactRecipient(UUID recipientId, LocalDateTime cutoff) {
+        int deleted = notificationRepository.deleteUnreadCreatedBefore(recipientId, cutoff);
+        if (deleted == 0) {
+            return 0;
+        }
+
+        Notification digest = notificationRepository.findUnreadDigest(recipientId)
+                .orElseGet(() -> Notification.builder()
+                        .notificationType(Constants.NotificationTypeEnum.ACCOUNT)
+                        .notificationTitle(DIGEST_TITLE)
+                        .recipient(userRepository.getReferenceById(recipientId))
+                        .isRead(false)
+                        .digestCount(0)
+                        .build());
+        digest.setDigestCount(digest.getDigestCount() + deleted);
+        digest.setNotificationBody(String.format("Bạn có %d thông báo chưa đọc cũ hơn %d ngày đã được thu gọn",
+                digest.getDigestCount(), unreadDays));
+        notificationRepository.save(digest);
+        return deleted;
+    }
+
+    private int trimToCap() {
+        int trimmed = 0;
+        for (int batch = 0; batch < maxChunksPerRun; batch++) {
+            List<UUID> recipientIds = notificationRepository.findRecipientsWithReadOver(maxReadPerUser, 500);
+            if (recipientIds.isEmpty()) {
+                break;
+            }
+            for (UUID recipientId : recipientIds) {
+                trimmed += inChunks(() -> notificationRepository.deleteReadBeyondCap(recipientId, maxReadPerUser, chunkSize));
+            }
+        }
+        return trimmed;
+    }
+
+    private int inChunks(IntSupplier chunk) {
+        int total = 0;
+        for (int i = 0; i < maxChunksPerRun; i++) {
+            int deleted = chunk.getAsInt();
+            total += deleted;
+            if (deleted < chunkSize) {
+                break;
+            }
+            pause();
+        }
+        return total;
+    }
+
+    private void pause() {
+        try {
+            Thread.sleep(pauseMs);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -9,22 +9,28 @@ import com.iseeyou.fortunetelling.exception.UnauthorizedException;
 import com.iseeyou.fortunetelling.mapper.NotificationMapper;
 import com.iseeyou.fortunetelling.repository.notification.NotificationRepository;
 import com.iseeyou.fortunetelling.repository.user.UserRepository;
+import com.iseeyou.fortunetelling.security.JwtUserDetails;
+import com.iseeyou.fortunetelling.service.notification.NotificationFanoutService;
+import com.iseeyou.fortunetelling.service.notification.NotificationPresenceService;
+import com.iseeyou.fortunetelling.service.notification.NotificationReplayService;
 import com.iseeyou.fortunetelling.service.notification.NotificationService;
-import com.iseeyou.fortunetelling.service.socket.SocketIOService;
+import com.iseeyou.fortunetelling.service.notification.NotificationSseService;
+import com.iseeyou.fortunetelling.service.notification.NotificationUnreadCounterService;
+import com.iseeyou.fortunetelling.service.undo.UndoBufferService;
 import com.iseeyou.fortunetelling.util.Constants;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
-import org.springframework.data.redis.core.RedisTemplate;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
+import java.time.Duration;
 import java.util.List;
 import java.util.UUID;
-import java.util.concurrent.TimeUnit;
 import java.util.stream.Collectors;
 
 @Service
@@ -34,35 +40,44 @@ public class NotificationServiceImpl implements NotificationService {
 
     private final NotificationRepository notificationRepository;
     private final UserRepository userRepository;
-    private final RedisTemplate<String, Object> redisTemplate;
-    private final SocketIOService socketIOService;
+    private final UndoBufferService undoBufferService;
+    private final NotificationFanoutService notificationFanoutService;
+    private final NotificationUnreadCounterService notificationUnreadCounterService;
+    private final NotificationReplayService notificationReplayService;
+    private final NotificationSseService notificationSseService;
+    private final NotificationPresenceService notificationPresenceService;
 
     private static final String UNDO_PREFIX = "notification:undo:";
-    private static final long UNDO_TIMEOUT_SECONDS = 10;
+    private static final Duration UNDO_TIMEOUT = Duration.ofSeconds(10);
     private final NotificationMapper notificationMapper;
 
     @Override
     @Transactional(readOnly = true)
     public Page<Notification> getMyNotifications(Pageable pageable) {
         User currentUser = getCurrentUser();
+        // Broadcast chưa nhận được copy vào inbox tại lần đọc đầu tiên
+        notificationFanoutService.materializeBroadcasts(currentUser);
         return notificationRepository.findAllByRecipient(currentUser, pageable);
     }
 
     @Override
     public Page<Notification> getMyNotificationsByType(Constants.NotificationTypeEnum type, Pageable pageable) {
         User currentUser = getCurrentUser();
+        notificationFanoutService.materializeBroadcasts(currentUser);
         return notificationRepository.findAllByRecipientAndNotificationType(currentUser, type, pageable);
     }
 
     @Override
     public Page<Notification> getMyNotificationsByReadStatus(Boolean isRead, Pageable pageable) {
         User currentUser = getCurrentUser();
+        notificationFanoutService.materializeBroadcasts(currentUser);
         return notificationRepository.findAllByRecipientAndIsRead(currentUser, isRead, pageable);
     }
 
     @Override
     public Page<Notification> getMyNotificationsByTypeAndReadStatus(Constants.NotificationTypeEnum type, Boolean isRead, Pageable pageable) {
         User currentUser = getCurrentUser();
+        notificationFanoutService.materializeBroadcasts(currentUser);
         return notificationRepository.findAllByRecipientAndNotificationTypeAndIsRead(currentUser, type, isRead, pageable);
     }
 
@@ -82,8 +97,23 @@ public class NotificationServiceImpl implements NotificationService {
 
     @Override
     public Long getUnreadCount() {
+        // Polled endpoint: the counter hit needs only the id from the token, the user is loaded on a recount
+        UUID userId = getCurrentUserId();
+        return notificationUnreadCounterService.getUnreadCount(userId, () -> {
+            User currentUser = userRepository.findById(userId)
+                    .orElseThrow(() -> new UnauthorizedException("User not authenticated"));
+            notificationFanoutService.materializeBroadcasts(currentUser);
+            return notificationRepository.countUnreadByRecipientId(userId);
+        });
+    }
+
+    @Override
+    public SseEmitter openNotificationStream(String lastEventId) {
         User currentUser = getCurrentUser();
-        return notificationRepository.countUnreadByRecipient(currentUser);
+        SseEmitter emitter = notificationSseService.open(currentUser.getId(), () -> notificationReplayService.replay(
+                currentUser.getId(), lastEventId, () -> notificationFanoutService.materializeBroadcasts(currentUser)));
+        notificationPresenceService.userConnected(currentUser.getId());
+        return emitter;
     }
 
     @Override
@@ -101,29 +131,29 @@ public class NotificationServiceImpl implements NotificationService {
 
         Notification savedNotification = notificationRepository.save(notification);
         log.info("Created notification {} for user {}", savedNotification.getId(), recipient.getId());
+        notificationUnreadCounterService.adjust(recipient.getId(), 1);
 
         try {
-            if (socketIOService.isUserOnline(recipient.getId())) {
-                NotificationResponse response = notificationMapper.mapTo(savedNotification, NotificationResponse.class);
-                socketIOService.sendNotificationToUser(recipient.getId(), response);
-                log.info("Pushed notification {} to user {} via SocketIO", savedNotification.getId(), recipient.getId());
-            } else {
-                log.debug("User {} is offline, notification will be delivered when they connect", recipient.getId());
-            }
+            // Offline users pick it up from the replay stream when they reconnect
+            NotificationResponse response = notificationMapper.mapTo(savedNotification, NotificationResponse.class);
+            notificationReplayService.publish(recipient.getId(), response);
         } catch (Exception e) {
-            log.error("Failed to push notification via SocketIO", e);
+            log.error("Failed to publish notification {}", savedNotification.getId(), e);
         }
 
         return savedNotification;
     }
 
     @Override
+    @Transactional
     public void markAsRead(UUID notificationId) {
         Notification notification = findById(notificationId);
 
-        if (!notification.getIsRead()) {
-            notification.setIsRead(true);
-            notificationRepository.save(notification);
+        // The counter moves by the rows this call flipped, after commit: a concurrent call for the same
+        // notification updates nothing and leaves it alone
+        int updated = notificationRepository.markAsReadById(notificationId);
+        if (updated > 0) {
+            notificationUnreadCounterService.adjust(notification.getRecipient().getId(), -updated);
             log.info("Marked notification {} as read", notificationId);
         }
     }
@@ -132,6 +162,7 @@ public class NotificationServiceImpl implements NotificationService {
     public void markMultipleAsRead(List<UUID> notificationIds) {
         User currentUser = getCurrentUser();
         int updatedCount = notificationRepository.markAsReadByIds(notificationIds, currentUser);
+        notificationUnreadCounterService.invalidate(currentUser.getId());
         log.info("Marked {} notifications as read for user {}", updatedCount, currentUser.getId());
     }
 
@@ -139,10 +170,12 @@ public class NotificationServiceImpl implements NotificationService {
     public void markAllAsRead() {
         User currentUser = getCurrentUser();
         int updatedCount = notificationRepository.markAllAsReadByRecipient(currentUser);
+        notificationUnreadCounterService.reset(currentUser.getId());
         log.info("Marked all {} notifications as read for user {}", updatedCount, currentUser.getId());
     }
 
     @Override
+    @Transactional
     public String markAllAsReadWithUndo() {
         User currentUser = getCurrentUser();
 
@@ -161,15 +194,11 @@ public class NotificationServiceImpl implements NotificationService {
                 .map(Notification::getId)
                 .collect(Collectors.toList());
 
-        redisTemplate.opsForValue().set(
-                UNDO_PREFIX + undoToken,
-                notificationIds,
-                UNDO_TIMEOUT_SECONDS,
-                TimeUnit.SECONDS
-        );
+        undoBufferService.push(buildUndoKey(currentUser.getId(), undoToken), notificationIds, UNDO_TIMEOUT);
 
-        // Mark all as read
-        markAllAsRead();
+        // Chỉ mark đúng các IDs đã lưu, notification mới đến trong lúc này vẫn giữ unread
+        int updatedCount = notificationRepository.markAsReadByIds(notificationIds, currentUser);
+        notificationUnreadCounterService.adjust(currentUser.getId(), -updatedCount);
 
         log.info("Marked all notifications as read with undo token {} for user {}",
                 undoToken, currentUser.getId());
@@ -178,12 +207,12 @@ public class NotificationServiceImpl implements NotificationService {
     }
 
     @Override
+    @Transactional
     public void undoMarkAllAsRead(String undoToken) {
         User currentUser = getCurrentUser();
-        String redisKey = UNDO_PREFIX + undoToken;
 
-        @SuppressWarnings("unchecked")
-        List<UUID> notificationIds = (List<UUID>) redisTemplate.opsForValue().get(redisKey);
+        // Pop atomically so the same token cannot be undone twice
+        List<UUID> notificationIds = undoBufferService.popAll(buildUndoKey(currentUser.getId(), undoToken));
 
         if (notificationIds == null || notificationIds.isEmpty()) {
             throw new NotFoundException("Undo token expired or invalid");
@@ -195,9 +224,8 @@ public class NotificationServiceImpl implements NotificationService {
 
         notifications.forEach(n -> n.setIsRead(false));
         notificationRepository.saveAll(notifications);
-
-        // Xóa undo token
-        redisTemplate.delete(redisKey);
+        // Some of them may have been read again in between, recount instead of adding blindly
+        notificationUnreadCounterService.invalidate(currentUser.getId());
 
         log.info("Undone mark all as read for user {}, restored {} notifications",
                 currentUser.getId(), notifications.size());
@@ -225,6 +253,18 @@ public class NotificationServiceImpl implements NotificationService {
         return notificationRepository.findAllByRecipient(recipient, pageable);
     }
 
+    private String buildUndoKey(UUID userId, String undoToken) {
+        return UNDO_PREFIX + userId + ":" + undoToken;
+    }
+
+    private UUID getCurrentUserId() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication == null || !(authentication.getPrincipal() instanceof JwtUserDetails principal)) {
+            throw new UnauthorizedException("User not authenticated");
+        }
+        return UUID.fromString(principal.getId());
+    }
+
     private User getCurrentUser() {
         Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
         String email = authentication.getName();
@@ -0,0 +1,281 @@
+package com.iseeyou.fortunetelling.service.notification.impl;
+
+import com.iseeyou.fortunetelling.dto.response.notification.NotificationReplayResponse;
+import com.iseeyou.fortunetelling.dto.response.notification.NotificationResponse;
+import com.iseeyou.fortunetelling.service.notification.NotificationSseService;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Deque;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Supplier;
+
+/**
+ * Server-Sent Events channel for clients that only need notifications. Events carry the replay stream id
+ * as SSE id, so the browser's automatic reconnect sends it back as Last-Event-ID.
+ * Each connection has a bounded queue drained on a shared pool; a connection that falls behind is closed
+ * and resumes from Last-Event-ID, the same way a stalled one does.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class NotificationSseServiceImpl implements NotificationSseService {
+
+    private static final String NOTIFICATION_EVENT = "new-notification";
+    private static final String UNREAD_COUNT_EVENT = "unread-count";
+    private static final String REPLAY_EVENT = "notification-replay";
+
+    private final MeterRegistry meterRegistry;
+
+    private final Map<UUID, Deque<SseConnection>> connections = new ConcurrentHashMap<>();
+    private ExecutorService sendExecutor;
+
+    @Value("${app.notification.sse.max-connection-ms:3600000}")
+    private long maxConnectionMs;
+
+    // Closed after nothing could be written to it for this long (a stalled peer), the client reconnects with
+    // Last-Event-ID. Every write counts, heartbeats included, so a healthy connection only ends at max-connection-ms
+    @Value("${app.notification.sse.idle-timeout-ms:900000}")
+    private long idleTimeoutMs;
+
+    @Value("${app.notification.sse.max-queued-events:256}")
+    private int maxQueuedEvents;
+
+    @Value("${app.notification.sse.max-connections-per-user:5}")
+    private int maxConnectionsPerUser;
+
+    @Value("${app.notification.sse.threads:4}")
+    private int sendThreads;
+
+    @PostConstruct
+    public void init() {
+        sendExecutor = Executors.newFixedThreadPool(sendThreads);
+        Gauge.builder("notification.sse.connections", connections,
+                        map -> map.values().stream().mapToInt(Collection::size).sum())
+                .description("Open notification SSE connections on this node")
+                .register(meterRegistry);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        connections.values().forEach(userConnections -> userConnections.forEach(c -> c.emitter.complete()));
+        sendExecutor.shutdown();
+    }
+
+    @Override
+    public SseEmitter open(UUID userId, Supplier<CompletableFuture<NotificationReplayResponse>> replay) {
+        SseEmitter emitter = new SseEmitter(maxConnectionMs);
+        SseConnection connection = new SseConnection(userId, emitter);
+
+        Deque<SseConnection> userConnections = connections.computeIfAbsent(userId, id -> new ConcurrentLinkedDeque<>());
+        userConnections.add(connection);
+        // Forgotten tabs: the oldest connection of the user gives way
+        while (userConnections.size() > maxConnectionsPerUser) {
+            SseConnection oldest = userConnections.poll();
+            if (oldest != null) {
+                oldest.emitter.complete();
+            }
+        }
+
+        emitter.onCompletion(() -> remove(connection));
+        emitter.onTimeout(() -> remove(connection));
+        emitter.onError(e -> remove(connection));
+
+        replay.get().whenComplete((response, error) -> {
+            List<SseEmitter.SseEventBuilder> events = new ArrayList<>();
+            if (error != null) {
+                log.error("Failed to replay notifications for SSE connection of user {}", userId, error);
+            } else {
+                for (NotificationResponse notification : response.getNotifications()) {
+                    events.add(notificationEvent(notification));
+                }
+                SseEmitter.SseEventBuilder summary = SseEmitter.event()
+                        .name(REPLAY_EVENT)
+                        .data(Map.of("complete", response.getComplete()));
+                if (response.getLastEventId() != null) {
+                    summary.id(response.getLastEventId());
+                }
+                events.add(summary);
+            }
+            connection.releaseHeldBack(events);
+            scheduleDrain(connection);
+        });
+
+        log.debug("User {} opened a notification SSE connection", userId);
+        return emitter;
+    }
+
+    @Override
+    public void sendNotificationsToUsers(Map<UUID, NotificationResponse> notificationsByUser) {
+        for (Map.Entry<UUID, NotificationResponse> entry : notificationsByUser.entrySet()) {
+            Deque<SseConnection> userConnections = connections.get(entry.getKey());
+            if (userConnections == null) {
+                continue;
+            }
+            for (SseConnection connection : userConnections) {
+                enqueue(connection, notificationEvent(entry.getValue()));
+            }
+        }
+    }
+
+    @Override
+    public void sendUnreadCountToUser(UUID userId, long unreadCount) {
+        Deque<SseConnection> userConnections = connections.get(userId);
+        if (userConnections == null) {
+            return;
+        }
+        for (SseConnection connection : userConnections) {
+            connection.pendingUnreadCount.set(unreadCount);
+            scheduleDrain(connection);
+        }
+    }
+
+    @Override
+    public Set<UUID> getConnectedUserIds() {
+        return new HashSet<>(connections.keySet());
+    }
+
+    @Scheduled(fixedDelayString = "${app.notification.sse.heartbeat-interval-ms:15000}")
+    public void heartbeat() {
+        long now = System.currentTimeMillis();
+        for (Deque<SseConnection> userConnections : connections.values()) {
+            for (SseConnection connection : userConnections) {
+                if (now - connection.lastWriteAt > idleTimeoutMs) {
+                    connection.emitter.complete();
+                } else if (connection.isIdle()) {
+                    // Comment line: keeps proxies from cutting the stream and detects dead peers on write
+                    enqueue(connection, SseEmitter.event().comment("ping"));
+                }
+            }
+        }
+    }
+
+    private void enqueue(SseConnection connection, SseEmitter.SseEventBuilder event) {
+        if (!connection.offer(event, maxQueuedEvents)) {
+            log.warn("Closing slow notification SSE connection of user {}", connection.userId);
+            connection.emitter.complete();
+            return;
+        }
+        scheduleDrain(connection);
+    }
+
+    private void scheduleDrain(SseConnection connection) {
+        if (connection.draining.compareAndSet(false, true)) {
+            sendExecutor.execute(() -> drain(connection));
+        }
+    }
+
+    private void drain(SseConnection connection) {
+        try {
+            SseEmitter.SseEventBuilder event;
+            while ((event = connection.poll()) != null) {
+                connection.emitter.send(event);
+                connection.lastWriteAt = System.currentTimeMillis();
+            }
+            Long unreadCount = connection.pendingUnreadCount.getAndSet(null);
+            if (unreadCount != null) {
+                connection.emitter.send(SseEmitter.event()
+                        .name(UNREAD_COUNT_EVENT)
+                        .data(Map.of("unreadCount", unreadCount)));
+                connection.lastWriteAt = System.currentTimeMillis();
+            }
+        } catch (IOException | IllegalStateException e) {
+            // Client went away; completing triggers the removal callback
+            log.debug("Notification SSE connection of user {} closed: {}", connection.userId, e.getMessage());
+            connection.emitter.completeWithError(e);
+            return;
+        } finally {
+            connection.draining.set(false);
+        }
+        if (connection.hasQueued() || connection.pendingUnreadCount.get() != null) {
+            scheduleDrain(connection);
+        }
+    }
+
+    private void remove(SseConnection connection) {
+        connections.computeIfPresent(connection.userId, (id, userConnections) -> {
+            userConnections.remove(connection);
+            return userConnections.isEmpty() ? null : userConnections;
+        });
+    }
+
+    private SseEmitter.SseEventBuilder notificationEvent(NotificationResponse notification) {
+        SseEmitter.SseEventBuilder event = SseEmitter.event()
+                .name(NOTIFICATION_EVENT)
+                .data(notification);
+        if (notification.getEventId() != null) {
+            event.id(notification.getEventId());
+        }
+        return event;
+    }
+
+    private static final class SseConnection {
+        private final UUID userId;
+        private final SseEmitter emitter;
+        private final Queue<SseEmitter.SseEventBuilder> queue = new ArrayDeque<>();
+        private final AtomicBoolean draining = new AtomicBoolean();
+        private final AtomicReference<Long> pendingUnreadCount = new AtomicReference<>();
+        // Live events wait here until the replay is queued, so Last-Event-ID never skips past a gap
+        private List<SseEmitter.SseEventBuilder> heldBack = new ArrayList<>();
+        private volatile long lastWriteAt = System.currentTimeMillis();
+
+        private SseConnection(UUID userId, SseEmitter emitter) {
+            this.userId = userId;
+            this.emitter = emitter;
+        }
+
+        private synchronized boolean offer(SseEmitter.SseEventBuilder event, int capacity) {
+            if (heldBack != null) {
+                heldBack.add(event);
+                return heldBack.size() <= capacity;
+            }
+            if (queue.size() >= capacity) {
+                return false;
+            }
+            queue.add(event);
+            return true;
+        }
+
+        private synchronized void releaseHeldBack(List<SseEmitter.SseEventBuilder> replayed) {
+            queue.addAll(replayed);
+            queue.addAll(heldBack);
+            heldBack = null;
+        }
+
+        private synchronized SseEmitter.SseEventBuilder poll() {
+            return heldBack == null ? queue.poll() : null;
+        }
+
+        private synchronized boolean hasQueued() {
+            return heldBack == null && !queue.isEmpty();
+        }
+
+        private synchronized boolean isIdle() {
+            return heldBack == null && queue.isEmpty();
+        }
+    }
+}
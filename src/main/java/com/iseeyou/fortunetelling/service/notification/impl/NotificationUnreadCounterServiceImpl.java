@@ -0,0 +1,227 @@
+package com.iseeyou.fortunetelling.service.notification.impl;
+
+import com.iseeyou.fortunetelling.repository.notification.NotificationRepository;
+import com.iseeyou.fortunetelling.service.notification.NotificationSseService;
+import com.iseeyou.fortunetelling.service.notification.NotificationUnreadCounterService;
+import com.iseeyou.fortunetelling.service.socket.SocketIOService;
+import com.iseeyou.fortunetelling.util.TransactionHooks;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.function.LongSupplier;
+
+/**
+ * Per-user unread counters, stored as a Redis hash {count, epoch}.
+ * <ul>
+ *     <li>Missing counter (never read, expired, invalidated): recounted from the database on the next read.</li>
+ *     <li>epoch != global broadcast epoch: a broadcast was created since, recounted as well.</li>
+ *     <li>The recount materializes broadcasts first, so a current epoch also means nothing is left to materialize.</li>
+ *     <li>Adjustments only apply to an existing counter, otherwise the next read recounts anyway.</li>
+ * </ul>
+ * The TTL bounds how long any drift can survive; {@link #reconcile} repairs it earlier for online users.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class NotificationUnreadCounterServiceImpl implements NotificationUnreadCounterService {
+
+    private static final String COUNTER_PREFIX = "notification:unread:";
+    private static final String EPOCH_KEY = "notification:unread:epoch";
+    private static final String COUNT_FIELD = "count";
+    private static final int RECONCILE_CHUNK_SIZE = 500;
+
+    // Returns {count, epoch, global epoch}
+    @SuppressWarnings({"rawtypes", "unchecked"})
+    private static final RedisScript<List> READ_SCRIPT = new DefaultRedisScript<>(
+            "local v = redis.call('HMGET', KEYS[1], 'count', 'epoch') " +
+            "return {v[1], v[2], redis.call('GET', KEYS[2])}",
+            List.class
+    );
+
+    // ARGV[1] = count, ARGV[2] = epoch, ARGV[3] = ttl seconds
+    private static final RedisScript<Long> STORE_SCRIPT = new DefaultRedisScript<>(
+            "redis.call('HSET', KEYS[1], 'count', ARGV[1], 'epoch', ARGV[2]) " +
+            "redis.call('EXPIRE', KEYS[1], ARGV[3]) " +
+            "return 1",
+            Long.class
+    );
+
+    // ARGV[1] = delta. Returns the new count, or -1 when there is no counter to adjust
+    private static final RedisScript<Long> ADJUST_SCRIPT = new DefaultRedisScript<>(
+            "if redis.call('EXISTS', KEYS[1]) == 0 then return -1 end " +
+            "local v = redis.call('HINCRBY', KEYS[1], 'count', ARGV[1]) " +
+            "if v < 0 then redis.call('HSET', KEYS[1], 'count', 0) v = 0 end " +
+            "return v",
+            Long.class
+    );
+
+    private static final RedisScript<Long> RESET_SCRIPT = new DefaultRedisScript<>(
+            "if redis.call('EXISTS', KEYS[1]) == 0 then return -1 end " +
+            "redis.call('HSET', KEYS[1], 'count', 0) " +
+            "return 0",
+            Long.class
+    );
+
+    private final StringRedisTemplate stringRedisTemplate;
+    private final NotificationRepository notificationRepository;
+    private final SocketIOService socketIOService;
+    private final NotificationSseService notificationSseService;
+
+    @Value("${app.notification.unread.ttl-seconds:86400}")
+    private long ttlSeconds;
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public long getUnreadCount(UUID userId, LongSupplier recount) {
+        String globalEpoch = "0";
+        try {
+            List<Object> values = stringRedisTemplate.execute(READ_SCRIPT,
+                    Arrays.asList(counterKey(userId), EPOCH_KEY));
+            if (values != null) {
+                String count = (String) values.get(0);
+                String epoch = (String) values.get(1);
+                globalEpoch = values.get(2) != null ? (String) values.get(2) : "0";
+                if (count != null && globalEpoch.equals(epoch)) {
+                    return Long.parseLong(count);
+                }
+            }
+        } catch (Exception e) {
+            log.warn("Unread counter read failed for user {}, falling back to database: {}", userId, e.getMessage());
+            return recount.getAsLong();
+        }
+
+        // Epoch was read before counting, a broadcast created meanwhile leaves the counter stale (not wrong)
+        long count = recount.getAsLong();
+        try {
+            stringRedisTemplate.execute(STORE_SCRIPT, List.of(counterKey(userId)),
+                    String.valueOf(count), globalEpoch, String.valueOf(ttlSeconds));
+        } catch (Exception e) {
+            log.warn("Unread counter store failed for user {}: {}", userId, e.getMessage());
+        }
+        return count;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public boolean hasSeenLatestBroadcast(UUID userId) {
+        try {
+            List<Object> values = stringRedisTemplate.execute(READ_SCRIPT,
+                    Arrays.asList(counterKey(userId), EPOCH_KEY));
+            if (values == null || values.get(0) == null) {
+                return false;
+            }
+            String globalEpoch = values.get(2) != null ? (String) values.get(2) : "0";
+            return globalEpoch.equals(values.get(1));
+        } catch (Exception e) {
+            log.warn("Broadcast epoch read failed for user {}: {}", userId, e.getMessage());
+            return false;
+        }
+    }
+
+    @Override
+    public void adjust(UUID userId, long delta) {
+        if (delta == 0) {
+            return;
+        }
+        afterCommit(() -> {
+            Long count = stringRedisTemplate.execute(ADJUST_SCRIPT, List.of(counterKey(userId)), String.valueOf(delta));
+            publish(userId, count);
+        });
+    }
+
+    @Override
+    public void adjustAll(Collection<UUID> userIds, long delta) {
+        if (delta == 0 || userIds.isEmpty()) {
+            return;
+        }
+        afterCommit(() -> {
+            for (UUID userId : userIds) {
+                Long count = stringRedisTemplate.execute(ADJUST_SCRIPT, List.of(counterKey(userId)), String.valueOf(delta));
+                publish(userId, count);
+            }
+        });
+    }
+
+    @Override
+    public void reset(UUID userId) {
+        afterCommit(() -> {
+            Long count = stringRedisTemplate.execute(RESET_SCRIPT, List.of(counterKey(userId)));
+            publish(userId, count);
+        });
+    }
+
+    @Override
+    public void invalidate(UUID userId) {
+        afterCommit(() -> stringRedisTemplate.delete(counterKey(userId)));
+    }
+
+    @Override
+    public void invalidateAll() {
+        afterCommit(() -> stringRedisTemplate.opsForValue().increment(EPOCH_KEY));
+    }
+
+    @Override
+    public void reconcile(Collection<UUID> userIds) {
+        List<UUID> ids = new ArrayList<>(userIds);
+        int repaired = 0;
+        for (int from = 0; from < ids.size(); from += RECONCILE_CHUNK_SIZE) {
+            List<UUID> chunk = ids.subList(from, Math.min(from + RECONCILE_CHUNK_SIZE, ids.size()));
+
+            Map<UUID, Long> actual = new HashMap<>();
+            for (Object[] row : notificationRepository.countUnreadByRecipientIds(chunk)) {
+                actual.put((UUID) row[0], ((Number) row[1]).longValue());
+            }
+
+            for (UUID userId : chunk) {
+                String cached = (String) stringRedisTemplate.opsForHash().get(counterKey(userId), COUNT_FIELD);
+                if (cached == null) {
+                    continue;
+                }
+                long expected = actual.getOrDefault(userId, 0L);
+                if (Long.parseLong(cached) != expected) {
+                    // Only the count is repaired; a stale epoch still forces a full recount on read
+                    stringRedisTemplate.opsForHash().put(counterKey(userId), COUNT_FIELD, String.valueOf(expected));
+                    publish(userId, expected);
+                    repaired++;
+                }
+            }
+        }
+        if (repaired > 0) {
+            log.info("Repaired {} drifted unread counters out of {}", repaired, ids.size());
+        }
+    }
+
+    private void publish(UUID userId, Long count) {
+        if (count != null && count >= 0) {
+            socketIOService.sendUnreadCountToUser(userId, count);
+            notificationSseService.sendUnreadCountToUser(userId, count);
+        }
+    }
+
+    // Failures are logged only, drift is healed by TTL/reconcile
+    private void afterCommit(Runnable action) {
+        TransactionHooks.afterCommit(() -> {
+            try {
+                action.run();
+            } catch (Exception e) {
+                log.warn("Unread counter update failed: {}", e.getMessage());
+            }
+        });
+    }
+
+    private String counterKey(UUID userId) {
+        return COUNTER_PREFIX + userId;
+    }
+}
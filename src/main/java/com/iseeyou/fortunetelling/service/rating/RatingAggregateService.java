@@ -0,0 +1,12 @@
+package com.iseeyou.fortunetelling.service.rating;
+
+import java.math.BigDecimal;
+import java.util.UUID;
+
+public interface RatingAggregateService {
+    // Must run inside the transaction that stores the review, so both commit or roll back together
+    void addRating(UUID packageId, UUID seerId, BigDecimal rating);
+
+    // Recomputes all aggregates from the bookings, returns the number of rows that had drifted
+    int repair();
+}
@@ -0,0 +1,65 @@
+package com.iseeyou.fortunetelling.service.rating.impl;
+
+import com.iseeyou.fortunetelling.repository.servicepackage.ServicePackageRepository;
+import com.iseeyou.fortunetelling.repository.user.SeerProfileRepository;
+import com.iseeyou.fortunetelling.service.cache.CatalogCacheService;
+import com.iseeyou.fortunetelling.service.rating.RatingAggregateService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.UUID;
+
+/**
+ * Package and seer rating aggregates (sum, count, average) kept on their own rows.
+ * Reads never aggregate over booking; writes are single relative UPDATEs that stay correct under concurrent reviews.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class RatingAggregateServiceImpl implements RatingAggregateService {
+
+    private static final String REPAIR_LOCK_KEY = "lock:rating-aggregate-repair";
+
+    private final ServicePackageRepository servicePackageRepository;
+    private final SeerProfileRepository seerProfileRepository;
+    private final StringRedisTemplate stringRedisTemplate;
+    private final CatalogCacheService catalogCacheService;
+
+    @Override
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void addRating(UUID packageId, UUID seerId, BigDecimal rating) {
+        // Goes through @Where-free native SQL, reviews of a soft-deleted package still count
+        servicePackageRepository.addRating(packageId, rating);
+        if (seerProfileRepository.addRating(seerId, rating) == 0) {
+            log.warn("Seer {} has no profile, rating of package {} only counted on the package", seerId, packageId);
+        }
+        // The package detail shows both averages and the latest reviews
+        catalogCacheService.evict(CatalogCacheService.packageTag(packageId), CatalogCacheService.seerTag(seerId));
+    }
+
+    @Override
+    public int repair() {
+        // Một instance chạy là đủ
+        Boolean acquired = stringRedisTemplate.opsForValue().setIfAbsent(REPAIR_LOCK_KEY, "1", Duration.ofMinutes(30));
+        if (!Boolean.TRUE.equals(acquired)) {
+            log.debug("Rating aggregate repair already running on another instance");
+            return 0;
+        }
+        try {
+            int packages = servicePackageRepository.recomputeRatings();
+            int seers = seerProfileRepository.recomputeRatings();
+            if (packages > 0 || seers > 0) {
+                log.warn("Repaired drifted rating aggregates: {} packages, {} seer profiles", packages, seers);
+            }
+            return packages + seers;
+        } finally {
+            stringRedisTemplate.delete(REPAIR_LOCK_KEY);
+        }
+    }
+}
@@ -19,6 +19,7 @@ import com.iseeyou.fortunetelling.repository.report.ReportTypeRepository;
 import com.iseeyou.fortunetelling.repository.servicepackage.ServicePackageRepository;
 import com.iseeyou.fortunetelling.repository.user.UserRepository;
 import com.iseeyou.fortunetelling.service.fileupload.CloudinaryService;
+import com.iseeyou.fortunetelling.service.moderation.ModerationService;
 import com.iseeyou.fortunetelling.service.report.ReportService;
 import com.iseeyou.fortunetelling.service.user.UserService;
 import com.iseeyou.fortunetelling.util.Constants;
@@ -50,6 +51,7 @@ public class ReportServiceImpl implements ReportService {
     private final BookingRepository bookingRepository;
     private final ConversationRepository conversationRepository;
     private final ReportMapper reportMapper;
+    private final ModerationService moderationService;
 
     @Override
     @Transactional(readOnly = true)
@@ -117,6 +119,10 @@ public class ReportServiceImpl implements ReportService {
             }
         }
         
+        // Report thường trích dẫn nội dung vi phạm: chỉ mask, không block
+        report.setReportDescription(
+                moderationService.screen(report.getReportDescription(), "report").getMaskedText());
+
         // Set business logic fields
         report.setReporter(userService.getUser());
         report.setStatus(Constants.ReportStatusEnum.PENDING);
@@ -0,0 +1,32 @@
+package com.iseeyou.fortunetelling.service.search;
+
+import com.iseeyou.fortunetelling.util.Constants;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+
+import java.util.Collection;
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * In-memory search over package and knowledge item titles/descriptions, typed with or without Vietnamese diacritics.
+ * Returns id pages only; empty when the index can't answer (not built yet, disabled, unsupported sort)
+ * and the caller should query the database instead.
+ */
+public interface CatalogSearchService {
+
+    Optional<Page<UUID>> searchPackages(String text, Collection<UUID> categoryIds, UUID seerId,
+                                        Constants.PackageStatusEnum status, Double minPrice, Double maxPrice,
+                                        Integer minDuration, Integer maxDuration, Pageable pageable);
+
+    Optional<Page<UUID>> searchKnowledgeItems(String text, Collection<UUID> categoryIds,
+                                              Constants.KnowledgeItemStatusEnum status, Pageable pageable);
+
+    // Re-read from the database after the current transaction commits
+    void packageChanged(UUID packageId);
+
+    void knowledgeItemChanged(UUID itemId);
+
+    // Replaces both indexes with a fresh build, in the background
+    void rebuild();
+}
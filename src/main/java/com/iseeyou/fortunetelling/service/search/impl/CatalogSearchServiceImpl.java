@@ -0,0 +1,282 @@
+package com.iseeyou.fortunetelling.service.search.impl;
+
+import com.iseeyou.fortunetelling.repository.knowledge.ItemCategoryRepository;
+import com.iseeyou.fortunetelling.repository.knowledge.KnowledgeItemRepository;
+import com.iseeyou.fortunetelling.repository.servicepackage.PackageCategoryRepository;
+import com.iseeyou.fortunetelling.repository.servicepackage.ServicePackageRepository;
+import com.iseeyou.fortunetelling.service.search.CatalogSearchService;
+import com.iseeyou.fortunetelling.util.Constants;
+import com.iseeyou.fortunetelling.util.TransactionHooks;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Function;
+
+/**
+ * Both indexes live on this node only. Local changes arrive through {@link #packageChanged}/{@link #knowledgeItemChanged}
+ * (entity listener), changes made on other nodes show up with the next periodic rebuild; callers re-check
+ * the hydrated rows so a stale hit is dropped rather than shown.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class CatalogSearchServiceImpl implements CatalogSearchService {
+
+    private static final int LOAD_CHUNK_SIZE = 1000;
+
+    private final ServicePackageRepository servicePackageRepository;
+    private final PackageCategoryRepository packageCategoryRepository;
+    private final KnowledgeItemRepository knowledgeItemRepository;
+    private final ItemCategoryRepository itemCategoryRepository;
+
+    @Value("${app.search.enabled:true}")
+    private boolean enabled;
+
+    @Value("${app.search.max-prefix-length:20}")
+    private int maxPrefixLength;
+
+    @Value("${app.search.price-band-width:100000}")
+    private double priceBandWidth;
+
+    // Null until the first build finishes, searches go to the database meanwhile
+    private volatile SearchIndex packageIndex;
+    private volatile SearchIndex knowledgeIndex;
+
+    private final Set<UUID> dirtyPackages = ConcurrentHashMap.newKeySet();
+    private final Set<UUID> dirtyKnowledgeItems = ConcurrentHashMap.newKeySet();
+    private final AtomicBoolean drainQueued = new AtomicBoolean();
+
+    // Single thread: an update never lands on an index that a running rebuild is about to replace
+    private ExecutorService indexExecutor;
+
+    @PostConstruct
+    public void init() {
+        indexExecutor = Executors.newSingleThreadExecutor();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        indexExecutor.shutdown();
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void buildOnStartup() {
+        rebuild();
+    }
+
+    @Override
+    public Optional<Page<UUID>> searchPackages(String text, Collection<UUID> categoryIds, UUID seerId,
+                                               Constants.PackageStatusEnum status, Double minPrice, Double maxPrice,
+                                               Integer minDuration, Integer maxDuration, Pageable pageable) {
+        SearchIndex index = packageIndex;
+        if (!enabled || index == null || !index.supports(pageable.getSort())) {
+            return Optional.empty();
+        }
+        SearchIndex.Query query = new SearchIndex.Query();
+        query.text = text;
+        query.categoryIds = categoryIds;
+        query.seerId = seerId;
+        query.status = status != null ? status.name() : null;
+        query.minPrice = minPrice;
+        query.maxPrice = maxPrice;
+        query.minDuration = minDuration;
+        query.maxDuration = maxDuration;
+        return Optional.of(index.search(query, pageable));
+    }
+
+    @Override
+    public Optional<Page<UUID>> searchKnowledgeItems(String text, Collection<UUID> categoryIds,
+                                                     Constants.KnowledgeItemStatusEnum status, Pageable pageable) {
+        SearchIndex index = knowledgeIndex;
+        if (!enabled || index == null || !index.supports(pageable.getSort())) {
+            return Optional.empty();
+        }
+        SearchIndex.Query query = new SearchIndex.Query();
+        query.text = text;
+        query.categoryIds = categoryIds;
+        query.status = status != null ? status.name() : null;
+        return Optional.of(index.search(query, pageable));
+    }
+
+    @Override
+    public void packageChanged(UUID packageId) {
+        markDirty(dirtyPackages, packageId);
+    }
+
+    @Override
+    public void knowledgeItemChanged(UUID itemId) {
+        markDirty(dirtyKnowledgeItems, itemId);
+    }
+
+    @Override
+    public void rebuild() {
+        if (!enabled) {
+            return;
+        }
+        indexExecutor.submit(() -> {
+            try {
+                long startedAt = System.currentTimeMillis();
+                SearchIndex packages = newPackageIndex();
+                loadPackages(servicePackageRepository.findAllIds()).values().forEach(packages::upsert);
+                SearchIndex knowledge = newKnowledgeIndex();
+                loadKnowledgeItems(knowledgeItemRepository.findAllIds()).values().forEach(knowledge::upsert);
+
+                packageIndex = packages;
+                knowledgeIndex = knowledge;
+                log.info("Built catalog search index: {} packages, {} knowledge items in {} ms",
+                        packages.size(), knowledge.size(), System.currentTimeMillis() - startedAt);
+            } catch (Exception e) {
+                log.error("Failed to build catalog search index, keeping the previous one", e);
+            }
+        });
+    }
+
+    private void markDirty(Set<UUID> dirty, UUID id) {
+        if (!enabled || id == null) {
+            return;
+        }
+        TransactionHooks.afterCommit(() -> {
+            dirty.add(id);
+            if (drainQueued.compareAndSet(false, true)) {
+                indexExecutor.submit(this::drain);
+            }
+        });
+    }
+
+    // Changes committed while a rebuild runs are drained after it, onto the new index
+    private void drain() {
+        drainQueued.set(false);
+        try {
+            List<UUID> packageIds = take(dirtyPackages);
+            SearchIndex packages = packageIndex;
+            if (packages != null && !packageIds.isEmpty()) {
+                apply(packages, packageIds, loadPackages(packageIds));
+            }
+
+            List<UUID> itemIds = take(dirtyKnowledgeItems);
+            SearchIndex knowledge = knowledgeIndex;
+            if (knowledge != null && !itemIds.isEmpty()) {
+                apply(knowledge, itemIds, loadKnowledgeItems(itemIds));
+            }
+        } catch (Exception e) {
+            // Không sao: lần rebuild tiếp theo sẽ sửa lại index
+            log.error("Failed to update catalog search index", e);
+        }
+    }
+
+    private static List<UUID> take(Set<UUID> dirty) {
+        List<UUID> ids = new ArrayList<>(dirty);
+        ids.forEach(dirty::remove);
+        return ids;
+    }
+
+    // Ids without a row were deleted (or soft-deleted)
+    private static void apply(SearchIndex index, List<UUID> ids, Map<UUID, SearchIndex.Document> documents) {
+        for (UUID id : ids) {
+            SearchIndex.Document document = documents.get(id);
+            if (document != null) {
+                index.upsert(document);
+            } else {
+                index.remove(id);
+            }
+        }
+    }
+
+    private Map<UUID, SearchIndex.Document> loadPackages(List<UUID> ids) {
+        return loadChunked(ids, chunk -> {
+            Map<UUID, SearchIndex.Document> documents = new HashMap<>();
+            for (Object[] row : servicePackageRepository.findSearchDocuments(chunk)) {
+                SearchIndex.Document document = new SearchIndex.Document();
+                document.id = (UUID) row[0];
+                document.title = (String) row[1];
+                document.description = (String) row[2];
+                document.seerId = (UUID) row[3];
+                document.price = (Double) row[4];
+                document.durationMinutes = (Integer) row[5];
+                document.status = row[6] != null ? ((Constants.PackageStatusEnum) row[6]).name() : null;
+                document.createdAt = (LocalDateTime) row[7];
+                document.categoryIds = new HashSet<>();
+                documents.put(document.id, document);
+            }
+            for (Object[] row : packageCategoryRepository.findCategoryIdsByPackageIds(chunk)) {
+                SearchIndex.Document document = documents.get((UUID) row[0]);
+                if (document != null) {
+                    document.categoryIds.add((UUID) row[1]);
+                }
+            }
+            return documents;
+        });
+    }
+
+    private Map<UUID, SearchIndex.Document> loadKnowledgeItems(List<UUID> ids) {
+        return loadChunked(ids, chunk -> {
+            Map<UUID, SearchIndex.Document> documents = new HashMap<>();
+            for (Object[] row : knowledgeItemRepository.findSearchDocuments(chunk)) {
+                SearchIndex.Document document = new SearchIndex.Document();
+                document.id = (UUID) row[0];
+                document.title = (String) row[1];
+                document.description = (String) row[2];
+                document.status = row[3] != null ? ((Constants.KnowledgeItemStatusEnum) row[3]).name() : null;
+                document.createdAt = (LocalDateTime) row[4];
+                document.categoryIds = new HashSet<>();
+                documents.put(document.id, document);
+            }
+            for (Object[] row : itemCategoryRepository.findCategoryIdsByItemIds(chunk)) {
+                SearchIndex.Document document = documents.get((UUID) row[0]);
+                if (document != null) {
+                    document.categoryIds.add((UUID) row[1]);
+                }
+            }
+            return documents;
+        });
+    }
+
+    private static Map<UUID, SearchIndex.Document> loadChunked(
+            List<UUID> ids, Function<List<UUID>, Map<UUID, SearchIndex.Document>> loader) {
+        Map<UUID, SearchIndex.Document> documents = new HashMap<>(ids.size());
+        for (int from = 0; from < ids.size(); from += LOAD_CHUNK_SIZE) {
+            documents.putAll(loader.apply(ids.subList(from, Math.min(from + LOAD_CHUNK_SIZE, ids.size()))));
+        }
+        return documents;
+    }
+
+    // Keys are the sortBy values the endpoints accept; anything else (avgRating, viewCount) goes to the database
+    private SearchIndex newPackageIndex() {
+        Map<String, Comparator<SearchIndex.Document>> sortKeys = Map.of(
+                "createdAt", SearchIndex.byCreatedAt(),
+                "price", SearchIndex.byPrice(),
+                "packageTitle", SearchIndex.byTitle(),
+                "durationMinutes", SearchIndex.byDuration());
+        return new SearchIndex(maxPrefixLength, priceBandWidth, sortKeys);
+    }
+
+    private SearchIndex newKnowledgeIndex() {
+        Map<String, Comparator<SearchIndex.Document>> sortKeys = Map.of(
+                "createdAt", SearchIndex.byCreatedAt(),
+                "title", SearchIndex.byTitle());
+        return new SearchIndex(maxPrefixLength, priceBandWidth, sortKeys);
+    }
+}
@@ -0,0 +1,317 @@
+package com.iseeyou.fortunetelling.service.search.impl;
+
+import com.iseeyou.fortunetelling.util.TextFolding;
+import org.roaringbitmap.RoaringBitmap;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.UUID;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.regex.Pattern;
+
+/**
+ * Inverted index over folded (lowercase, diacritic-free) text with one bitmap per term prefix and per facet value.
+ * Documents are numbered by ordinal; ordinals of removed documents are not reused, the periodic rebuild compacts them.
+ */
+final class SearchIndex {
+
+    static final class Document {
+        UUID id;
+        String title;
+        String description;
+        Set<UUID> categoryIds = Set.of();
+        UUID seerId;
+        String status;
+        Double price;
+        Integer durationMinutes;
+        LocalDateTime createdAt;
+
+        // Title is sorted on folded, close to (not exactly) the database collation
+        private String sortTitle;
+    }
+
+    static final class Query {
+        String text;
+        Collection<UUID> categoryIds;
+        UUID seerId;
+        String status;
+        Double minPrice;
+        Double maxPrice;
+        Integer minDuration;
+        Integer maxDuration;
+    }
+
+    private static final Pattern TOKEN_SEPARATOR = Pattern.compile("[^\\p{L}\\p{N}]+");
+
+    private final int maxPrefixLength;
+    private final double priceBandWidth;
+    private final Map<String, Comparator<Document>> sortKeys;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Map<UUID, Integer> ordinals = new HashMap<>();
+    private final List<Document> documents = new ArrayList<>();
+    private final Map<String, RoaringBitmap> terms = new HashMap<>();
+    private final Map<UUID, RoaringBitmap> categories = new HashMap<>();
+    private final Map<UUID, RoaringBitmap> seers = new HashMap<>();
+    private final Map<String, RoaringBitmap> statuses = new HashMap<>();
+    // Band -> documents priced in [band * width, (band + 1) * width)
+    private final TreeMap<Long, RoaringBitmap> priceBands = new TreeMap<>();
+    private final RoaringBitmap live = new RoaringBitmap();
+
+    SearchIndex(int maxPrefixLength, double priceBandWidth, Map<String, Comparator<Document>> sortKeys) {
+        this.maxPrefixLength = maxPrefixLength;
+        this.priceBandWidth = priceBandWidth;
+        this.sortKeys = sortKeys;
+    }
+
+    static Comparator<Document> byCreatedAt() {
+        return Comparator.comparing(d -> d.createdAt, Comparator.nullsFirst(Comparator.naturalOrder()));
+    }
+
+    static Comparator<Document> byTitle() {
+        return Comparator.comparing(d -> d.sortTitle, Comparator.nullsFirst(Comparator.naturalOrder()));
+    }
+
+    static Comparator<Document> byPrice() {
+        return Comparator.comparing(d -> d.price, Comparator.nullsFirst(Comparator.naturalOrder()));
+    }
+
+    static Comparator<Document> byDuration() {
+        return Comparator.comparing(d -> d.durationMinutes, Comparator.nullsFirst(Comparator.naturalOrder()));
+    }
+
+    boolean supports(Sort sort) {
+        for (Sort.Order order : sort) {
+            if (!sortKeys.containsKey(order.getProperty())) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    int size() {
+        lock.readLock().lock();
+        try {
+            return live.getCardinality();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    void upsert(Document document) {
+        document.sortTitle = TextFolding.fold(document.title);
+        lock.writeLock().lock();
+        try {
+            Integer ordinal = ordinals.get(document.id);
+            if (ordinal != null) {
+                unindex(ordinal, documents.get(ordinal));
+                documents.set(ordinal, document);
+            } else {
+                ordinal = documents.size();
+                ordinals.put(document.id, ordinal);
+                documents.add(document);
+            }
+            index(ordinal, document);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    void remove(UUID id) {
+        lock.writeLock().lock();
+        try {
+            Integer ordinal = ordinals.remove(id);
+            if (ordinal != null) {
+                unindex(ordinal, documents.get(ordinal));
+                documents.set(ordinal, null);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Ids of the matching documents, sorted and paged. Every query token must be a prefix of some token
+     * in the title or description, so "tu vi" finds "Tử vi trọn đời".
+     */
+    Page<UUID> search(Query query, Pageable pageable) {
+        List<String> queryTerms = queryTerms(query.text);
+
+        lock.readLock().lock();
+        try {
+            RoaringBitmap matches = live.clone();
+            for (String term : queryTerms) {
+                matches.and(terms.getOrDefault(term, new RoaringBitmap()));
+            }
+            if (query.status != null) {
+                matches.and(statuses.getOrDefault(query.status, new RoaringBitmap()));
+            }
+            if (query.seerId != null) {
+                matches.and(seers.getOrDefault(query.seerId, new RoaringBitmap()));
+            }
+            if (query.categoryIds != null && !query.categoryIds.isEmpty()) {
+                RoaringBitmap anyCategory = new RoaringBitmap();
+                for (UUID categoryId : query.categoryIds) {
+                    RoaringBitmap bitmap = categories.get(categoryId);
+                    if (bitmap != null) {
+                        anyCategory.or(bitmap);
+                    }
+                }
+                matches.and(anyCategory);
+            }
+            if (query.minPrice != null || query.maxPrice != null) {
+                // Bands only narrow it down, band edges are checked exactly below
+                long from = query.minPrice != null ? band(query.minPrice) : Long.MIN_VALUE;
+                long to = query.maxPrice != null ? band(query.maxPrice) : Long.MAX_VALUE;
+                RoaringBitmap inRange = new RoaringBitmap();
+                // minPrice above maxPrice matches nothing, as in the database query; subMap would throw
+                if (from <= to) {
+                    for (RoaringBitmap bitmap : priceBands.subMap(from, true, to, true).values()) {
+                        inRange.or(bitmap);
+                    }
+                }
+                matches.and(inRange);
+            }
+
+            List<Document> hits = new ArrayList<>(matches.getCardinality());
+            for (int ordinal : matches) {
+                Document document = documents.get(ordinal);
+                if (inRanges(document, query)) {
+                    hits.add(document);
+                }
+            }
+            hits.sort(comparator(pageable.getSort()));
+            List<UUID> ids = new ArrayList<>(pageable.getPageSize());
+            for (long i = pageable.getOffset(); i < hits.size() && ids.size() < pageable.getPageSize(); i++) {
+                ids.add(hits.get((int) i).id);
+            }
+            return new PageImpl<>(ids, pageable, hits.size());
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private void index(int ordinal, Document document) {
+        for (String term : documentTerms(document)) {
+            terms.computeIfAbsent(term, t -> new RoaringBitmap()).add(ordinal);
+        }
+        for (UUID categoryId : document.categoryIds) {
+            categories.computeIfAbsent(categoryId, c -> new RoaringBitmap()).add(ordinal);
+        }
+        if (document.seerId != null) {
+            seers.computeIfAbsent(document.seerId, s -> new RoaringBitmap()).add(ordinal);
+        }
+        if (document.status != null) {
+            statuses.computeIfAbsent(document.status, s -> new RoaringBitmap()).add(ordinal);
+        }
+        if (document.price != null) {
+            priceBands.computeIfAbsent(band(document.price), b -> new RoaringBitmap()).add(ordinal);
+        }
+        live.add(ordinal);
+    }
+
+    private void unindex(int ordinal, Document document) {
+        for (String term : documentTerms(document)) {
+            removeFrom(terms, term, ordinal);
+        }
+        for (UUID categoryId : document.categoryIds) {
+            removeFrom(categories, categoryId, ordinal);
+        }
+        if (document.seerId != null) {
+            removeFrom(seers, document.seerId, ordinal);
+        }
+        if (document.status != null) {
+            removeFrom(statuses, document.status, ordinal);
+        }
+        if (document.price != null) {
+            removeFrom(priceBands, band(document.price), ordinal);
+        }
+        live.remove(ordinal);
+    }
+
+    private static <K> void removeFrom(Map<K, RoaringBitmap> postings, K key, int ordinal) {
+        RoaringBitmap bitmap = postings.get(key);
+        if (bitmap != null) {
+            bitmap.remove(ordinal);
+            if (bitmap.isEmpty()) {
+                postings.remove(key);
+            }
+        }
+    }
+
+    // Every prefix of every token, capped at maxPrefixLength (longer query tokens are cut to the same length)
+    private Set<String> documentTerms(Document document) {
+        Set<String> result = new LinkedHashSet<>();
+        for (String token : tokens(document.title + " " + (document.description != null ? document.description : ""))) {
+            int length = Math.min(token.length(), maxPrefixLength);
+            for (int i = 1; i <= length; i++) {
+                result.add(token.substring(0, i));
+            }
+        }
+        return result;
+    }
+
+    private List<String> queryTerms(String text) {
+        List<String> result = new ArrayList<>();
+        if (text == null) {
+            return result;
+        }
+        for (String token : tokens(text)) {
+            result.add(token.length() > maxPrefixLength ? token.substring(0, maxPrefixLength) : token);
+        }
+        return result;
+    }
+
+    private static List<String> tokens(String text) {
+        List<String> result = new ArrayList<>();
+        for (String token : TOKEN_SEPARATOR.split(TextFolding.fold(text))) {
+            if (!token.isEmpty()) {
+                result.add(token);
+            }
+        }
+        return result;
+    }
+
+    private long band(double price) {
+        return (long) Math.floor(price / priceBandWidth);
+    }
+
+    private static boolean inRanges(Document document, Query query) {
+        if (query.minPrice != null && (document.price == null || document.price < query.minPrice)) {
+            return false;
+        }
+        if (query.maxPrice != null && (document.price == null || document.price > query.maxPrice)) {
+            return false;
+        }
+        if (query.minDuration != null && (document.durationMinutes == null || document.durationMinutes < query.minDuration)) {
+            return false;
+        }
+        return query.maxDuration == null || (document.durationMinutes != null && document.durationMinutes <= query.maxDuration);
+    }
+
+    private Comparator<Document> comparator(Sort sort) {
+        Comparator<Document> result = null;
+        for (Sort.Order order : sort) {
+            Comparator<Document> key = sortKeys.get(order.getProperty());
+            if (order.isDescending()) {
+                key = key.reversed();
+            }
+            result = result == null ? key : result.thenComparing(key);
+        }
+        // Id as the last key keeps pages stable between requests
+        Comparator<Document> byId = Comparator.comparing(d -> d.id);
+        return result == null ? byId : result.thenComparing(byId);
+    }
+}
@@ -2,6 +2,9 @@ package com.iseeyou.fortunetelling.service.servicepackage;
 
 import com.iseeyou.fortunetelling.dto.request.servicepackage.ServicePackageUpsertRequest;
 import com.iseeyou.fortunetelling.dto.response.ServicePackageDetailResponse;
+import com.iseeyou.fortunetelling.dto.response.servicepackage.PackageInteractionPageResponse;
+import com.iseeyou.fortunetelling.dto.response.servicepackage.PackageInteractionResponse;
+import com.iseeyou.fortunetelling.dto.response.servicepackage.PackageRefundStatusResponse;
 import com.iseeyou.fortunetelling.dto.response.servicepackage.ServicePackageResponse;
 import com.iseeyou.fortunetelling.entity.servicepackage.ServicePackage;
 import com.iseeyou.fortunetelling.util.Constants;
@@ -9,6 +12,7 @@ import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.web.multipart.MultipartFile;
 
+import java.util.List;
 import java.util.UUID;
 
 public interface ServicePackageService {
@@ -20,11 +24,22 @@ public interface ServicePackageService {
     ServicePackage createOrUpdatePackage(String id, ServicePackageUpsertRequest request);
     String uploadImage(MultipartFile image);
     ServicePackageDetailResponse findDetailById(String id);
-    void deleteServicePackage(String id);
+    // Soft-deletes right away, refunds of open bookings run in the background; returns how many were queued
+    int deleteServicePackage(String id);
+    PackageRefundStatusResponse getRefundStatus(UUID packageId);
     
     // Interaction methods merged from PackageInteractionService
-    ServicePackageResponse toggleInteraction(UUID packageId, Constants.InteractionTypeEnum interactionType);
-    ServicePackageResponse getPackageWithInteractions(UUID packageId);
+    PackageInteractionResponse toggleInteraction(UUID packageId, Constants.InteractionTypeEnum interactionType);
+    // Per-caller fields set on top of cached (anonymous) catalog responses; return what was set, for the ETag
+    String applyMyInteractions(List<ServicePackageResponse> packages);
+    String applyMyInteraction(ServicePackageDetailResponse detail);
+    // Cache tags a detail depends on beyond its own package tag (its seer)
+    List<String> detailCacheTags(ServicePackageDetailResponse detail);
+    void recordDetailView(UUID packageId);
+    // Hottest available packages first, categoryId null = all categories
+    List<ServicePackageResponse> getTrendingPackages(UUID categoryId, int limit);
+
+    PackageInteractionPageResponse getInteractions(UUID packageId, Constants.InteractionTypeEnum type, String cursor, Integer limit);
     
     // Method to get all packages with interactions - updated to support new filters
     Page<ServicePackageResponse> getAllPackagesWithInteractions(Pageable pageable, String name, String categoryIds, Double minPrice, Double maxPrice, Integer minDuration, Integer maxDuration);
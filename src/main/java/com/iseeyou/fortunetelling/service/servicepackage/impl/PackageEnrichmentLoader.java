@@ -0,0 +1,78 @@
+package com.iseeyou.fortunetelling.service.servicepackage.impl;
+
+import com.iseeyou.fortunetelling.dto.Internal.PackageEnrichment;
+import com.iseeyou.fortunetelling.dto.response.servicepackage.ServicePackageResponse;
+import com.iseeyou.fortunetelling.repository.servicepackage.PackageInteractionRepository;
+import com.iseeyou.fortunetelling.security.JwtUserDetails;
+import com.iseeyou.fortunetelling.util.Constants;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Component;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Resolves the caller's reaction and a small sample of the latest reactions for a page of packages,
+ * with one query each instead of one round of queries per package. The full reaction list is paginated separately.
+ */
+@Component
+@RequiredArgsConstructor
+public class PackageEnrichmentLoader {
+
+    private final PackageInteractionRepository interactionRepository;
+
+    @Value("${app.package.interaction-sample-size:5}")
+    private int interactionSampleSize;
+
+    public Map<UUID, PackageEnrichment> load(Collection<UUID> packageIds) {
+        Map<UUID, PackageEnrichment> enrichments = new HashMap<>();
+        if (packageIds.isEmpty()) {
+            return enrichments;
+        }
+        for (UUID packageId : packageIds) {
+            enrichments.put(packageId, new PackageEnrichment());
+        }
+
+        loadMyInteractions(packageIds).forEach((packageId, type) -> enrichments.get(packageId).setMyInteraction(type));
+
+        if (interactionSampleSize > 0) {
+            for (Object[] row : interactionRepository.findLatestByPackageIds(packageIds, interactionSampleSize)) {
+                enrichments.get((UUID) row[0]).getInteractions().add(
+                        ServicePackageResponse.UserInteractionInfo.builder()
+                                .userId((UUID) row[1])
+                                .name((String) row[2])
+                                .avatar((String) row[3])
+                                .typeInteract((String) row[4])
+                                .build());
+            }
+        }
+        return enrichments;
+    }
+
+    // Only the packages the caller reacted to; empty for anonymous callers
+    public Map<UUID, Constants.InteractionTypeEnum> loadMyInteractions(Collection<UUID> packageIds) {
+        Map<UUID, Constants.InteractionTypeEnum> interactions = new HashMap<>();
+        UUID currentUserId = currentUserId();
+        if (currentUserId == null || packageIds.isEmpty()) {
+            return interactions;
+        }
+        for (Object[] row : interactionRepository.findInteractionTypesByUserIdAndPackageIds(currentUserId, packageIds)) {
+            interactions.put((UUID) row[0], (Constants.InteractionTypeEnum) row[1]);
+        }
+        return interactions;
+    }
+
+    // Listings are public, anonymous callers simply have no reaction
+    private UUID currentUserId() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication != null && authentication.getPrincipal() instanceof JwtUserDetails principal) {
+            return UUID.fromString(principal.getId());
+        }
+        return null;
+    }
+}
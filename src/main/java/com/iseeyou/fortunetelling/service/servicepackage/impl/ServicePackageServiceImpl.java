@@ -1,7 +1,11 @@
 package com.iseeyou.fortunetelling.service.servicepackage.impl;
 
+import com.iseeyou.fortunetelling.dto.Internal.PackageEnrichment;
 import com.iseeyou.fortunetelling.dto.request.servicepackage.ServicePackageUpsertRequest;
 import com.iseeyou.fortunetelling.dto.response.ServicePackageDetailResponse;
+import com.iseeyou.fortunetelling.dto.response.servicepackage.PackageInteractionPageResponse;
+import com.iseeyou.fortunetelling.dto.response.servicepackage.PackageInteractionResponse;
+import com.iseeyou.fortunetelling.dto.response.servicepackage.PackageRefundStatusResponse;
 import com.iseeyou.fortunetelling.dto.response.servicepackage.ServicePackageResponse;
 import com.iseeyou.fortunetelling.entity.booking.Booking;
 import com.iseeyou.fortunetelling.entity.servicepackage.ServicePackage;
@@ -11,6 +15,7 @@ import com.iseeyou.fortunetelling.entity.knowledge.KnowledgeCategory;
 import com.iseeyou.fortunetelling.entity.user.User;
 import com.iseeyou.fortunetelling.entity.user.SeerProfile;
 import com.iseeyou.fortunetelling.exception.NotFoundException;
+import com.iseeyou.fortunetelling.exception.UnauthorizedException;
 import com.iseeyou.fortunetelling.mapper.ServicePackageMapper;
 import com.iseeyou.fortunetelling.repository.booking.BookingRepository;
 import com.iseeyou.fortunetelling.repository.servicepackage.ServicePackageRepository;
@@ -18,9 +23,15 @@ import com.iseeyou.fortunetelling.repository.servicepackage.ServicePackageSpecif
 import com.iseeyou.fortunetelling.repository.servicepackage.PackageInteractionRepository;
 import com.iseeyou.fortunetelling.repository.knowledge.KnowledgeCategoryRepository;
 import com.iseeyou.fortunetelling.repository.user.UserRepository;
+import com.iseeyou.fortunetelling.security.JwtUserDetails;
+import com.iseeyou.fortunetelling.service.cache.CatalogCacheService;
+import com.iseeyou.fortunetelling.service.moderation.ModerationService;
+import com.iseeyou.fortunetelling.service.search.CatalogSearchService;
 import com.iseeyou.fortunetelling.service.servicepackage.ServicePackageService;
-import com.iseeyou.fortunetelling.service.booking.BookingService;
+import com.iseeyou.fortunetelling.service.booking.RefundJobService;
 import com.iseeyou.fortunetelling.service.user.UserService;
+import com.iseeyou.fortunetelling.service.trending.TrendingService;
+import com.iseeyou.fortunetelling.service.view.ViewCounterService;
 import com.iseeyou.fortunetelling.config.CloudinaryConfig;
 import com.iseeyou.fortunetelling.util.Constants;
 import jakarta.persistence.EntityNotFoundException;
@@ -28,20 +39,27 @@ import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.context.annotation.Lazy;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
 import org.springframework.data.jpa.domain.Specification;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.TransactionDefinition;
 import org.springframework.transaction.annotation.Transactional;
-import org.springframework.transaction.support.TransactionTemplate;
 import org.springframework.web.multipart.MultipartFile;
 import org.springframework.util.StringUtils;
 
+import java.nio.charset.StandardCharsets;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.Base64;
 import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 import java.util.UUID;
 import java.util.stream.Collectors;
 
@@ -49,6 +67,9 @@ import java.util.stream.Collectors;
 @Slf4j
 public class ServicePackageServiceImpl implements ServicePackageService {
 
+    private static final int DEFAULT_INTERACTION_PAGE_SIZE = 20;
+    private static final int MAX_INTERACTION_PAGE_SIZE = 100;
+
     private final ServicePackageRepository servicePackageRepository;
     private final KnowledgeCategoryRepository knowledgeCategoryRepository;
     private final CloudinaryConfig cloudinaryConfig;
@@ -57,10 +78,15 @@ public class ServicePackageServiceImpl implements ServicePackageService {
     private final BookingRepository bookingRepository;
     private final UserService userService;
     private final ServicePackageMapper servicePackageMapper;
-    private final BookingService bookingService;
-    private final TransactionTemplate transactionTemplate;
-
-    // Constructor with @Lazy for BookingService to prevent circular dependency
+    private final RefundJobService refundJobService;
+    private final ModerationService moderationService;
+    private final PackageEnrichmentLoader packageEnrichmentLoader;
+    private final ViewCounterService viewCounterService;
+    private final CatalogCacheService catalogCacheService;
+    private final CatalogSearchService catalogSearchService;
+    private final TrendingService trendingService;
+
+    // Constructor with @Lazy for RefundJobService (-> BookingService -> this) to prevent circular dependency
     public ServicePackageServiceImpl(
             ServicePackageRepository servicePackageRepository,
             KnowledgeCategoryRepository knowledgeCategoryRepository,
@@ -70,8 +96,13 @@ public class ServicePackageServiceImpl implements ServicePackageService {
             BookingRepository bookingRepository,
             UserService userService,
             ServicePackageMapper servicePackageMapper,
-            @Lazy BookingService bookingService,
-            TransactionTemplate transactionTemplate) {
+            @Lazy RefundJobService refundJobService,
+            ModerationService moderationService,
+            PackageEnrichmentLoader packageEnrichmentLoader,
+            ViewCounterService viewCounterService,
+            CatalogCacheService catalogCacheService,
+            CatalogSearchService catalogSearchService,
+            TrendingService trendingService) {
         this.servicePackageRepository = servicePackageRepository;
         this.knowledgeCategoryRepository = knowledgeCategoryRepository;
         this.cloudinaryConfig = cloudinaryConfig;
@@ -80,8 +111,13 @@ public class ServicePackageServiceImpl implements ServicePackageService {
         this.bookingRepository = bookingRepository;
         this.userService = userService;
         this.servicePackageMapper = servicePackageMapper;
-        this.bookingService = bookingService;
-        this.transactionTemplate = transactionTemplate;
+        this.refundJobService = refundJobService;
+        this.moderationService = moderationService;
+        this.packageEnrichmentLoader = packageEnrichmentLoader;
+        this.viewCounterService = viewCounterService;
+        this.catalogCacheService = catalogCacheService;
+        this.catalogSearchService = catalogSearchService;
+        this.trendingService = trendingService;
     }
 
     @Override
@@ -94,11 +130,26 @@ public class ServicePackageServiceImpl implements ServicePackageService {
     @Override
     @Transactional(readOnly = true)
     public Page<ServicePackage> findAvailableWithFilters(String name, String categoryIds, Double minPrice, Double maxPrice, Integer minDuration, Integer maxDuration, Pageable pageable) {
+        List<UUID> categoryUUIDs = StringUtils.hasText(categoryIds) ? ServicePackageSpecification.parseCategories(categoryIds) : List.of();
+        Optional<Page<UUID>> ids = catalogSearchService.searchPackages(name, categoryUUIDs, null,
+                Constants.PackageStatusEnum.AVAILABLE, minPrice, maxPrice, minDuration, maxDuration, pageable);
+        if (ids.isPresent()) {
+            return hydratePackages(ids.get());
+        }
+
         Specification<ServicePackage> spec = ServicePackageSpecification.withFilters(
                 name, categoryIds, minPrice, maxPrice, minDuration, maxDuration);
         return servicePackageRepository.findAll(spec, pageable);
     }
 
+    // One batch fetch in index order; packages changed on another node since the last rebuild are dropped
+    private Page<ServicePackage> hydratePackages(Page<UUID> ids) {
+        List<ServicePackage> content = servicePackageRepository.hydrate(ids.getContent()).stream()
+                .filter(pkg -> pkg.getStatus() == Constants.PackageStatusEnum.AVAILABLE)
+                .toList();
+        return new PageImpl<>(content, ids.getPageable(), ids.getTotalElements());
+    }
+
     @Override
     public Page<ServicePackage> findAvailableByCategoryWithFilters(Constants.ServiceCategoryEnum category, Double minPrice, Double maxPrice, Pageable pageable) {
         Specification<ServicePackage> spec = (root, query, criteriaBuilder) -> {
@@ -177,8 +228,8 @@ public class ServicePackageServiceImpl implements ServicePackageService {
         }
 
         servicePackage.setSeer(seer);
-        servicePackage.setPackageTitle(request.getPackageTitle());
-        servicePackage.setPackageContent(request.getPackageContent());
+        servicePackage.setPackageTitle(moderationService.enforce(request.getPackageTitle(), "service_package"));
+        servicePackage.setPackageContent(moderationService.enforce(request.getPackageContent(), "service_package"));
         servicePackage.setDurationMinutes(request.getDurationMinutes());
         servicePackage.setPrice(request.getPrice());
 
@@ -215,7 +266,9 @@ public class ServicePackageServiceImpl implements ServicePackageService {
         }
         // If updating and no new image is provided, keep the existing imageUrl
         
-        return servicePackageRepository.save(servicePackage);
+        ServicePackage saved = servicePackageRepository.save(servicePackage);
+        catalogCacheService.evict(CatalogCacheService.TAG_PACKAGES, CatalogCacheService.packageTag(saved.getId()));
+        return saved;
     }
 
     @Override
@@ -264,10 +317,8 @@ public class ServicePackageServiceImpl implements ServicePackageService {
                 })
                 .orElse(null);
 
-        // Get review statistics
         UUID packageId = servicePackage.getId();
-        Long totalReviews = bookingRepository.countReviewsByServicePackageId(packageId);
-        Double avgRating = bookingRepository.getAverageRatingByServicePackageId(packageId);
+        PackageEnrichment enrichment = packageEnrichmentLoader.load(List.of(packageId)).get(packageId);
 
         // Get reviews (latest 10 reviews by default)
         Pageable reviewPageable = PageRequest.of(0, 10, Sort.by(Sort.Direction.DESC, "reviewedAt"));
@@ -300,8 +351,13 @@ public class ServicePackageServiceImpl implements ServicePackageService {
                 .rejectionReason(servicePackage.getRejectionReason())
                 .createdAt(servicePackage.getCreatedAt())
                 .updatedAt(servicePackage.getUpdatedAt())
-                .avgRating(avgRating != null ? Math.round(avgRating * 10.0) / 10.0 : null)
-                .totalReviews(totalReviews != null ? totalReviews : 0L)
+                .viewCount(servicePackage.getViewCount())
+                .likeCount(servicePackage.getLikeCount())
+                .dislikeCount(servicePackage.getDislikeCount())
+                .myInteraction(enrichment.getMyInteraction() != null ? enrichment.getMyInteraction().getValue() : null)
+                .userInteractions(enrichment.getInteractions())
+                .avgRating(avgRatingOf(servicePackage))
+                .totalReviews(servicePackage.getRatingCount())
                 .reviews(reviews)
                 .seer(seerInfo)
                 .build();
@@ -309,7 +365,7 @@ public class ServicePackageServiceImpl implements ServicePackageService {
 
     @Override
     @Transactional
-    public void deleteServicePackage(String id) {
+    public int deleteServicePackage(String id) {
         log.info("Starting soft delete process for service package {}", id);
         
         // 1. Find service package
@@ -333,159 +389,173 @@ public class ServicePackageServiceImpl implements ServicePackageService {
             );
         }
         
-        // 4. Find all bookings for this service package that are not completed
-        List<Booking> incompleteBookings = servicePackage.getBookings().stream()
-                .filter(booking -> !booking.getStatus().equals(Constants.BookingStatusEnum.COMPLETED))
+        // 4. Find all bookings for this service package that still need a refund
+        List<Booking> refundableBookings = servicePackage.getBookings().stream()
+                .filter(booking -> booking.getStatus() != Constants.BookingStatusEnum.COMPLETED
+                        && booking.getStatus() != Constants.BookingStatusEnum.CANCELED
+                        && booking.getStatus() != Constants.BookingStatusEnum.FAILED)
                 .collect(Collectors.toList());
-        
-        log.info("Found {} incomplete bookings for service package {}", incompleteBookings.size(), id);
-        
-        // 5. Refund incomplete bookings
-        // Use separate transactions for each refund to prevent rollback contamination
-        int successfulRefunds = 0;
-        int failedRefunds = 0;
-        List<String> refundErrors = new java.util.ArrayList<>();
-        
-        for (Booking booking : incompleteBookings) {
-            log.info("Processing refund for booking {} (status: {})", booking.getId(), booking.getStatus());
-            
-            // Check if booking is already canceled or failed
-            if (booking.getStatus().equals(Constants.BookingStatusEnum.CANCELED) ||
-                booking.getStatus().equals(Constants.BookingStatusEnum.FAILED)) {
-                log.info("Booking {} already in terminal state {}, skipping refund", 
-                        booking.getId(), booking.getStatus());
-                continue;
-            }
-            
-            // Try to refund the booking in a separate transaction using TransactionTemplate
-            // This creates a new transaction that won't affect the parent transaction if it fails
-            try {
-                // Create a new TransactionTemplate with REQUIRES_NEW propagation
-                TransactionTemplate newTransactionTemplate = new TransactionTemplate(transactionTemplate.getTransactionManager());
-                newTransactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
-                
-                newTransactionTemplate.execute(status -> {
-                    bookingService.refundBooking(booking.getId());
-                    return null;
-                });
-                successfulRefunds++;
-                log.info("Successfully refunded booking {}", booking.getId());
-            } catch (Exception e) {
-                failedRefunds++;
-                String errorMsg = String.format("Failed to refund booking %s: %s", 
-                        booking.getId(), e.getMessage());
-                log.error(errorMsg, e);
-                refundErrors.add(errorMsg);
-                
-                // Continue with other bookings even if one fails
-                // We still want to delete the package
-            }
-        }
-        
-        log.info("Refund summary for service package {}: {} successful, {} failed out of {} incomplete bookings",
-                id, successfulRefunds, failedRefunds, incompleteBookings.size());
-        
-        // Log any refund errors
-        if (!refundErrors.isEmpty()) {
-            log.warn("Refund errors for service package {}: {}", id, String.join("; ", refundErrors));
-        }
-        
+
+        // 5. Queue one refund job per booking, in this transaction: the jobs exist iff the package is deleted.
+        // The payment gateway is called by the refund worker, not in this request
+        UUID seerId = servicePackage.getSeer() != null ? servicePackage.getSeer().getId() : null;
+        int queuedRefunds = refundJobService.enqueue(servicePackage.getId(), seerId, refundableBookings);
+
         // 6. Perform soft delete - repository.delete() will trigger @SQLDelete annotation
         // which sets deleted_at = NOW()
         // IMPORTANT: Bookings and BookingPayments are NOT deleted (no cascade)
         // They are preserved for reporting and transaction history
         // Only the ServicePackage is soft-deleted (deleted_at is set)
         servicePackageRepository.delete(servicePackage);
-        
+        catalogCacheService.evict(CatalogCacheService.TAG_PACKAGES, CatalogCacheService.packageTag(servicePackage.getId()));
+
         log.info("Service package {} soft deleted successfully by user {} (role: {}). " +
-                "Refunded {} bookings, {} failed. " +
-                "All bookings and payments are preserved for historical records.", 
-                id, currentUser.getId(), currentUser.getRole(), successfulRefunds, failedRefunds);
+                "Queued {} refunds. " +
+                "All bookings and payments are preserved for historical records.",
+                id, currentUser.getId(), currentUser.getRole(), queuedRefunds);
+        return queuedRefunds;
+    }
+
+    @Override
+    public PackageRefundStatusResponse getRefundStatus(UUID packageId) {
+        return refundJobService.getPackageRefundStatus(packageId);
     }
 
     // ============ Interaction methods (merged from PackageInteractionService) ============
 
     @Override
     @Transactional
-    public ServicePackageResponse toggleInteraction(UUID packageId, Constants.InteractionTypeEnum interactionType) {
-        User currentUser = userService.getUser();
-        ServicePackage servicePackage = servicePackageRepository.findById(packageId)
-                .orElseThrow(() -> new EntityNotFoundException("Service package not found with id: " + packageId));
-
-        Optional<PackageInteraction> existingInteraction = 
-                interactionRepository.findByUser_IdAndServicePackage_Id(currentUser.getId(), packageId);
+    public PackageInteractionResponse toggleInteraction(UUID packageId, Constants.InteractionTypeEnum interactionType) {
+        UUID userId = getCurrentUserId();
+        if (!servicePackageRepository.existsById(packageId)) {
+            throw new EntityNotFoundException("Service package not found with id: " + packageId);
+        }
 
-        if (existingInteraction.isPresent()) {
-            PackageInteraction interaction = existingInteraction.get();
-            
-            if (interaction.getInteractionType() == interactionType) {
-                // Same type clicked again -> Remove interaction (toggle off)
-                log.info("User {} removing {} from package {}", currentUser.getId(), interactionType, packageId);
-                interactionRepository.delete(interaction);
-            } else {
-                // Different type clicked -> Change interaction
-                log.info("User {} changing interaction from {} to {} on package {}", 
-                        currentUser.getId(), interaction.getInteractionType(), interactionType, packageId);
-                interaction.setInteractionType(interactionType);
-                interactionRepository.save(interaction);
-            }
+        // One statement decides insert vs. existing row and locks it, so the toggle below cannot race
+        Object[] upserted = interactionRepository.upsertInteraction(userId, packageId, interactionType.name()).get(0);
+        Constants.InteractionTypeEnum previous = Boolean.TRUE.equals(upserted[1])
+                ? null
+                : Constants.InteractionTypeEnum.get((String) upserted[0]);
+
+        Constants.InteractionTypeEnum current;
+        if (previous == null) {
+            log.info("User {} adding {} to package {}", userId, interactionType, packageId);
+            current = interactionType;
+        } else if (previous == interactionType) {
+            // Same type clicked again -> Remove interaction (toggle off)
+            log.info("User {} removing {} from package {}", userId, interactionType, packageId);
+            interactionRepository.deleteInteraction(userId, packageId);
+            current = null;
         } else {
-            // No existing interaction -> Create new one
-            log.info("User {} adding {} to package {}", currentUser.getId(), interactionType, packageId);
-            PackageInteraction newInteraction = PackageInteraction.builder()
-                    .user(currentUser)
-                    .servicePackage(servicePackage)
-                    .interactionType(interactionType)
-                    .build();
-            interactionRepository.save(newInteraction);
+            log.info("User {} changing interaction from {} to {} on package {}", userId, previous, interactionType, packageId);
+            interactionRepository.updateInteractionType(userId, packageId, interactionType.name());
+            current = interactionType;
+        }
+
+        List<Object[]> counts = servicePackageRepository.adjustInteractionCounts(packageId,
+                countDelta(Constants.InteractionTypeEnum.LIKE, previous, current),
+                countDelta(Constants.InteractionTypeEnum.DISLIKE, previous, current));
+        if (counts.isEmpty()) {
+            // Deleted between the check and the update, the interaction rolls back with the exception
+            throw new EntityNotFoundException("Service package not found with id: " + packageId);
         }
 
-        // Update counts in service package
-        updatePackageCounts(packageId);
+        if (current == Constants.InteractionTypeEnum.LIKE && previous != Constants.InteractionTypeEnum.LIKE) {
+            trendingService.recordPackageEvent(packageId, Constants.TrendingEventEnum.LIKE);
+        } else if (previous == Constants.InteractionTypeEnum.LIKE && current != Constants.InteractionTypeEnum.LIKE) {
+            // Takes back exactly what the like added, so liking and unliking over and over does not move a package
+            trendingService.recordUnlike(packageId, toLocalDateTime(upserted[2]));
+        }
 
-        return getPackageWithInteractions(packageId);
+        return PackageInteractionResponse.builder()
+                .packageId(packageId)
+                .myInteraction(current != null ? current.getValue() : null)
+                .likeCount(((Number) counts.get(0)[0]).longValue())
+                .dislikeCount(((Number) counts.get(0)[1]).longValue())
+                .build();
+    }
+
+    // Principal id only, the toggle does not need the user row
+    private UUID getCurrentUserId() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication == null || !(authentication.getPrincipal() instanceof JwtUserDetails principal)) {
+            throw new UnauthorizedException("User not authenticated");
+        }
+        return UUID.fromString(principal.getId());
+    }
+
+    private long countDelta(Constants.InteractionTypeEnum type,
+                            Constants.InteractionTypeEnum previous, Constants.InteractionTypeEnum current) {
+        return (current == type ? 1 : 0) - (previous == type ? 1 : 0);
+    }
+
+    private static LocalDateTime toLocalDateTime(Object value) {
+        if (value instanceof Timestamp timestamp) {
+            return timestamp.toLocalDateTime();
+        }
+        return (LocalDateTime) value;
     }
 
     @Override
     @Transactional(readOnly = true)
-    public ServicePackageResponse getPackageWithInteractions(UUID packageId) {
-        ServicePackage servicePackage = servicePackageRepository.findById(packageId)
-                .orElseThrow(() -> new EntityNotFoundException("Service package not found with id: " + packageId));
-
-        // Map service package to response
-        ServicePackageResponse response = servicePackageMapper.mapTo(servicePackage, ServicePackageResponse.class);
+    public PackageInteractionPageResponse getInteractions(UUID packageId, Constants.InteractionTypeEnum type,
+                                                          String cursor, Integer limit) {
+        if (!servicePackageRepository.existsById(packageId)) {
+            throw new EntityNotFoundException("Service package not found with id: " + packageId);
+        }
+        int pageSize = limit == null ? DEFAULT_INTERACTION_PAGE_SIZE : Math.max(1, Math.min(limit, MAX_INTERACTION_PAGE_SIZE));
+        PackageInteraction after = cursor == null || cursor.isBlank() ? null : decodeInteractionCursor(cursor);
+
+        // One extra row tells whether there is a next page
+        int fetch = pageSize + 1;
+        List<Object[]> rows;
+        if (type == null) {
+            rows = after == null
+                    ? interactionRepository.findFirstPage(packageId, fetch)
+                    : interactionRepository.findPageAfter(packageId, after.getCreatedAt(), after.getId(), fetch);
+        } else {
+            rows = after == null
+                    ? interactionRepository.findFirstPageByType(packageId, type.name(), fetch)
+                    : interactionRepository.findPageByTypeAfter(packageId, type.name(), after.getCreatedAt(), after.getId(), fetch);
+        }
+        boolean hasMore = rows.size() > pageSize;
+        if (hasMore) {
+            rows = rows.subList(0, pageSize);
+        }
 
-        // Get all interactions with user info
-        List<PackageInteraction> interactions = interactionRepository.findAllByServicePackage_IdWithUser(packageId);
-        
-        List<ServicePackageResponse.UserInteractionInfo> userInteractions = interactions.stream()
-                .map(interaction -> ServicePackageResponse.UserInteractionInfo.builder()
-                        .userId(interaction.getUser().getId())
-                        .name(interaction.getUser().getFullName())
-                        .avatar(interaction.getUser().getAvatarUrl())
-                        .typeInteract(interaction.getInteractionType().getValue())
+        // Rows are (packageInteractionId, createdAt, userId, fullName, avatarUrl, interactionType)
+        List<ServicePackageResponse.UserInteractionInfo> items = rows.stream()
+                .map(row -> ServicePackageResponse.UserInteractionInfo.builder()
+                        .userId((UUID) row[2])
+                        .name((String) row[3])
+                        .avatar((String) row[4])
+                        .typeInteract(Constants.InteractionTypeEnum.valueOf((String) row[5]).getValue())
+                        .reactedAt(toLocalDateTime(row[1]))
                         .build())
-                .collect(Collectors.toList());
-
-        response.setUserInteractions(userInteractions);
+                .toList();
 
-        return response;
+        Object[] last = rows.isEmpty() ? null : rows.get(rows.size() - 1);
+        return PackageInteractionPageResponse.builder()
+                .items(items)
+                .nextCursor(hasMore ? encodeInteractionCursor(toLocalDateTime(last[1]), (UUID) last[0]) : null)
+                .build();
     }
 
-    private void updatePackageCounts(UUID packageId) {
-        ServicePackage servicePackage = servicePackageRepository.findById(packageId)
-                .orElseThrow(() -> new EntityNotFoundException("Service package not found with id: " + packageId));
-
-        long likeCount = interactionRepository.countByServicePackage_IdAndInteractionType(
-                packageId, Constants.InteractionTypeEnum.LIKE);
-        long dislikeCount = interactionRepository.countByServicePackage_IdAndInteractionType(
-                packageId, Constants.InteractionTypeEnum.DISLIKE);
-
-        servicePackage.setLikeCount(likeCount);
-        servicePackage.setDislikeCount(dislikeCount);
-        servicePackageRepository.save(servicePackage);
+    private String encodeInteractionCursor(LocalDateTime createdAt, UUID id) {
+        String raw = createdAt + "|" + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
 
-        log.debug("Updated package {} counts: {} likes, {} dislikes", packageId, likeCount, dislikeCount);
+    private PackageInteraction decodeInteractionCursor(String cursor) {
+        try {
+            String[] parts = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8).split("\\|");
+            PackageInteraction after = new PackageInteraction();
+            after.setCreatedAt(LocalDateTime.parse(parts[0]));
+            after.setId(UUID.fromString(parts[1]));
+            return after;
+        } catch (RuntimeException e) {
+            throw new IllegalArgumentException("Invalid interaction cursor");
+        }
     }
 
     @Override
@@ -504,39 +574,95 @@ public class ServicePackageServiceImpl implements ServicePackageService {
     }
 
     /**
-     * Helper method to enrich service packages with user interaction data and review statistics
+     * Helper method to enrich service packages with user interaction data and review statistics.
+     * The whole page is resolved by the loader up front, the query count does not grow with the page size.
      */
     private Page<ServicePackageResponse> enrichWithInteractions(Page<ServicePackage> servicePackages) {
+        Map<UUID, PackageEnrichment> enrichments = packageEnrichmentLoader.load(
+                servicePackages.getContent().stream().map(ServicePackage::getId).toList());
+
         return servicePackages.map(pkg -> {
-            // Map basic package info
             ServicePackageResponse response = servicePackageMapper.mapTo(pkg, ServicePackageResponse.class);
-            
-            // Get all interactions for this package
-            List<PackageInteraction> interactions = interactionRepository.findAllByServicePackage_IdWithUser(pkg.getId());
-            
-            // Map interactions to UserInteractionInfo
-            List<ServicePackageResponse.UserInteractionInfo> userInteractions = interactions.stream()
-                    .map(interaction -> ServicePackageResponse.UserInteractionInfo.builder()
-                            .userId(interaction.getUser().getId())
-                            .name(interaction.getUser().getFullName())
-                            .avatar(interaction.getUser().getAvatarUrl())
-                            .typeInteract(interaction.getInteractionType().getValue())
-                            .build())
-                    .collect(Collectors.toList());
-            
-            response.setUserInteractions(userInteractions);
-            
-            // Get review statistics from bookings
-            Long totalReviews = bookingRepository.countReviewsByServicePackageId(pkg.getId());
-            Double avgRating = bookingRepository.getAverageRatingByServicePackageId(pkg.getId());
-            
-            response.setTotalReviews(totalReviews != null ? totalReviews : 0L);
-            response.setAvgRating(avgRating != null ? Math.round(avgRating * 10.0) / 10.0 : null); // Round to 1 decimal place
-            
+            applyEnrichment(response, enrichments.get(pkg.getId()));
+            applyRatings(response, pkg);
             return response;
         });
     }
 
+    @Override
+    public void recordDetailView(UUID packageId) {
+        if (viewCounterService.recordView(Constants.ViewTargetEnum.SERVICE_PACKAGE, packageId)) {
+            trendingService.recordPackageEvent(packageId, Constants.TrendingEventEnum.VIEW);
+        }
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<ServicePackageResponse> getTrendingPackages(UUID categoryId, int limit) {
+        List<UUID> ids = trendingService.topPackageIds(categoryId, limit);
+        List<ServicePackage> packages = servicePackageRepository.hydrate(ids);
+
+        // Deleted packages leave the ranking here; hidden ones keep their score until they are shown again
+        Set<UUID> found = packages.stream().map(ServicePackage::getId).collect(Collectors.toSet());
+        trendingService.removePackages(categoryId, ids.stream().filter(id -> !found.contains(id)).toList());
+
+        List<ServicePackage> available = packages.stream()
+                .filter(pkg -> pkg.getStatus() == Constants.PackageStatusEnum.AVAILABLE)
+                .toList();
+        return enrichWithInteractions(new PageImpl<>(available)).getContent();
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public String applyMyInteractions(List<ServicePackageResponse> packages) {
+        Map<UUID, Constants.InteractionTypeEnum> mine = packageEnrichmentLoader.loadMyInteractions(
+                packages.stream().map(response -> UUID.fromString(response.getId())).toList());
+        StringBuilder fingerprint = new StringBuilder();
+        for (ServicePackageResponse response : packages) {
+            Constants.InteractionTypeEnum type = mine.get(UUID.fromString(response.getId()));
+            response.setMyInteraction(type != null ? type.getValue() : null);
+            if (type != null) {
+                fingerprint.append(response.getId()).append(':').append(type.getValue()).append(';');
+            }
+        }
+        return fingerprint.toString();
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public String applyMyInteraction(ServicePackageDetailResponse detail) {
+        UUID packageId = UUID.fromString(detail.getPackageId());
+        Constants.InteractionTypeEnum type = packageEnrichmentLoader.loadMyInteractions(List.of(packageId)).get(packageId);
+        detail.setMyInteraction(type != null ? type.getValue() : null);
+        return type != null ? type.getValue() : "";
+    }
+
+    @Override
+    public List<String> detailCacheTags(ServicePackageDetailResponse detail) {
+        if (detail.getSeer() == null || detail.getSeer().getSeerId() == null) {
+            return List.of();
+        }
+        return List.of(CatalogCacheService.seerTag(UUID.fromString(detail.getSeer().getSeerId())));
+    }
+
+    private void applyEnrichment(ServicePackageResponse response, PackageEnrichment enrichment) {
+        response.setUserInteractions(enrichment.getInteractions());
+        response.setMyInteraction(enrichment.getMyInteraction() != null ? enrichment.getMyInteraction().getValue() : null);
+    }
+
+    // Aggregates come from the package row; rounded to 1 decimal, null khi chưa có review
+    private void applyRatings(ServicePackageResponse response, ServicePackage servicePackage) {
+        response.setTotalReviews(servicePackage.getRatingCount());
+        response.setAvgRating(avgRatingOf(servicePackage));
+    }
+
+    private Double avgRatingOf(ServicePackage servicePackage) {
+        if (servicePackage.getRatingCount() == null || servicePackage.getRatingCount() == 0) {
+            return null;
+        }
+        return Math.round(servicePackage.getAvgRating() * 10.0) / 10.0;
+    }
+
     // ============ Admin methods ============
 
     @Override
@@ -565,6 +691,7 @@ public class ServicePackageServiceImpl implements ServicePackageService {
             log.info("Service package {} status changed to: {}", packageId, status);
         }
 
+        catalogCacheService.evict(CatalogCacheService.TAG_PACKAGES, CatalogCacheService.packageTag(servicePackage.getId()));
         return servicePackageRepository.save(servicePackage);
     }
 
@@ -0,0 +1,30 @@
+package com.iseeyou.fortunetelling.service.socket;
+
+import com.corundumstudio.socketio.SocketIOClient;
+import com.corundumstudio.socketio.SocketIONamespace;
+
+import java.util.Collection;
+
+/**
+ * Single entry point for every server -> client Socket.IO emit, each client behind its own bounded send queue.
+ */
+public interface SocketEmitter {
+    // Reliable event: queued while the client is behind, never dropped
+    void emit(SocketIOClient client, String event, Object payload);
+    // Ephemeral event (typing, presence): coalesced by key, or dropped, while the client is behind
+    void emitEphemeral(SocketIOClient client, String event, String coalesceKey, Object payload);
+    void emitToRoom(SocketIONamespace namespace, String room, String event, Object payload);
+    void emitEphemeralToRoom(SocketIONamespace namespace, String room, SocketIOClient excluded,
+                             String event, String coalesceKey, Object payload);
+    void emitToClients(Collection<SocketIOClient> clients, String event, Object payload);
+    // Drop all queued state for a client. Called from disconnect listeners.
+    void release(SocketIOClient client);
+
+    static String presenceKey(String conversationId, String userId) {
+        return "presence:" + conversationId + ":" + userId;
+    }
+
+    static String typingKey(String conversationId, String userId) {
+        return "typing:" + conversationId + ":" + userId;
+    }
+}
@@ -3,6 +3,8 @@ package com.iseeyou.fortunetelling.service.socket;
 import com.iseeyou.fortunetelling.dto.response.notification.NotificationResponse;
 
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 import java.util.UUID;
 
 public interface SocketIOService {
@@ -10,9 +12,15 @@ public interface SocketIOService {
     void sendNotificationToUser(UUID userId, NotificationResponse notificationResponse);
     // Send notification to multiple users
     void sendNotificationToUsers(List<UUID> userIds, NotificationResponse notificationResponse);
+    // Send a different notification to each user (fan-out), offline users are skipped
+    void sendNotificationsToUsers(Map<UUID, NotificationResponse> notificationsByUser);
     // Broadcast notification to all connected users (Admin only)
     void broadcastNotification(NotificationResponse notificationResponse);
+    // Latest unread badge value; coalesced, a slow client only gets the newest count
+    void sendUnreadCountToUser(UUID userId, long unreadCount);
     boolean isUserOnline(UUID userId);
+    // Snapshot of users with an open notification socket on this node
+    Set<UUID> getOnlineUserIds();
     // Get count of online users
     int getOnlineUsersCount();
 }
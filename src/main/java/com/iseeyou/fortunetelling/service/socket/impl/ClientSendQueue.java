@@ -0,0 +1,147 @@
+package com.iseeyou.fortunetelling.service.socket.impl;
+
+import com.corundumstudio.socketio.SocketIOClient;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Outbound state of a single Socket.IO client.
+ * Tracks bytes handed to netty but not yet flushed (in-flight), events waiting behind the
+ * high water mark (pending) and coalesced ephemeral events keyed by their coalesce key.
+ * All methods must be called while holding the monitor of this object, except {@link #bufferedBytes()} and
+ * {@link #getCongestedSince()}, which the gauges read without it.
+ */
+class ClientSendQueue {
+
+    @Getter
+    @AllArgsConstructor
+    static class Outbound {
+        private final String event;
+        private final Object payload;
+        private final long bytes;
+    }
+
+    @Getter
+    private final SocketIOClient client;
+
+    private final Deque<Outbound> reliable = new ArrayDeque<>();
+    private final Map<String, Outbound> ephemeral = new LinkedHashMap<>();
+
+    @Getter
+    private long inFlightBytes;
+    @Getter
+    private long pendingBytes;
+    // Bytes queued on a polling transport that has no channel bound yet (no write future to wait on)
+    private long pollingBytes;
+    // inFlightBytes + pendingBytes, republished after every change for readers without the monitor
+    private final AtomicLong bufferedBytes = new AtomicLong();
+    // 0 when the client is below the high water mark
+    @Getter
+    private volatile long congestedSince;
+
+    boolean draining;
+
+    ClientSendQueue(SocketIOClient client) {
+        this.client = client;
+    }
+
+    boolean hasPending() {
+        return !reliable.isEmpty() || !ephemeral.isEmpty();
+    }
+
+    long bufferedBytes() {
+        return bufferedBytes.get();
+    }
+
+    void addReliable(Outbound outbound) {
+        reliable.addLast(outbound);
+        pendingBytes += outbound.getBytes();
+        publishBufferedBytes();
+    }
+
+    boolean hasEphemeral(String coalesceKey) {
+        return ephemeral.containsKey(coalesceKey);
+    }
+
+    /**
+     * Replaces any queued event with the same key; only the latest state is worth sending.
+     */
+    void putEphemeral(String coalesceKey, Outbound outbound) {
+        Outbound previous = ephemeral.put(coalesceKey, outbound);
+        if (previous != null) {
+            pendingBytes -= previous.getBytes();
+        }
+        pendingBytes += outbound.getBytes();
+        publishBufferedBytes();
+    }
+
+    /**
+     * Reliable events drain first so that typing/presence noise never delays a chat message.
+     */
+    Outbound poll() {
+        Outbound next = reliable.pollFirst();
+        if (next == null) {
+            Iterator<Outbound> iterator = ephemeral.values().iterator();
+            if (iterator.hasNext()) {
+                next = iterator.next();
+                iterator.remove();
+            }
+        }
+        if (next != null) {
+            pendingBytes -= next.getBytes();
+            publishBufferedBytes();
+        }
+        return next;
+    }
+
+    void onWrite(long bytes) {
+        inFlightBytes += bytes;
+        publishBufferedBytes();
+    }
+
+    void onPollingWrite(long bytes) {
+        onWrite(bytes);
+        pollingBytes += bytes;
+    }
+
+    void onWritten(long bytes) {
+        inFlightBytes = Math.max(0, inFlightBytes - bytes);
+        publishBufferedBytes();
+    }
+
+    void onPollingFlushed() {
+        onWritten(pollingBytes);
+        pollingBytes = 0;
+    }
+
+    void updateCongestion(long highWaterMark, long now) {
+        if (bufferedBytes() >= highWaterMark) {
+            if (congestedSince == 0) {
+                congestedSince = now;
+            }
+        } else {
+            congestedSince = 0;
+        }
+    }
+
+    void clear() {
+        reliable.clear();
+        ephemeral.clear();
+        pendingBytes = 0;
+        inFlightBytes = 0;
+        pollingBytes = 0;
+        congestedSince = 0;
+        publishBufferedBytes();
+    }
+
+    private void publishBufferedBytes() {
+        bufferedBytes.set(inFlightBytes + pendingBytes);
+    }
+}
@@ -0,0 +1,284 @@
+package com.iseeyou.fortunetelling.service.socket.impl;
+
+import com.corundumstudio.socketio.BroadcastOperations;
+import com.corundumstudio.socketio.SocketIOClient;
+import com.corundumstudio.socketio.SocketIONamespace;
+import com.corundumstudio.socketio.protocol.Packet;
+import com.corundumstudio.socketio.protocol.PacketType;
+import com.corundumstudio.socketio.transport.NamespaceClient;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.iseeyou.fortunetelling.service.socket.SocketEmitter;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.netty.channel.ChannelFuture;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Each client gets its own send queue bounded by high/low water marks:
+ * - reliable events (messages, notifications, session lifecycle) queue up behind the high water mark
+ *   and the client is disconnected once it exceeds the hard cap or stays congested too long
+ * - ephemeral events (typing, presence) are coalesced by key, or dropped, while the client is behind
+ */
+@Component
+@Slf4j
+public class SocketEmitterImpl implements SocketEmitter {
+
+    private final ObjectMapper objectMapper;
+    private final Map<SocketIOClient, ClientSendQueue> queues = new ConcurrentHashMap<>();
+
+    private final Counter coalescedCounter;
+    private final Counter droppedCounter;
+    private final Counter slowConsumerCounter;
+
+    @Value("${socketio.backpressure.high-water-mark-bytes:262144}")
+    private long highWaterMark;
+
+    @Value("${socketio.backpressure.low-water-mark-bytes:65536}")
+    private long lowWaterMark;
+
+    @Value("${socketio.backpressure.max-pending-bytes:1048576}")
+    private long maxPendingBytes;
+
+    @Value("${socketio.backpressure.slow-consumer-timeout-ms:30000}")
+    private long slowConsumerTimeoutMs;
+
+    public SocketEmitterImpl(ObjectMapper objectMapper, MeterRegistry meterRegistry) {
+        this.objectMapper = objectMapper;
+
+        Gauge.builder("socketio.outbound.buffered.bytes", queues, SocketEmitterImpl::totalBufferedBytes)
+                .description("Bytes waiting in per-client Socket.IO send queues or netty write buffers")
+                .register(meterRegistry);
+        Gauge.builder("socketio.outbound.congested.clients", queues, SocketEmitterImpl::congestedClients)
+                .description("Clients currently above the high water mark")
+                .register(meterRegistry);
+        this.coalescedCounter = Counter.builder("socketio.outbound.events")
+                .tag("outcome", "coalesced")
+                .register(meterRegistry);
+        this.droppedCounter = Counter.builder("socketio.outbound.events")
+                .tag("outcome", "dropped")
+                .register(meterRegistry);
+        this.slowConsumerCounter = Counter.builder("socketio.outbound.slow_consumer.disconnects")
+                .register(meterRegistry);
+    }
+
+    @Override
+    public void emit(SocketIOClient client, String event, Object payload) {
+        enqueue(client, event, null, payload, estimateBytes(event, payload));
+    }
+
+    @Override
+    public void emitEphemeral(SocketIOClient client, String event, String coalesceKey, Object payload) {
+        enqueue(client, event, coalesceKey, payload, estimateBytes(event, payload));
+    }
+
+    @Override
+    public void emitToRoom(SocketIONamespace namespace, String room, String event, Object payload) {
+        emitToClients(roomClients(namespace, room), null, event, null, payload);
+    }
+
+    @Override
+    public void emitEphemeralToRoom(SocketIONamespace namespace, String room, SocketIOClient excluded,
+                                    String event, String coalesceKey, Object payload) {
+        emitToClients(roomClients(namespace, room), excluded, event, coalesceKey, payload);
+    }
+
+    @Override
+    public void emitToClients(Collection<SocketIOClient> clients, String event, Object payload) {
+        emitToClients(clients, null, event, null, payload);
+    }
+
+    @Override
+    public void release(SocketIOClient client) {
+        ClientSendQueue queue = queues.remove(client);
+        if (queue != null) {
+            synchronized (queue) {
+                queue.clear();
+            }
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${socketio.backpressure.sweep-interval-ms:1000}")
+    public void sweep() {
+        long now = System.currentTimeMillis();
+        for (ClientSendQueue queue : new ArrayList<>(queues.values())) {
+            SocketIOClient client = queue.getClient();
+            if (!client.isChannelOpen()) {
+                release(client);
+                continue;
+            }
+
+            boolean slow;
+            synchronized (queue) {
+                if (client instanceof NamespaceClient && ((NamespaceClient) client).getBaseClient()
+                        .getPacketsQueue(client.getTransport()).isEmpty()) {
+                    queue.onPollingFlushed();
+                }
+                queue.updateCongestion(highWaterMark, now);
+                slow = queue.getCongestedSince() > 0 && now - queue.getCongestedSince() > slowConsumerTimeoutMs;
+            }
+
+            if (slow) {
+                disconnectSlowConsumer(queue, "congested for more than " + slowConsumerTimeoutMs + "ms");
+            } else {
+                drain(queue);
+            }
+        }
+    }
+
+    private void emitToClients(Collection<SocketIOClient> clients, SocketIOClient excluded,
+                               String event, String coalesceKey, Object payload) {
+        if (clients.isEmpty()) {
+            return;
+        }
+        // Serialize once per broadcast, not once per recipient
+        long bytes = estimateBytes(event, payload);
+        for (SocketIOClient client : clients) {
+            if (client.equals(excluded)) {
+                continue;
+            }
+            enqueue(client, event, coalesceKey, payload, bytes);
+        }
+    }
+
+    private void enqueue(SocketIOClient client, String event, String coalesceKey, Object payload, long bytes) {
+        if (client == null || !client.isChannelOpen()) {
+            return;
+        }
+
+        ClientSendQueue queue = queues.computeIfAbsent(client, ClientSendQueue::new);
+        ClientSendQueue.Outbound outbound = new ClientSendQueue.Outbound(event, payload, bytes);
+        boolean overflow = false;
+
+        synchronized (queue) {
+            if (!queue.hasPending() && queue.getInFlightBytes() < highWaterMark) {
+                write(queue, outbound);
+            } else if (coalesceKey == null) {
+                queue.addReliable(outbound);
+                overflow = queue.getPendingBytes() > maxPendingBytes;
+            } else if (queue.hasEphemeral(coalesceKey)) {
+                queue.putEphemeral(coalesceKey, outbound);
+                coalescedCounter.increment();
+            } else if (queue.bufferedBytes() >= highWaterMark) {
+                // Client is behind and this key has nothing to replace: shed the event
+                droppedCounter.increment();
+            } else {
+                queue.putEphemeral(coalesceKey, outbound);
+            }
+            queue.updateCongestion(highWaterMark, System.currentTimeMillis());
+        }
+
+        if (overflow) {
+            disconnectSlowConsumer(queue, "pending bytes exceeded " + maxPendingBytes);
+        }
+    }
+
+    private void drain(ClientSendQueue queue) {
+        synchronized (queue) {
+            if (queue.draining || queue.getInFlightBytes() > lowWaterMark) {
+                return;
+            }
+            queue.draining = true;
+            try {
+                while (queue.getInFlightBytes() < highWaterMark) {
+                    ClientSendQueue.Outbound next = queue.poll();
+                    if (next == null) {
+                        break;
+                    }
+                    write(queue, next);
+                }
+                queue.updateCongestion(highWaterMark, System.currentTimeMillis());
+            } finally {
+                queue.draining = false;
+            }
+        }
+    }
+
+    private void write(ClientSendQueue queue, ClientSendQueue.Outbound outbound) {
+        SocketIOClient client = queue.getClient();
+        if (!(client instanceof NamespaceClient)) {
+            client.sendEvent(outbound.getEvent(), outbound.getPayload());
+            return;
+        }
+
+        // Same packet NamespaceClient.sendEvent builds, but sent through the base client to get the write future
+        NamespaceClient namespaceClient = (NamespaceClient) client;
+        Packet packet = new Packet(PacketType.MESSAGE);
+        packet.setSubType(PacketType.EVENT);
+        packet.setName(outbound.getEvent());
+        packet.setData(Collections.singletonList(outbound.getPayload()));
+        packet.setNsp(namespaceClient.getNamespace().getName());
+
+        ChannelFuture future = namespaceClient.getBaseClient().send(packet);
+        if (future == null) {
+            // Polling transport without an active request: released by sweep() once the client polls
+            queue.onPollingWrite(outbound.getBytes());
+            return;
+        }
+
+        queue.onWrite(outbound.getBytes());
+        future.addListener(done -> {
+            synchronized (queue) {
+                queue.onWritten(outbound.getBytes());
+            }
+            drain(queue);
+        });
+    }
+
+    private void disconnectSlowConsumer(ClientSendQueue queue, String reason) {
+        SocketIOClient client = queue.getClient();
+        long buffered;
+        synchronized (queue) {
+            buffered = queue.bufferedBytes();
+        }
+        log.warn("Disconnecting slow Socket.IO client {} ({}): {} bytes buffered, reason: {}",
+                client.getSessionId(), client.get("userId"), buffered, reason);
+        slowConsumerCounter.increment();
+        release(client);
+        client.disconnect();
+    }
+
+    private Collection<SocketIOClient> roomClients(SocketIONamespace namespace, String room) {
+        if (namespace == null) {
+            return Collections.emptyList();
+        }
+        BroadcastOperations roomOps = namespace.getRoomOperations(room);
+        return roomOps != null ? roomOps.getClients() : Collections.<SocketIOClient>emptyList();
+    }
+
+    /**
+     * Approximate wire size. netty-socketio encodes with its own Jackson instance,
+     * so this is an estimate, which is all the water marks need.
+     */
+    private long estimateBytes(String event, Object payload) {
+        try {
+            return event.length() + 8L + objectMapper.writeValueAsBytes(payload).length;
+        } catch (JsonProcessingException e) {
+            log.debug("Could not estimate size of event {}: {}", event, e.getMessage());
+            return event.length() + 8L;
+        }
+    }
+
+    // Gauges never take the queue monitors, both values are published for lock-free reads
+    private static double totalBufferedBytes(Map<SocketIOClient, ClientSendQueue> queues) {
+        long total = 0;
+        for (ClientSendQueue queue : queues.values()) {
+            total += queue.bufferedBytes();
+        }
+        return total;
+    }
+
+    private static double congestedClients(Map<SocketIOClient, ClientSendQueue> queues) {
+        return queues.values().stream().filter(q -> q.getCongestedSince() > 0).count();
+    }
+}
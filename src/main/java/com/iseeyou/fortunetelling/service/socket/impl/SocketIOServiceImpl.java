@@ -3,13 +3,17 @@ package com.iseeyou.fortunetelling.service.socket.impl;
 import com.corundumstudio.socketio.SocketIOClient;
 import com.corundumstudio.socketio.SocketIOServer;
 import com.iseeyou.fortunetelling.dto.response.notification.NotificationResponse;
+import com.iseeyou.fortunetelling.service.socket.SocketEmitter;
 import com.iseeyou.fortunetelling.service.socket.SocketIOService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
 
+import java.util.ArrayList;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 import java.util.UUID;
 import java.util.concurrent.ConcurrentHashMap;
 
@@ -19,18 +23,20 @@ import java.util.concurrent.ConcurrentHashMap;
 public class SocketIOServiceImpl implements SocketIOService {
 
     private final SocketIOServer socketIOServer;
+    private final SocketEmitter socketEmitter;
 
     // Map userId to socketClient for targeted push
     private final Map<UUID, SocketIOClient> userSocketMap = new ConcurrentHashMap<>();
 
     private static final String NOTIFICATION_EVENT = "new-notification";
+    private static final String UNREAD_COUNT_EVENT = "unread-count";
 
     @Override
     public void sendNotificationToUser(UUID userId, NotificationResponse notificationResponse) {
         SocketIOClient client = userSocketMap.get(userId);
 
         if (client != null && client.isChannelOpen()) {
-            client.sendEvent(NOTIFICATION_EVENT, notificationResponse);
+            socketEmitter.emit(client, NOTIFICATION_EVENT, notificationResponse);
             log.info("Sent notification to user {} via SocketIO", userId);
         } else {
             log.debug("User {} is not online, skipping SocketIO push", userId);
@@ -39,12 +45,37 @@ public class SocketIOServiceImpl implements SocketIOService {
 
     @Override
     public void sendNotificationToUsers(List<UUID> userIds, NotificationResponse notificationResponse) {
-        userIds.forEach(userId -> sendNotificationToUser(userId, notificationResponse));
+        // Resolve the online clients first, then hand them to the emitter as one group
+        List<SocketIOClient> clients = new ArrayList<>();
+        for (UUID userId : userIds) {
+            SocketIOClient client = userSocketMap.get(userId);
+            if (client != null && client.isChannelOpen()) {
+                clients.add(client);
+            }
+        }
+        if (!clients.isEmpty()) {
+            socketEmitter.emitToClients(clients, NOTIFICATION_EVENT, notificationResponse);
+        }
+        log.info("Sent notification to {}/{} online users via SocketIO", clients.size(), userIds.size());
+    }
+
+    @Override
+    public void sendNotificationsToUsers(Map<UUID, NotificationResponse> notificationsByUser) {
+        int sent = 0;
+        for (Map.Entry<UUID, NotificationResponse> entry : notificationsByUser.entrySet()) {
+            SocketIOClient client = userSocketMap.get(entry.getKey());
+            if (client != null && client.isChannelOpen()) {
+                socketEmitter.emit(client, NOTIFICATION_EVENT, entry.getValue());
+                sent++;
+            }
+        }
+        log.debug("Pushed {} of {} fan-out notifications via SocketIO", sent, notificationsByUser.size());
     }
 
     @Override
     public void broadcastNotification(NotificationResponse notificationResponse) {
-        socketIOServer.getBroadcastOperations().sendEvent(NOTIFICATION_EVENT, notificationResponse);
+        // Go through the per-client queues so one slow client cannot stall the broadcast
+        socketEmitter.emitToClients(socketIOServer.getBroadcastOperations().getClients(), NOTIFICATION_EVENT, notificationResponse);
         log.info("Broadcasted notification to all connected users");
     }
 
@@ -54,6 +85,20 @@ public class SocketIOServiceImpl implements SocketIOService {
         return client != null && client.isChannelOpen();
     }
 
+    @Override
+    public void sendUnreadCountToUser(UUID userId, long unreadCount) {
+        SocketIOClient client = userSocketMap.get(userId);
+        if (client != null && client.isChannelOpen()) {
+            socketEmitter.emitEphemeral(client, UNREAD_COUNT_EVENT, UNREAD_COUNT_EVENT,
+                    Map.of("unreadCount", unreadCount));
+        }
+    }
+
+    @Override
+    public Set<UUID> getOnlineUserIds() {
+        return new HashSet<>(userSocketMap.keySet());
+    }
+
     @Override
     public int getOnlineUsersCount() {
         return userSocketMap.size();
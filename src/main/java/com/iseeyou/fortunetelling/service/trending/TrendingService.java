@@ -0,0 +1,37 @@
+package com.iseeyou.fortunetelling.service.trending;
+
+import com.iseeyou.fortunetelling.dto.response.user.TrendingSeerResponse;
+import com.iseeyou.fortunetelling.util.Constants;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Trending packages and seers, kept in Redis sorted sets (globally and per knowledge category).
+ * An event adds its weight scaled to the current time, so newer events outweigh older ones without touching
+ * them; a periodic rescale keeps the numbers small and prunes the tail.
+ */
+public interface TrendingService {
+
+    // Counts towards the package, its seer and their categories once the caller's transaction commits; never throws
+    void recordPackageEvent(UUID packageId, Constants.TrendingEventEnum event);
+
+    // Removes the weight of a like given at likedAt (decayed from then, not from now); UNLIKE goes through here
+    void recordUnlike(UUID packageId, LocalDateTime likedAt);
+
+    // REVIEW event weighted by rating / 5
+    void recordReview(UUID packageId, BigDecimal rating);
+
+    // Best first; categoryId null means global
+    List<UUID> topPackageIds(UUID categoryId, int limit);
+
+    // Drops ids that no longer resolve to a package
+    void removePackages(UUID categoryId, Collection<UUID> packageIds);
+
+    List<TrendingSeerResponse> getTrendingSeers(UUID categoryId, int limit);
+
+    void rescale();
+}
@@ -0,0 +1,328 @@
+package com.iseeyou.fortunetelling.service.trending.impl;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.iseeyou.fortunetelling.dto.response.user.TrendingSeerResponse;
+import com.iseeyou.fortunetelling.entity.user.SeerProfile;
+import com.iseeyou.fortunetelling.entity.user.User;
+import com.iseeyou.fortunetelling.repository.servicepackage.ServicePackageRepository;
+import com.iseeyou.fortunetelling.repository.user.UserRepository;
+import com.iseeyou.fortunetelling.service.trending.TrendingService;
+import com.iseeyou.fortunetelling.util.Constants;
+import com.iseeyou.fortunetelling.util.TransactionHooks;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.UUID;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Exponentially decayed scores without decaying anything per event: an event at time t adds
+ * {@code weight * e^((t - t0) / tau)}, where t0 is a shared epoch. An unlike subtracts the same term with t = the time
+ * of the like, which cancels it exactly (also across rescales, which scale both alike). Dividing every score by e^((now - t0) / tau) gives
+ * the decayed value, and since all members share the divisor the order is already right without it.
+ * <ul>
+ *     <li>Event: one ZINCRBY per sorted set (package / seer x global / its categories), O(log n).</li>
+ *     <li>Read: one ZREVRANGE of k ids plus one batch fetch, O(log n + k).</li>
+ *     <li>Rescale: multiplies every score by e^((t0 - now) / tau) and moves t0 to now, so the factors stay near 1.
+ *     Running it twice in a row is harmless, the second run has nothing to scale.</li>
+ * </ul>
+ * The sorted sets are derived data: losing Redis loses the ranking, it refills from new events.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class TrendingServiceImpl implements TrendingService {
+
+    private static final String KEY_PREFIX = "trending:";
+    private static final String EPOCH_KEY = KEY_PREFIX + "epoch";
+    // Every sorted set ever written, walked by the rescale
+    private static final String REGISTRY_KEY = KEY_PREFIX + "keys";
+
+    /*
+     * KEYS: epoch, registry, package sets..., seer sets...
+     * ARGV: now, tau, weight, number of package sets, package id, seer id, event time.
+     * A negative weight whose like was never counted (Redis lost it, or it is older than the ranking) would leave a
+     * negative score; the member is dropped instead.
+     */
+    private static final RedisScript<Long> RECORD_SCRIPT = new DefaultRedisScript<>(
+            "local now = tonumber(ARGV[1]) " +
+            "local t0 = tonumber(redis.call('GET', KEYS[1])) " +
+            "if not t0 then t0 = now redis.call('SET', KEYS[1], ARGV[1]) end " +
+            "local inc = tonumber(ARGV[3]) * math.exp((tonumber(ARGV[7]) - t0) / tonumber(ARGV[2])) " +
+            "local packageSets = tonumber(ARGV[4]) " +
+            "for i = 3, #KEYS do " +
+            "  local member = ARGV[6] " +
+            "  if i < 3 + packageSets then member = ARGV[5] end " +
+            "  local score = tonumber(redis.call('ZINCRBY', KEYS[i], inc, member)) " +
+            "  if score <= 0 then redis.call('ZREM', KEYS[i], member) end " +
+            "  redis.call('SADD', KEYS[2], KEYS[i]) " +
+            "end " +
+            "return #KEYS - 2",
+            Long.class
+    );
+
+    /*
+     * KEYS: epoch, registry. ARGV: now, tau, min score, max members.
+     * Touches the registered sets without declaring them, fine on the single Redis this app runs against.
+     */
+    private static final RedisScript<Long> RESCALE_SCRIPT = new DefaultRedisScript<>(
+            "local now = tonumber(ARGV[1]) " +
+            "local t0 = tonumber(redis.call('GET', KEYS[1])) " +
+            "if not t0 then return 0 end " +
+            "local factor = math.exp((t0 - now) / tonumber(ARGV[2])) " +
+            "local maxMembers = tonumber(ARGV[4]) " +
+            "local keys = redis.call('SMEMBERS', KEYS[2]) " +
+            "for _, key in ipairs(keys) do " +
+            "  local entries = redis.call('ZRANGE', key, 0, -1, 'WITHSCORES') " +
+            "  for i = 1, #entries, 2 do " +
+            "    redis.call('ZADD', key, tonumber(entries[i + 1]) * factor, entries[i]) " +
+            "  end " +
+            "  redis.call('ZREMRANGEBYSCORE', key, '-inf', '(' .. ARGV[3]) " +
+            "  local size = redis.call('ZCARD', key) " +
+            "  if size > maxMembers then redis.call('ZREMRANGEBYRANK', key, 0, size - maxMembers - 1) end " +
+            "  if size == 0 then redis.call('SREM', KEYS[2], key) end " +
+            "end " +
+            "redis.call('SET', KEYS[1], ARGV[1]) " +
+            "return #keys",
+            Long.class
+    );
+
+    private final ServicePackageRepository servicePackageRepository;
+    private final UserRepository userRepository;
+    private final StringRedisTemplate stringRedisTemplate;
+
+    @Value("${app.trending.half-life-hours:24}")
+    private double halfLifeHours;
+
+    @Value("${app.trending.weights.view:1}")
+    private double viewWeight;
+
+    @Value("${app.trending.weights.like:3}")
+    private double likeWeight;
+
+    @Value("${app.trending.weights.booking:10}")
+    private double bookingWeight;
+
+    @Value("${app.trending.weights.review:6}")
+    private double reviewWeight;
+
+    @Value("${app.trending.min-score:0.05}")
+    private double minScore;
+
+    @Value("${app.trending.max-members:1000}")
+    private int maxMembers;
+
+    @Value("${app.trending.target-cache-seconds:600}")
+    private long targetCacheSeconds;
+
+    @Value("${app.trending.max-limit:50}")
+    private int maxLimit;
+
+    // A package's seer and categories rarely change, views would otherwise look them up on every hit
+    private Cache<UUID, Targets> targets;
+
+    private record Targets(UUID seerId, List<UUID> categoryIds) {
+    }
+
+    @PostConstruct
+    public void init() {
+        targets = Caffeine.newBuilder()
+                .maximumSize(10_000)
+                .expireAfterWrite(Duration.ofSeconds(targetCacheSeconds))
+                .build();
+    }
+
+    @Override
+    public void recordPackageEvent(UUID packageId, Constants.TrendingEventEnum event) {
+        double weight = switch (event) {
+            case VIEW -> viewWeight;
+            case LIKE -> likeWeight;
+            case BOOKING -> bookingWeight;
+            case REVIEW -> reviewWeight;
+            // -likeWeight at the time of the unlike would subtract more than the like ever added
+            case UNLIKE -> throw new IllegalArgumentException("UNLIKE needs the time of the like, use recordUnlike");
+        };
+        record(packageId, event, weight, null);
+    }
+
+    @Override
+    public void recordUnlike(UUID packageId, LocalDateTime likedAt) {
+        if (likedAt == null) {
+            return;
+        }
+        record(packageId, Constants.TrendingEventEnum.UNLIKE, -likeWeight,
+                likedAt.atZone(ZoneId.systemDefault()).toEpochSecond());
+    }
+
+    @Override
+    public void recordReview(UUID packageId, BigDecimal rating) {
+        if (rating == null) {
+            return;
+        }
+        record(packageId, Constants.TrendingEventEnum.REVIEW, reviewWeight * rating.doubleValue() / 5.0, null);
+    }
+
+    @Override
+    public List<UUID> topPackageIds(UUID categoryId, int limit) {
+        return top(packageKey(categoryId), limit);
+    }
+
+    @Override
+    public void removePackages(UUID categoryId, Collection<UUID> packageIds) {
+        if (packageIds.isEmpty()) {
+            return;
+        }
+        try {
+            stringRedisTemplate.opsForZSet().remove(packageKey(categoryId),
+                    packageIds.stream().map(UUID::toString).toArray());
+        } catch (Exception e) {
+            log.warn("Failed to drop stale trending packages: {}", e.getMessage());
+        }
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<TrendingSeerResponse> getTrendingSeers(UUID categoryId, int limit) {
+        List<UUID> ids = top(seerKey(categoryId), limit);
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+        Map<UUID, User> seers = userRepository.findAllByIdInWithSeerProfile(ids).stream()
+                .collect(Collectors.toMap(User::getId, Function.identity()));
+
+        List<TrendingSeerResponse> result = new ArrayList<>(ids.size());
+        for (UUID id : ids) {
+            User seer = seers.get(id);
+            // Blocked or no longer a seer: hidden, not removed, the score is still theirs if that changes
+            if (seer == null || seer.getRole() != Constants.RoleEnum.SEER
+                    || seer.getStatus() == Constants.StatusProfileEnum.BLOCKED) {
+                continue;
+            }
+            SeerProfile profile = seer.getSeerProfile();
+            result.add(TrendingSeerResponse.builder()
+                    .id(seer.getId())
+                    .fullName(seer.getFullName())
+                    .avatarUrl(seer.getAvatarUrl())
+                    .profileDescription(seer.getProfileDescription())
+                    .avgRating(profile != null && profile.getTotalRates() != null && profile.getTotalRates() > 0
+                            ? Math.round(profile.getAvgRating() * 10.0) / 10.0 : null)
+                    .totalRates(profile != null ? profile.getTotalRates() : null)
+                    .build());
+        }
+        return result;
+    }
+
+    @Override
+    public void rescale() {
+        Long rescaled = stringRedisTemplate.execute(RESCALE_SCRIPT, List.of(EPOCH_KEY, REGISTRY_KEY),
+                String.valueOf(nowSeconds()), String.valueOf(tauSeconds()),
+                String.valueOf(minScore), String.valueOf(maxMembers));
+        log.debug("Rescaled {} trending sets", rescaled);
+    }
+
+    // eventTime (epoch seconds) null means now
+    private void record(UUID packageId, Constants.TrendingEventEnum event, double weight, Long eventTime) {
+        Targets target;
+        try {
+            target = targets.get(packageId, this::loadTargets);
+        } catch (Exception e) {
+            log.warn("Failed to resolve trending targets of package {}: {}", packageId, e.getMessage());
+            return;
+        }
+        if (target == null) {
+            return;
+        }
+        // Measured when the event happened, not when the transaction got around to committing
+        long now = nowSeconds();
+        long at = eventTime != null ? eventTime : now;
+        TransactionHooks.afterCommit(() -> push(packageId, target, event, weight, now, at));
+    }
+
+    private void push(UUID packageId, Targets target, Constants.TrendingEventEnum event, double weight, long now,
+                      long eventTime) {
+        List<String> keys = new ArrayList<>();
+        keys.add(EPOCH_KEY);
+        keys.add(REGISTRY_KEY);
+        keys.add(packageKey(null));
+        target.categoryIds().forEach(categoryId -> keys.add(packageKey(categoryId)));
+        int packageSets = keys.size() - 2;
+        if (target.seerId() != null) {
+            keys.add(seerKey(null));
+            target.categoryIds().forEach(categoryId -> keys.add(seerKey(categoryId)));
+        }
+        try {
+            stringRedisTemplate.execute(RECORD_SCRIPT, keys,
+                    String.valueOf(now), String.valueOf(tauSeconds()), String.valueOf(weight),
+                    String.valueOf(packageSets), packageId.toString(),
+                    target.seerId() != null ? target.seerId().toString() : "", String.valueOf(eventTime));
+        } catch (Exception e) {
+            // Không ảnh hưởng request, chỉ mất một event của bảng xếp hạng
+            log.warn("Failed to record trending {} of package {}: {}", event, packageId, e.getMessage());
+        }
+    }
+
+    private Targets loadTargets(UUID packageId) {
+        List<Object[]> rows = servicePackageRepository.findTrendingTargets(packageId);
+        if (rows.isEmpty()) {
+            return null;
+        }
+        UUID seerId = (UUID) rows.get(0)[0];
+        List<UUID> categoryIds = rows.stream()
+                .map(row -> (UUID) row[1])
+                .filter(Objects::nonNull)
+                .distinct()
+                .toList();
+        return new Targets(seerId, categoryIds);
+    }
+
+    private List<UUID> top(String key, int limit) {
+        int count = Math.max(1, Math.min(limit, maxLimit));
+        Set<String> members;
+        try {
+            members = stringRedisTemplate.opsForZSet().reverseRange(key, 0, count - 1);
+        } catch (Exception e) {
+            log.warn("Failed to read trending set {}: {}", key, e.getMessage());
+            return List.of();
+        }
+        if (members == null) {
+            return List.of();
+        }
+        return members.stream().map(UUID::fromString).toList();
+    }
+
+    private double tauSeconds() {
+        // Half-life -> time constant: e^(-h / tau) = 1/2
+        return halfLifeHours * 3600 / Math.log(2);
+    }
+
+    private static long nowSeconds() {
+        return System.currentTimeMillis() / 1000;
+    }
+
+    private static String packageKey(UUID categoryId) {
+        return KEY_PREFIX + "packages:" + (categoryId != null ? "category:" + categoryId : "global");
+    }
+
+    private static String seerKey(UUID categoryId) {
+        return KEY_PREFIX + "seers:" + (categoryId != null ? "category:" + categoryId : "global");
+    }
+}
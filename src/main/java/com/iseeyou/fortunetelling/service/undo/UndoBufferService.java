@@ -0,0 +1,34 @@
+package com.iseeyou.fortunetelling.service.undo;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Short-lived buffer of ids for "undo within N seconds" features.
+ * Every operation is a single atomic Redis call, so concurrent requests from several devices or
+ * nodes can push into the same buffer and exactly one of them wins a pop.
+ */
+public interface UndoBufferService {
+    /**
+     * Adds ids to the buffer (duplicates are ignored) and resets its TTL.
+     * @return number of ids in the buffer after the push
+     */
+    long push(String key, Collection<UUID> ids, Duration ttl);
+
+    /**
+     * Atomically returns and removes every id in the buffer. Empty if the buffer expired.
+     */
+    List<UUID> popAll(String key);
+
+    /**
+     * Returns the ids currently in the buffer without removing them.
+     */
+    List<UUID> peek(String key);
+
+    /**
+     * Remaining lifetime of the buffer in seconds, 0 if it does not exist.
+     */
+    long getRemainingSeconds(String key);
+}
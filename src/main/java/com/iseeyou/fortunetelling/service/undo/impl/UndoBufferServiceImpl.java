@@ -0,0 +1,119 @@
+package com.iseeyou.fortunetelling.service.undo.impl;
+
+import com.iseeyou.fortunetelling.service.undo.UndoBufferService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.redis.connection.RedisConnection;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.data.redis.serializer.RedisSerializer;
+import org.springframework.stereotype.Service;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Undo buffers stored as Redis SETs of 16-byte binary UUIDs (instead of JSON lists of 36-char strings).
+ * Push and pop-all run as Lua scripts so the SADD + EXPIRE and SMEMBERS + DEL pairs are atomic.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class UndoBufferServiceImpl implements UndoBufferService {
+
+    // ARGV[1] = ttl seconds, ARGV[2..n] = ids
+    private static final RedisScript<Long> PUSH_SCRIPT = new DefaultRedisScript<>(
+            "for i = 2, #ARGV do redis.call('SADD', KEYS[1], ARGV[i]) end " +
+            "redis.call('EXPIRE', KEYS[1], ARGV[1]) " +
+            "return redis.call('SCARD', KEYS[1])",
+            Long.class
+    );
+
+    @SuppressWarnings({"rawtypes", "unchecked"})
+    private static final RedisScript<List> POP_ALL_SCRIPT = new DefaultRedisScript<>(
+            "local ids = redis.call('SMEMBERS', KEYS[1]) " +
+            "redis.call('DEL', KEYS[1]) " +
+            "return ids",
+            List.class
+    );
+
+    private final StringRedisTemplate stringRedisTemplate;
+
+    @Override
+    public long push(String key, Collection<UUID> ids, Duration ttl) {
+        if (ids == null || ids.isEmpty()) {
+            return 0;
+        }
+
+        Object[] args = new Object[ids.size() + 1];
+        args[0] = String.valueOf(Math.max(1, ttl.getSeconds())).getBytes(StandardCharsets.UTF_8);
+        int i = 1;
+        for (UUID id : ids) {
+            args[i++] = encode(id);
+        }
+
+        Long size = stringRedisTemplate.execute(PUSH_SCRIPT, RedisSerializer.byteArray(), null,
+                Collections.singletonList(key), args);
+        log.debug("Pushed {} ids to undo buffer {} (size {})", ids.size(), key, size);
+        return size != null ? size : 0;
+    }
+
+    @Override
+    @SuppressWarnings({"rawtypes", "unchecked"})
+    public List<UUID> popAll(String key) {
+        // Result serializer is applied to each element of the returned multi-bulk reply
+        RedisSerializer elementSerializer = RedisSerializer.byteArray();
+        List<byte[]> raw = stringRedisTemplate.execute(POP_ALL_SCRIPT, RedisSerializer.byteArray(),
+                elementSerializer, Collections.singletonList(key));
+        return decodeAll(raw);
+    }
+
+    @Override
+    public List<UUID> peek(String key) {
+        byte[] rawKey = key.getBytes(StandardCharsets.UTF_8);
+        Set<byte[]> raw = stringRedisTemplate.execute(
+                (RedisCallback<Set<byte[]>>) (RedisConnection connection) -> connection.setCommands().sMembers(rawKey));
+        return decodeAll(raw);
+    }
+
+    @Override
+    public long getRemainingSeconds(String key) {
+        Long ttl = stringRedisTemplate.getExpire(key, TimeUnit.SECONDS);
+        return (ttl != null && ttl > 0) ? ttl : 0L;
+    }
+
+    private List<UUID> decodeAll(Collection<byte[]> raw) {
+        if (raw == null || raw.isEmpty()) {
+            return Collections.emptyList();
+        }
+        List<UUID> ids = new ArrayList<>(raw.size());
+        for (byte[] bytes : raw) {
+            if (bytes != null && bytes.length == 16) {
+                ids.add(decode(bytes));
+            }
+        }
+        return ids;
+    }
+
+    private static byte[] encode(UUID id) {
+        return ByteBuffer.allocate(16)
+                .putLong(id.getMostSignificantBits())
+                .putLong(id.getLeastSignificantBits())
+                .array();
+    }
+
+    private static UUID decode(byte[] bytes) {
+        ByteBuffer buffer = ByteBuffer.wrap(bytes);
+        return new UUID(buffer.getLong(), buffer.getLong());
+    }
+}
@@ -0,0 +1,17 @@
+package com.iseeyou.fortunetelling.service.user;
+
+import com.iseeyou.fortunetelling.dto.response.account.AccountStatsResponse;
+import com.iseeyou.fortunetelling.util.Constants;
+
+/**
+ * Account counters by role and blocked status, materialized in account_stats and repaired nightly.
+ */
+public interface AccountStatsService {
+    AccountStatsResponse getAccountStats();
+
+    // null role/status on the old side = account created, on the new side = account deleted; joins the caller's transaction
+    void accountChanged(Constants.RoleEnum oldRole, Constants.StatusProfileEnum oldStatus,
+                        Constants.RoleEnum newRole, Constants.StatusProfileEnum newStatus);
+
+    int repair();
+}
@@ -1,8 +1,31 @@
 package com.iseeyou.fortunetelling.service.user;
 
 import com.iseeyou.fortunetelling.dto.response.user.SeerProfileResponse;
+import com.iseeyou.fortunetelling.entity.booking.Booking;
 import com.iseeyou.fortunetelling.entity.user.User;
+import com.iseeyou.fortunetelling.util.Constants;
 
+import java.util.UUID;
+
+/**
+ * Seer booking counters, materialized in seer_stats. Profiles read one row by primary key; booking and payment
+ * transitions apply their deltas in the transaction that makes them, and a nightly repair fixes any drift.
+ */
 public interface SeerStatsService {
     SeerProfileResponse enrichSeerProfile(User seer);
+
+    // Event methods join the caller's transaction
+    void bookingCreated(UUID bookingId);
+
+    // firstConfirmation: the booking's confirmed_at was just set, counts towards the response time
+    void bookingStatusChanged(UUID bookingId, Constants.BookingStatusEnum from, Constants.BookingStatusEnum to,
+                              boolean firstConfirmation);
+
+    void paymentStatusChanged(UUID bookingId, double amount, Constants.PaymentStatusEnum from,
+                              Constants.PaymentStatusEnum to);
+
+    // Before the booking row is deleted
+    void bookingDeleted(Booking booking);
+
+    int repair();
 }
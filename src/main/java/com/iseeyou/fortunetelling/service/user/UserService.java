@@ -57,7 +57,4 @@ public interface UserService {
     User updateUserRole(UUID id, UpdateUserRoleRequest request) throws BindException;
 
     AccountStatsResponse getAccountStats();
-
-    // Lấy user với thống kê seer (nếu là seer)
-    User getUserWithSeerStats(UUID userId);
 }
\ No newline at end of file
@@ -0,0 +1,84 @@
+package com.iseeyou.fortunetelling.service.user.impl;
+
+import com.iseeyou.fortunetelling.dto.response.account.AccountStatsResponse;
+import com.iseeyou.fortunetelling.entity.user.AccountStats;
+import com.iseeyou.fortunetelling.repository.user.AccountStatsRepository;
+import com.iseeyou.fortunetelling.service.user.AccountStatsService;
+import com.iseeyou.fortunetelling.util.Constants;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class AccountStatsServiceImpl implements AccountStatsService {
+
+    private static final String REPAIR_LOCK_KEY = "lock:account-stats-repair";
+
+    private final AccountStatsRepository accountStatsRepository;
+    private final StringRedisTemplate stringRedisTemplate;
+
+    @Override
+    @Transactional(readOnly = true)
+    public AccountStatsResponse getAccountStats() {
+        AccountStats stats = accountStatsRepository.findById(AccountStats.SINGLETON_ID)
+                .orElseThrow(() -> new IllegalStateException("account_stats row is missing"));
+
+        // Tổng số account không bao gồm guest
+        long totalAccounts = stats.getCustomerAccounts() + stats.getSeerAccounts() + stats.getAdminAccounts()
+                + stats.getPendingAccounts();
+
+        return AccountStatsResponse.builder()
+                .totalAccounts(totalAccounts)
+                .customerAccounts(stats.getCustomerAccounts())
+                .seerAccounts(stats.getSeerAccounts())
+                .adminAccounts(stats.getAdminAccounts())
+                .pendingAccounts(stats.getPendingAccounts())
+                .blockedAccounts(stats.getBlockedAccounts())
+                .build();
+    }
+
+    @Override
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void accountChanged(Constants.RoleEnum oldRole, Constants.StatusProfileEnum oldStatus,
+                               Constants.RoleEnum newRole, Constants.StatusProfileEnum newStatus) {
+        long customers = delta(Constants.RoleEnum.CUSTOMER, oldRole, newRole);
+        long seers = delta(Constants.RoleEnum.SEER, oldRole, newRole);
+        long admins = delta(Constants.RoleEnum.ADMIN, oldRole, newRole);
+        long pending = delta(Constants.RoleEnum.UNVERIFIED_SEER, oldRole, newRole);
+        long blocked = delta(Constants.StatusProfileEnum.BLOCKED, oldStatus, newStatus);
+        if (customers == 0 && seers == 0 && admins == 0 && pending == 0 && blocked == 0) {
+            return;
+        }
+        accountStatsRepository.addDeltas(customers, seers, admins, pending, blocked, LocalDateTime.now());
+    }
+
+    @Override
+    public int repair() {
+        Boolean acquired = stringRedisTemplate.opsForValue().setIfAbsent(REPAIR_LOCK_KEY, "1", Duration.ofMinutes(10));
+        if (!Boolean.TRUE.equals(acquired)) {
+            log.debug("Account stats repair already running on another instance");
+            return 0;
+        }
+        try {
+            int repaired = accountStatsRepository.recompute(LocalDateTime.now());
+            if (repaired > 0) {
+                log.warn("Repaired drifted account stats");
+            }
+            return repaired;
+        } finally {
+            stringRedisTemplate.delete(REPAIR_LOCK_KEY);
+        }
+    }
+
+    private static <E extends Enum<E>> long delta(E counted, E from, E to) {
+        return (to == counted ? 1 : 0) - (from == counted ? 1 : 0);
+    }
+}
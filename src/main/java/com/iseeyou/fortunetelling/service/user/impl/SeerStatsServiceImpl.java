@@ -1,20 +1,35 @@
 package com.iseeyou.fortunetelling.service.user.impl;
 
 import com.iseeyou.fortunetelling.dto.response.user.SeerProfileResponse;
+import com.iseeyou.fortunetelling.entity.booking.Booking;
+import com.iseeyou.fortunetelling.entity.booking.BookingPayment;
+import com.iseeyou.fortunetelling.entity.user.SeerStats;
 import com.iseeyou.fortunetelling.entity.user.User;
-import com.iseeyou.fortunetelling.repository.booking.BookingRepository;
+import com.iseeyou.fortunetelling.repository.user.SeerStatsRepository;
 import com.iseeyou.fortunetelling.service.user.SeerStatsService;
 import com.iseeyou.fortunetelling.util.Constants;
 import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
 import org.modelmapper.ModelMapper;
+import org.springframework.data.redis.core.StringRedisTemplate;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.UUID;
 
 @Service
 @RequiredArgsConstructor
+@Slf4j
 public class SeerStatsServiceImpl implements SeerStatsService {
 
-    private final BookingRepository bookingRepository;
+    private static final String REPAIR_LOCK_KEY = "lock:seer-stats-repair";
+
+    private final SeerStatsRepository seerStatsRepository;
     private final ModelMapper modelMapper;
+    private final StringRedisTemplate stringRedisTemplate;
 
     @Override
     public SeerProfileResponse enrichSeerProfile(User seer) {
@@ -25,15 +40,88 @@ public class SeerStatsServiceImpl implements SeerStatsService {
         // Map basic seer profile
         SeerProfileResponse response = modelMapper.map(seer.getSeerProfile(), SeerProfileResponse.class);
 
-        // Thêm thống kê booking
-        Long totalBookings = bookingRepository.countBySeer(seer);
-        Long completedBookings = bookingRepository.countBySeerAndStatus(seer, Constants.BookingStatusEnum.COMPLETED);
-        Double totalRevenue = bookingRepository.getTotalRevenueBySeer(seer, Constants.PaymentStatusEnum.COMPLETED);
-
-        response.setTotalBookings(totalBookings);
-        response.setCompletedBookings(completedBookings);
-        response.setTotalRevenue(totalRevenue);
+        // Thêm thống kê booking, no row yet = no bookings yet
+        SeerStats stats = seerStatsRepository.findById(seer.getId()).orElse(null);
+        response.setTotalBookings(stats != null ? stats.getTotalBookings() : 0L);
+        response.setCompletedBookings(stats != null ? stats.getCompletedBookings() : 0L);
+        response.setCancelledBookings(stats != null ? stats.getCancelledBookings() : 0L);
+        response.setTotalRevenue(stats != null ? stats.getTotalRevenue() : 0.0);
+        response.setAvgResponseMinutes(stats != null && stats.getResponseCount() > 0
+                ? Math.round(stats.getResponseSecondsSum() / stats.getResponseCount() / 60.0 * 10.0) / 10.0
+                : null);
 
         return response;
     }
+
+    @Override
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void bookingCreated(UUID bookingId) {
+        apply(bookingId, 1, 0, 0, 0, 0);
+    }
+
+    @Override
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void bookingStatusChanged(UUID bookingId, Constants.BookingStatusEnum from, Constants.BookingStatusEnum to,
+                                     boolean firstConfirmation) {
+        apply(bookingId, 0,
+                delta(Constants.BookingStatusEnum.COMPLETED, from, to),
+                delta(Constants.BookingStatusEnum.CANCELED, from, to),
+                0,
+                firstConfirmation ? 1 : 0);
+    }
+
+    @Override
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void paymentStatusChanged(UUID bookingId, double amount, Constants.PaymentStatusEnum from,
+                                     Constants.PaymentStatusEnum to) {
+        apply(bookingId, 0, 0, 0, amount * delta(Constants.PaymentStatusEnum.COMPLETED, from, to), 0);
+    }
+
+    @Override
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void bookingDeleted(Booking booking) {
+        double revenue = booking.getBookingPayments().stream()
+                .filter(payment -> payment.getStatus() == Constants.PaymentStatusEnum.COMPLETED)
+                .mapToDouble(BookingPayment::getAmount)
+                .sum();
+        apply(booking.getId(), -1,
+                booking.getStatus() == Constants.BookingStatusEnum.COMPLETED ? -1 : 0,
+                booking.getStatus() == Constants.BookingStatusEnum.CANCELED ? -1 : 0,
+                -revenue,
+                booking.getConfirmedAt() != null ? -1 : 0);
+    }
+
+    @Override
+    public int repair() {
+        // Một instance chạy là đủ
+        Boolean acquired = stringRedisTemplate.opsForValue().setIfAbsent(REPAIR_LOCK_KEY, "1", Duration.ofMinutes(30));
+        if (!Boolean.TRUE.equals(acquired)) {
+            log.debug("Seer stats repair already running on another instance");
+            return 0;
+        }
+        try {
+            LocalDateTime now = LocalDateTime.now();
+            int repaired = seerStatsRepository.recompute(now) + seerStatsRepository.resetWithoutBookings(now);
+            if (repaired > 0) {
+                log.warn("Repaired drifted stats of {} seers", repaired);
+            }
+            return repaired;
+        } finally {
+            stringRedisTemplate.delete(REPAIR_LOCK_KEY);
+        }
+    }
+
+    private void apply(UUID bookingId, long total, long completed, long cancelled, double revenue, long responded) {
+        if (total == 0 && completed == 0 && cancelled == 0 && revenue == 0 && responded == 0) {
+            return;
+        }
+        if (seerStatsRepository.addDeltas(bookingId, total, completed, cancelled, revenue, responded,
+                LocalDateTime.now()) == 0) {
+            log.warn("Booking {} has no seer, not counted in seer stats", bookingId);
+        }
+    }
+
+    private static <E extends Enum<E>> long delta(E counted, E from, E to) {
+        return (to == counted ? 1 : 0) - (from == counted ? 1 : 0);
+    }
 }
@@ -11,13 +11,14 @@ import com.iseeyou.fortunetelling.entity.user.CustomerProfile;
 import com.iseeyou.fortunetelling.entity.user.SeerProfile;
 import com.iseeyou.fortunetelling.entity.user.User;
 import com.iseeyou.fortunetelling.exception.NotFoundException;
-import com.iseeyou.fortunetelling.repository.booking.BookingRepository;
 import com.iseeyou.fortunetelling.repository.user.UserRepository;
 import com.iseeyou.fortunetelling.security.JwtUserDetails;
 import com.iseeyou.fortunetelling.service.MessageSourceService;
+import com.iseeyou.fortunetelling.service.cache.CatalogCacheService;
 import com.iseeyou.fortunetelling.service.certificate.CertificateService;
 import com.iseeyou.fortunetelling.service.email.EmailVerificationService;
 import com.iseeyou.fortunetelling.service.fileupload.CloudinaryService;
+import com.iseeyou.fortunetelling.service.user.AccountStatsService;
 import com.iseeyou.fortunetelling.service.user.UserService;
 import com.iseeyou.fortunetelling.util.CalculateZodiac;
 import com.iseeyou.fortunetelling.util.Constants;
@@ -53,7 +54,8 @@ public class UserServiceImpl implements UserService {
     private final CloudinaryService cloudinaryService;
     private final CertificateService certificateService;
     private final EmailVerificationService emailVerificationService;
-    private final BookingRepository bookingRepository;
+    private final AccountStatsService accountStatsService;
+    private final CatalogCacheService catalogCacheService;
 
     public UserServiceImpl(
             UserRepository userRepository,
@@ -62,14 +64,16 @@ public class UserServiceImpl implements UserService {
             CloudinaryService cloudinaryService,
             @Lazy CertificateService certificateService,
             @Lazy EmailVerificationService emailVerificationService,
-            BookingRepository bookingRepository) {
+            AccountStatsService accountStatsService,
+            CatalogCacheService catalogCacheService) {
         this.userRepository = userRepository;
         this.passwordEncoder = passwordEncoder;
         this.messageSourceService = messageSourceService;
         this.cloudinaryService = cloudinaryService;
         this.certificateService = certificateService;
         this.emailVerificationService = emailVerificationService;
-        this.bookingRepository = bookingRepository;
+        this.accountStatsService = accountStatsService;
+        this.catalogCacheService = catalogCacheService;
     }
 
     public Authentication getAuthentication() {
@@ -111,7 +115,10 @@ public class UserServiceImpl implements UserService {
     public User updateStatus(UUID id, String status) {
         User user = findById(id);
         try {
+            Constants.StatusProfileEnum oldStatus = user.getStatus();
             user.setStatus(Constants.StatusProfileEnum.valueOf(status.toUpperCase()));
+            accountStatsService.accountChanged(user.getRole(), oldStatus, user.getRole(), user.getStatus());
+            evictSeerCatalog(user);
             return userRepository.save(user);
         } catch (IllegalArgumentException e) {
             throw new BadCredentialsException(messageSourceService.get("invalid_status"));
@@ -212,6 +219,7 @@ public class UserServiceImpl implements UserService {
         user.setCustomerProfile(customerProfile);
 
         userRepository.save(user);
+        accountStatsService.accountChanged(null, null, user.getRole(), user.getStatus());
 
         // Gửi OTP xác thực email
         emailVerificationService.sendVerificationEmail(request.getEmail());
@@ -251,6 +259,7 @@ public class UserServiceImpl implements UserService {
         user.setSeerProfile(seerProfile);
 
         userRepository.save(user);
+        accountStatsService.accountChanged(null, null, user.getRole(), user.getStatus());
 
         // Process certificates if provided
         if (request.getCertificates() != null && !request.getCertificates().isEmpty()) {
@@ -292,6 +301,7 @@ public class UserServiceImpl implements UserService {
             user.setProfileDescription(request.getProfileDescription());
         }
         
+        evictSeerCatalog(user);
         return userRepository.save(user);
     }
 
@@ -308,6 +318,7 @@ public class UserServiceImpl implements UserService {
             String imageUrl = cloudinaryService.uploadFile(file, folderName);
             existingUser.setAvatarUrl(imageUrl);
             userRepository.save(existingUser);
+            evictSeerCatalog(existingUser);
 
             return imageUrl;
         } else {
@@ -321,11 +332,19 @@ public class UserServiceImpl implements UserService {
             String imageUrl = cloudinaryService.uploadFile(file, folderName);
             existingUser.setAvatarUrl(imageUrl);
             userRepository.save(existingUser);
+            evictSeerCatalog(existingUser);
 
             return imageUrl;
         }
     }
 
+    // Seer name/avatar/status are embedded in cached package responses
+    private void evictSeerCatalog(User user) {
+        if (user.getRole() == Constants.RoleEnum.SEER || user.getRole() == Constants.RoleEnum.UNVERIFIED_SEER) {
+            catalogCacheService.evict(CatalogCacheService.TAG_SEERS, CatalogCacheService.seerTag(user.getId()));
+        }
+    }
+
 
     @Override
     @Transactional
@@ -336,16 +355,21 @@ public class UserServiceImpl implements UserService {
     @Transactional
     @Override
     public void delete(String id) {
-        userRepository.delete(findById(UUID.fromString(id)));
+        User user = findById(UUID.fromString(id));
+        userRepository.delete(user);
+        accountStatsService.accountChanged(user.getRole(), user.getStatus(), null, null);
+        evictSeerCatalog(user);
     }
 
     @Override
+    @Transactional
     public void activeteUser(String id) {
         if (!userRepository.existsById(UUID.fromString(id))) {
             throw new NotFoundException(messageSourceService.get("not_found_with_param",
                     new String[]{messageSourceService.get("user")}));
         }
         User user = findById(UUID.fromString(id));
+        Constants.StatusProfileEnum oldStatus = user.getStatus();
         if (user.getStatus() == Constants.StatusProfileEnum.ACTIVE) {
             user.setStatus(Constants.StatusProfileEnum.ACTIVE);
         } else {
@@ -353,6 +377,7 @@ public class UserServiceImpl implements UserService {
         }
 
         userRepository.save(user);
+        accountStatsService.accountChanged(user.getRole(), oldStatus, user.getRole(), user.getStatus());
     }
 
     @Override
@@ -374,8 +399,10 @@ public class UserServiceImpl implements UserService {
     }
 
     @Override
+    @Transactional
     public User updateUserRole(UUID id, UpdateUserRoleRequest request) throws BindException {
         User user = findById(id);
+        Constants.StatusProfileEnum oldStatus = user.getStatus();
 
         try {
             Constants.RoleEnum newRole = Constants.RoleEnum.get(request.getRole().getValue());
@@ -418,6 +445,9 @@ public class UserServiceImpl implements UserService {
             }
 
             user.setRole(newRole);
+            accountStatsService.accountChanged(currentRole, oldStatus, newRole, user.getStatus());
+            // Seers gained or lost, role changes are rare enough to always evict
+            catalogCacheService.evict(CatalogCacheService.TAG_SEERS, CatalogCacheService.seerTag(user.getId()));
             return userRepository.save(user);
         }
         catch (IllegalArgumentException e) {
@@ -446,23 +476,8 @@ public class UserServiceImpl implements UserService {
 
     @Override
     public AccountStatsResponse getAccountStats() {
-        long customerAccounts = userRepository.countByRole(Constants.RoleEnum.CUSTOMER);
-        long seerAccounts = userRepository.countByRole(Constants.RoleEnum.SEER);
-        long adminAccounts = userRepository.countByRole(Constants.RoleEnum.ADMIN);
-        long pendingAccounts = userRepository.countPendingSeers();
-        long blockedAccounts = userRepository.countBlockedUsers();
-
-        // Tổng số account không bao gồm guest
-        long totalAccounts = customerAccounts + seerAccounts + adminAccounts + pendingAccounts;
-
-        return AccountStatsResponse.builder()
-                .totalAccounts(totalAccounts)
-                .customerAccounts(customerAccounts)
-                .seerAccounts(seerAccounts)
-                .adminAccounts(adminAccounts)
-                .pendingAccounts(pendingAccounts)
-                .blockedAccounts(blockedAccounts)
-                .build();
+        // One row read, the counters are kept by AccountStatsService
+        return accountStatsService.getAccountStats();
     }
 
     @Override
@@ -510,20 +525,4 @@ public class UserServiceImpl implements UserService {
 
         return userRepository.findAll(pageable);
     }
-
-    @Override
-    public User getUserWithSeerStats(UUID userId) {
-        User user = findById(userId);
-
-        // Chỉ thêm thống kê nếu user là seer
-        if (user.getRole() == Constants.RoleEnum.SEER && user.getSeerProfile() != null) {
-            // Lấy thống kê booking cho seer
-            Long totalBookings = bookingRepository.countBySeer(user);
-            Long completedBookings = bookingRepository.countBySeerAndStatus(user, Constants.BookingStatusEnum.COMPLETED);
-            Double totalRevenue = bookingRepository.getTotalRevenueBySeer(user, Constants.PaymentStatusEnum.COMPLETED);
-
-        }
-
-        return user;
-    }
 }
@@ -0,0 +1,14 @@
+package com.iseeyou.fortunetelling.service.view;
+
+import com.iseeyou.fortunetelling.util.Constants;
+
+import java.util.UUID;
+
+public interface ViewCounterService {
+    // Counts a view of the current request's viewer (user id, else client IP), at most once per dedup window;
+    // false when it was a repeat inside the window
+    boolean recordView(Constants.ViewTargetEnum target, UUID id);
+
+    // Writes the buffered views to the database
+    void flush();
+}
@@ -0,0 +1,223 @@
+package com.iseeyou.fortunetelling.service.view.impl;
+
+import com.iseeyou.fortunetelling.repository.knowledge.KnowledgeItemRepository;
+import com.iseeyou.fortunetelling.repository.servicepackage.ServicePackageRepository;
+import com.iseeyou.fortunetelling.security.JwtUserDetails;
+import com.iseeyou.fortunetelling.service.device.DeviceFingerprintService;
+import com.iseeyou.fortunetelling.service.view.ViewCounterService;
+import com.iseeyou.fortunetelling.util.Constants;
+import jakarta.annotation.PreDestroy;
+import jakarta.servlet.http.HttpServletRequest;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.connection.StringRedisConnection;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Service;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.Collectors;
+
+/**
+ * Write-behind view counters. A view is a LongAdder increment; every flush turns the buffered deltas into one
+ * relative UPDATE per target, so page views never race on the entity or rewrite whole rows.
+ * <ul>
+ *     <li>Single node: the flush writes the local buffer to the database.</li>
+ *     <li>redis-mirror: every node moves its buffer into a Redis hash (HINCRBY), one node at a time drains the hash
+ *     into the database.</li>
+ * </ul>
+ * A crash loses at most the views buffered since the last flush.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class ViewCounterServiceImpl implements ViewCounterService {
+
+    private static final String DEDUP_PREFIX = "view:seen:";
+    private static final String PENDING_PREFIX = "view:pending:";
+    private static final String FLUSH_LOCK_KEY = "lock:view-counter-flush";
+
+    // HGETALL + DEL in one step, views added afterwards land in a fresh hash
+    @SuppressWarnings({"rawtypes", "unchecked"})
+    private static final RedisScript<List> DRAIN_SCRIPT = new DefaultRedisScript<>(
+            "local v = redis.call('HGETALL', KEYS[1]) " +
+            "redis.call('DEL', KEYS[1]) " +
+            "return v",
+            List.class
+    );
+
+    private final KnowledgeItemRepository knowledgeItemRepository;
+    private final ServicePackageRepository servicePackageRepository;
+    private final DeviceFingerprintService deviceFingerprintService;
+    private final StringRedisTemplate stringRedisTemplate;
+
+    private final Map<Constants.ViewTargetEnum, ConcurrentHashMap<UUID, LongAdder>> buffers = initBuffers();
+
+    @Value("${app.view-counter.dedup-window-seconds:1800}")
+    private long dedupWindowSeconds;
+
+    @Value("${app.view-counter.redis-mirror:false}")
+    private boolean redisMirror;
+
+    @Override
+    public boolean recordView(Constants.ViewTargetEnum target, UUID id) {
+        String viewer = currentViewer();
+        if (viewer != null && !firstViewInWindow(target, id, viewer)) {
+            return false;
+        }
+        buffers.get(target).computeIfAbsent(id, k -> new LongAdder()).increment();
+        return true;
+    }
+
+    @Override
+    public synchronized void flush() {
+        for (Constants.ViewTargetEnum target : Constants.ViewTargetEnum.values()) {
+            Map<UUID, Long> deltas = drainBuffer(target);
+            if (redisMirror) {
+                if (!deltas.isEmpty() && !pushToRedis(target, deltas)) {
+                    // Redis down: this node's share still goes to the database directly
+                    writeOrRequeue(target, deltas);
+                }
+            } else if (!deltas.isEmpty()) {
+                writeOrRequeue(target, deltas);
+            }
+        }
+        if (redisMirror) {
+            drainRedis();
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        flush();
+    }
+
+    private boolean firstViewInWindow(Constants.ViewTargetEnum target, UUID id, String viewer) {
+        try {
+            Boolean first = stringRedisTemplate.opsForValue().setIfAbsent(
+                    DEDUP_PREFIX + target.getValue() + ":" + id + ":" + viewer, "1", Duration.ofSeconds(dedupWindowSeconds));
+            return Boolean.TRUE.equals(first);
+        } catch (Exception e) {
+            // Không dedup được thì vẫn đếm
+            log.debug("View dedup unavailable: {}", e.getMessage());
+            return true;
+        }
+    }
+
+    // Removing only drained-to-zero entries keeps the map small; an increment racing the removal is the only loss
+    private Map<UUID, Long> drainBuffer(Constants.ViewTargetEnum target) {
+        ConcurrentHashMap<UUID, LongAdder> buffer = buffers.get(target);
+        Map<UUID, Long> deltas = new HashMap<>();
+        buffer.forEach((id, adder) -> {
+            long delta = adder.sumThenReset();
+            if (delta > 0) {
+                deltas.put(id, delta);
+            } else {
+                buffer.remove(id, adder);
+            }
+        });
+        return deltas;
+    }
+
+    private boolean pushToRedis(Constants.ViewTargetEnum target, Map<UUID, Long> deltas) {
+        try {
+            String key = PENDING_PREFIX + target.getValue();
+            stringRedisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+                StringRedisConnection stringConnection = (StringRedisConnection) connection;
+                deltas.forEach((id, delta) -> stringConnection.hIncrBy(key, id.toString(), delta));
+                return null;
+            });
+            return true;
+        } catch (Exception e) {
+            log.warn("Failed to mirror {} view counts to Redis: {}", target, e.getMessage());
+            return false;
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private void drainRedis() {
+        Boolean acquired = stringRedisTemplate.opsForValue().setIfAbsent(FLUSH_LOCK_KEY, "1", Duration.ofMinutes(1));
+        if (!Boolean.TRUE.equals(acquired)) {
+            return;
+        }
+        try {
+            for (Constants.ViewTargetEnum target : Constants.ViewTargetEnum.values()) {
+                String key = PENDING_PREFIX + target.getValue();
+                List<Object> entries = stringRedisTemplate.execute(DRAIN_SCRIPT, List.of(key));
+                if (entries == null || entries.isEmpty()) {
+                    continue;
+                }
+                Map<UUID, Long> deltas = new HashMap<>();
+                for (int i = 0; i + 1 < entries.size(); i += 2) {
+                    deltas.put(UUID.fromString((String) entries.get(i)), Long.parseLong((String) entries.get(i + 1)));
+                }
+                if (!write(target, deltas) && !pushToRedis(target, deltas)) {
+                    log.error("Dropped {} {} view counts after database and Redis failures", deltas.size(), target);
+                }
+            }
+        } catch (Exception e) {
+            log.warn("Failed to drain view counts from Redis: {}", e.getMessage());
+        } finally {
+            stringRedisTemplate.delete(FLUSH_LOCK_KEY);
+        }
+    }
+
+    private void writeOrRequeue(Constants.ViewTargetEnum target, Map<UUID, Long> deltas) {
+        if (!write(target, deltas)) {
+            // Retried on the next flush
+            ConcurrentHashMap<UUID, LongAdder> buffer = buffers.get(target);
+            deltas.forEach((id, delta) -> buffer.computeIfAbsent(id, k -> new LongAdder()).add(delta));
+        }
+    }
+
+    private boolean write(Constants.ViewTargetEnum target, Map<UUID, Long> deltas) {
+        // Two aligned array literals, e.g. {id1,id2} / {3,1}; ids of deleted rows simply match nothing
+        String ids = deltas.keySet().stream().map(UUID::toString).collect(Collectors.joining(",", "{", "}"));
+        String counts = deltas.keySet().stream().map(id -> deltas.get(id).toString()).collect(Collectors.joining(",", "{", "}"));
+        try {
+            int updated = switch (target) {
+                case KNOWLEDGE_ITEM -> knowledgeItemRepository.addViewCounts(ids, counts);
+                case SERVICE_PACKAGE -> servicePackageRepository.addViewCounts(ids, counts);
+            };
+            log.debug("Flushed {} view counts for {} {}", deltas.size(), updated, target);
+            return true;
+        } catch (Exception e) {
+            log.warn("Failed to flush {} view counts: {}", target, e.getMessage());
+            return false;
+        }
+    }
+
+    private String currentViewer() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication != null && authentication.getPrincipal() instanceof JwtUserDetails principal) {
+            return "u:" + principal.getId();
+        }
+        if (RequestContextHolder.getRequestAttributes() instanceof ServletRequestAttributes attributes) {
+            HttpServletRequest request = attributes.getRequest();
+            return "ip:" + deviceFingerprintService.getIpAddress(request);
+        }
+        return null;
+    }
+
+    private static Map<Constants.ViewTargetEnum, ConcurrentHashMap<UUID, LongAdder>> initBuffers() {
+        Map<Constants.ViewTargetEnum, ConcurrentHashMap<UUID, LongAdder>> buffers = new EnumMap<>(Constants.ViewTargetEnum.class);
+        for (Constants.ViewTargetEnum target : Constants.ViewTargetEnum.values()) {
+            buffers.put(target, new ConcurrentHashMap<>());
+        }
+        return buffers;
+    }
+}
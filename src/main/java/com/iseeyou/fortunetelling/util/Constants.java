@@ -250,6 +250,44 @@ public final class Constants {
         }
     }
 
+    @Getter
+    @AllArgsConstructor
+    public enum RefundJobStatusEnum {
+        PENDING("PENDING"),
+        RUNNING("RUNNING"),
+        SUCCEEDED("SUCCEEDED"),
+        // Nothing to refund (no completed payment, already canceled), not retried
+        SKIPPED("SKIPPED"),
+        FAILED("FAILED");
+
+        private final String value;
+
+        public static RefundJobStatusEnum get(final String name) {
+            return Stream.of(RefundJobStatusEnum.values())
+                    .filter(p -> p.name().equals(name.toUpperCase()) || p.getValue().equals(name.toUpperCase()))
+                    .findFirst()
+                    .orElseThrow(() -> new IllegalArgumentException(String.format("Invalid refund job status name: %s", name)));
+        }
+    }
+
+    @Getter
+    @AllArgsConstructor
+    public enum FanoutJobStatusEnum {
+        PENDING("PENDING"),
+        RUNNING("RUNNING"),
+        SUCCEEDED("SUCCEEDED"),
+        FAILED("FAILED");
+
+        private final String value;
+
+        public static FanoutJobStatusEnum get(final String name) {
+            return Stream.of(FanoutJobStatusEnum.values())
+                    .filter(p -> p.name().equals(name.toUpperCase()) || p.getValue().equals(name.toUpperCase()))
+                    .findFirst()
+                    .orElseThrow(() -> new IllegalArgumentException(String.format("Invalid fan-out job status name: %s", name)));
+        }
+    }
+
     @Getter
     @AllArgsConstructor
     public enum ServiceCategoryEnum {
@@ -349,4 +387,111 @@ public final class Constants {
                     .orElseThrow(() -> new IllegalArgumentException(String.format("Invalid notification type name: %s", name)));
         }
     }
-}
\ No newline at end of file
+
+    @Getter
+    @AllArgsConstructor
+    public enum MediaUploadStatusEnum {
+        UPLOADING("UPLOADING"),
+        PROCESSING("PROCESSING"),
+        COMPLETED("COMPLETED"),
+        FAILED("FAILED"),
+        EXPIRED("EXPIRED");
+
+        private final String value;
+
+        public static MediaUploadStatusEnum get(final String name) {
+            return Stream.of(MediaUploadStatusEnum.values())
+                    .filter(p -> p.name().equals(name.toUpperCase()) || p.getValue().equals(name.toUpperCase()))
+                    .findFirst()
+                    .orElseThrow(() -> new IllegalArgumentException(String.format("Invalid media upload status name: %s", name)));
+        }
+    }
+
+    @Getter
+    @AllArgsConstructor
+    public enum MediaTypeEnum {
+        IMAGE("IMAGE"),
+        VIDEO("VIDEO");
+
+        private final String value;
+
+        public static MediaTypeEnum get(final String name) {
+            return Stream.of(MediaTypeEnum.values())
+                    .filter(p -> p.name().equals(name.toUpperCase()) || p.getValue().equals(name.toUpperCase()))
+                    .findFirst()
+                    .orElseThrow(() -> new IllegalArgumentException(String.format("Invalid media type name: %s", name)));
+        }
+    }
+
+    @Getter
+    @AllArgsConstructor
+    public enum ModerationActionEnum {
+        // Sắp xếp theo mức độ tăng dần, action mạnh nhất trong các match được áp dụng
+        ALLOW("ALLOW"),
+        FLAG("FLAG"),
+        MASK("MASK"),
+        BLOCK("BLOCK");
+
+        private final String value;
+
+        public static ModerationActionEnum get(final String name) {
+            return Stream.of(ModerationActionEnum.values())
+                    .filter(p -> p.name().equals(name.toUpperCase()) || p.getValue().equals(name.toUpperCase()))
+                    .findFirst()
+                    .orElseThrow(() -> new IllegalArgumentException(String.format("Invalid moderation action name: %s", name)));
+        }
+    }
+
+    @Getter
+    @AllArgsConstructor
+    public enum NotificationAudienceEnum {
+        ALL("ALL"),
+        CUSTOMER("CUSTOMER"),
+        SEER("SEER");
+
+        private final String value;
+
+        public static NotificationAudienceEnum get(final String name) {
+            return Stream.of(NotificationAudienceEnum.values())
+                    .filter(p -> p.name().equals(name.toUpperCase()) || p.getValue().equals(name.toUpperCase()))
+                    .findFirst()
+                    .orElseThrow(() -> new IllegalArgumentException(String.format("Invalid notification audience name: %s", name)));
+        }
+    }
+
+    @Getter
+    @AllArgsConstructor
+    public enum ViewTargetEnum {
+        KNOWLEDGE_ITEM("KNOWLEDGE_ITEM"),
+        SERVICE_PACKAGE("SERVICE_PACKAGE");
+
+        private final String value;
+
+        public static ViewTargetEnum get(final String name) {
+            return Stream.of(ViewTargetEnum.values())
+                    .filter(p -> p.name().equals(name.toUpperCase()) || p.getValue().equals(name.toUpperCase()))
+                    .findFirst()
+                    .orElseThrow(() -> new IllegalArgumentException(String.format("Invalid view target name: %s", name)));
+        }
+    }
+
+    @Getter
+    @AllArgsConstructor
+    public enum TrendingEventEnum {
+        VIEW("VIEW"),
+        LIKE("LIKE"),
+        // Like taken back, cancels the like's weight; recorded with the like's time (TrendingService.recordUnlike)
+        UNLIKE("UNLIKE"),
+        BOOKING("BOOKING"),
+        REVIEW("REVIEW");
+
+        private final String value;
+
+        public static TrendingEventEnum get(final String name) {
+            return Stream.of(TrendingEventEnum.values())
+                    .filter(p -> p.name().equals(name.toUpperCase()) || p.getValue().equals(name.toUpperCase()))
+                    .findFirst()
+                    .orElseThrow(() -> new IllegalArgumentException(String.format("Invalid trending event name: %s", name)));
+        }
+    }
+}
@@ -0,0 +1,73 @@
+package com.iseeyou.fortunetelling.util;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Supplier;
+
+/**
+ * Runs a read-modify-write in its own transaction and re-runs it (re-reading fresh state) when
+ * another writer bumped the @Version in between. The action must re-check its preconditions on
+ * every attempt, that is what turns the version check into a conditional update.
+ */
+@Component
+@Slf4j
+public class OptimisticLockRetryExecutor {
+
+    private final TransactionTemplate transactionTemplate;
+
+    @Value("${app.optimistic-lock.max-attempts:3}")
+    private int maxAttempts;
+
+    @Value("${app.optimistic-lock.backoff-ms:50}")
+    private long backoffMs;
+
+    public OptimisticLockRetryExecutor(PlatformTransactionManager transactionManager) {
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    public <T> T execute(String operation, Supplier<T> action) {
+        // Inside a caller's transaction the persistence context is already stale, retrying here is useless:
+        // let the conflict propagate to whoever owns the transaction
+        if (TransactionSynchronizationManager.isActualTransactionActive()) {
+            return action.get();
+        }
+
+        for (int attempt = 1; ; attempt++) {
+            try {
+                return transactionTemplate.execute(status -> action.get());
+            } catch (ObjectOptimisticLockingFailureException e) {
+                if (attempt >= maxAttempts) {
+                    log.warn("{} still conflicting after {} attempts, giving up", operation, attempt);
+                    throw e;
+                }
+                log.info("{} hit a concurrent update (attempt {}/{}), retrying", operation, attempt, maxAttempts);
+                sleepBeforeRetry(attempt);
+            }
+        }
+    }
+
+    public void run(String operation, Runnable action) {
+        execute(operation, () -> {
+            action.run();
+            return null;
+        });
+    }
+
+    // Jittered linear backoff so two retrying writers don't collide again on the same tick
+    private void sleepBeforeRetry(int attempt) {
+        long delay = backoffMs * attempt + ThreadLocalRandom.current().nextLong(backoffMs + 1);
+        try {
+            Thread.sleep(delay);
+        } catch (InterruptedException ie) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while retrying after a concurrent update", ie);
+        }
+    }
+}
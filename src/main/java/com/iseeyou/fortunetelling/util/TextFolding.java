@@ -0,0 +1,68 @@
+package com.iseeyou.fortunetelling.util;
+
+import java.text.Normalizer;
+
+/**
+ * Lowercase + Vietnamese diacritic folding ("Đồ Ngữ" -> "do ngu"), one output char per input char
+ * so positions in the folded text map straight back onto the original (NFC) text.
+ * Used by moderation matching and message search (as a portable stand-in for Postgres unaccent).
+ */
+public final class TextFolding {
+
+    // Latin, Latin-1 Supplement, Latin Extended-A/B
+    private static final char LATIN_END = 0x0250;
+    // Latin Extended Additional: the precomposed Vietnamese vowels (ạ, ầ, ữ, ...)
+    private static final char LATIN_ADDITIONAL_START = 0x1E00;
+    private static final char LATIN_ADDITIONAL_END = 0x1F00;
+
+    // Folded chars precomputed once, so the send path does not normalize char by char
+    private static final char[] LATIN = buildTable(0, LATIN_END);
+    private static final char[] LATIN_ADDITIONAL = buildTable(LATIN_ADDITIONAL_START, LATIN_ADDITIONAL_END);
+
+    private TextFolding() {
+    }
+
+    public static String fold(String text) {
+        if (text == null) {
+            return null;
+        }
+        return new String(foldChars(text));
+    }
+
+    public static char[] foldChars(String text) {
+        char[] result = new char[text.length()];
+        for (int i = 0; i < text.length(); i++) {
+            result[i] = foldChar(text.charAt(i));
+        }
+        return result;
+    }
+
+    public static char foldChar(char c) {
+        if (c < LATIN_END) {
+            return LATIN[c];
+        }
+        if (c >= LATIN_ADDITIONAL_START && c < LATIN_ADDITIONAL_END) {
+            return LATIN_ADDITIONAL[c - LATIN_ADDITIONAL_START];
+        }
+        return normalizeChar(c);
+    }
+
+    private static char[] buildTable(int start, int end) {
+        char[] table = new char[end - start];
+        for (int i = 0; i < table.length; i++) {
+            table[i] = normalizeChar((char) (start + i));
+        }
+        return table;
+    }
+
+    private static char normalizeChar(char c) {
+        if (c < 0x80) {
+            return Character.toLowerCase(c);
+        }
+        if (c == 'đ' || c == 'Đ') {
+            return 'd';
+        }
+        String decomposed = Normalizer.normalize(String.valueOf(c), Normalizer.Form.NFD);
+        return Character.toLowerCase(decomposed.charAt(0));
+    }
+}
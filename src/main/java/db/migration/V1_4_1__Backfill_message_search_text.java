@@ -0,0 +1,54 @@
+package db.migration;
+
+import com.iseeyou.fortunetelling.util.TextFolding;
+import org.flywaydb.core.api.migration.BaseJavaMigration;
+import org.flywaydb.core.api.migration.Context;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.text.Normalizer;
+import java.util.UUID;
+
+/**
+ * Fills search_text for messages sent before search existed, so their history is searchable too.
+ * Written in Java because the folding must be exactly Message#updateSearchText's (TextFolding, no unaccent).
+ * Walks the table in message_id order, one batch at a time.
+ */
+public class V1_4_1__Backfill_message_search_text extends BaseJavaMigration {
+
+    private static final int BATCH_SIZE = 1000;
+
+    @Override
+    public void migrate(Context context) throws SQLException {
+        Connection connection = context.getConnection();
+        // Lowest uuid in Postgres order (unsigned bytes)
+        UUID after = new UUID(0, 0);
+        try (PreparedStatement select = connection.prepareStatement(
+                "SELECT \"message_id\", \"text_content\" FROM \"message\" " +
+                        "WHERE \"message_id\" > ? AND \"text_content\" IS NOT NULL AND \"search_text\" IS NULL " +
+                        "ORDER BY \"message_id\" LIMIT " + BATCH_SIZE);
+             PreparedStatement update = connection.prepareStatement(
+                     "UPDATE \"message\" SET \"search_text\" = ? WHERE \"message_id\" = ?")) {
+            while (true) {
+                select.setObject(1, after);
+                int rows = 0;
+                try (ResultSet rs = select.executeQuery()) {
+                    while (rs.next()) {
+                        after = rs.getObject(1, UUID.class);
+                        String text = rs.getString(2);
+                        update.setString(1, TextFolding.fold(Normalizer.normalize(text, Normalizer.Form.NFC)));
+                        update.setObject(2, after);
+                        update.addBatch();
+                        rows++;
+                    }
+                }
+                if (rows == 0) {
+                    return;
+                }
+                update.executeBatch();
+            }
+        }
+    }
+}
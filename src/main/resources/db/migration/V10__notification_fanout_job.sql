@@ -0,0 +1,43 @@
+-- Bulk notifications and broadcast pushes, queued with the request and worked off by NotificationFanoutService.
+-- A recipient list job commits its progress with each chunk of inserted notifications, so a restart resumes
+-- after the last committed chunk; a broadcast job re-reads the online users and re-materializes (idempotent).
+create table "notification_fanout_job" (
+    "notification_fanout_job_id" uuid not null,
+    "created_at" timestamp(6) not null,
+    "updated_at" timestamp(6) not null,
+    "broadcast_id" uuid,
+    "notification_type" smallint check ("notification_type" between 0 and 2),
+    "notification_title" varchar(255),
+    "notification_body" varchar(255),
+    "recipient_ids" uuid[],
+    "total_recipients" integer not null default 0,
+    "processed_recipients" integer not null default 0,
+    "delivered_count" integer not null default 0,
+    "status" varchar(20) not null check ("status" in ('PENDING','RUNNING','SUCCEEDED','FAILED')),
+    "attempts" integer not null default 0,
+    "next_attempt_at" timestamp(6) not null,
+    "locked_until" timestamp(6),
+    "last_error" varchar(500),
+    "created_by" uuid not null,
+    primary key ("notification_fanout_job_id"),
+    check (("broadcast_id" is null) <> ("recipient_ids" is null))
+);
+
+alter table if exists "notification_fanout_job"
+   add constraint "fk_notification_fanout_job_broadcast"
+   foreign key ("broadcast_id")
+   references "notification_broadcast"
+   on delete cascade;
+
+alter table if exists "notification_fanout_job"
+   add constraint "fk_notification_fanout_job_created_by"
+   foreign key ("created_by")
+   references "user";
+
+-- Claim scans, as for refund_job
+create index if not exists idx_notification_fanout_job_pending_due
+    on "notification_fanout_job" ("next_attempt_at")
+    where "status" = 'PENDING';
+create index if not exists idx_notification_fanout_job_running_lease
+    on "notification_fanout_job" ("locked_until")
+    where "status" = 'RUNNING';
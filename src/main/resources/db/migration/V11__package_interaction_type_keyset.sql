@@ -0,0 +1,4 @@
+-- "Who reacted" list filtered by type (likes / dislikes only): same keyset order with the type in front, so the
+-- row-value cursor predicate is an index condition instead of a filter over the other type's rows.
+create index if not exists idx_package_interaction_package_type_created
+    on "package_interaction" ("package_id", "interaction_type", "created_at" desc, "package_interaction_id" desc);
@@ -0,0 +1,46 @@
+-- Resumable chunked media upload for chat attachments
+
+create table "media_upload" (
+    "media_upload_id" uuid not null,
+    "created_at" timestamp(6) not null,
+    "updated_at" timestamp(6) not null,
+    "checksum" varchar(64),
+    "chunk_size" integer not null,
+    "content_type" varchar(100) not null,
+    "error_message" varchar(500),
+    "file_name" varchar(255) not null,
+    "last_chunk_at" timestamp(6),
+    "media_type" varchar(20) not null check ("media_type" in ('IMAGE','VIDEO')),
+    "status" varchar(20) not null check ("status" in ('UPLOADING','PROCESSING','COMPLETED','FAILED','EXPIRED')),
+    "total_chunks" integer not null,
+    "total_size" bigint not null,
+    "url" varchar(500),
+    "conversation_id" uuid not null,
+    "uploader_id" uuid not null,
+    primary key ("media_upload_id")
+);
+
+-- Received chunk indexes; the unique key is what addReceivedChunk's ON CONFLICT DO NOTHING conflicts on
+create table "media_upload_chunk" (
+    "media_upload_id" uuid not null,
+    "chunk_index" integer,
+    constraint "uk_media_upload_chunk_upload_index" unique ("media_upload_id", "chunk_index")
+);
+
+create index idx_media_upload_status_last_chunk
+   on "media_upload" ("status", "last_chunk_at");
+
+alter table if exists "media_upload"
+   add constraint "FKqa2sxqae7unvh76thqt205y33"
+   foreign key ("conversation_id")
+   references "conversation";
+
+alter table if exists "media_upload"
+   add constraint "FKnft9b477rphigkhg01scr36on"
+   foreign key ("uploader_id")
+   references "user";
+
+alter table if exists "media_upload_chunk"
+   add constraint "FK4eug4e0nl80m607t3ox0t8dem"
+   foreign key ("media_upload_id")
+   references "media_upload";
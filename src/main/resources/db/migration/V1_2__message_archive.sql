@@ -0,0 +1,17 @@
+-- Messages of ended conversations moved into compressed append-only segment files
+
+create table "message_archive_index" (
+    "message_archive_index_id" uuid not null,
+    "created_at" timestamp(6) not null,
+    "updated_at" timestamp(6) not null,
+    "block_crc32" bigint not null,
+    "block_length" integer not null,
+    "conversation_id" uuid not null unique,
+    "message_count" integer not null,
+    "segment_name" varchar(100) not null,
+    "segment_offset" bigint not null,
+    primary key ("message_archive_index_id")
+);
+
+-- Set once the conversation's messages live in a segment
+alter table "conversation" add column "archived_at" timestamp(6);
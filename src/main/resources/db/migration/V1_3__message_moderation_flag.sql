@@ -0,0 +1,2 @@
+-- Messages that matched a FLAG/MASK moderation phrase, for admin review
+alter table "message" add column "is_flagged" boolean not null default false;
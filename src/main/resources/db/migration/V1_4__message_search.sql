@@ -0,0 +1,10 @@
+-- Full-text search over messages: search_text is the folded (lowercase, no diacritics) copy of text_content
+-- written by the application, search_vector is derived from it by Postgres.
+-- Existing messages get search_text from V1_4_1 (Java: the folding has to be exactly TextFolding's).
+
+alter table "message" add column "search_text" text;
+alter table "message" add column "search_vector" tsvector
+    GENERATED ALWAYS AS (to_tsvector('simple', coalesce("search_text", ''))) STORED;
+
+create index if not exists idx_message_search_vector
+    on "message" using gin ("search_vector");
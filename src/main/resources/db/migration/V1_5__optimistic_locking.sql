@@ -0,0 +1,4 @@
+-- @Version columns; existing rows start at 0, a NULL version would never match Hibernate's version check
+alter table "booking" add column "version" bigint default 0;
+alter table "booking_payment" add column "version" bigint default 0;
+alter table "conversation" add column "version" bigint default 0;
@@ -0,0 +1,437 @@
+-- Baseline: schema as generated by Hibernate from the entities before the performance work (V1.x) started.
+-- Existing databases created by ddl-auto are marked as this version (spring.flyway.baseline-on-migrate)
+-- and get everything after it, so nothing added since that point may live here.
+
+create table "booking" (
+    "booking_id" uuid not null,
+    "created_at" timestamp(6) not null,
+    "updated_at" timestamp(6) not null,
+    "additional_note" varchar(1000),
+    "comment" varchar(1000),
+    "rating" numeric(2,1),
+    "reviewed_at" timestamp(6),
+    "scheduled_time" timestamp(6) not null,
+    "status" smallint not null check ("status" between 0 and 4),
+    "customer_id" uuid not null,
+    "service_package_id" uuid not null,
+    primary key ("booking_id")
+);
+
+create table "booking_payment" (
+    "booking_payment_id" uuid not null,
+    "created_at" timestamp(6) not null,
+    "updated_at" timestamp(6) not null,
+    "amount" float(53) not null,
+    "approval_url" varchar(1000),
+    "extra_info" varchar(255),
+    "failure_reason" varchar(1000),
+    "payment_method" smallint not null check ("payment_method" between 0 and 2),
+    "status" smallint not null check ("status" between 0 and 3),
+    "transaction_id" varchar(1000),
+    "booking_id" uuid not null,
+    primary key ("booking_payment_id")
+);
+
+create table "certificate" (
+    "certificate_id" uuid not null,
+    "created_at" timestamp(6) not null,
+    "updated_at" timestamp(6) not null,
+    "certificate_description" varchar(1000),
+    "certificate_name" varchar(100) not null,
+    "certificate_url" varchar(500),
+    "decision_date" timestamp(6),
+    "decision_reason" varchar(500),
+    "expiration_date" timestamp(6),
+    "issued_at" timestamp(6) not null,
+    "issued_by" varchar(100) not null,
+    "status" smallint check ("status" between 0 and 2),
+    "seer_id" uuid,
+    primary key ("certificate_id")
+);
+
+create table "certificate-category" (
+    "certificate_category_id" uuid not null,
+    "created_at" timestamp(6) not null,
+    "updated_at" timestamp(6) not null,
+    "certificate_id" uuid not null,
+    "category_id" uuid not null,
+    primary key ("certificate_category_id")
+);
+
+create table "conversation" (
+    "conversation_id" uuid not null,
+    "created_at" timestamp(6) not null,
+    "updated_at" timestamp(6) not null,
+    "cancel_reason" varchar(500),
+    "customer_joined_at" timestamp(6),
+    "extended_minutes" integer,
+    "session_duration_minutes" integer,
+    "session_end_time" timestamp(6),
+    "session_start_time" timestamp(6),
+    "status" varchar(50) not null check ("status" in ('ACTIVE','ENDED','CANCELLED')),
+    "type" varchar(50) not null check ("type" in ('BOOKING_SESSION','SUPPORT')),
+    "warning_notification_sent" boolean,
+    "booking_id" uuid not null unique,
+    primary key ("conversation_id")
+);
+
+create table "customer_profile" (
+    "customer_id" uuid not null,
+    "created_at" timestamp(6) not null,
+    "updated_at" timestamp(6) not null,
+    "chinese_zodiac" varchar(255) not null,
+    "five_elements" varchar(255) not null,
+    "zodiac_sign" varchar(255) not null,
+    primary key ("customer_id")
+);
+
+create table "email_verification" (
+    "id" uuid not null,
+    "created_at" timestamp(6) not null,
+    "email" varchar(255) not null,
+    "expires_at" timestamp(6) not null,
+    "is_used" boolean not null,
+    "otp_code" varchar(255) not null,
+    primary key ("id")
+);
+
+create table "item_category" (
+    "item_category_id" uuid not null,
+    "created_at" timestamp(6) not null,
+    "updated_at" timestamp(6) not null,
+    "category_id" uuid,
+    "item_id" uuid,
+    primary key ("item_category_id")
+);
+
+create table "knowledge_category" (
+    "category_id" uuid not null,
+    "created_at" timestamp(6) not null,
+    "updated_at" timestamp(6) not null,
+    "description" varchar(1000),
+    "name" varchar(255) not null unique,
+    primary key ("category_id")
+);
+
+create table "knowledge_item" (
+    "item_id" uuid not null,
+    "created_at" timestamp(6) not null,
+    "updated_at" timestamp(6) not null,
+    "content" varchar(1000) not null,
+    "image_url" varchar(255),
+    "status" smallint check ("status" between 0 and 2),
+    "title" varchar(255) not null,
+    "view_count" bigint not null,
+    primary key ("item_id")
+);
+
+create table "message" (
+    "message_id" uuid not null,
+    "created_at" timestamp(6) not null,
+    "updated_at" timestamp(6) not null,
+    "image_url" varchar(500),
+    "is_deleted" boolean not null,
+    "is_read" boolean not null,
+    "is_recalled" boolean not null,
+    "is_removed" boolean not null,
+    "message_type" varchar(50),
+    "read_at" timestamp(6),
+    "recalled_at" timestamp(6),
+    "text_content" text,
+    "video_url" varchar(500),
+    "conversation_conversation_id" uuid not null,
+    "recalled_by" uuid,
+    "sender_id" uuid not null,
+    primary key ("message_id")
+);
+
+create table "message_deleted_by" (
+    "message_id" uuid not null,
+    "user_id" uuid
+);
+
+create table "notification" (
+    "notification_id" uuid not null,
+    "created_at" timestamp(6) not null,
+    "updated_at" timestamp(6) not null,
+    "is_read" boolean not null,
+    "notification_body" varchar(255) not null,
+    "notification_title" varchar(255) not null,
+    "notification_type" smallint not null check ("notification_type" between 0 and 2),
+    "recipient_id" uuid not null,
+    primary key ("notification_id")
+);
+
+create table "package_category" (
+    "package_category_id" uuid not null,
+    "created_at" timestamp(6) not null,
+    "updated_at" timestamp(6) not null,
+    "category_id" uuid not null,
+    "package_id" uuid not null,
+    primary key ("package_category_id")
+);
+
+create table "package_interaction" (
+    "package_interaction_id" uuid not null,
+    "created_at" timestamp(6) not null,
+    "updated_at" timestamp(6) not null,
+    "interaction_type" varchar(255) not null check ("interaction_type" in ('LIKE','DISLIKE')),
+    "package_id" uuid not null,
+    "user_id" uuid not null,
+    primary key ("package_interaction_id"),
+    unique ("user_id", "package_id")
+);
+
+create table "report" (
+    "report_id" uuid not null,
+    "created_at" timestamp(6) not null,
+    "updated_at" timestamp(6) not null,
+    "action_type" smallint not null check ("action_type" between 0 and 4),
+    "note" varchar(1000),
+    "report_description" varchar(1000),
+    "status" smallint not null check ("status" between 0 and 3),
+    "target_id" uuid not null,
+    "target_type" smallint not null check ("target_type" between 0 and 3),
+    "report_type_id" uuid not null,
+    "reported_user_id" uuid not null,
+    "reporter_id" uuid not null,
+    primary key ("report_id")
+);
+
+create table "report_evidence" (
+    "evidence_id" uuid not null,
+    "created_at" timestamp(6) not null,
+    "updated_at" timestamp(6) not null,
+    "evidence_image_url" varchar(500),
+    "report_id" uuid not null,
+    primary key ("evidence_id")
+);
+
+create table "report_type" (
+    "type_id" uuid not null,
+    "created_at" timestamp(6) not null,
+    "updated_at" timestamp(6) not null,
+    "description" varchar(500),
+    "name" smallint not null unique check ("name" between 0 and 9),
+    primary key ("type_id")
+);
+
+create table "seer_profile" (
+    "seer_id" uuid not null,
+    "created_at" timestamp(6) not null,
+    "updated_at" timestamp(6) not null,
+    "avg_rating" float(53) not null,
+    "payment_info" varchar(500),
+    "total_rates" integer not null,
+    primary key ("seer_id")
+);
+
+create table "service_package" (
+    "package_id" uuid not null,
+    "created_at" timestamp(6) not null,
+    "updated_at" timestamp(6) not null,
+    "comment_count" bigint,
+    "deleted_at" timestamp(6),
+    "dislike_count" bigint,
+    "duration_minutes" integer not null,
+    "image_url" varchar(500),
+    "like_count" bigint,
+    "package_content" varchar(1000),
+    "package_title" varchar(100) not null,
+    "price" float(53) not null,
+    "rejection_reason" varchar(500),
+    "status" smallint check ("status" between 0 and 3),
+    "seer_id" uuid,
+    primary key ("package_id")
+);
+
+create table "service_review" (
+    "review_id" uuid not null,
+    "created_at" timestamp(6) not null,
+    "updated_at" timestamp(6) not null,
+    "comment" varchar(1000) not null,
+    "review_parent_id" uuid,
+    "package_id" uuid not null,
+    "user_id" uuid not null,
+    primary key ("review_id")
+);
+
+create table "user" (
+    "user_id" uuid not null,
+    "created_at" timestamp(6) not null,
+    "updated_at" timestamp(6) not null,
+    "avatar_url" varchar(255),
+    "birth_date" timestamp(6),
+    "cover_url" varchar(255),
+    "email" varchar(255) not null unique,
+    "full_name" varchar(255) not null,
+    "gender" varchar(255) not null,
+    "is_active" boolean,
+    "password_hash" varchar(255) not null,
+    "phone" varchar(255) not null unique,
+    "profile_description" varchar(1000),
+    "role" smallint not null check ("role" between 0 and 4),
+    "status" smallint not null check ("status" between 0 and 4),
+    primary key ("user_id")
+);
+
+create table "user_login_history" (
+    "login_history_id" uuid not null,
+    "created_at" timestamp(6) not null,
+    "updated_at" timestamp(6) not null,
+    "device_fingerprint" varchar(255),
+    "device_info" varchar(255),
+    "failure_reason" varchar(255),
+    "ip_address" varchar(50),
+    "is_trusted_device" boolean,
+    "location" varchar(255),
+    "login_success" boolean not null,
+    "login_time" timestamp(6) not null,
+    "user_id" uuid not null,
+    primary key ("login_history_id")
+);
+
+alter table if exists "booking"
+   add constraint "FKsonaen54el60kwu8w6l1f9op4"
+   foreign key ("customer_id")
+   references "user";
+
+alter table if exists "booking"
+   add constraint "FK7v08a09p0mid5k1vegivvkflj"
+   foreign key ("service_package_id")
+   references "service_package";
+
+alter table if exists "booking_payment"
+   add constraint "FKqjeavj4o5ixdvjsmugjpg6lt1"
+   foreign key ("booking_id")
+   references "booking";
+
+alter table if exists "certificate"
+   add constraint "FK2j4c5akdklh7847v20eqex5vu"
+   foreign key ("seer_id")
+   references "user";
+
+alter table if exists "certificate-category"
+   add constraint "FK89ryr1yyvj99bqfqggcnurhey"
+   foreign key ("certificate_id")
+   references "certificate";
+
+alter table if exists "certificate-category"
+   add constraint "FKodlcf09ykkto3hw74f4f6p6wd"
+   foreign key ("category_id")
+   references "knowledge_category";
+
+alter table if exists "conversation"
+   add constraint "FKlaukla6n2i4piwxbhb8isubcu"
+   foreign key ("booking_id")
+   references "booking";
+
+alter table if exists "customer_profile"
+   add constraint "FKqem95rmxjywnf7etrc0lkdhr4"
+   foreign key ("customer_id")
+   references "user";
+
+alter table if exists "item_category"
+   add constraint "FKh3ehc0w3j4crrx398e0atl6af"
+   foreign key ("category_id")
+   references "knowledge_category";
+
+alter table if exists "item_category"
+   add constraint "FK1hpplm5gqr95gf3jlp55i3yqk"
+   foreign key ("item_id")
+   references "knowledge_item";
+
+alter table if exists "message"
+   add constraint "FK8768qe04j9643s9638nn0wrbp"
+   foreign key ("conversation_conversation_id")
+   references "conversation";
+
+alter table if exists "message"
+   add constraint "FKj6t69wuvnjs5b4ly2gsjlwj6r"
+   foreign key ("recalled_by")
+   references "user";
+
+alter table if exists "message"
+   add constraint "FK7m83l67ilb72af0lce8mkjhms"
+   foreign key ("sender_id")
+   references "user";
+
+alter table if exists "message_deleted_by"
+   add constraint "FKdi9w7yjuah007xjtqc31fsmc"
+   foreign key ("message_id")
+   references "message";
+
+alter table if exists "notification"
+   add constraint "FKkn45mrnwsj9lqf93dy1xb61s4"
+   foreign key ("recipient_id")
+   references "user";
+
+alter table if exists "package_category"
+   add constraint "FKev7hrx5fptvvmp18d9n51qxni"
+   foreign key ("category_id")
+   references "knowledge_category";
+
+alter table if exists "package_category"
+   add constraint "FKnd7i335kdqgmrofou44hu76fy"
+   foreign key ("package_id")
+   references "service_package";
+
+alter table if exists "package_interaction"
+   add constraint "FK2ffi9aeef9fdur1hfy29l3135"
+   foreign key ("package_id")
+   references "service_package";
+
+alter table if exists "package_interaction"
+   add constraint "FKpxgsf32eblh5mqn8h8wcgbjj2"
+   foreign key ("user_id")
+   references "user";
+
+alter table if exists "report"
+   add constraint "FKioyyn4p1bydp6hrtwhd6sebag"
+   foreign key ("report_type_id")
+   references "report_type";
+
+alter table if exists "report"
+   add constraint "FKi3mledks92tvxro1v46yu8jqx"
+   foreign key ("reported_user_id")
+   references "user";
+
+alter table if exists "report"
+   add constraint "FKlh4uwxn7cqd2qcjuux1nn1m27"
+   foreign key ("reporter_id")
+   references "user";
+
+alter table if exists "report_evidence"
+   add constraint "FKi5pf56teao5guod8goof6hq8f"
+   foreign key ("report_id")
+   references "report";
+
+alter table if exists "seer_profile"
+   add constraint "FKba1rsp8kmxrax6ch8bwsk6n9r"
+   foreign key ("seer_id")
+   references "user";
+
+alter table if exists "service_package"
+   add constraint "FKnlgb5ysjbr7o5hdlqgbw14at0"
+   foreign key ("seer_id")
+   references "user";
+
+alter table if exists "service_review"
+   add constraint "FKp15fcul7eklekhlosauyjcrar"
+   foreign key ("review_parent_id")
+   references "service_review";
+
+alter table if exists "service_review"
+   add constraint "FKtmmgqt5hsy8iatu0r7e21b6m2"
+   foreign key ("package_id")
+   references "service_package";
+
+alter table if exists "service_review"
+   add constraint "FKsxgr9wjhqsncj68n1srp5b71f"
+   foreign key ("user_id")
+   references "user";
+
+alter table if exists "user_login_history"
+   add constraint "FKm5l380qepr38sy8upyex1nj1t"
+   foreign key ("user_id")
+   references "user";
@@ -0,0 +1,62 @@
+-- Indexes for the hot read paths. Column names follow the baseline (message -> conversation FK is
+-- "conversation_conversation_id", the implicit JPA join column name).
+
+-- Chat history: messages of a conversation, newest first
+create index if not exists idx_message_conversation_created
+    on "message" ("conversation_conversation_id", "created_at" desc);
+
+-- "Delete for me" lookups and the anti-join in message search
+create index if not exists idx_message_deleted_by_message_user
+    on "message_deleted_by" ("message_id", "user_id");
+
+-- Notification list and unread count per recipient
+create index if not exists idx_notification_recipient_read_created
+    on "notification" ("recipient_id", "is_read", "created_at" desc);
+
+-- Bookings of a customer filtered by status; bookings per package (FK)
+create index if not exists idx_booking_customer_status
+    on "booking" ("customer_id", "status");
+create index if not exists idx_booking_service_package
+    on "booking" ("service_package_id");
+
+-- Booking payments are always loaded through their booking
+create index if not exists idx_booking_payment_booking
+    on "booking_payment" ("booking_id");
+
+-- Session scheduler: expiring / ending-soon sessions, and late sessions the customer never joined
+create index if not exists idx_conversation_status_end_time
+    on "conversation" ("status", "session_end_time");
+create index if not exists idx_conversation_late_sessions
+    on "conversation" ("status", "session_start_time")
+    where "customer_joined_at" is null;
+
+-- Service packages: soft-deleted rows are filtered by @Where(deleted_at IS NULL) on every query
+create index if not exists idx_service_package_seer_status
+    on "service_package" ("seer_id", "status")
+    where "deleted_at" is null;
+create index if not exists idx_service_package_status_created
+    on "service_package" ("status", "created_at" desc)
+    where "deleted_at" is null;
+
+create index if not exists idx_package_interaction_package
+    on "package_interaction" ("package_id");
+create index if not exists idx_service_review_package
+    on "service_review" ("package_id", "created_at" desc);
+
+-- Login history of a user, newest first
+create index if not exists idx_user_login_history_user_time
+    on "user_login_history" ("user_id", "login_time" desc);
+
+-- Trigram indexes for the LOWER(x) LIKE '%kw%' searches (admin user search, package search,
+-- chat history participant filter, knowledge item title filter)
+create extension if not exists pg_trgm;
+
+create index if not exists idx_user_full_name_trgm
+    on "user" using gin (lower("full_name") gin_trgm_ops);
+create index if not exists idx_user_email_trgm
+    on "user" using gin (lower("email") gin_trgm_ops);
+create index if not exists idx_service_package_title_trgm
+    on "service_package" using gin (lower("package_title") gin_trgm_ops)
+    where "deleted_at" is null;
+create index if not exists idx_knowledge_item_title_trgm
+    on "knowledge_item" using gin (lower("title") gin_trgm_ops);
@@ -0,0 +1,32 @@
+-- Broadcast announcements are stored once and copied into each user's inbox on read
+create table "notification_broadcast" (
+    "notification_broadcast_id" uuid not null,
+    "created_at" timestamp(6) not null,
+    "updated_at" timestamp(6) not null,
+    "audience" varchar(20) not null check ("audience" in ('ALL','CUSTOMER','SEER')),
+    "notification_type" smallint not null check ("notification_type" between 0 and 2),
+    "notification_title" varchar(255) not null,
+    "notification_body" varchar(255) not null,
+    "created_by" uuid not null,
+    primary key ("notification_broadcast_id")
+);
+
+alter table if exists "notification_broadcast"
+   add constraint "fk_notification_broadcast_created_by"
+   foreign key ("created_by")
+   references "user";
+
+create index if not exists idx_notification_broadcast_audience_created
+    on "notification_broadcast" ("audience", "created_at");
+
+alter table "notification" add column "broadcast_id" uuid;
+
+alter table if exists "notification"
+   add constraint "fk_notification_broadcast"
+   foreign key ("broadcast_id")
+   references "notification_broadcast";
+
+-- One copy per user and broadcast; also the ON CONFLICT target of the materializing INSERT ... SELECT
+create unique index if not exists uk_notification_recipient_broadcast
+    on "notification" ("recipient_id", "broadcast_id")
+    where "broadcast_id" is not null;
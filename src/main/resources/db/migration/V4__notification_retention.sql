@@ -0,0 +1,15 @@
+-- Digest row replacing compacted old unread notifications, holds how many it stands for
+alter table "notification" add column "digest_count" integer;
+
+-- Retention job scans: read rows past the retention window, old unread rows to compact
+create index if not exists idx_notification_read_created
+    on "notification" ("created_at")
+    where "is_read";
+create index if not exists idx_notification_unread_created
+    on "notification" ("created_at")
+    where not "is_read" and "digest_count" is null;
+
+-- Broadcast cleanup checks for remaining copies, and so does the FK on delete
+create index if not exists idx_notification_broadcast
+    on "notification" ("broadcast_id")
+    where "broadcast_id" is not null;
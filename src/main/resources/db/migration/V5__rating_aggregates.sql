@@ -0,0 +1,35 @@
+-- Rating aggregates maintained incrementally on review submission (relative UPDATE) and repaired nightly.
+-- avg_rating is 0 without reviews so that "highest rated first" puts unrated packages last.
+alter table "service_package" add column "rating_sum" numeric(12,1) not null default 0;
+alter table "service_package" add column "rating_count" bigint not null default 0;
+alter table "service_package" add column "avg_rating" float(53) not null default 0;
+
+-- seer_profile already had avg_rating / total_rates, it only lacked the sum
+alter table "seer_profile" add column "rating_sum" numeric(12,1) not null default 0;
+
+update "service_package" sp
+set "rating_sum" = agg.rating_sum,
+    "rating_count" = agg.rating_count,
+    "avg_rating" = case when agg.rating_count > 0 then agg.rating_sum / agg.rating_count else 0 end
+from (select b."service_package_id", sum(b."rating") as rating_sum, count(b."rating") as rating_count
+      from "booking" b
+      where b."rating" is not null
+      group by b."service_package_id") agg
+where sp."package_id" = agg."service_package_id";
+
+update "seer_profile" s
+set "rating_sum" = coalesce(agg.rating_sum, 0),
+    "total_rates" = coalesce(agg.rating_count, 0),
+    "avg_rating" = case when agg.rating_count > 0 then agg.rating_sum / agg.rating_count else 0 end
+from "seer_profile" s2
+left join (select sp."seer_id", sum(b."rating") as rating_sum, count(b."rating") as rating_count
+           from "booking" b
+           join "service_package" sp on sp."package_id" = b."service_package_id"
+           where b."rating" is not null
+           group by sp."seer_id") agg on agg."seer_id" = s2."seer_id"
+where s."seer_id" = s2."seer_id";
+
+-- Catalog sorted by rating
+create index if not exists idx_service_package_status_rating
+    on "service_package" ("status", "avg_rating" desc)
+    where "deleted_at" is null;
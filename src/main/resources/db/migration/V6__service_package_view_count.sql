@@ -0,0 +1,2 @@
+-- Package detail views, written by the view counter flush (ViewCounterService) only
+alter table "service_package" add column "view_count" bigint not null default 0;
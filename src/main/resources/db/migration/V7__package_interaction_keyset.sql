@@ -0,0 +1,5 @@
+-- Reactions of a package newest first: keyset pages of the "who reacted" list and the per-package sample
+-- (LATERAL ... LIMIT). Supersedes the plain package_id index.
+create index if not exists idx_package_interaction_package_created
+    on "package_interaction" ("package_id", "created_at" desc, "package_interaction_id" desc);
+drop index if exists idx_package_interaction_package;
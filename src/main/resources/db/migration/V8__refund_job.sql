@@ -0,0 +1,37 @@
+-- Refunds of a deleted package's bookings, one job per booking, worked off by RefundJobService
+create table "refund_job" (
+    "refund_job_id" uuid not null,
+    "created_at" timestamp(6) not null,
+    "updated_at" timestamp(6) not null,
+    "booking_id" uuid not null unique,
+    "service_package_id" uuid not null,
+    "seer_id" uuid,
+    "status" varchar(20) not null check ("status" in ('PENDING','RUNNING','SUCCEEDED','SKIPPED','FAILED')),
+    "attempts" integer not null default 0,
+    "next_attempt_at" timestamp(6) not null,
+    "locked_until" timestamp(6),
+    "last_error" varchar(500),
+    primary key ("refund_job_id")
+);
+
+alter table if exists "refund_job"
+   add constraint "fk_refund_job_booking"
+   foreign key ("booking_id")
+   references "booking";
+
+alter table if exists "refund_job"
+   add constraint "fk_refund_job_service_package"
+   foreign key ("service_package_id")
+   references "service_package";
+
+-- Claim scans: due pending jobs, and running jobs whose worker died (lease expired)
+create index if not exists idx_refund_job_pending_due
+    on "refund_job" ("next_attempt_at")
+    where "status" = 'PENDING';
+create index if not exists idx_refund_job_running_lease
+    on "refund_job" ("locked_until")
+    where "status" = 'RUNNING';
+
+-- Status polling per package
+create index if not exists idx_refund_job_package
+    on "refund_job" ("service_package_id", "created_at");
@@ -0,0 +1,67 @@
+-- Materialized counters for seer profiles/dashboards and the admin account overview.
+-- Kept by relative upserts on booking, payment and account events, recomputed nightly.
+-- Seer rating aggregates already live on seer_profile (V5), same key, so they are not repeated here.
+
+-- First confirmation of a booking by its seer; response time = confirmed_at - created_at
+alter table "booking" add column "confirmed_at" timestamp(6);
+
+create table "seer_stats" (
+    "seer_id" uuid not null,
+    "created_at" timestamp(6) not null,
+    "updated_at" timestamp(6) not null,
+    "total_bookings" bigint not null default 0,
+    "completed_bookings" bigint not null default 0,
+    "cancelled_bookings" bigint not null default 0,
+    -- Completed payments, refunded ones are taken off again
+    "total_revenue" float(53) not null default 0,
+    "response_count" bigint not null default 0,
+    "response_seconds_sum" float(53) not null default 0,
+    primary key ("seer_id")
+);
+
+alter table if exists "seer_stats"
+   add constraint "fk_seer_stats_user"
+   foreign key ("seer_id")
+   references "user"
+   on delete cascade;
+
+-- Booking status: 2 = COMPLETED, 4 = CANCELED; payment status: 1 = COMPLETED (ordinals)
+insert into "seer_stats" ("seer_id", "created_at", "updated_at", "total_bookings", "completed_bookings",
+                          "cancelled_bookings", "total_revenue", "response_count", "response_seconds_sum")
+select sp."seer_id", now(), now(),
+       count(b."booking_id"),
+       count(b."booking_id") filter (where b."status" = 2),
+       count(b."booking_id") filter (where b."status" = 4),
+       coalesce(sum(pay.revenue), 0),
+       0, 0
+from "service_package" sp
+join "booking" b on b."service_package_id" = sp."package_id"
+left join (select bp."booking_id", sum(bp."amount") as revenue
+           from "booking_payment" bp
+           where bp."status" = 1
+           group by bp."booking_id") pay on pay."booking_id" = b."booking_id"
+join "user" u on u."user_id" = sp."seer_id"
+group by sp."seer_id";
+
+-- Single row (id 1)
+create table "account_stats" (
+    "account_stats_id" smallint not null check ("account_stats_id" = 1),
+    "updated_at" timestamp(6) not null,
+    "customer_accounts" bigint not null default 0,
+    "seer_accounts" bigint not null default 0,
+    "admin_accounts" bigint not null default 0,
+    "pending_accounts" bigint not null default 0,
+    "blocked_accounts" bigint not null default 0,
+    primary key ("account_stats_id")
+);
+
+-- Role: 0 = ADMIN, 1 = SEER, 2 = UNVERIFIED_SEER, 4 = CUSTOMER; status 4 = BLOCKED (ordinals)
+insert into "account_stats" ("account_stats_id", "updated_at", "customer_accounts", "seer_accounts",
+                             "admin_accounts", "pending_accounts", "blocked_accounts")
+select 1, now(),
+       count(*) filter (where u."role" = 4),
+       count(*) filter (where u."role" = 1),
+       count(*) filter (where u."role" = 0),
+       count(*) filter (where u."role" = 2),
+       count(*) filter (where u."status" = 4)
+from "user" u;
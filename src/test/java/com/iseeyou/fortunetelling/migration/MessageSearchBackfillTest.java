@@ -0,0 +1,67 @@
+package com.iseeyou.fortunetelling.migration;
+
+import com.iseeyou.fortunetelling.support.EmbeddedPostgresConfig;
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.SingleConnectionDataSource;
+
+import javax.sql.DataSource;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.sql.SQLException;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class MessageSearchBackfillTest {
+
+    @Test
+    void existingMessagesBecomeSearchable() throws IOException, SQLException {
+        DataSource dataSource = EmbeddedPostgresConfig.newDatabase();
+        // One connection, so the session setting below covers the seed inserts
+        JdbcTemplate jdbc = new JdbcTemplate(new SingleConnectionDataSource(dataSource.getConnection(), true));
+        jdbc.execute(new ClassPathResource("db/migration/V1__baseline_schema.sql")
+                .getContentAsString(StandardCharsets.UTF_8));
+
+        // History from before search existed, more than one backfill batch; FK triggers skipped for the seed
+        UUID conversationId = UUID.randomUUID();
+        UUID senderId = UUID.randomUUID();
+        jdbc.execute("SET session_replication_role = replica");
+        jdbc.update("""
+                INSERT INTO message (message_id, created_at, updated_at, is_deleted, is_read, is_recalled, is_removed,
+                                     text_content, conversation_conversation_id, sender_id)
+                SELECT gen_random_uuid(), now(), now(), false, false, false, false,
+                       CASE WHEN i = 1 THEN 'Thầy xem giúp TÌNH DUYÊN năm nay' ELSE 'tin nhắn ' || i END, ?, ?
+                FROM generate_series(1, 2500) i
+                """, conversationId, senderId);
+        jdbc.update("""
+                INSERT INTO message (message_id, created_at, updated_at, is_deleted, is_read, is_recalled, is_removed,
+                                     image_url, conversation_conversation_id, sender_id)
+                VALUES (gen_random_uuid(), now(), now(), false, false, false, false, 'https://img', ?, ?)
+                """, conversationId, senderId);
+        jdbc.execute("SET session_replication_role = origin");
+
+        Flyway.configure()
+                .dataSource(dataSource)
+                .locations("classpath:db/migration")
+                .baselineOnMigrate(true)
+                .baselineVersion("1")
+                .load()
+                .migrate();
+
+        assertThat(jdbc.queryForObject(
+                "SELECT count(*) FROM message WHERE text_content IS NOT NULL AND search_text IS NULL", Long.class))
+                .isZero();
+        assertThat(jdbc.queryForObject(
+                "SELECT search_text FROM message WHERE text_content LIKE 'Thầy%'", String.class))
+                .isEqualTo("thay xem giup tinh duyen nam nay");
+        assertThat(jdbc.queryForObject(
+                "SELECT count(*) FROM message WHERE search_vector @@ to_tsquery('simple', 'tinh & duyen')", Long.class))
+                .isEqualTo(1L);
+        assertThat(jdbc.queryForObject(
+                "SELECT count(*) FROM message WHERE text_content IS NULL AND search_text IS NULL", Long.class))
+                .isEqualTo(1L);
+    }
+}
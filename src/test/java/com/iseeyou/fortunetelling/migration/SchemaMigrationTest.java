@@ -0,0 +1,149 @@
+package com.iseeyou.fortunetelling.migration;
+
+import com.iseeyou.fortunetelling.support.EmbeddedPostgresConfig;
+import com.iseeyou.fortunetelling.support.PostgresDataJpaTest;
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import javax.sql.DataSource;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.TreeSet;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * The migration chain and the V2 performance indexes. Index tests EXPLAIN the query shape the repositories send
+ * with sequential scans disabled: an index shows up in the plan only if the planner can use it for that shape.
+ */
+@PostgresDataJpaTest
+class SchemaMigrationTest {
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeEach
+    void prepare() {
+        // service_package has several overlapping indexes; with no rows the planner's guesses favour whichever is
+        // smallest, so it gets a realistic spread (200 seers, 4 statuses, 10% soft-deleted) and fresh statistics.
+        // FK triggers are skipped for the seed; everything is rolled back with the test transaction.
+        jdbcTemplate.execute("SET LOCAL session_replication_role = replica");
+        jdbcTemplate.execute("""
+                INSERT INTO service_package (package_id, created_at, updated_at, deleted_at, duration_minutes,
+                                             package_title, price, status, seer_id)
+                SELECT gen_random_uuid(), now() - i * interval '1 minute', now(),
+                       CASE WHEN i % 10 = 0 THEN now() END, 60,
+                       CASE WHEN i % 50 = 0 THEN 'Tarot ' ELSE 'Goi tu vi ' END || i, 100000, i % 4,
+                       ('00000000-0000-0000-0000-' || lpad((i % 200)::text, 12, '0'))::uuid
+                FROM generate_series(1, 20000) i
+                """);
+        jdbcTemplate.execute("SET LOCAL session_replication_role = origin");
+        jdbcTemplate.execute("ANALYZE service_package");
+        jdbcTemplate.execute("SET LOCAL enable_seqscan = off");
+    }
+
+    @Test
+    void upgradesDatabaseCreatedBeforeMigrations() throws IOException {
+        // As ddl-auto left it: the baseline schema, no flyway_schema_history
+        DataSource legacy = EmbeddedPostgresConfig.newDatabase();
+        new JdbcTemplate(legacy).execute(new ClassPathResource("db/migration/V1__baseline_schema.sql")
+                .getContentAsString(StandardCharsets.UTF_8));
+        migrate(legacy);
+
+        DataSource fresh = EmbeddedPostgresConfig.newDatabase();
+        migrate(fresh);
+
+        assertThat(describe(new JdbcTemplate(legacy))).isEqualTo(describe(new JdbcTemplate(fresh)));
+        assertThat(new JdbcTemplate(legacy).queryForList(
+                "SELECT version FROM flyway_schema_history WHERE success ORDER BY installed_rank", String.class))
+                .startsWith("1", "1.1", "1.2", "1.3", "1.4", "1.4.1", "1.5", "2");
+    }
+
+    @ParameterizedTest(name = "{0}")
+    @CsvSource(delimiter = '|', textBlock = """
+            idx_message_conversation_created        | SELECT * FROM message WHERE conversation_conversation_id = '00000000-0000-0000-0000-000000000001' ORDER BY created_at DESC LIMIT 20
+            idx_message_search_vector               | SELECT message_id FROM message WHERE search_vector @@ to_tsquery('simple', 'xin & chao')
+            idx_message_deleted_by_message_user     | SELECT 1 FROM message_deleted_by WHERE message_id = '00000000-0000-0000-0000-000000000001' AND user_id = '00000000-0000-0000-0000-000000000001'
+            idx_notification_recipient_read_created | SELECT count(*) FROM notification WHERE recipient_id = '00000000-0000-0000-0000-000000000001' AND is_read = false
+            idx_booking_customer_status             | SELECT * FROM booking WHERE customer_id = '00000000-0000-0000-0000-000000000001' AND status = 1
+            idx_booking_service_package             | SELECT * FROM booking WHERE service_package_id = '00000000-0000-0000-0000-000000000001'
+            idx_booking_payment_booking             | SELECT * FROM booking_payment WHERE booking_id = '00000000-0000-0000-0000-000000000001'
+            idx_conversation_status_end_time        | SELECT * FROM conversation WHERE status = 'ACTIVE' AND session_end_time < now()
+            idx_conversation_late_sessions          | SELECT * FROM conversation WHERE status = 'ACTIVE' AND session_start_time < now() AND customer_joined_at IS NULL
+            idx_service_package_seer_status         | SELECT * FROM service_package WHERE seer_id = '00000000-0000-0000-0000-000000000001' AND status = 0 AND deleted_at IS NULL
+            idx_service_package_status_created      | SELECT * FROM service_package WHERE status = 0 AND deleted_at IS NULL ORDER BY created_at DESC LIMIT 20
+            idx_service_review_package              | SELECT * FROM service_review WHERE package_id = '00000000-0000-0000-0000-000000000001' ORDER BY created_at DESC LIMIT 20
+            idx_user_login_history_user_time        | SELECT * FROM user_login_history WHERE user_id = '00000000-0000-0000-0000-000000000001' ORDER BY login_time DESC LIMIT 20
+            """)
+    void queryUsesIndex(String index, String query) {
+        assertThat(explain(query)).contains(index);
+    }
+
+    @ParameterizedTest(name = "{0}")
+    @CsvSource(delimiter = '|', textBlock = """
+            idx_user_full_name_trgm        | SELECT * FROM "user" WHERE lower(full_name) LIKE '%nguyen%'
+            idx_user_email_trgm            | SELECT * FROM "user" WHERE lower(email) LIKE '%gmail%'
+            idx_service_package_title_trgm | SELECT * FROM service_package WHERE lower(package_title) LIKE '%tarot%' AND deleted_at IS NULL
+            idx_knowledge_item_title_trgm  | SELECT * FROM knowledge_item WHERE lower(title) LIKE '%tu vi%'
+            """)
+    void likeSearchUsesTrigramIndex(String index, String query) {
+        // GIN is bitmap-only; on empty tables a full scan of some other btree otherwise looks as cheap
+        jdbcTemplate.execute("SET LOCAL enable_indexscan = off");
+        assertThat(explain(query)).contains("Bitmap Index Scan on " + index);
+    }
+
+    @Test
+    void softDeleteIndexesAreNotUsedForDeletedRows() {
+        // Partial indexes only cover deleted_at IS NULL; a query without the filter must not pick them
+        assertThat(explain("SELECT * FROM service_package WHERE seer_id = '00000000-0000-0000-0000-000000000001' AND status = 0"))
+                .doesNotContain("idx_service_package_seer_status");
+    }
+
+    private String explain(String query) {
+        return String.join("\n", jdbcTemplate.queryForList("EXPLAIN " + query, String.class));
+    }
+
+    private static void migrate(DataSource dataSource) {
+        // Same settings as spring.flyway in application.yaml
+        Flyway.configure()
+                .dataSource(dataSource)
+                .locations("classpath:db/migration")
+                .baselineOnMigrate(true)
+                .baselineVersion("1")
+                .load()
+                .migrate();
+    }
+
+    /**
+     * Columns, constraints and index definitions of the public schema, independent of object names.
+     */
+    private static Set<String> describe(JdbcTemplate jdbc) {
+        List<String> rows = new ArrayList<>();
+        rows.addAll(jdbc.queryForList("""
+                SELECT concat_ws(' ', table_name, column_name, data_type, character_maximum_length, is_nullable,
+                                 column_default, generation_expression)
+                FROM information_schema.columns
+                WHERE table_schema = 'public' AND table_name <> 'flyway_schema_history'
+                """, String.class));
+        rows.addAll(jdbc.queryForList("""
+                SELECT conrelid::regclass || ' ' || pg_get_constraintdef(oid)
+                FROM pg_constraint
+                WHERE connamespace = 'public'::regnamespace AND conrelid::regclass::text <> 'flyway_schema_history'
+                """, String.class));
+        rows.addAll(jdbc.queryForList("""
+                SELECT regexp_replace(indexdef, 'INDEX \\S+ ON', 'INDEX ON')
+                FROM pg_indexes
+                WHERE schemaname = 'public' AND tablename <> 'flyway_schema_history'
+                """, String.class));
+        return new TreeSet<>(rows);
+    }
+}
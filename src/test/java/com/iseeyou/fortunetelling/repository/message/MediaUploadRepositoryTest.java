@@ -0,0 +1,67 @@
+package com.iseeyou.fortunetelling.repository.message;
+
+import com.iseeyou.fortunetelling.support.PostgresDataJpaTest;
+import com.iseeyou.fortunetelling.support.TestData;
+import com.iseeyou.fortunetelling.util.Constants;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@PostgresDataJpaTest
+class MediaUploadRepositoryTest {
+
+    private static final List<Constants.MediaUploadStatusEnum> CLAIMABLE = List.of(
+            Constants.MediaUploadStatusEnum.UPLOADING, Constants.MediaUploadStatusEnum.FAILED);
+
+    @Autowired
+    private MediaUploadRepository mediaUploadRepository;
+
+    @Autowired
+    private JdbcTemplate jdbc;
+
+    @Test
+    void onlyOneClaimAndOneRecoveryWin() {
+        UUID uploadId = upload();
+        LocalDateTime now = LocalDateTime.now();
+
+        assertThat(mediaUploadRepository.transitionStatus(uploadId, CLAIMABLE,
+                Constants.MediaUploadStatusEnum.PROCESSING, null, now)).isEqualTo(1);
+        // A second complete, on this node or another, finds it PROCESSING and must not process it again
+        assertThat(mediaUploadRepository.transitionStatus(uploadId, CLAIMABLE,
+                Constants.MediaUploadStatusEnum.PROCESSING, null, now)).isZero();
+
+        // Claimed after the cutoff: not stuck yet
+        assertThat(mediaUploadRepository.releaseStuckUpload(uploadId, Constants.MediaUploadStatusEnum.FAILED,
+                "interrupted", now.minusMinutes(1), now)).isZero();
+        LocalDateTime later = now.plusHours(2);
+        assertThat(mediaUploadRepository.releaseStuckUpload(uploadId, Constants.MediaUploadStatusEnum.FAILED,
+                "interrupted", later.minusHours(1), later)).isEqualTo(1);
+        assertThat(mediaUploadRepository.releaseStuckUpload(uploadId, Constants.MediaUploadStatusEnum.FAILED,
+                "interrupted", later.minusHours(1), later)).isZero();
+        // The processor that was still running no longer owns it
+        assertThat(mediaUploadRepository.markCompleted(uploadId, "https://cdn/late.mp4", later)).isZero();
+
+        assertThat(mediaUploadRepository.findById(uploadId).orElseThrow().getStatus())
+                .isEqualTo(Constants.MediaUploadStatusEnum.FAILED);
+    }
+
+    private UUID upload() {
+        TestData data = new TestData(jdbc);
+        UUID customerId = data.user(Constants.RoleEnum.CUSTOMER);
+        UUID bookingId = data.booking(customerId, data.servicePackage(data.user(Constants.RoleEnum.SEER)),
+                Constants.BookingStatusEnum.CONFIRMED);
+        UUID conversationId = data.activeConversation(bookingId, LocalDateTime.now(), LocalDateTime.now().plusMinutes(30), null);
+        UUID id = UUID.randomUUID();
+        jdbc.update("INSERT INTO media_upload (media_upload_id, created_at, updated_at, chunk_size, content_type, " +
+                "file_name, media_type, status, total_chunks, total_size, conversation_id, uploader_id) " +
+                "VALUES (?, now(), now(), 262144, 'video/mp4', 'clip.mp4', 'VIDEO', 'UPLOADING', 1, 1000, ?, ?)",
+                id, conversationId, customerId);
+        return id;
+    }
+}
@@ -0,0 +1,157 @@
+package com.iseeyou.fortunetelling.repository.message;
+
+import com.iseeyou.fortunetelling.dto.Internal.MessageSearchHit;
+import com.iseeyou.fortunetelling.support.PostgresDataJpaTest;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Message search at 100k messages: 1,000 conversations of 100 messages. The busy seer takes part in 980 of them,
+ * the regular seer in 20. "tarot" is in 2% of the messages, "xin chao" in every one.
+ */
+// Own context and with it its own database: the statistics ANALYZE writes outlive the test's rollback
+@PostgresDataJpaTest(properties = {"spring.datasource.name=message-search",
+        "logging.level.com.iseeyou.fortunetelling.repository.message.MessageSearchRepositoryTest=INFO"})
+@Slf4j
+class MessageSearchRepositoryTest {
+
+    private static final int MESSAGES = 100_000;
+    private static final UUID BUSY_SEER_ID = id(4, 0);
+    private static final UUID SEER_ID = id(4, 49);
+    private static final String RARE_TERM = "tarot:*";
+    private static final String COMMON_TERMS = "xin:* & chao:*";
+
+    @Autowired
+    private MessageRepository messageRepository;
+
+    @Autowired
+    private JdbcTemplate jdbc;
+
+    @Autowired
+    private NamedParameterJdbcTemplate namedJdbc;
+
+    @BeforeEach
+    void seed() {
+        // FK triggers are skipped for the seed; everything is rolled back with the test transaction
+        jdbc.execute("SET LOCAL session_replication_role = replica");
+        jdbc.execute("""
+                INSERT INTO service_package (package_id, created_at, updated_at, duration_minutes, package_title,
+                                             price, status, seer_id)
+                SELECT %s, now(), now(), 30, 'Goi ' || p, 100000, 1, %s FROM generate_series(0, 49) p
+                """.formatted(idSql(1, "p"), idSql(4, "CASE WHEN p < 49 THEN 0 ELSE p END")));
+        jdbc.execute("""
+                INSERT INTO booking (booking_id, created_at, updated_at, scheduled_time, status, customer_id,
+                                     service_package_id, version)
+                SELECT %s, now(), now(), now(), 3, %s, %s, 0 FROM generate_series(0, 999) b
+                """.formatted(idSql(2, "b"), idSql(5, "b % 500"), idSql(1, "b % 50")));
+        jdbc.execute("""
+                INSERT INTO conversation (conversation_id, created_at, updated_at, status, type, booking_id, version)
+                SELECT %s, now(), now(), 'ENDED', 'BOOKING_SESSION', %s, 0 FROM generate_series(0, 999) c
+                """.formatted(idSql(3, "c"), idSql(2, "c")));
+        // Already folded text, so search_text is the text itself
+        jdbc.execute("""
+                INSERT INTO message (message_id, created_at, updated_at, is_deleted, is_read, is_recalled, is_removed,
+                                     is_flagged, message_type, text_content, search_text,
+                                     conversation_conversation_id, sender_id)
+                SELECT gen_random_uuid(), now() - i * interval '1 second', now(), false, false, false, false, false,
+                       'TEXT', t, t, %s, %s
+                FROM (SELECT i, concat_ws(' ', 'xin chao thay', 'w' || (i * 7 %% 997), 'w' || (i * 13 %% 991),
+                                          CASE WHEN i %% 47 = 0 THEN 'tarot' END, 'tu vi nam nay') AS t
+                      FROM generate_series(1, %d) i) s
+                """.formatted(idSql(3, "i % 1000"), idSql(5, "i % 500"), MESSAGES));
+        jdbc.execute("SET LOCAL session_replication_role = origin");
+        jdbc.execute("ANALYZE message, conversation, booking, service_package");
+    }
+
+    @Test
+    void busySeerIsSearchedThroughTheGinIndex() {
+        assertThat(plan(BUSY_SEER_ID, RARE_TERM)).contains("idx_message_search_vector");
+        assertThat(messageRepository.searchVisibleMessages(BUSY_SEER_ID, RARE_TERM, null, null, 20))
+                .hasSize(20)
+                .allSatisfy(hit -> assertThat(hit.getTextContent()).contains("tarot"));
+    }
+
+    @Test
+    void smallScopeNeverScansTheMessageTable() {
+        // Few conversations: reading them through idx_message_conversation_created is cheaper than the GIN index
+        assertThat(plan(SEER_ID, RARE_TERM)).doesNotContain("Seq Scan on message");
+        assertThat(plan(SEER_ID, COMMON_TERMS)).doesNotContain("Seq Scan on message");
+    }
+
+    @Test
+    void searchIsPlannedForTheCaller() {
+        messageRepository.searchVisibleMessages(SEER_ID, RARE_TERM, null, null, 20);
+
+        assertThat(jdbc.queryForObject("SELECT current_setting('plan_cache_mode')", String.class))
+                .isEqualTo("force_custom_plan");
+    }
+
+    @Test
+    @Tag("perf")
+    void searchStaysUnder50MsAt100kMessages() {
+        assertP95Under50Ms(SEER_ID, RARE_TERM);
+        assertP95Under50Ms(SEER_ID, COMMON_TERMS);
+        assertP95Under50Ms(BUSY_SEER_ID, RARE_TERM);
+
+        // Not held to the budget: a term in nearly every one of ~100k messages is ranked row by row
+        long[] millis = sample(BUSY_SEER_ID, COMMON_TERMS);
+        log.info("message search, {} messages, busy seer, '{}': p50={}ms p95={}ms",
+                MESSAGES, COMMON_TERMS, percentile(millis, 50), percentile(millis, 95));
+    }
+
+    private void assertP95Under50Ms(UUID userId, String tsQuery) {
+        long[] millis = sample(userId, tsQuery);
+        log.info("message search, {} messages, {} seer, '{}': p50={}ms p95={}ms", MESSAGES,
+                userId.equals(BUSY_SEER_ID) ? "busy" : "regular", tsQuery, percentile(millis, 50), percentile(millis, 95));
+        assertThat(percentile(millis, 95)).as("p95 of '%s' for %s", tsQuery, userId).isLessThan(50);
+    }
+
+    private String plan(UUID userId, String tsQuery) {
+        MapSqlParameterSource parameters = new MapSqlParameterSource()
+                .addValue("tsQuery", tsQuery)
+                .addValue("userId", userId)
+                .addValue("limit", 21);
+        return String.join("\n", namedJdbc.queryForList(
+                "EXPLAIN " + String.format(MessageSearchRepositoryImpl.SEARCH_SQL, "", ""), parameters, String.class));
+    }
+
+    private long[] sample(UUID userId, String tsQuery) {
+        for (int i = 0; i < 10; i++) {
+            messageRepository.searchVisibleMessages(userId, tsQuery, null, null, 21);
+        }
+        long[] millis = new long[50];
+        for (int i = 0; i < millis.length; i++) {
+            long start = System.nanoTime();
+            List<MessageSearchHit> hits = messageRepository.searchVisibleMessages(userId, tsQuery, null, null, 21);
+            millis[i] = (System.nanoTime() - start) / 1_000_000;
+            assertThat(hits).hasSize(21);
+        }
+        Arrays.sort(millis);
+        return millis;
+    }
+
+    private static long percentile(long[] sorted, int percentile) {
+        return sorted[Math.min(sorted.length - 1, sorted.length * percentile / 100)];
+    }
+
+    // Readable ids per kind: 1 package, 2 booking, 3 conversation, 4 seer, 5 customer
+    private static UUID id(int kind, int number) {
+        return UUID.fromString(String.format("00000000-0000-0000-%04d-%012d", kind, number));
+    }
+
+    private static String idSql(int kind, String number) {
+        return "('00000000-0000-0000-%04d-' || lpad((%s)::text, 12, '0'))::uuid".formatted(kind, number);
+    }
+}
@@ -0,0 +1,73 @@
+package com.iseeyou.fortunetelling.repository.notification;
+
+import com.iseeyou.fortunetelling.entity.NotificationFanoutJob;
+import com.iseeyou.fortunetelling.repository.user.UserRepository;
+import com.iseeyou.fortunetelling.support.PostgresDataJpaTest;
+import com.iseeyou.fortunetelling.support.TestData;
+import com.iseeyou.fortunetelling.util.Constants;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@PostgresDataJpaTest
+class NotificationFanoutJobRepositoryTest {
+
+    @Autowired
+    private NotificationFanoutJobRepository jobRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private JdbcTemplate jdbc;
+
+    @Test
+    void expiredLeaseIsReclaimedAndFencesOffTheOldWorker() {
+        UUID adminId = new TestData(jdbc).user(Constants.RoleEnum.ADMIN);
+        UUID[] recipients = {UUID.randomUUID(), UUID.randomUUID(), UUID.randomUUID()};
+        LocalDateTime now = LocalDateTime.now();
+        UUID jobId = jobRepository.save(NotificationFanoutJob.builder()
+                .notificationType(Constants.NotificationTypeEnum.ACCOUNT)
+                .notificationTitle("Maintenance")
+                .notificationBody("Tonight 23:00")
+                .recipientIds(recipients)
+                .totalRecipients(recipients.length)
+                .nextAttemptAt(now.minusSeconds(1))
+                .createdBy(userRepository.getReferenceById(adminId))
+                .build()).getId();
+        entityManager.flush();
+
+        List<Object[]> first = jobRepository.claimDue(now, now.plusSeconds(60), 10);
+        assertThat(first).hasSize(1);
+        assertThat(((Number) first.get(0)[1]).intValue()).isEqualTo(1);
+        // Leased: nobody else gets it
+        assertThat(jobRepository.claimDue(now, now.plusSeconds(60), 10)).isEmpty();
+        assertThat(jobRepository.recordProgress(jobId, 1, 3, 2, 2, now.plusSeconds(60), now)).isEqualTo(1);
+
+        // Worker died, lease ran out: the next claim bumps attempts and the old worker can no longer write
+        LocalDateTime later = now.plusSeconds(120);
+        List<Object[]> second = jobRepository.claimDue(later, later.plusSeconds(60), 10);
+        assertThat(second).hasSize(1);
+        assertThat(((Number) second.get(0)[1]).intValue()).isEqualTo(2);
+        assertThat(jobRepository.recordProgress(jobId, 1, 3, 3, 3, later, later)).isZero();
+        assertThat(jobRepository.finish(jobId, 1, "SUCCEEDED", null, later, later)).isZero();
+
+        entityManager.clear();
+        NotificationFanoutJob job = jobRepository.findById(jobId).orElseThrow();
+        // Resumes after the last committed chunk, with the recipient list intact
+        assertThat(job.getProcessedRecipients()).isEqualTo(2);
+        assertThat(job.getDeliveredCount()).isEqualTo(2);
+        assertThat(job.getRecipientIds()).containsExactly(recipients);
+        assertThat(jobRepository.finish(jobId, 2, "SUCCEEDED", null, later, later)).isEqualTo(1);
+    }
+}
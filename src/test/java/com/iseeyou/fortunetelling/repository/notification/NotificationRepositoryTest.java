@@ -0,0 +1,49 @@
+package com.iseeyou.fortunetelling.repository.notification;
+
+import com.iseeyou.fortunetelling.repository.user.UserRepository;
+import com.iseeyou.fortunetelling.support.PostgresDataJpaTest;
+import com.iseeyou.fortunetelling.support.TestData;
+import com.iseeyou.fortunetelling.util.Constants;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@PostgresDataJpaTest
+class NotificationRepositoryTest {
+
+    @Autowired
+    private NotificationRepository notificationRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private JdbcTemplate jdbc;
+
+    @Test
+    void markingReadCountsOnlyRowsThatWereUnread() {
+        UUID recipientId = new TestData(jdbc).user(Constants.RoleEnum.CUSTOMER);
+        UUID first = notification(recipientId);
+        UUID second = notification(recipientId);
+
+        assertThat(notificationRepository.markAsReadById(first)).isEqualTo(1);
+        // Already read: a repeated or concurrent call gets 0 and must not decrement the counter again
+        assertThat(notificationRepository.markAsReadById(first)).isZero();
+        assertThat(notificationRepository.markAsReadByIds(List.of(first, second),
+                userRepository.getReferenceById(recipientId))).isEqualTo(1);
+        assertThat(notificationRepository.countUnreadByRecipientId(recipientId)).isZero();
+    }
+
+    private UUID notification(UUID recipientId) {
+        UUID id = UUID.randomUUID();
+        jdbc.update("INSERT INTO notification (notification_id, created_at, updated_at, is_read, notification_body, " +
+                "notification_title, notification_type, recipient_id) VALUES (?, now(), now(), false, 'Body', 'Title', 0, ?)",
+                id, recipientId);
+        return id;
+    }
+}
@@ -0,0 +1,220 @@
+package com.iseeyou.fortunetelling.repository.paging;
+
+import com.iseeyou.fortunetelling.entity.AbstractBaseEntity;
+import com.iseeyou.fortunetelling.entity.booking.Booking;
+import com.iseeyou.fortunetelling.entity.certificate.Certificate;
+import com.iseeyou.fortunetelling.entity.knowledge.KnowledgeItem;
+import com.iseeyou.fortunetelling.entity.report.Report;
+import com.iseeyou.fortunetelling.entity.servicepackage.ServicePackage;
+import com.iseeyou.fortunetelling.entity.user.User;
+import com.iseeyou.fortunetelling.repository.booking.BookingRepository;
+import com.iseeyou.fortunetelling.repository.certificate.CertificateRepository;
+import com.iseeyou.fortunetelling.repository.knowledge.KnowledgeItemRepository;
+import com.iseeyou.fortunetelling.repository.report.ReportRepository;
+import com.iseeyou.fortunetelling.repository.servicepackage.ServicePackageRepository;
+import com.iseeyou.fortunetelling.support.PostgresDataJpaTest;
+import com.iseeyou.fortunetelling.support.TestData;
+import com.iseeyou.fortunetelling.util.Constants;
+import jakarta.persistence.EntityManager;
+import org.hibernate.Hibernate;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+import java.util.function.Function;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Paged repository methods whose graph fetches a collection, with Hibernate set to fail instead of paging such a
+ * query in memory. Every parent has two children, so a limit applied to the joined rows would cut pages short.
+ */
+@PostgresDataJpaTest(properties = "spring.jpa.properties.hibernate.query.fail_on_pagination_over_collection_fetch=true")
+class GraphPagingRepositoryTest {
+
+    private static final int ROWS = 5;
+    private static final LocalDateTime START = LocalDateTime.of(2026, 1, 1, 12, 0);
+
+    @Autowired
+    private ServicePackageRepository servicePackageRepository;
+
+    @Autowired
+    private BookingRepository bookingRepository;
+
+    @Autowired
+    private KnowledgeItemRepository knowledgeItemRepository;
+
+    @Autowired
+    private CertificateRepository certificateRepository;
+
+    @Autowired
+    private ReportRepository reportRepository;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private JdbcTemplate jdbc;
+
+    private TestData data;
+    private UUID seerId;
+    private UUID customerId;
+    private UUID categoryId;
+    private UUID otherCategoryId;
+
+    @BeforeEach
+    void setUp() {
+        data = new TestData(jdbc);
+        seerId = data.user(Constants.RoleEnum.SEER);
+        customerId = data.user(Constants.RoleEnum.CUSTOMER);
+        categoryId = category("Tarot");
+        otherCategoryId = category("Tu vi");
+    }
+
+    @Test
+    void inMemoryPagingOfACollectionFetchFails() {
+        // What the two-step pages avoid; proves the flag is on for the tests below
+        assertThatThrownBy(() -> entityManager
+                .createQuery("SELECT p FROM ServicePackage p JOIN FETCH p.packageCategories", ServicePackage.class)
+                .setMaxResults(2)
+                .getResultList())
+                .hasMessageContaining("fail_on_pagination_over_collection_fetch");
+    }
+
+    @Test
+    void servicePackagePages() {
+        List<UUID> newestFirst = new ArrayList<>();
+        for (int i = 0; i < ROWS; i++) {
+            UUID packageId = data.servicePackage(seerId, Constants.PackageStatusEnum.AVAILABLE, START.plusMinutes(i));
+            jdbc.update("INSERT INTO package_category (package_category_id, created_at, updated_at, category_id, package_id) " +
+                    "VALUES (gen_random_uuid(), now(), now(), ?, ?), (gen_random_uuid(), now(), now(), ?, ?)",
+                    categoryId, packageId, otherCategoryId, packageId);
+            newestFirst.add(0, packageId);
+        }
+
+        assertPages(servicePackageRepository::findAll, newestFirst, ServicePackage::getPackageCategories);
+        assertPages(pageable -> servicePackageRepository.findByCategoryId(categoryId, pageable), newestFirst,
+                ServicePackage::getPackageCategories);
+        assertPages(pageable -> servicePackageRepository.findBySeerIdAndCategoryId(seerId, otherCategoryId, pageable),
+                newestFirst, ServicePackage::getPackageCategories);
+    }
+
+    @Test
+    void bookingPages() {
+        UUID packageId = data.servicePackage(seerId);
+        jdbc.update("INSERT INTO package_category (package_category_id, created_at, updated_at, category_id, package_id) " +
+                "VALUES (gen_random_uuid(), now(), now(), ?, ?), (gen_random_uuid(), now(), now(), ?, ?)",
+                categoryId, packageId, otherCategoryId, packageId);
+        List<UUID> newestFirst = new ArrayList<>();
+        for (int i = 0; i < ROWS; i++) {
+            UUID bookingId = data.booking(customerId, packageId, Constants.BookingStatusEnum.CONFIRMED);
+            jdbc.update("UPDATE booking SET created_at = ? WHERE booking_id = ?", START.plusMinutes(i), bookingId);
+            jdbc.update("INSERT INTO booking_payment (booking_payment_id, created_at, updated_at, amount, payment_method, " +
+                    "status, booking_id, version) VALUES (gen_random_uuid(), now(), now(), 100000, 0, 1, ?, 0), " +
+                    "(gen_random_uuid(), now(), now(), 50000, 0, 3, ?, 0)", bookingId, bookingId);
+            newestFirst.add(0, bookingId);
+        }
+        User customer = entityManager.getReference(User.class, customerId);
+        User seer = entityManager.getReference(User.class, seerId);
+
+        assertPages(pageable -> bookingRepository.findAllByCustomer(customer, pageable), newestFirst,
+                Booking::getBookingPayments);
+        assertPages(pageable -> bookingRepository.findAllBySeerAndStatus(seer, Constants.BookingStatusEnum.CONFIRMED, pageable),
+                newestFirst, Booking::getBookingPayments);
+        assertThat(bookingRepository.findRecentBookingsBySeer(seer, PageRequest.of(0, 2))).hasSize(2)
+                .allSatisfy(booking -> assertThat(booking.getServicePackage().getPackageCategories()).hasSize(2));
+    }
+
+    @Test
+    void knowledgeItemPages() {
+        List<UUID> newestFirst = new ArrayList<>();
+        for (int i = 0; i < ROWS; i++) {
+            UUID itemId = UUID.randomUUID();
+            jdbc.update("INSERT INTO knowledge_item (item_id, created_at, updated_at, content, status, title, view_count) " +
+                    "VALUES (?, ?, now(), 'Noi dung', 0, ?, 0)", itemId, START.plusMinutes(i), "Item " + i);
+            jdbc.update("INSERT INTO item_category (item_category_id, created_at, updated_at, category_id, item_id) " +
+                    "VALUES (gen_random_uuid(), now(), now(), ?, ?), (gen_random_uuid(), now(), now(), ?, ?)",
+                    categoryId, itemId, otherCategoryId, itemId);
+            newestFirst.add(0, itemId);
+        }
+
+        assertPages(knowledgeItemRepository::findAll, newestFirst, KnowledgeItem::getItemCategories);
+        assertPages(pageable -> knowledgeItemRepository.findAllByKnowledgeCategory_Id(categoryId, pageable), newestFirst,
+                KnowledgeItem::getItemCategories);
+    }
+
+    @Test
+    void certificatePages() {
+        List<UUID> newestFirst = new ArrayList<>();
+        for (int i = 0; i < ROWS; i++) {
+            UUID certificateId = UUID.randomUUID();
+            jdbc.update("INSERT INTO certificate (certificate_id, created_at, updated_at, certificate_name, issued_at, " +
+                    "issued_by, status, seer_id) VALUES (?, ?, now(), ?, now(), 'Hoi Tarot', 0, ?)",
+                    certificateId, START.plusMinutes(i), "Certificate " + i, seerId);
+            jdbc.update("INSERT INTO \"certificate-category\" (certificate_category_id, created_at, updated_at, " +
+                    "category_id, certificate_id) VALUES (gen_random_uuid(), now(), now(), ?, ?), " +
+                    "(gen_random_uuid(), now(), now(), ?, ?)", categoryId, certificateId, otherCategoryId, certificateId);
+            newestFirst.add(0, certificateId);
+        }
+
+        assertPages(pageable -> certificateRepository.findBySeerIdAndCategoryId(seerId, categoryId, pageable),
+                newestFirst, Certificate::getCertificateCategories);
+    }
+
+    @Test
+    void reportPages() {
+        UUID reportTypeId = UUID.randomUUID();
+        jdbc.update("INSERT INTO report_type (type_id, created_at, updated_at, name) VALUES (?, now(), now(), 0)",
+                reportTypeId);
+        List<UUID> newestFirst = new ArrayList<>();
+        for (int i = 0; i < ROWS; i++) {
+            UUID reportId = UUID.randomUUID();
+            jdbc.update("INSERT INTO report (report_id, created_at, updated_at, action_type, status, target_id, " +
+                    "target_type, report_type_id, reported_user_id, reporter_id) VALUES (?, ?, now(), 0, 0, ?, 0, ?, ?, ?)",
+                    reportId, START.plusMinutes(i), seerId, reportTypeId, seerId, customerId);
+            jdbc.update("INSERT INTO report_evidence (evidence_id, created_at, updated_at, evidence_image_url, report_id) " +
+                    "VALUES (gen_random_uuid(), now(), now(), 'a.png', ?), (gen_random_uuid(), now(), now(), 'b.png', ?)",
+                    reportId, reportId);
+            newestFirst.add(0, reportId);
+        }
+
+        assertPages(pageable -> reportRepository.findAllByReporter_Id(customerId, pageable), newestFirst,
+                Report::getReportEvidences);
+    }
+
+    // Pages of 2 newest first: ids in order, the right total, and each row's collection loaded in full
+    private <T extends AbstractBaseEntity> void assertPages(Function<Pageable, Page<T>> query, List<UUID> newestFirst,
+                                                            Function<T, Collection<?>> children) {
+        List<UUID> seen = new ArrayList<>();
+        for (int page = 0; page * 2 < newestFirst.size(); page++) {
+            entityManager.clear();
+            Page<T> result = query.apply(PageRequest.of(page, 2, Sort.by(Sort.Direction.DESC, "createdAt")));
+
+            assertThat(result.getTotalElements()).isEqualTo(newestFirst.size());
+            assertThat(result.getContent()).hasSize(Math.min(2, newestFirst.size() - page * 2)).allSatisfy(row -> {
+                assertThat(Hibernate.isInitialized(children.apply(row))).isTrue();
+                assertThat(children.apply(row)).hasSize(2);
+            });
+            result.getContent().forEach(row -> seen.add(row.getId()));
+        }
+        assertThat(seen).containsExactlyElementsOf(newestFirst);
+    }
+
+    private UUID category(String name) {
+        UUID id = UUID.randomUUID();
+        jdbc.update("INSERT INTO knowledge_category (category_id, created_at, updated_at, name) VALUES (?, now(), now(), ?)",
+                id, name);
+        return id;
+    }
+}
@@ -0,0 +1,171 @@
+package com.iseeyou.fortunetelling.repository.servicepackage;
+
+import com.iseeyou.fortunetelling.support.PostgresDataJpaTest;
+import com.iseeyou.fortunetelling.support.TestData;
+import com.iseeyou.fortunetelling.util.Constants;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@PostgresDataJpaTest
+class PackageInteractionRepositoryTest {
+
+    @Autowired
+    private PackageInteractionRepository interactionRepository;
+
+    @Autowired
+    private JdbcTemplate jdbc;
+
+    private TestData data;
+    private UUID packageId;
+
+    @BeforeEach
+    void setUp() {
+        data = new TestData(jdbc);
+        packageId = data.servicePackage(data.user(Constants.RoleEnum.SEER));
+    }
+
+    @Test
+    void upsertReturnsWhenTheCurrentTypeWasSet() {
+        UUID userId = data.user(Constants.RoleEnum.CUSTOMER);
+        Object[] inserted = interactionRepository.upsertInteraction(userId, packageId, "LIKE").get(0);
+        assertThat(inserted[1]).isEqualTo(true);
+
+        LocalDateTime likedAt = LocalDateTime.of(2026, 1, 2, 3, 4, 5);
+        jdbc.update("UPDATE package_interaction SET updated_at = ? WHERE user_id = ?", likedAt, userId);
+
+        // The like's time survives the conflicting upsert, which is what an unlike takes back from the ranking
+        Object[] existing = interactionRepository.upsertInteraction(userId, packageId, "LIKE").get(0);
+        assertThat(existing[0]).isEqualTo("LIKE");
+        assertThat(existing[1]).isEqualTo(false);
+        assertThat(toLocalDateTime(existing[2])).isEqualTo(likedAt);
+
+        // Switching the type restarts it
+        interactionRepository.updateInteractionType(userId, packageId, "DISLIKE");
+        Object[] switched = interactionRepository.upsertInteraction(userId, packageId, "LIKE").get(0);
+        assertThat(switched[0]).isEqualTo("DISLIKE");
+        assertThat(toLocalDateTime(switched[2])).isAfter(likedAt);
+    }
+
+    @Test
+    void keysetPagesWalkTiesWithoutGapsOrRepeats() {
+        // Reactions sharing a created_at are ordered by id, so a page boundary inside the tie neither drops nor repeats rows
+        LocalDateTime sameTime = LocalDateTime.of(2026, 3, 1, 10, 0);
+        List<UUID> expected = new ArrayList<>();
+        List<UUID> expectedLikes = new ArrayList<>();
+        for (int i = 0; i < 7; i++) {
+            String type = i % 3 == 0 ? "DISLIKE" : "LIKE";
+            UUID id = react(data.user(Constants.RoleEnum.CUSTOMER), type, i < 5 ? sameTime : sameTime.minusMinutes(i));
+            expected.add(id);
+            if (type.equals("LIKE")) {
+                expectedLikes.add(id);
+            }
+        }
+        Comparator<UUID> newestFirst = Comparator.comparing(this::createdAtOf).thenComparing(UUID::toString).reversed();
+        expected.sort(newestFirst);
+        expectedLikes.sort(newestFirst);
+
+        assertThat(walk(null)).containsExactlyElementsOf(expected);
+        assertThat(walk("LIKE")).containsExactlyElementsOf(expectedLikes);
+    }
+
+    @Test
+    void cursorPredicateIsAnIndexCondition() {
+        // 300 customers reacting to 40 packages; sequential scans off as in SchemaMigrationTest, so the plan shows
+        // whether the row-value comparison bounds the index range or is left as a filter on it
+        jdbc.execute("""
+                INSERT INTO "user" (user_id, created_at, updated_at, email, full_name, gender, is_active,
+                                    password_hash, phone, role, status)
+                SELECT gen_random_uuid(), now(), now(), 'c' || i || '@test.local', 'Customer ' || i, 'OTHER', true,
+                       'x', 'c' || i, 4, 0
+                FROM generate_series(1, 300) i
+                """);
+        jdbc.execute("""
+                INSERT INTO service_package (package_id, created_at, updated_at, duration_minutes, package_title,
+                                             price, status, seer_id, like_count, dislike_count, comment_count)
+                SELECT gen_random_uuid(), now(), now(), 30, 'Package ' || i, 100000, 0, sp.seer_id, 0, 0, 0
+                FROM generate_series(1, 39) i, (SELECT seer_id FROM service_package LIMIT 1) sp
+                """);
+        jdbc.execute("""
+                INSERT INTO package_interaction (package_interaction_id, created_at, updated_at, interaction_type,
+                                                 package_id, user_id)
+                SELECT gen_random_uuid(), now() - random() * interval '30 days', now(),
+                       CASE WHEN random() < 0.8 THEN 'LIKE' ELSE 'DISLIKE' END, sp.package_id, u.user_id
+                FROM service_package sp CROSS JOIN "user" u WHERE u.role = 4
+                """);
+        // Only the seeded tables: the row estimates ANALYZE writes outlive the rollback and other tests share the database
+        jdbc.execute("ANALYZE package_interaction, \"user\"");
+        jdbc.execute("SET LOCAL enable_seqscan = off");
+
+        String page = "SELECT pi.package_interaction_id, pi.created_at, u.user_id, u.full_name, u.avatar_url, pi.interaction_type "
+                + "FROM package_interaction pi JOIN \"user\" u ON u.user_id = pi.user_id "
+                + "WHERE pi.package_id = '" + packageId + "' %s"
+                + "AND (pi.created_at, pi.package_interaction_id) < (now() - interval '15 days', '" + UUID.randomUUID() + "') "
+                + "ORDER BY pi.created_at DESC, pi.package_interaction_id DESC LIMIT 21";
+
+        assertThat(explain(page.formatted("")))
+                .contains("Index Scan using idx_package_interaction_package_created")
+                .containsPattern("Index Cond: .*ROW\\(created_at, package_interaction_id\\) <");
+        assertThat(explain(page.formatted("AND pi.interaction_type = 'LIKE' ")))
+                .contains("Index Scan using idx_package_interaction_package_type_created")
+                .containsPattern("Index Cond: .*ROW\\(created_at, package_interaction_id\\) <");
+    }
+
+    private UUID react(UUID userId, String type, LocalDateTime createdAt) {
+        UUID id = UUID.randomUUID();
+        jdbc.update("""
+                INSERT INTO package_interaction (package_interaction_id, created_at, updated_at, interaction_type,
+                                                 package_id, user_id)
+                VALUES (?, ?, ?, ?, ?, ?)
+                """, id, createdAt, createdAt, type, packageId, userId);
+        return id;
+    }
+
+    private LocalDateTime createdAtOf(UUID interactionId) {
+        return jdbc.queryForObject("SELECT created_at FROM package_interaction WHERE package_interaction_id = ?",
+                LocalDateTime.class, interactionId);
+    }
+
+    // Pages of 2 as the service asks for them, following the last row of each page
+    private List<UUID> walk(String type) {
+        List<UUID> ids = new ArrayList<>();
+        Object[] last = null;
+        while (true) {
+            List<Object[]> rows;
+            if (last == null) {
+                rows = type == null
+                        ? interactionRepository.findFirstPage(packageId, 2)
+                        : interactionRepository.findFirstPageByType(packageId, type, 2);
+            } else {
+                LocalDateTime afterCreatedAt = toLocalDateTime(last[1]);
+                UUID afterId = (UUID) last[0];
+                rows = type == null
+                        ? interactionRepository.findPageAfter(packageId, afterCreatedAt, afterId, 2)
+                        : interactionRepository.findPageByTypeAfter(packageId, type, afterCreatedAt, afterId, 2);
+            }
+            if (rows.isEmpty()) {
+                return ids;
+            }
+            rows.forEach(row -> ids.add((UUID) row[0]));
+            last = rows.get(rows.size() - 1);
+        }
+    }
+
+    private String explain(String query) {
+        return String.join("\n", jdbc.queryForList("EXPLAIN " + query, String.class));
+    }
+
+    private static LocalDateTime toLocalDateTime(Object value) {
+        return value instanceof Timestamp timestamp ? timestamp.toLocalDateTime() : (LocalDateTime) value;
+    }
+}
@@ -0,0 +1,88 @@
+package com.iseeyou.fortunetelling.service.booking.impl;
+
+import com.iseeyou.fortunetelling.repository.booking.RefundJobRepository;
+import com.iseeyou.fortunetelling.repository.servicepackage.ServicePackageRepository;
+import com.iseeyou.fortunetelling.service.booking.BookingService;
+import com.iseeyou.fortunetelling.service.user.UserService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+import java.util.UUID;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.startsWith;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class RefundJobServiceImplTest {
+
+    private static final String MANUAL_REFUND = "Payment method cannot be refunded automatically, refund it manually: ";
+
+    private final RefundJobRepository refundJobRepository = mock(RefundJobRepository.class);
+    private final BookingService bookingService = mock(BookingService.class);
+    private final UUID jobId = UUID.randomUUID();
+    private final UUID bookingId = UUID.randomUUID();
+
+    private RefundJobServiceImpl refundJobService;
+
+    @BeforeEach
+    void setUp() {
+        refundJobService = new RefundJobServiceImpl(refundJobRepository, mock(ServicePackageRepository.class),
+                bookingService, mock(UserService.class), new TransactionTemplate(mock(PlatformTransactionManager.class)));
+        ReflectionTestUtils.setField(refundJobService, "threads", 1);
+        ReflectionTestUtils.setField(refundJobService, "batchSize", 10);
+        ReflectionTestUtils.setField(refundJobService, "maxAttempts", 8);
+        ReflectionTestUtils.setField(refundJobService, "leaseSeconds", 600L);
+        refundJobService.init();
+
+        when(refundJobRepository.claimDue(any(), any(), anyInt()))
+                .thenReturn(List.<Object[]>of(new Object[]{jobId, bookingId, 1}));
+    }
+
+    @AfterEach
+    void tearDown() {
+        refundJobService.shutdown();
+    }
+
+    @Test
+    void unsupportedRefundFromTheStrategyIsSkippedForManualRefund() {
+        doThrow(new UnsupportedOperationException("VNPay refund functionality is not yet implemented."))
+                .when(bookingService).refundBookingOfDeletedPackage(bookingId, jobId.toString());
+
+        refundJobService.processDueJobs();
+
+        verify(refundJobRepository).finish(eq(jobId), eq(1), eq("SKIPPED"), startsWith(MANUAL_REFUND), any(), any());
+    }
+
+    @Test
+    void unsupportedRefundRethrownByBookingServiceIsSkippedForManualRefund() {
+        UnsupportedOperationException unsupported =
+                new UnsupportedOperationException("VNPay refund functionality is not yet implemented.");
+        doThrow(new IllegalArgumentException(unsupported.getMessage(), unsupported))
+                .when(bookingService).refundBookingOfDeletedPackage(bookingId, jobId.toString());
+
+        refundJobService.processDueJobs();
+
+        verify(refundJobRepository).finish(eq(jobId), eq(1), eq("SKIPPED"), startsWith(MANUAL_REFUND), any(), any());
+    }
+
+    @Test
+    void alreadyCanceledBookingIsSkippedWithItsOwnReason() {
+        doThrow(new IllegalArgumentException("Booking is already cancelled. Cannot refund."))
+                .when(bookingService).refundBookingOfDeletedPackage(bookingId, jobId.toString());
+
+        refundJobService.processDueJobs();
+
+        verify(refundJobRepository).finish(eq(jobId), eq(1), eq("SKIPPED"),
+                eq("Booking is already cancelled. Cannot refund."), any(), any());
+    }
+}
@@ -0,0 +1,180 @@
+package com.iseeyou.fortunetelling.service.converstation.impl;
+
+import com.iseeyou.fortunetelling.mapper.ConversationMapper;
+import com.iseeyou.fortunetelling.service.MessageSourceService;
+import com.iseeyou.fortunetelling.service.user.SeerStatsService;
+import com.iseeyou.fortunetelling.service.user.UserService;
+import com.iseeyou.fortunetelling.support.PostgresDataJpaTest;
+import com.iseeyou.fortunetelling.support.TestData;
+import com.iseeyou.fortunetelling.util.Constants;
+import com.iseeyou.fortunetelling.util.OptimisticLockRetryExecutor;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Extend / end / auto-end / late-cancel racing on the same session, with real commits, so the @Version checks
+ * and the re-checked preconditions are what decides the outcome.
+ */
+@PostgresDataJpaTest(properties = "app.optimistic-lock.max-attempts=20")
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@Import({converstationServiceImpl.class, OptimisticLockRetryExecutor.class})
+class ConversationConcurrencyTest {
+
+    private static final int ROUNDS = 25;
+    private static final int EXTENDERS = 4;
+    private static final int EXTEND_MINUTES = 10;
+
+    @Autowired
+    private converstationServiceImpl conversationService;
+
+    @Autowired
+    private JdbcTemplate jdbc;
+
+    @MockitoBean
+    private MessageSourceService messageSourceService;
+
+    @MockitoBean
+    private UserService userService;
+
+    @MockitoBean
+    private ConversationMapper conversationMapper;
+
+    @MockitoBean
+    private SeerStatsService seerStatsService;
+
+    private ExecutorService pool;
+    private TestData data;
+    private UUID customerId;
+    private UUID packageId;
+
+    @BeforeEach
+    void setUp() {
+        pool = Executors.newFixedThreadPool(EXTENDERS + 3);
+        data = new TestData(jdbc);
+        customerId = data.user(Constants.RoleEnum.CUSTOMER);
+        packageId = data.servicePackage(data.user(Constants.RoleEnum.SEER));
+    }
+
+    @AfterEach
+    void tearDown() {
+        pool.shutdownNow();
+    }
+
+    @Test
+    void concurrentTransitionsLeaveOneConsistentOutcome() throws Exception {
+        for (int round = 0; round < ROUNDS; round++) {
+            // Overdue session, customer never joined: every operation is eligible until another one commits
+            LocalDateTime now = LocalDateTime.now();
+            UUID bookingId = data.booking(customerId, packageId, Constants.BookingStatusEnum.CONFIRMED);
+            UUID conversationId = data.activeConversation(bookingId, now.minusMinutes(31), now.minusMinutes(1), null);
+
+            CountDownLatch start = new CountDownLatch(1);
+            List<Future<Boolean>> extensions = new ArrayList<>();
+            for (int i = 0; i < EXTENDERS; i++) {
+                extensions.add(submit(start, () -> {
+                    conversationService.extendSession(conversationId, EXTEND_MINUTES);
+                    return true;
+                }));
+            }
+            Future<Boolean> autoEnd = submit(start, () -> conversationService.autoEndSession(conversationId));
+            Future<Boolean> cancel = submit(start, () -> conversationService.cancelLateSession(conversationId));
+            Future<Boolean> end = submit(start, () -> {
+                conversationService.endChatSession(conversationId);
+                return true;
+            });
+            start.countDown();
+
+            int extended = 0;
+            for (Future<Boolean> f : extensions) {
+                if (outcome(f, true)) {
+                    extended++;
+                }
+            }
+            boolean autoEnded = outcome(autoEnd, false);
+            boolean cancelled = outcome(cancel, false);
+            assertThat(outcome(end, false)).isTrue();
+
+            Map<String, Object> conversation = jdbc.queryForMap(
+                    "SELECT status, extended_minutes, version FROM conversation WHERE conversation_id = ?",
+                    conversationId);
+            int bookingStatus = jdbc.queryForObject(
+                    "SELECT status FROM booking WHERE booking_id = ?", Integer.class, bookingId);
+            String description = "round " + round + ": extended=" + extended + ", autoEnded=" + autoEnded
+                    + ", cancelled=" + cancelled + ", row=" + conversation + ", booking=" + bookingStatus;
+
+            // endChatSession always runs, so the session is closed, by exactly one terminal transition
+            assertThat(conversation.get("status")).as(description).isNotEqualTo("ACTIVE");
+            assertThat(autoEnded && cancelled).as(description).isFalse();
+            // No lost extension, and nothing written after the session was closed
+            assertThat(((Number) conversation.get("extended_minutes")).intValue()).as(description)
+                    .isEqualTo(extended * EXTEND_MINUTES);
+            assertThat(((Number) conversation.get("version")).longValue()).as(description)
+                    .isEqualTo(extended + 1L);
+            if (autoEnded) {
+                // An extension moves the end time forward, auto-end must then back off
+                assertThat(extended).as(description).isZero();
+            }
+
+            if (cancelled) {
+                assertThat(conversation.get("status")).as(description).isEqualTo("CANCELLED");
+                assertThat(bookingStatus).as(description).isEqualTo(Constants.BookingStatusEnum.CANCELED.ordinal());
+            } else if (autoEnded) {
+                assertThat(conversation.get("status")).as(description).isEqualTo("ENDED");
+                assertThat(bookingStatus).as(description).isEqualTo(Constants.BookingStatusEnum.COMPLETED.ordinal());
+            } else {
+                // Closed by endChatSession, which leaves the booking to the caller
+                assertThat(conversation.get("status")).as(description).isEqualTo("ENDED");
+                assertThat(bookingStatus).as(description).isEqualTo(Constants.BookingStatusEnum.CONFIRMED.ordinal());
+            }
+        }
+    }
+
+    private Future<Boolean> submit(CountDownLatch start, Callable<Boolean> action) {
+        return pool.submit(() -> {
+            start.await();
+            return action.call();
+        });
+    }
+
+    // Only a rejected extension (session already closed) may fail; a retry budget running out would be a bug here
+    private static boolean outcome(Future<Boolean> future, boolean isExtend) throws InterruptedException {
+        try {
+            return future.get(30, TimeUnit.SECONDS);
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (isExtend && cause instanceof IllegalArgumentException) {
+                return false;
+            }
+            if (cause instanceof ObjectOptimisticLockingFailureException) {
+                throw new AssertionError("Retries exhausted", cause);
+            }
+            throw new AssertionError(cause);
+        } catch (TimeoutException e) {
+            throw new AssertionError("Operation did not finish", e);
+        }
+    }
+}
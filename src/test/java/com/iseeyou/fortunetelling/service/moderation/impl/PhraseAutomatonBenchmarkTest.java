@@ -0,0 +1,112 @@
+package com.iseeyou.fortunetelling.service.moderation.impl;
+
+import com.iseeyou.fortunetelling.util.Constants;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.text.Normalizer;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Microbenchmark of the moderation scan on the send path. Chat text has no length cap;
+ * 2,000 chars stands in for the p99 message, 20,000 chars checks that cost stays linear.
+ * Timing, so tagged perf and left out of the default run (mvn test -Pperf). Bounds are loose on purpose,
+ * the logged figures are the result.
+ */
+@Tag("perf")
+@Slf4j
+class PhraseAutomatonBenchmarkTest {
+
+    private static final int P99_MESSAGE_CHARS = 2_000;
+    private static final int LARGE_MESSAGE_CHARS = 20_000;
+    private static final int PHRASES = 5_000;
+    private static final ThreadMXBean THREADS = ManagementFactory.getThreadMXBean();
+
+    private static final String[] WORDS = {
+            "xin", "chào", "bạn", "hôm", "nay", "tôi", "muốn", "xem", "tử", "vi", "tình", "duyên", "sự",
+            "nghiệp", "năm", "nay", "thế", "nào", "thầy", "ơi", "cảm", "ơn", "nhiều", "được", "không",
+            "Đường", "công", "danh", "gia", "đạo", "bình", "an", "tài", "lộc", "hanh", "thông"
+    };
+
+    private final Random random = new Random(42);
+
+    @Test
+    void scanCostAtP99MessageSize() {
+        PhraseAutomaton automaton = new PhraseAutomaton(phrases());
+        String p99Message = message(P99_MESSAGE_CHARS);
+        String largeMessage = message(LARGE_MESSAGE_CHARS);
+
+        // Warm-up so the JIT has compiled scan and foldChars
+        for (int i = 0; i < 20_000; i++) {
+            automaton.scan(p99Message);
+        }
+
+        long[] p99Samples = sample(automaton, p99Message, 5_000);
+        long[] largeSamples = sample(automaton, largeMessage, 500);
+
+        double p99NsPerChar = (double) percentile(p99Samples, 50) / P99_MESSAGE_CHARS;
+        double largeNsPerChar = (double) percentile(largeSamples, 50) / LARGE_MESSAGE_CHARS;
+        log.info("moderation scan, {} phrases: {} chars p50={}us p99={}us ({} ns/char); {} chars p50={}us ({} ns/char)",
+                automaton.size(), P99_MESSAGE_CHARS, percentile(p99Samples, 50) / 1000,
+                percentile(p99Samples, 99) / 1000, String.format("%.1f", p99NsPerChar),
+                LARGE_MESSAGE_CHARS, percentile(largeSamples, 50) / 1000, String.format("%.1f", largeNsPerChar));
+
+        // A p99 message must not cost the send path more than a millisecond
+        assertThat(percentile(p99Samples, 99)).isLessThan(1_000_000L);
+        // Linear in length: 10x the text may not cost much more per char
+        assertThat(largeNsPerChar).isLessThan(p99NsPerChar * 3);
+    }
+
+    // CPU time of this thread: in the full suite other tests' servers share the CPU, and being descheduled
+    // (a whole scheduler tick on one core) or paused for GC is not what a scan costs
+    private long[] sample(PhraseAutomaton automaton, String text, int iterations) {
+        long[] samples = new long[iterations];
+        int matches = 0;
+        for (int i = 0; i < iterations; i++) {
+            long start = THREADS.getCurrentThreadCpuTime();
+            matches += automaton.scan(text).size();
+            samples[i] = THREADS.getCurrentThreadCpuTime() - start;
+        }
+        assertThat(matches).isPositive();
+        Arrays.sort(samples);
+        return samples;
+    }
+
+    private static long percentile(long[] sorted, int percentile) {
+        return sorted[Math.min(sorted.length - 1, sorted.length * percentile / 100)];
+    }
+
+    private Map<String, Constants.ModerationActionEnum> phrases() {
+        Map<String, Constants.ModerationActionEnum> phrases = new HashMap<>();
+        Constants.ModerationActionEnum[] actions = Constants.ModerationActionEnum.values();
+        while (phrases.size() < PHRASES) {
+            int words = 1 + random.nextInt(3);
+            StringBuilder phrase = new StringBuilder();
+            for (int i = 0; i < words; i++) {
+                phrase.append(i > 0 ? " " : "").append(WORDS[random.nextInt(WORDS.length)])
+                        .append(random.nextInt(50));
+            }
+            phrases.put(phrase.toString(), actions[random.nextInt(actions.length)]);
+        }
+        // A few that really occur in the text
+        phrases.put("tình duyên", Constants.ModerationActionEnum.FLAG);
+        phrases.put("tai loc", Constants.ModerationActionEnum.MASK);
+        return phrases;
+    }
+
+    private String message(int length) {
+        StringBuilder text = new StringBuilder(length + 16);
+        while (text.length() < length) {
+            text.append(WORDS[random.nextInt(WORDS.length)]).append(' ');
+        }
+        return Normalizer.normalize(text.substring(0, length), Normalizer.Form.NFC);
+    }
+}
@@ -0,0 +1,53 @@
+package com.iseeyou.fortunetelling.service.moderation.impl;
+
+import com.iseeyou.fortunetelling.util.Constants;
+import org.junit.jupiter.api.Test;
+
+import java.text.Normalizer;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+
+class PhraseAutomatonTest {
+
+    @Test
+    void matchesWholeWordsWithoutCaseOrDiacritics() {
+        PhraseAutomaton automaton = new PhraseAutomaton(Map.of(
+                "đồ ngu", Constants.ModerationActionEnum.MASK,
+                "ass", Constants.ModerationActionEnum.BLOCK));
+        String text = Normalizer.normalize("ĐỒ NGU, lớp class này; do ngu", Normalizer.Form.NFC);
+
+        List<PhraseAutomaton.Match> matches = automaton.scan(text);
+
+        // "class" contains "ass" but is another word
+        assertThat(matches).extracting(match -> match.phrase).containsExactly("do ngu", "do ngu");
+        // Positions are on the original text
+        assertThat(text.substring(matches.get(0).start, matches.get(0).end)).isEqualTo("ĐỒ NGU");
+        assertThat(text.substring(matches.get(1).start, matches.get(1).end)).isEqualTo("do ngu");
+    }
+
+    @Test
+    void reportsOverlappingPhrasesAndKeepsTheStrongerActionOfDuplicates() {
+        PhraseAutomaton automaton = new PhraseAutomaton(Map.of(
+                "liên hệ zalo", Constants.ModerationActionEnum.FLAG,
+                "zalo", Constants.ModerationActionEnum.MASK,
+                "ZALO", Constants.ModerationActionEnum.BLOCK,
+                "  ", Constants.ModerationActionEnum.BLOCK));
+
+        List<PhraseAutomaton.Match> matches = automaton.scan("cứ liên hệ zalo nhé");
+
+        // The folded duplicates and the blank phrase collapse into two phrases
+        assertThat(automaton.size()).isEqualTo(2);
+        assertThat(matches).extracting(match -> match.phrase, match -> match.action).containsExactlyInAnyOrder(
+                tuple("lien he zalo", Constants.ModerationActionEnum.FLAG),
+                tuple("zalo", Constants.ModerationActionEnum.BLOCK));
+    }
+
+    @Test
+    void emptyListOrTextMatchesNothing() {
+        assertThat(new PhraseAutomaton(Map.of()).scan("bất kỳ")).isEmpty();
+        assertThat(new PhraseAutomaton(Map.of("zalo", Constants.ModerationActionEnum.MASK)).scan("")).isEmpty();
+    }
+}
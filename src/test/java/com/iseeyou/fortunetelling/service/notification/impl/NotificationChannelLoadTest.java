@@ -0,0 +1,358 @@
+package com.iseeyou.fortunetelling.service.notification.impl;
+
+import com.corundumstudio.socketio.SocketIOClient;
+import com.corundumstudio.socketio.SocketIONamespace;
+import com.corundumstudio.socketio.SocketIOServer;
+import com.iseeyou.fortunetelling.config.SocketIOConfig;
+import com.iseeyou.fortunetelling.dto.response.notification.NotificationReplayResponse;
+import com.iseeyou.fortunetelling.dto.response.notification.NotificationResponse;
+import com.iseeyou.fortunetelling.service.notification.NotificationSseService;
+import com.iseeyou.fortunetelling.service.socket.SocketEmitter;
+import com.iseeyou.fortunetelling.service.socket.impl.SocketEmitterImpl;
+import com.iseeyou.fortunetelling.service.socket.impl.SocketIOServerInitializer;
+import com.iseeyou.fortunetelling.util.Constants;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.ImportAutoConfiguration;
+import org.springframework.boot.autoconfigure.http.HttpMessageConvertersAutoConfiguration;
+import org.springframework.boot.autoconfigure.jackson.JacksonAutoConfiguration;
+import org.springframework.boot.autoconfigure.web.servlet.DispatcherServletAutoConfiguration;
+import org.springframework.boot.autoconfigure.web.servlet.ServletWebServerFactoryAutoConfiguration;
+import org.springframework.boot.autoconfigure.web.servlet.WebMvcAutoConfiguration;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.lang.management.BufferPoolMXBean;
+import java.lang.management.ManagementFactory;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Bounded load harness comparing the two notification channels: real connections, one user each, opened by raw
+ * sockets that keep almost nothing on the heap, so the heap growth is what the server holds per open connection.
+ * SSE: Tomcat's socket wrapper, processor and buffers, the async request, the emitter and its queue. Socket.IO: the
+ * app's netty-socketio configuration over the websocket transport, the namespace client and its send queue. Direct
+ * (off-heap) buffer growth is logged next to it, since netty keeps its I/O buffers there. Then one notification to
+ * every user, read back from every socket.
+ * Tagged perf (mvn test -Pperf); bounds are loose on purpose, the logged figures are the result.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+        classes = NotificationChannelLoadTest.Harness.class,
+        properties = {"server.tomcat.max-connections=10000", "socketio.host=localhost",
+                // The figures are logged at INFO, above the test profile's WARN
+                "logging.level.com.iseeyou.fortunetelling.service.notification.impl.NotificationChannelLoadTest=INFO"})
+@ActiveProfiles("test")
+@Tag("perf")
+@Slf4j
+// The servers and their connections are closed afterwards instead of staying in the context cache under later tests
+@DirtiesContext
+class NotificationChannelLoadTest {
+
+    private static final int CONNECTIONS = 2_000;
+    private static final int WARM_UP = 100;
+    private static final long MB = 1024 * 1024;
+    private static final String NAMESPACE = "/notifications";
+
+    @Configuration
+    @ImportAutoConfiguration({ServletWebServerFactoryAutoConfiguration.class, DispatcherServletAutoConfiguration.class,
+            WebMvcAutoConfiguration.class, HttpMessageConvertersAutoConfiguration.class, JacksonAutoConfiguration.class})
+    @Import({SocketIOConfig.class, SocketIOServerInitializer.class, SocketEmitterImpl.class})
+    static class Harness {
+        @Bean
+        MeterRegistry meterRegistry() {
+            return new SimpleMeterRegistry();
+        }
+
+        @Bean
+        NotificationSseServiceImpl notificationSseService(MeterRegistry meterRegistry) {
+            return new NotificationSseServiceImpl(meterRegistry);
+        }
+
+        // The controller minus JWT and replay: an empty, complete replay
+        @Bean
+        StreamController streamController(NotificationSseService sseService) {
+            return new StreamController(sseService);
+        }
+
+        // NotificationSocketHandler minus JWT, replay and presence: the same empty replay through the emitter
+        @Bean
+        SocketClients socketClients(SocketIOServer server, SocketEmitter socketEmitter) {
+            return new SocketClients(server, socketEmitter);
+        }
+    }
+
+    @RestController
+    static class StreamController {
+        private final NotificationSseService sseService;
+
+        StreamController(NotificationSseService sseService) {
+            this.sseService = sseService;
+        }
+
+        @GetMapping(value = "/stream", produces = "text/event-stream")
+        SseEmitter stream(@RequestParam UUID user) {
+            return sseService.open(user, () -> CompletableFuture.completedFuture(emptyReplay()));
+        }
+    }
+
+    static class SocketClients {
+        final Map<UUID, SocketIOClient> byUser = new ConcurrentHashMap<>();
+
+        SocketClients(SocketIOServer server, SocketEmitter socketEmitter) {
+            SocketIONamespace namespace = server.addNamespace(NAMESPACE);
+            namespace.addConnectListener(client -> {
+                UUID userId = UUID.fromString(client.getHandshakeData().getSingleUrlParam("userId"));
+                byUser.put(userId, client);
+                socketEmitter.emit(client, "notification-replay", emptyReplay());
+            });
+            namespace.addDisconnectListener(client -> {
+                socketEmitter.release(client);
+                byUser.values().remove(client);
+            });
+        }
+    }
+
+    private static int socketIoPort;
+
+    @DynamicPropertySource
+    static void socketIoPort(DynamicPropertyRegistry registry) throws IOException {
+        try (ServerSocket free = new ServerSocket(0)) {
+            socketIoPort = free.getLocalPort();
+        }
+        registry.add("socketio.port", () -> socketIoPort);
+    }
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    private NotificationSseService sseService;
+
+    @Autowired
+    private SocketEmitter socketEmitter;
+
+    @Autowired
+    private SocketClients socketClients;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private final List<Socket> sockets = new ArrayList<>();
+
+    @AfterEach
+    void closeSockets() throws IOException {
+        for (Socket socket : sockets) {
+            socket.close();
+        }
+    }
+
+    @Test
+    void heapPerOpenConnectionAndFanOutSseVersusSocketIo() throws Exception {
+        // Socket.IO first: netty frees a closed connection at once, while Tomcat only notices a closed SSE
+        // stream on its next write, which would shrink a measurement taken after it
+        Result socketIo = measure(this::openSocketIo, () -> socketClients.byUser.size(),
+                streams -> streams.keySet().forEach(userId ->
+                        socketEmitter.emit(socketClients.byUser.get(userId), "new-notification", notification())));
+        for (Socket socket : sockets) {
+            socket.close();
+        }
+        sockets.clear();
+
+        Result sse = measure(this::openSse,
+                () -> (int) meterRegistry.get("notification.sse.connections").gauge().value(),
+                streams -> {
+                    Map<UUID, NotificationResponse> notifications = new HashMap<>();
+                    streams.keySet().forEach(userId -> notifications.put(userId, notification()));
+                    sseService.sendNotificationsToUsers(notifications);
+                });
+
+        log.info("notification channels, {} connections each: SSE {} KB heap + {} KB direct per open stream "
+                        + "(~{} per GB of heap), fan-out {} ms; Socket.IO {} KB heap + {} KB direct per connection "
+                        + "(~{} per GB of heap), fan-out {} ms",
+                CONNECTIONS, sse.bytesPerConnection / 1024, sse.directBytesPerConnection / 1024, sse.perGb(),
+                sse.fanOutMs, socketIo.bytesPerConnection / 1024, socketIo.directBytesPerConnection / 1024,
+                socketIo.perGb(), socketIo.fanOutMs);
+
+        // Order of magnitude only: tens of KB per connection, not the ~1 MB stack a thread per connection would pin
+        assertThat(sse.bytesPerConnection).isLessThan(256 * 1024);
+        assertThat(socketIo.bytesPerConnection).isLessThan(256 * 1024);
+        assertThat(sse.fanOutMs).isLessThan(30_000);
+        assertThat(socketIo.fanOutMs).isLessThan(30_000);
+    }
+
+    private Result measure(Opener opener, Counter open, Fanout fanout) throws Exception {
+        // Warm-up: class loading, the servers' pools and the first JIT work are not per connection
+        readUntil(opener.open(WARM_UP).values(), "notification-replay");
+        long before = usedHeapAfterGc();
+        long directBefore = usedDirectMemory();
+
+        Map<UUID, Socket> streams = opener.open(CONNECTIONS);
+        readUntil(streams.values(), "notification-replay");
+        long after = usedHeapAfterGc();
+        long directAfter = usedDirectMemory();
+        assertThat(open.count()).isEqualTo(WARM_UP + CONNECTIONS);
+
+        long start = System.nanoTime();
+        fanout.send(streams);
+        readUntil(streams.values(), "new-notification");
+        return new Result((after - before) / CONNECTIONS, (directAfter - directBefore) / CONNECTIONS,
+                (System.nanoTime() - start) / 1_000_000);
+    }
+
+    private Map<UUID, Socket> openSse(int count) throws IOException {
+        Map<UUID, Socket> opened = new HashMap<>();
+        for (int i = 0; i < count; i++) {
+            UUID userId = UUID.randomUUID();
+            Socket socket = connect(port);
+            OutputStream out = socket.getOutputStream();
+            out.write(("GET /stream?user=" + userId + " HTTP/1.1\r\nHost: localhost\r\n"
+                    + "Accept: text/event-stream\r\n\r\n").getBytes(StandardCharsets.US_ASCII));
+            out.flush();
+            opened.put(userId, socket);
+        }
+        return opened;
+    }
+
+    // Engine.IO 3 straight over the websocket transport, then the Socket.IO connect to the namespace
+    private Map<UUID, Socket> openSocketIo(int count) throws IOException {
+        Map<UUID, Socket> opened = new HashMap<>();
+        for (int i = 0; i < count; i++) {
+            UUID userId = UUID.randomUUID();
+            Socket socket = connect(socketIoPort);
+            OutputStream out = socket.getOutputStream();
+            out.write(("GET /socket.io/?EIO=3&transport=websocket&userId=" + userId + " HTTP/1.1\r\n"
+                    + "Host: localhost\r\nUpgrade: websocket\r\nConnection: Upgrade\r\n"
+                    + "Sec-WebSocket-Key: dGhlIHNhbXBsZSBub25jZQ==\r\nSec-WebSocket-Version: 13\r\n\r\n")
+                    .getBytes(StandardCharsets.US_ASCII));
+            out.flush();
+            opened.put(userId, socket);
+        }
+        // The namespace connect is only sent once the upgrade is through and Engine.IO has opened
+        readUntil(opened.values(), "\"sid\"");
+        for (Socket socket : opened.values()) {
+            socket.getOutputStream().write(maskedTextFrame("40" + NAMESPACE));
+            socket.getOutputStream().flush();
+        }
+        return opened;
+    }
+
+    private Socket connect(int serverPort) throws IOException {
+        Socket socket = new Socket("localhost", serverPort);
+        socket.setSoTimeout(30_000);
+        sockets.add(socket);
+        return socket;
+    }
+
+    // Client frames have to be masked; the payloads here are under 126 bytes
+    private static byte[] maskedTextFrame(String text) {
+        byte[] payload = text.getBytes(StandardCharsets.UTF_8);
+        byte[] mask = {0x12, 0x34, 0x56, 0x78};
+        byte[] frame = new byte[6 + payload.length];
+        frame[0] = (byte) 0x81;
+        frame[1] = (byte) (0x80 | payload.length);
+        System.arraycopy(mask, 0, frame, 2, 4);
+        for (int i = 0; i < payload.length; i++) {
+            frame[6 + i] = (byte) (payload[i] ^ mask[i % 4]);
+        }
+        return frame;
+    }
+
+    // Reads each connection until the marker shows up; one that never gets it times out the test
+    private static void readUntil(Iterable<Socket> streams, String marker) throws IOException {
+        byte[] buffer = new byte[4096];
+        for (Socket socket : streams) {
+            InputStream in = socket.getInputStream();
+            StringBuilder seen = new StringBuilder();
+            while (seen.indexOf(marker) < 0) {
+                int read = in.read(buffer);
+                assertThat(read).as("connection closed before %s", marker).isPositive();
+                seen.append(new String(buffer, 0, read, StandardCharsets.ISO_8859_1));
+            }
+        }
+    }
+
+    private static long usedHeapAfterGc() throws InterruptedException {
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+            Thread.sleep(200);
+        }
+        return ManagementFactory.getMemoryMXBean().getHeapMemoryUsage().getUsed();
+    }
+
+    private static long usedDirectMemory() {
+        return ManagementFactory.getPlatformMXBeans(BufferPoolMXBean.class).stream()
+                .filter(pool -> pool.getName().equals("direct"))
+                .mapToLong(BufferPoolMXBean::getMemoryUsed)
+                .sum();
+    }
+
+    private static NotificationReplayResponse emptyReplay() {
+        return NotificationReplayResponse.builder().notifications(List.of()).complete(true).build();
+    }
+
+    private static NotificationResponse notification() {
+        return NotificationResponse.builder()
+                .notificationType(Constants.NotificationTypeEnum.ACCOUNT)
+                .notificationTitle("Load test")
+                .notificationBody("Hello")
+                .eventId("1-0")
+                .build();
+    }
+
+    private interface Opener {
+        Map<UUID, Socket> open(int count) throws IOException;
+    }
+
+    private interface Counter {
+        int count();
+    }
+
+    private interface Fanout {
+        void send(Map<UUID, Socket> streams);
+    }
+
+    private static final class Result {
+        final long bytesPerConnection;
+        final long directBytesPerConnection;
+        final long fanOutMs;
+
+        Result(long bytesPerConnection, long directBytesPerConnection, long fanOutMs) {
+            this.bytesPerConnection = bytesPerConnection;
+            this.directBytesPerConnection = directBytesPerConnection;
+            this.fanOutMs = fanOutMs;
+        }
+
+        long perGb() {
+            return bytesPerConnection > 0 ? 1024 * MB / bytesPerConnection : Long.MAX_VALUE;
+        }
+    }
+}
@@ -0,0 +1,57 @@
+package com.iseeyou.fortunetelling.service.notification.impl;
+
+import com.iseeyou.fortunetelling.dto.response.notification.NotificationReplayResponse;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class NotificationSseServiceImplTest {
+
+    private static final long IDLE_TIMEOUT_MS = 300;
+
+    private NotificationSseServiceImpl sseService;
+
+    @BeforeEach
+    void setUp() {
+        sseService = new NotificationSseServiceImpl(new SimpleMeterRegistry());
+        ReflectionTestUtils.setField(sseService, "maxConnectionMs", 60_000L);
+        ReflectionTestUtils.setField(sseService, "idleTimeoutMs", IDLE_TIMEOUT_MS);
+        ReflectionTestUtils.setField(sseService, "maxQueuedEvents", 16);
+        ReflectionTestUtils.setField(sseService, "maxConnectionsPerUser", 5);
+        ReflectionTestUtils.setField(sseService, "sendThreads", 1);
+        sseService.init();
+    }
+
+    @AfterEach
+    void tearDown() {
+        sseService.shutdown();
+    }
+
+    @Test
+    void connectionReceivingOnlyCountsAndHeartbeatsOutlivesTheIdleTimeout() throws InterruptedException {
+        UUID userId = UUID.randomUUID();
+        SseEmitter emitter = sseService.open(userId, () -> CompletableFuture.completedFuture(
+                NotificationReplayResponse.builder().notifications(List.of()).complete(true).build()));
+
+        // No notification for three idle timeouts, only unread counts and heartbeats being written
+        for (int i = 0; i < 9; i++) {
+            Thread.sleep(IDLE_TIMEOUT_MS / 3);
+            if (i % 2 == 0) {
+                sseService.sendUnreadCountToUser(userId, i);
+            }
+            sseService.heartbeat();
+        }
+
+        // Not initialized by MVC here, so completion shows on the emitter instead of removing the connection
+        assertThat(ReflectionTestUtils.getField(emitter, "complete")).isEqualTo(false);
+    }
+}
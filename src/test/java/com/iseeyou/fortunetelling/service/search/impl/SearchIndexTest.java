@@ -0,0 +1,60 @@
+package com.iseeyou.fortunetelling.service.search.impl;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class SearchIndexTest {
+
+    private final SearchIndex index = new SearchIndex(10, 100_000, Map.of("price", SearchIndex.byPrice()));
+
+    @Test
+    void priceRangeMatchesExactlyWithinAndAcrossBands() {
+        UUID cheap = add("Tarot tình yêu", 150_000.0);
+        UUID middle = add("Tử vi trọn đời", 180_000.0);
+        add("Xem chỉ tay", 420_000.0);
+
+        assertThat(search(160_000.0, 400_000.0)).containsExactly(middle);
+        assertThat(search(null, 200_000.0)).containsExactly(cheap, middle);
+    }
+
+    @Test
+    void minimumAboveMaximumMatchesNothing() {
+        add("Tarot tình yêu", 150_000.0);
+        add("Xem chỉ tay", 420_000.0);
+
+        Page<UUID> page = index.search(query(500_000.0, 100_000.0), PageRequest.of(0, 10));
+
+        assertThat(page.getContent()).isEmpty();
+        assertThat(page.getTotalElements()).isZero();
+        // Same band, still inverted
+        assertThat(search(160_000.0, 150_000.0)).isEmpty();
+    }
+
+    private UUID add(String title, Double price) {
+        SearchIndex.Document document = new SearchIndex.Document();
+        document.id = UUID.randomUUID();
+        document.title = title;
+        document.price = price;
+        index.upsert(document);
+        return document.id;
+    }
+
+    private List<UUID> search(Double minPrice, Double maxPrice) {
+        return index.search(query(minPrice, maxPrice), PageRequest.of(0, 10, Sort.by("price"))).getContent();
+    }
+
+    private static SearchIndex.Query query(Double minPrice, Double maxPrice) {
+        SearchIndex.Query query = new SearchIndex.Query();
+        query.minPrice = minPrice;
+        query.maxPrice = maxPrice;
+        return query;
+    }
+}
@@ -0,0 +1,136 @@
+package com.iseeyou.fortunetelling.service.servicepackage.impl;
+
+import com.iseeyou.fortunetelling.config.AppConfig;
+import com.iseeyou.fortunetelling.config.CloudinaryConfig;
+import com.iseeyou.fortunetelling.dto.response.servicepackage.ServicePackageResponse;
+import com.iseeyou.fortunetelling.mapper.ServicePackageMapper;
+import com.iseeyou.fortunetelling.service.booking.RefundJobService;
+import com.iseeyou.fortunetelling.service.cache.CatalogCacheService;
+import com.iseeyou.fortunetelling.service.moderation.ModerationService;
+import com.iseeyou.fortunetelling.service.search.CatalogSearchService;
+import com.iseeyou.fortunetelling.service.trending.TrendingService;
+import com.iseeyou.fortunetelling.service.user.UserService;
+import com.iseeyou.fortunetelling.service.view.ViewCounterService;
+import com.iseeyou.fortunetelling.support.PostgresDataJpaTest;
+import com.iseeyou.fortunetelling.support.TestData;
+import com.iseeyou.fortunetelling.util.Constants;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.modelmapper.ModelMapper;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * The package listing sends the same statements whatever the page size: every package has its own seer, seer
+ * profile, category and reactions, so any per-row lazy load would show up as a growing count.
+ */
+@PostgresDataJpaTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@Import({ServicePackageServiceImpl.class, PackageEnrichmentLoader.class, ServicePackageMapper.class,
+        PackageListingQueryCountTest.MapperConfig.class})
+class PackageListingQueryCountTest {
+
+    private static final int PACKAGES = 30;
+
+    @TestConfiguration
+    static class MapperConfig {
+        @Bean
+        ModelMapper modelMapper() {
+            return new AppConfig().modelMapper();
+        }
+    }
+
+    @MockitoBean
+    private CloudinaryConfig cloudinaryConfig;
+    @MockitoBean
+    private UserService userService;
+    @MockitoBean
+    private RefundJobService refundJobService;
+    @MockitoBean
+    private ModerationService moderationService;
+    @MockitoBean
+    private ViewCounterService viewCounterService;
+    @MockitoBean
+    private CatalogCacheService catalogCacheService;
+    // Mock answers Optional.empty(): the listing takes the database path
+    @MockitoBean
+    private CatalogSearchService catalogSearchService;
+    @MockitoBean
+    private TrendingService trendingService;
+
+    @Autowired
+    private ServicePackageServiceImpl servicePackageService;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private JdbcTemplate jdbc;
+
+    @BeforeEach
+    void setUp() {
+        TestData data = new TestData(jdbc);
+        LocalDateTime now = LocalDateTime.now();
+        for (int i = 0; i < PACKAGES; i++) {
+            UUID seerId = data.user(Constants.RoleEnum.SEER);
+            jdbc.update("INSERT INTO seer_profile (seer_id, created_at, updated_at, avg_rating, total_rates) " +
+                    "VALUES (?, now(), now(), 4.5, 2)", seerId);
+            UUID packageId = data.servicePackage(seerId, Constants.PackageStatusEnum.AVAILABLE, now.minusMinutes(i));
+            UUID categoryId = UUID.randomUUID();
+            jdbc.update("INSERT INTO knowledge_category (category_id, created_at, updated_at, name) " +
+                    "VALUES (?, now(), now(), ?)", categoryId, "Category " + i);
+            jdbc.update("INSERT INTO package_category (package_category_id, created_at, updated_at, category_id, package_id) " +
+                    "VALUES (gen_random_uuid(), now(), now(), ?, ?)", categoryId, packageId);
+            for (int j = 0; j < 2; j++) {
+                jdbc.update("INSERT INTO package_interaction (package_interaction_id, created_at, updated_at, " +
+                                "interaction_type, package_id, user_id) VALUES (gen_random_uuid(), now(), now(), 'LIKE', ?, ?)",
+                        packageId, data.user(Constants.RoleEnum.CUSTOMER));
+            }
+        }
+    }
+
+    @Test
+    void statementCountDoesNotGrowWithThePageSize() {
+        long small = statementsForPage(2);
+        long large = statementsForPage(PACKAGES);
+
+        assertThat(large).isEqualTo(small);
+        // Page of ids, total count, the hydrated page, latest reactions
+        assertThat(large).isLessThanOrEqualTo(4);
+    }
+
+    private long statementsForPage(int size) {
+        entityManager.clear();
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        Page<ServicePackageResponse> page = servicePackageService.getAllPackagesWithInteractions(
+                PageRequest.of(0, size, Sort.by(Sort.Direction.DESC, "createdAt")), null, null, null, null, null, null);
+
+        // Everything the response exposes is read, so lazy loads happen inside the measurement
+        assertThat(page.getContent()).hasSize(size).allSatisfy(response -> {
+            assertThat(response.getSeer().getAvgRating()).isEqualTo(4.5);
+            assertThat(response.getCategories()).hasSize(1);
+            assertThat(response.getUserInteractions()).hasSize(2);
+        });
+        return statistics.getPrepareStatementCount();
+    }
+}
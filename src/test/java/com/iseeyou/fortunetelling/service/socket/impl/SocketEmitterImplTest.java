@@ -0,0 +1,170 @@
+package com.iseeyou.fortunetelling.service.socket.impl;
+
+import com.corundumstudio.socketio.handler.ClientHead;
+import com.corundumstudio.socketio.namespace.Namespace;
+import com.corundumstudio.socketio.protocol.Packet;
+import com.corundumstudio.socketio.transport.NamespaceClient;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.netty.channel.ChannelFuture;
+import io.netty.util.concurrent.GenericFutureListener;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Water marks at 1000/300 bytes, every event below is 100 bytes by the emitter's estimate.
+ * Write futures only complete when the test says so, like a client that stopped reading.
+ */
+class SocketEmitterImplTest {
+
+    private static final int EVENT_BYTES = 100;
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final NamespaceClient client = mock(NamespaceClient.class);
+    private final List<Packet> sent = new ArrayList<>();
+    private final Deque<Runnable> unflushed = new ArrayDeque<>();
+
+    private SocketEmitterImpl emitter;
+
+    @BeforeEach
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    void setUp() {
+        emitter = new SocketEmitterImpl(new ObjectMapper(), meterRegistry);
+        ReflectionTestUtils.setField(emitter, "highWaterMark", 1000L);
+        ReflectionTestUtils.setField(emitter, "lowWaterMark", 300L);
+        ReflectionTestUtils.setField(emitter, "maxPendingBytes", 2000L);
+        ReflectionTestUtils.setField(emitter, "slowConsumerTimeoutMs", 60_000L);
+
+        ClientHead baseClient = mock(ClientHead.class);
+        Namespace namespace = mock(Namespace.class);
+        when(client.isChannelOpen()).thenReturn(true);
+        when(client.getSessionId()).thenReturn(UUID.randomUUID());
+        when(client.getBaseClient()).thenReturn(baseClient);
+        when(client.getNamespace()).thenReturn(namespace);
+        when(namespace.getName()).thenReturn("/chat");
+        when(baseClient.getPacketsQueue(any())).thenReturn(new ArrayDeque<>());
+        when(baseClient.send(any(Packet.class))).thenAnswer(invocation -> {
+            sent.add(invocation.getArgument(0));
+            ChannelFuture future = mock(ChannelFuture.class);
+            when(future.addListener(any())).thenAnswer(listener -> {
+                GenericFutureListener callback = listener.getArgument(0);
+                unflushed.addLast(() -> {
+                    try {
+                        callback.operationComplete(future);
+                    } catch (Exception e) {
+                        throw new IllegalStateException(e);
+                    }
+                });
+                return future;
+            });
+            return future;
+        });
+    }
+
+    @Test
+    void queuesAboveTheHighWaterMarkAndResumesAtTheLowOne() {
+        for (int i = 0; i < 12; i++) {
+            emitter.emit(client, "message", payload("message", "m" + i));
+        }
+
+        // Ten fill the high water mark, two wait behind it
+        assertThat(sent).hasSize(10);
+        assertThat(gauge("socketio.outbound.buffered.bytes")).isEqualTo(12.0 * EVENT_BYTES);
+        assertThat(gauge("socketio.outbound.congested.clients")).isEqualTo(1.0);
+
+        flush(6);
+        assertThat(sent).as("400 bytes still in flight, above the low water mark").hasSize(10);
+
+        flush(1);
+        assertThat(sent).hasSize(12);
+        assertThat(gauge("socketio.outbound.buffered.bytes")).isEqualTo(5.0 * EVENT_BYTES);
+        assertThat(gauge("socketio.outbound.congested.clients")).isZero();
+    }
+
+    @Test
+    void coalescesEphemeralEventsByKeyAndDropsNewKeysWhileBehind() {
+        for (int i = 0; i < 11; i++) {
+            emitter.emit(client, "message", payload("message", "m" + i));
+        }
+        // 700 in flight + 100 pending: behind, but below the high water mark
+        flush(3);
+
+        emitter.emitEphemeral(client, "typing", "room:a", payload("typing", "a1"));
+        emitter.emitEphemeral(client, "typing", "room:a", payload("typing", "a2"));
+        emitter.emitEphemeral(client, "typing", "room:b", payload("typing", "b1"));
+        emitter.emitEphemeral(client, "typing", "room:c", payload("typing", "c1"));
+
+        assertThat(counter("coalesced")).isEqualTo(1.0);
+        assertThat(counter("dropped")).isEqualTo(1.0);
+
+        flush(unflushed.size());
+        // Reliable first, then the latest state per key
+        assertThat(sent.subList(10, sent.size())).extracting(this::text).containsExactly("m10", "a2", "b1");
+    }
+
+    @Test
+    void disconnectsAClientWhosePendingBytesPassTheCap() {
+        for (int i = 0; i < 31; i++) {
+            emitter.emit(client, "message", payload("message", "m" + i));
+        }
+
+        // 10 written, the 21st pending event takes it past 2000 bytes
+        verify(client).disconnect();
+        assertThat(meterRegistry.get("socketio.outbound.slow_consumer.disconnects").counter().count()).isEqualTo(1.0);
+        assertThat(gauge("socketio.outbound.buffered.bytes")).isZero();
+        assertThat(sent).hasSize(10);
+    }
+
+    @Test
+    void disconnectsAClientCongestedForLongerThanTheTimeout() throws InterruptedException {
+        ReflectionTestUtils.setField(emitter, "slowConsumerTimeoutMs", 50L);
+        for (int i = 0; i < 10; i++) {
+            emitter.emit(client, "message", payload("message", "m" + i));
+        }
+
+        emitter.sweep();
+        verify(client, never()).disconnect();
+
+        Thread.sleep(80);
+        emitter.sweep();
+        verify(client).disconnect();
+        assertThat(gauge("socketio.outbound.congested.clients")).isZero();
+    }
+
+    private void flush(int writes) {
+        for (int i = 0; i < writes; i++) {
+            unflushed.pollFirst().run();
+        }
+    }
+
+    // "m3" padded so that the emitter's estimate (event + 8 + JSON) is exactly EVENT_BYTES
+    private static String payload(String event, String text) {
+        return text + " ".repeat(EVENT_BYTES - event.length() - 8 - 2 - text.length());
+    }
+
+    private String text(Packet packet) {
+        return ((String) ((List<?>) packet.getData()).get(0)).trim();
+    }
+
+    private double gauge(String name) {
+        return meterRegistry.get(name).gauge().value();
+    }
+
+    private double counter(String outcome) {
+        return meterRegistry.get("socketio.outbound.events").tag("outcome", outcome).counter().count();
+    }
+}
@@ -0,0 +1,70 @@
+package com.iseeyou.fortunetelling.support;
+
+import com.iseeyou.fortunetelling.util.Constants;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * Minimal valid rows for repository/service tests, written with plain SQL so a test only sets what it cares about.
+ * Enums are stored as ordinals unless the entity maps them as strings (conversation status/type).
+ */
+public class TestData {
+
+    private final JdbcTemplate jdbc;
+
+    public TestData(JdbcTemplate jdbc) {
+        this.jdbc = jdbc;
+    }
+
+    public UUID user(Constants.RoleEnum role) {
+        UUID id = UUID.randomUUID();
+        jdbc.update("""
+                INSERT INTO "user" (user_id, created_at, updated_at, email, full_name, gender, is_active,
+                                    password_hash, phone, role, status)
+                VALUES (?, now(), now(), ?, ?, 'OTHER', true, 'x', ?, ?, 0)
+                """, id, id + "@test.local", "User " + id.toString().substring(0, 8), id.toString(), role.ordinal());
+        return id;
+    }
+
+    public UUID servicePackage(UUID seerId) {
+        return servicePackage(seerId, Constants.PackageStatusEnum.AVAILABLE, LocalDateTime.now());
+    }
+
+    public UUID servicePackage(UUID seerId, Constants.PackageStatusEnum status, LocalDateTime createdAt) {
+        UUID id = UUID.randomUUID();
+        jdbc.update("""
+                INSERT INTO service_package (package_id, created_at, updated_at, duration_minutes, package_title,
+                                             price, status, seer_id, like_count, dislike_count, comment_count)
+                VALUES (?, ?, now(), 30, ?, 100000, ?, ?, 0, 0, 0)
+                """, id, createdAt, "Package " + id.toString().substring(0, 8), status.ordinal(), seerId);
+        return id;
+    }
+
+    public UUID booking(UUID customerId, UUID packageId, Constants.BookingStatusEnum status) {
+        UUID id = UUID.randomUUID();
+        jdbc.update("""
+                INSERT INTO booking (booking_id, created_at, updated_at, scheduled_time, status, customer_id,
+                                     service_package_id, version)
+                VALUES (?, now(), now(), now(), ?, ?, ?, 0)
+                """, id, status.ordinal(), customerId, packageId);
+        return id;
+    }
+
+    /**
+     * ACTIVE booking session running from {@code startTime} to {@code endTime}; pass null for a customer who never joined.
+     */
+    public UUID activeConversation(UUID bookingId, LocalDateTime startTime, LocalDateTime endTime,
+                                   LocalDateTime customerJoinedAt) {
+        UUID id = UUID.randomUUID();
+        jdbc.update("""
+                INSERT INTO conversation (conversation_id, created_at, updated_at, customer_joined_at,
+                                          extended_minutes, session_duration_minutes, session_start_time,
+                                          session_end_time, status, type, warning_notification_sent, booking_id,
+                                          version)
+                VALUES (?, now(), now(), ?, 0, 30, ?, ?, 'ACTIVE', 'BOOKING_SESSION', false, ?, 0)
+                """, id, customerJoinedAt, startTime, endTime, bookingId);
+        return id;
+    }
+}
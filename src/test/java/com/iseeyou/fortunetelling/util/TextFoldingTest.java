@@ -0,0 +1,41 @@
+package com.iseeyou.fortunetelling.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.text.Normalizer;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class TextFoldingTest {
+
+    @Test
+    void foldsVietnamese() {
+        assertThat(TextFolding.fold("Đồ Ngữ ĐẠI Ý")).isEqualTo("do ngu dai y");
+        assertThat(TextFolding.fold("Tiếng Việt có dấu")).isEqualTo("tieng viet co dau");
+    }
+
+    @Test
+    void lookupTableMatchesNormalizerForEveryChar() {
+        for (int c = 0; c <= Character.MAX_VALUE; c++) {
+            assertThat(TextFolding.foldChar((char) c))
+                    .as("U+%04X", c)
+                    .isEqualTo(viaNormalizer((char) c));
+        }
+    }
+
+    @Test
+    void keepsOneCharPerChar() {
+        String text = "Xin chào 👋 bạn";
+        assertThat(TextFolding.fold(text)).hasSameSizeAs(text);
+    }
+
+    private static char viaNormalizer(char c) {
+        if (c < 0x80) {
+            return Character.toLowerCase(c);
+        }
+        if (c == 'đ' || c == 'Đ') {
+            return 'd';
+        }
+        return Character.toLowerCase(Normalizer.normalize(String.valueOf(c), Normalizer.Form.NFD).charAt(0));
+    }
+}